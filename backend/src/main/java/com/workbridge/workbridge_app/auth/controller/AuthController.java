@@ -10,6 +10,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ import com.workbridge.workbridge_app.auth.dto.LoginRequestDTO;
 import com.workbridge.workbridge_app.auth.dto.RegisterRequestDTO;
 import com.workbridge.workbridge_app.auth.dto.RegisterResponseDTO;
 import com.workbridge.workbridge_app.auth.dto.SessionDTO;
+import com.workbridge.workbridge_app.auth.dto.UsernameAvailabilityDTO;
 import com.workbridge.workbridge_app.auth.exception.InvalidCredentialsException;
 import com.workbridge.workbridge_app.auth.exception.TokenExpiredException;
 import com.workbridge.workbridge_app.auth.exception.TokenVerificationException;
@@ -40,7 +42,7 @@ import jakarta.validation.Valid;
  *
  * <p>This controller provides endpoints for:</p>
  * <ul>
- *   <li>User registration</li>
+ *   <li>User registration and username availability</li>
  *   <li>Email verification and resending verification codes</li>
  *   <liUser login with JWT issuance</li>
  *   <li>Access token refresh</li>
@@ -75,18 +77,36 @@ public class AuthController {
      * Registers a new user account and sends a verification email.
      *
      * @param registerRequest DTO containing username, email, password, and roles
+     * @param request HTTP request (used for the client IP rate limit)
      * @return 201 Created with the user's email
      * @throws UserAlreadyExistsException if username or email already exists
      */
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<RegisterResponseDTO>>
-     register(@Valid @RequestBody RegisterRequestDTO registerRequest) {
+     register(@Valid @RequestBody RegisterRequestDTO registerRequest, HttpServletRequest request) {
         return ResponseFactory.created(
-            authenticationService.register(registerRequest),
+            authenticationService.register(registerRequest, request),
             "User registered successfully."
         );
     }
 
+    /**
+     * Reports whether a username is still free, for live feedback on signup forms.
+     *
+     * <p>Most free usernames are answered from memory without touching the database.</p>
+     *
+     * @param username the username to check
+     * @return 200 OK with the username and its availability
+     */
+    @GetMapping("/username-available")
+    public ResponseEntity<ApiResponse<UsernameAvailabilityDTO>>
+     usernameAvailable(@RequestParam(defaultValue = "") String username) {
+        return ResponseFactory.ok(
+            authenticationService.checkUsernameAvailability(username),
+            "Username availability checked."
+        );
+    }
+
     /**
      * Verifies a user’s email address using the verification code sent to their inbox.
      *
@@ -1,14 +1,17 @@
 package com.workbridge.workbridge_app.auth.controller;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import com.workbridge.workbridge_app.auth.exception.AuthenticationBusyException;
 import com.workbridge.workbridge_app.auth.exception.InvalidCredentialsException;
 import com.workbridge.workbridge_app.auth.exception.InvalidTokenException;
 import com.workbridge.workbridge_app.auth.exception.TokenExpiredException;
 import com.workbridge.workbridge_app.auth.exception.TokenVerificationException;
+import com.workbridge.workbridge_app.auth.exception.TooManyAttemptsException;
 import com.workbridge.workbridge_app.auth.exception.UserAlreadyExistsException;
 import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
 import com.workbridge.workbridge_app.common.response.ErrorResponse;
@@ -30,6 +33,8 @@ import lombok.extern.slf4j.Slf4j;
  *   <li>{@link InvalidCredentialsException} - Returns 401 UNAUTHORIZED for invalid login</li>
  *   <li>{@link TokenVerificationException}, {@link TokenExpiredException} - Returns 400 BAD REQUEST for token issues</li>
  *   <li>{@link IllegalArgumentException} - Returns 400 BAD REQUEST for invalid arguments</li>
+ *   <li>{@link TooManyAttemptsException} - Returns 429 TOO MANY REQUESTS when an attempt limit is hit</li>
+ *   <li>{@link AuthenticationBusyException} - Returns 503 SERVICE UNAVAILABLE when password hashing is saturated</li>
  * </ul>
  *
  * <p>All exceptions are logged using SLF4J for audit and debugging purposes.</p>
@@ -129,4 +134,45 @@ public class AuthExceptionHandler {
             request
         );
     }
+
+    /**
+     * Handles clients or accounts over their attempt rate limit.
+     *
+     * @param ex      the thrown TooManyAttemptsException
+     * @param request the HTTP request for extracting the URI
+     * @return 429 TOO MANY REQUESTS with a {@code Retry-After} header
+     */
+    @ExceptionHandler(TooManyAttemptsException.class)
+    public ResponseEntity<ErrorResponse> tooManyAttempts(
+        TooManyAttemptsException ex,
+        HttpServletRequest request) {
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return withRetryAfter(
+            ResponseFactory.error(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request),
+            retryAfterSeconds
+        );
+    }
+
+    /**
+     * Handles saturation of the password hashing pool.
+     *
+     * @param ex      the thrown AuthenticationBusyException
+     * @param request the HTTP request for extracting the URI
+     * @return 503 SERVICE UNAVAILABLE with a {@code Retry-After} header
+     */
+    @ExceptionHandler(AuthenticationBusyException.class)
+    public ResponseEntity<ErrorResponse> authenticationBusy(
+        AuthenticationBusyException ex,
+        HttpServletRequest request) {
+        return withRetryAfter(
+            ResponseFactory.error(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request),
+            1
+        );
+    }
+
+    private static ResponseEntity<ErrorResponse> withRetryAfter(ResponseEntity<ErrorResponse> response, long seconds) {
+        return ResponseEntity.status(response.getStatusCode())
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+            .body(response.getBody());
+    }
 }
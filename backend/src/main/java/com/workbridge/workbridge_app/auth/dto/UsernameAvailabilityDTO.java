@@ -0,0 +1,13 @@
+package com.workbridge.workbridge_app.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UsernameAvailabilityDTO {
+    private String username;
+    private boolean available;
+}
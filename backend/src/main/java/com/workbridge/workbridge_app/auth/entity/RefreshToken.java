@@ -1,23 +1,42 @@
 package com.workbridge.workbridge_app.auth.entity;
 
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+/**
+ * A refresh token session. Only the SHA-256 hash of the token is stored; the raw value is
+ * handed to the client once, when the token is issued.
+ * <p>
+ * Every token created by rotating another one shares its {@code familyId}, so presenting a
+ * token that was already rotated away can revoke the whole session.
+ */
 @Entity
+@Table(name = "refresh_token", indexes = {
+    @Index(name = "ux_refresh_token_token_hash", columnList = "token_hash", unique = true),
+    @Index(name = "ix_refresh_token_family_id", columnList = "family_id"),
+    @Index(name = "ix_refresh_token_user_id", columnList = "user_id"),
+    @Index(name = "ix_refresh_token_expires_at", columnList = "expires_at"),
+    @Index(name = "ix_refresh_token_revoked_at", columnList = "revoked_at")
+})
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -27,8 +46,25 @@ public class RefreshToken {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * The raw token, only set on the instance returned when the token is issued.
+     */
+    @Transient
     private String token;
 
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "family_id")
+    private UUID familyId;
+
+    /**
+     * The {@code jti} of the access token issued alongside this token, so ending the session
+     * can revoke that access token too.
+     */
+    @Column(name = "access_token_id", length = 36)
+    private String accessTokenId;
+
     private String ip;
 
     private String userAgent;
@@ -39,6 +75,8 @@ public class RefreshToken {
 
     private boolean revoked;
 
+    private LocalDateTime revokedAt;
+
     @ManyToOne(fetch = FetchType.LAZY, optional = false)
     @JoinColumn(name = "user_id")
     private ApplicationUser user;
@@ -0,0 +1,37 @@
+package com.workbridge.workbridge_app.auth.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An access token revoked before its expiry, identified by its {@code jti}. Rows are only
+ * needed until the token would have expired anyway.
+ */
+@Entity
+@Table(name = "revoked_access_token",
+       indexes = @Index(name = "ix_revoked_access_token_expires_at", columnList = "expires_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class RevokedAccessToken {
+
+    @Id
+    @Column(name = "token_id", length = 36)
+    private String tokenId;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private Instant revokedAt;
+}
@@ -2,10 +2,13 @@ package com.workbridge.workbridge_app.auth.entity;
 
 import java.time.LocalDateTime;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -14,6 +17,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 @NoArgsConstructor
 @Entity
+@Table(name = "verification_token", indexes = {
+    @Index(name = "ix_verification_token_expires_at", columnList = "expires_at"),
+    @Index(name = "ux_verification_token_email", columnList = "email", unique = true)
+})
 public class VerificationToken {
 
     @Id
@@ -22,15 +29,17 @@ public class VerificationToken {
 
     private String email;
 
-    private String code;
+    /** HMAC-SHA256 of the code, hex encoded; the code itself is only ever in the email. */
+    @Column(length = 64)
+    private String codeHash;
 
     private LocalDateTime expiresAt;
 
     private boolean verified = false;
 
-    public VerificationToken(String email, String code, LocalDateTime expiresAt) {
+    public VerificationToken(String email, String codeHash, LocalDateTime expiresAt) {
         this.email = email;
-        this.code = code;
+        this.codeHash = codeHash;
         this.expiresAt = expiresAt;
         this.verified = false;
     }
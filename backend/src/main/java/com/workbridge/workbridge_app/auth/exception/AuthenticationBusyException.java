@@ -0,0 +1,10 @@
+package com.workbridge.workbridge_app.auth.exception;
+
+/**
+ * Thrown when password hashing capacity is exhausted and the request cannot be served in time.
+ */
+public class AuthenticationBusyException extends RuntimeException {
+    public AuthenticationBusyException(String message) {
+        super(message);
+    }
+}
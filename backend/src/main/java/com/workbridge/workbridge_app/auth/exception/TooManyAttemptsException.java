@@ -0,0 +1,19 @@
+package com.workbridge.workbridge_app.auth.exception;
+
+import java.time.Duration;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a client or account exceeds its authentication attempt rate.
+ */
+@Getter
+public class TooManyAttemptsException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public TooManyAttemptsException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,11 @@
+package com.workbridge.workbridge_app.auth.projection;
+
+import java.util.UUID;
+
+/**
+ * Columns returned by the rotation {@code UPDATE ... RETURNING} for the token it revoked.
+ */
+public interface RotatedRefreshToken {
+    Long getUserId();
+    UUID getFamilyId();
+}
@@ -1,6 +1,8 @@
 package com.workbridge.workbridge_app.auth.repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -8,20 +10,58 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.workbridge.workbridge_app.auth.entity.RefreshToken;
+import com.workbridge.workbridge_app.auth.projection.RotatedRefreshToken;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
-    Optional<RefreshToken> findByToken(String token);
 
-    @Query("SELECT rt FROM RefreshToken rt JOIN FETCH rt.user WHERE rt.token = :token")
-    Optional<RefreshToken> findByTokenWithUser(@Param("token") String token);
-    
+    /**
+     * Revokes the token if it is still active and returns its owner and family, in a single
+     * statement on the unique {@code token_hash} index. Concurrent rotations of the same token
+     * serialize on the row lock, so at most one of them gets a row back.
+     */
+    @Query(value = "UPDATE refresh_token SET revoked = true, revoked_at = :now "
+                 + "WHERE token_hash = :tokenHash AND NOT revoked AND expires_at > :now "
+                 + "RETURNING user_id AS \"userId\", family_id AS \"familyId\"",
+           nativeQuery = true)
+    Optional<RotatedRefreshToken> revokeActiveByTokenHash(@Param("tokenHash") String tokenHash,
+                                                          @Param("now") LocalDateTime now);
+
+    @Query("SELECT rt.familyId FROM RefreshToken rt WHERE rt.tokenHash = :tokenHash AND rt.revoked = true")
+    Optional<UUID> findFamilyIdOfRevokedToken(@Param("tokenHash") String tokenHash);
+
+    @Modifying
+    @Query("UPDATE RefreshToken rt SET rt.revoked = true, rt.revokedAt = :now "
+         + "WHERE rt.familyId = :familyId AND rt.revoked = false")
+    int revokeFamily(@Param("familyId") UUID familyId, @Param("now") LocalDateTime now);
+
     Page<RefreshToken> findAllByUserId(Pageable pageable, Long userId);
 
     @Modifying
     @Query("DELETE FROM RefreshToken t WHERE t.user.id = :userId")
     void deleteByUserId(@Param("userId") Long userId);
-    void deleteByToken(String token);
-    boolean existsByToken(String token);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.tokenHash = :tokenHash")
+    void deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    /**
+     * Deletes at most {@code limit} tokens that are expired, were revoked before
+     * {@code revokedBefore}, or predate token hashing, in its own transaction. Rows locked by a
+     * concurrent rotation are skipped rather than waited for.
+     *
+     * @return number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM refresh_token WHERE id IN ("
+                 + "SELECT id FROM refresh_token "
+                 + "WHERE expires_at < :now OR revoked_at < :revokedBefore OR token_hash IS NULL "
+                 + "LIMIT :limit FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deletePurgeableBatch(@Param("now") LocalDateTime now,
+                             @Param("revokedBefore") LocalDateTime revokedBefore,
+                             @Param("limit") int limit);
 }
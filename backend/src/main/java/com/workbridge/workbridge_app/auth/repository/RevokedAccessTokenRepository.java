@@ -0,0 +1,61 @@
+package com.workbridge.workbridge_app.auth.repository;
+
+import java.time.Instant;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.workbridge.workbridge_app.auth.entity.RevokedAccessToken;
+import com.workbridge.workbridge_app.common.util.EntityStreams;
+
+import jakarta.persistence.QueryHint;
+
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, String> {
+
+    /**
+     * Records a revocation; revoking the same token twice is a no-op. Commits on its own so a
+     * concurrent filter rebuild sees the row even if the caller's transaction runs on.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Modifying
+    @Query(value = "INSERT INTO revoked_access_token (token_id, expires_at, revoked_at) "
+                 + "VALUES (:tokenId, :expiresAt, :revokedAt) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("tokenId") String tokenId,
+                       @Param("expiresAt") Instant expiresAt,
+                       @Param("revokedAt") Instant revokedAt);
+
+    /**
+     * IDs of revoked tokens that have not expired yet, read through a cursor. Must be consumed
+     * inside a transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t.tokenId FROM RevokedAccessToken t WHERE t.expiresAt > :now")
+    Stream<String> streamActiveTokenIds(@Param("now") Instant now);
+
+    @Query("SELECT COUNT(t) FROM RevokedAccessToken t WHERE t.expiresAt > :now")
+    long countActive(@Param("now") Instant now);
+
+    /**
+     * Deletes at most {@code limit} revocations of tokens that have expired, in its own transaction.
+     *
+     * @return number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM revoked_access_token WHERE token_id IN ("
+                 + "SELECT token_id FROM revoked_access_token WHERE expires_at < :now "
+                 + "LIMIT :limit FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") Instant now, @Param("limit") int limit);
+}
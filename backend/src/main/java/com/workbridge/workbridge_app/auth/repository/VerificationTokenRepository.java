@@ -4,11 +4,36 @@ import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.workbridge.workbridge_app.auth.entity.VerificationToken;
 
 public interface VerificationTokenRepository extends JpaRepository<VerificationToken, Long> {
     Optional<VerificationToken> findByEmail(String email);
-    void deleteByEmail(String email);
-    void deleteByExpiresAtBefore(LocalDateTime time);
+
+    /**
+     * Deletes the email's token with a single statement, right away rather than at the next flush,
+     * so a new token for the same email can be inserted in the same transaction.
+     *
+     * @return number of rows deleted
+     */
+    @Modifying
+    @Query("DELETE FROM VerificationToken t WHERE t.email = :email")
+    int deleteByEmail(@Param("email") String email);
+
+    /**
+     * Deletes at most {@code limit} tokens that expired before {@code now}, in its own transaction.
+     *
+     * @return number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM verification_token WHERE id IN ("
+                 + "SELECT id FROM verification_token WHERE expires_at < :now "
+                 + "LIMIT :limit FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deleteExpiredBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
\ No newline at end of file
@@ -1,15 +1,17 @@
 package com.workbridge.workbridge_app.auth.service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.workbridge.workbridge_app.auth.dto.AuthenticationResponseDTO;
 import com.workbridge.workbridge_app.auth.dto.EmailVerificationDTO;
@@ -17,24 +19,32 @@ import com.workbridge.workbridge_app.auth.dto.LoginRequestDTO;
 import com.workbridge.workbridge_app.auth.dto.RegisterRequestDTO;
 import com.workbridge.workbridge_app.auth.dto.RegisterResponseDTO;
 import com.workbridge.workbridge_app.auth.dto.SessionDTO;
+import com.workbridge.workbridge_app.auth.dto.UsernameAvailabilityDTO;
 import com.workbridge.workbridge_app.auth.entity.RefreshToken;
+import com.workbridge.workbridge_app.auth.exception.AuthenticationBusyException;
 import com.workbridge.workbridge_app.auth.exception.InvalidCredentialsException;
 import com.workbridge.workbridge_app.auth.exception.InvalidTokenException;
 import com.workbridge.workbridge_app.auth.exception.TokenExpiredException;
 import com.workbridge.workbridge_app.auth.exception.TokenVerificationException;
+import com.workbridge.workbridge_app.auth.exception.TooManyAttemptsException;
 import com.workbridge.workbridge_app.auth.exception.UserAlreadyExistsException;
 import com.workbridge.workbridge_app.auth.mapper.SessionMapper;
 import com.workbridge.workbridge_app.auth.util.CookieUtil;
 import com.workbridge.workbridge_app.auth.util.CookieUtil.TokenType;
+import com.workbridge.workbridge_app.security.AccessTokenRevocationList;
+import com.workbridge.workbridge_app.security.JwtClaims;
 import com.workbridge.workbridge_app.security.JwtService;
+import com.workbridge.workbridge_app.security.UserAuthStateCache;
 import com.workbridge.workbridge_app.security.SecurityUtil;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 import com.workbridge.workbridge_app.user.entity.UserRole;
 import com.workbridge.workbridge_app.user.entity.UserRoleEntity;
 import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
 import com.workbridge.workbridge_app.user.repository.UserRepository;
-import com.workbridge.workbridge_app.user.repository.UserRoleRepository;
+import com.workbridge.workbridge_app.user.service.RoleRegistry;
+import com.workbridge.workbridge_app.user.service.UserIdentifierFilter;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -60,6 +70,8 @@ import lombok.extern.slf4j.Slf4j;
  *   <li>{@link VerificationService} – for email verification logic</li>
  *   <li>{@link JwtService} – for generating access tokens</li>
  *   <li>{@link RefreshTokenService} – for refresh token lifecycle management</li>
+ *   <li>{@link PasswordHashingService} – for password hashing off the request threads</li>
+ *   <li>{@link LoginRateLimiter} – for per-IP and per-email attempt limits</li>
  *   <li>{@link CookieUtil} – for secure cookie handling</li>
  *   <li>{@link SessionMapper} – for transforming session entities to DTOs</li>
  * </ul>
@@ -76,38 +88,60 @@ public class AuthenticationService {
     private static final String REFRESH_COOKIE = CookieUtil.REFRESH_TOKEN_COOKIE;
 
     private final UserRepository userRepository;
-    private final UserRoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final RoleRegistry roleRegistry;
+    private final UserIdentifierFilter userIdentifierFilter;
+    private final PasswordHashingService passwordHashingService;
+    private final LoginRateLimiter loginRateLimiter;
+    private final TransactionTemplate transactionTemplate;
     private final JwtService jwtService;
     private final VerificationService verificationService;
     private final RefreshTokenService refreshTokenService;
     private final CookieUtil cookieUtil;
     private final SessionMapper sessionMapper;
+    private final UserAuthStateCache userAuthStateCache;
+    private final AccessTokenRevocationList accessTokenRevocationList;
 
    /**
      * Registers a new user account.
      *
      * <p>This method performs the following steps:
      * <ol>
-     *   <li>Validates that the username and email are not already taken</li>
+     *   <li>Checks the client's registration rate limit</li>
+     *   <li>Validates that the username and email are not already taken, mostly without a query
+     *       (see {@link UserIdentifierFilter})</li>
+     *   <li>Hashes the password, outside any transaction so no connection is held meanwhile</li>
      *   <li>Creates a new {@link ApplicationUser} with encoded password and default disabled status</li>
      *   <li>Assigns user roles</li>
      *   <li>Sends a verification email to the user</li>
      * </ol>
      *
      * @param registerRequestDTO DTO containing the user's registration data
+     * @param request the HTTP request, used for the client IP
      * @return a response containing the user's email
      * @throws UserAlreadyExistsException if the username or email is already in use
+     * @throws TooManyAttemptsException if the client IP is over its rate limit
+     * @throws AuthenticationBusyException if password hashing capacity is exhausted
      */
-    @Transactional
-    public RegisterResponseDTO register(RegisterRequestDTO registerRequestDTO) {
+    public RegisterResponseDTO register(RegisterRequestDTO registerRequestDTO, HttpServletRequest request) {
         log.debug("Attempting to register user with email: {}", registerRequestDTO.getEmail());
 
+        loginRateLimiter.checkRegistration(request.getRemoteAddr());
         validateUniqueUser(registerRequestDTO);
-
-        ApplicationUser user = createUser(registerRequestDTO);
-        userRepository.save(user);
-        verificationService.createAndSendVerificationToken(user);
+        String passwordHash = passwordHashingService.encode(registerRequestDTO.getPassword());
+
+        ApplicationUser user;
+        try {
+            user = transactionTemplate.execute(status -> {
+                ApplicationUser created = createUser(registerRequestDTO, passwordHash);
+                userRepository.save(created);
+                verificationService.createAndSendVerificationToken(created);
+                return created;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent signup; the unique indexes are the final word
+            throw toUserAlreadyExists(e);
+        }
+        userIdentifierFilter.add(user.getUsername(), user.getEmail());
 
         log.info("User registered successfully: {}", user.getEmail());
         return new RegisterResponseDTO(user.getEmail());
@@ -134,6 +168,7 @@ public class AuthenticationService {
         ApplicationUser user = findUserByEmailOrThrow(emailVerificationDTO.getEmail());
         user.setEnabled(true);
         userRepository.save(user);
+        userAuthStateCache.invalidate(user.getId());
 
         log.info("Email verified successfully for user: {}", user.getEmail());
         return buildAuthenticationResponse(user);
@@ -171,6 +206,7 @@ public class AuthenticationService {
      *
      * <p>The method checks:
      * <ul>
+     *   <li>That neither the client IP nor the email is over its attempt rate limit</li>
      *   <li>That the email exists in the system</li>
      *   <li>That the password is correct</li>
      *   <li>That the user account is enabled</li>
@@ -182,21 +218,25 @@ public class AuthenticationService {
      * @return an {@link AuthenticationResponseDTO} with the  user details
      * @throws InvalidCredentialsException if credentials are invalid
      * @throws UserNotFoundException if the account is not verified
+     * @throws TooManyAttemptsException if the client IP or email is over its rate limit
+     * @throws AuthenticationBusyException if password hashing capacity is exhausted
      */
-    @Transactional
+    // Not transactional: no connection should be held while waiting for the password check
     public AuthenticationResponseDTO login(
         LoginRequestDTO loginRequestDTO,
         HttpServletRequest request,
         HttpServletResponse response) {
         log.debug("User attempting login with email: {}", loginRequestDTO.getEmail());
 
+        loginRateLimiter.checkLogin(request.getRemoteAddr(), loginRequestDTO.getEmail());
+
         ApplicationUser user = userRepository.findByEmail(loginRequestDTO.getEmail())
             .orElseThrow(() -> {
                 log.warn("Login failed: user not found - {}", loginRequestDTO.getEmail());
                 return new InvalidCredentialsException("Invalid credentials");
             });
 
-        if (!passwordEncoder.matches(loginRequestDTO.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(loginRequestDTO.getPassword(), user.getPassword())) {
             log.warn("Login failed: invalid password for email - {}", loginRequestDTO.getEmail());
             throw new InvalidCredentialsException("Invalid credentials");
         }
@@ -215,8 +255,9 @@ public class AuthenticationService {
     /**
      * Refreshes the user's access token using a valid refresh token from the HTTP cookie.
      *
-     * <p>If the refresh token is valid and not expired, new tokens (access and refresh)
-     * are issued and stored in cookies.
+     * <p>The refresh token is rotated: the presented token is revoked and new tokens (access
+     * and refresh) are issued and stored in cookies. Presenting a token that was already
+     * rotated revokes its whole session.
      *
      * @param request the HTTP request containing the refresh token cookie
      * @param response the HTTP response where new cookies will be set
@@ -225,23 +266,27 @@ public class AuthenticationService {
     public void refreshAccessToken(HttpServletRequest request, HttpServletResponse response) {
         String token = cookieUtil.extractTokenFromCookie(request, REFRESH_COOKIE);
 
-        if (token == null || !refreshTokenService.isTokenValid(token)) {
+        RefreshToken rotated;
+        try {
+            rotated = refreshTokenService.rotateRefreshToken(token, JwtService.newTokenId(), request);
+        } catch (InvalidTokenException ex) {
             log.warn("Invalid refresh token in refresh request");
             cookieUtil.clearCookie(response, ACCESS_COOKIE);
             cookieUtil.clearCookie(response, REFRESH_COOKIE);
             throw new InvalidTokenException("Invalid or expired refresh token");
         }
 
-        ApplicationUser user = refreshTokenService.getUserFromToken(token);
-        issueTokens(user, response, request);
+        ApplicationUser user = rotated.getUser();
+        setTokenCookies(user, rotated, response);
 
         log.info("Refreshed tokens for user: {}", user.getId());
     }
 
     /**
-     * Logs out the current user by revoking their refresh token and clearing authentication cookies.
+     * Logs out the current user by revoking their refresh and access tokens and clearing
+     * authentication cookies.
      *
-     * @param request the HTTP request containing the refresh token cookie
+     * @param request the HTTP request containing the token cookies
      * @param response the HTTP response used to clear the cookies
      */
     @Transactional
@@ -250,6 +295,10 @@ public class AuthenticationService {
         if (refreshToken != null) {
             refreshTokenService.deleteByToken(refreshToken);
         }
+        String accessToken = cookieUtil.extractTokenFromCookie(request, ACCESS_COOKIE);
+        if (accessToken != null) {
+            revokeAccessToken(accessToken);
+        }
         cookieUtil.clearCookie(response, CookieUtil.ACCESS_TOKEN_COOKIE);
         cookieUtil.clearCookie(response, CookieUtil.REFRESH_TOKEN_COOKIE);
         log.info("User logged out.");
@@ -290,11 +339,28 @@ public class AuthenticationService {
             throw new InvalidTokenException("You are not authorized to invalidate this session.");
         }
 
-        refreshTokenService.deleteByToken(token.getToken());
+        refreshTokenService.deleteByTokenId(token.getId());
+        // The access token's exact expiry is not stored; its lifetime from now is an upper bound
+        accessTokenRevocationList.revoke(token.getAccessTokenId(),
+            Instant.now().plusMillis(jwtService.getExpirationMs()));
         log.info("Session invalidated for token: {}", tokenId);
     }
 
 
+    /**
+     * Checks whether a username can still be registered.
+     *
+     * @param username the username to check
+     * @return a DTO echoing the username and whether it is available
+     * @throws IllegalArgumentException if the username is blank
+     */
+    public UsernameAvailabilityDTO checkUsernameAvailability(String username) {
+        if (username.isBlank()) {
+            throw new IllegalArgumentException("Username is required");
+        }
+        return new UsernameAvailabilityDTO(username, !userIdentifierFilter.isUsernameTaken(username));
+    }
+
     /**
      * Validates whether the given username and email are unique.
      *
@@ -302,16 +368,29 @@ public class AuthenticationService {
      * @throws UserAlreadyExistsException if the username or email is already taken
      */
     private void validateUniqueUser(RegisterRequestDTO request) {
-        if (userRepository.existsByUsername(request.getUsername())) {
+        if (userIdentifierFilter.isUsernameTaken(request.getUsername())) {
             log.warn("Username taken: {}", request.getUsername());
             throw new UserAlreadyExistsException("Username is already taken");
         }
-        if (userRepository.existsByEmail(request.getEmail())) {
+        if (userIdentifierFilter.isEmailTaken(request.getEmail())) {
             log.warn("Email in use: {}", request.getEmail());
             throw new UserAlreadyExistsException("Email is already in use");
         }
     }
 
+    private RuntimeException toUserAlreadyExists(DataIntegrityViolationException e) {
+        String cause = String.valueOf(e.getMostSpecificCause().getMessage());
+        if (cause.contains(UserIdentifierFilter.USERNAME_INDEX)) {
+            log.warn("Username taken concurrently");
+            return new UserAlreadyExistsException("Username is already taken");
+        }
+        if (cause.contains(UserIdentifierFilter.EMAIL_INDEX)) {
+            log.warn("Email taken concurrently");
+            return new UserAlreadyExistsException("Email is already in use");
+        }
+        return e;
+    }
+
     /**
      * Creates a new {@link ApplicationUser} entity from the registration request.
      *
@@ -324,10 +403,11 @@ public class AuthenticationService {
      * </ul>
      *
      * @param request the registration request
+     * @param passwordHash the already encoded password
      * @return the created {@link ApplicationUser} instance
      * @throws IllegalArgumentException if a provided role is invalid
      */
-    private ApplicationUser createUser(RegisterRequestDTO request) {
+    private ApplicationUser createUser(RegisterRequestDTO request, String passwordHash) {
         log.debug("Creating user with username: {}, roles: {}", request.getUsername(), request.getRoles());
 
         Set<UserRoleEntity> roles = resolveRoles(request.getRoles());
@@ -335,7 +415,7 @@ public class AuthenticationService {
         return ApplicationUser.builder()
             .username(request.getUsername())
             .email(request.getEmail())
-            .password(passwordEncoder.encode(request.getPassword()))
+            .password(passwordHash)
             .enabled(false)
             .createdAt(LocalDateTime.now())
             .updatedAt(LocalDateTime.now())
@@ -346,24 +426,23 @@ public class AuthenticationService {
     /**
      * Resolves a list of role names (as strings) into corresponding {@link UserRoleEntity} objects.
      *
-     * <p>This method:
-     * <ul>
-     *   <li>Converts each role name to uppercase and maps it to the corresponding {@link UserRole} enum</li>
-     *   <li>Fetches the matching {@link UserRoleEntity} from the repository</li>
-     *   <li>Throws an {@link IllegalArgumentException} if any role is invalid or not found</li>
-     * </ul>
+     * <p>Role names are matched case-insensitively against {@link UserRole} and looked up in the
+     * {@link RoleRegistry}, which is loaded once at startup, so no query is issued.
      *
      * @param roleNames A set of role names provided by the user (e.g., "user", "service_provider")
      * @return A set of resolved {@link UserRoleEntity} objects
-     * @throws IllegalArgumentException if any role name is not valid or not present in the database
+     * @throws IllegalArgumentException if any role name is not valid
      */
     private Set<UserRoleEntity> resolveRoles(List<String> roleNames) {
         return roleNames.stream()
-            .map(role -> roleRepository.findByRole(UserRole.valueOf(role.toUpperCase()))
-                .orElseThrow(() -> {
+            .map(role -> {
+                try {
+                    return roleRegistry.resolve(role);
+                } catch (IllegalArgumentException e) {
                     log.warn("Invalid role provided: {}", role);
-                    return new IllegalArgumentException("Invalid role: " + role);
-                }))
+                    throw e;
+                }
+            })
             .collect(Collectors.toSet());
     }
 
@@ -378,11 +457,30 @@ public class AuthenticationService {
      * @param request the HTTP request used for IP and user agent info
      */
     private void issueTokens(ApplicationUser user, HttpServletResponse response, HttpServletRequest request) {
-        String accessToken = jwtService.generateToken(user);
-        String refreshToken = refreshTokenService.createRefreshToken(user, request).getToken();
+        RefreshToken refreshToken = refreshTokenService.createRefreshToken(user, JwtService.newTokenId(), request);
+        setTokenCookies(user, refreshToken, response);
+    }
+
+    /**
+     * Issues the access token recorded on {@code refreshToken} and sets both cookies.
+     */
+    private void setTokenCookies(ApplicationUser user, RefreshToken refreshToken, HttpServletResponse response) {
+        String accessToken = jwtService.generateToken(user, refreshToken.getAccessTokenId());
 
         cookieUtil.setTokenCookie(response, ACCESS_COOKIE , accessToken, TokenType.ACCESS);
-        cookieUtil.setTokenCookie(response, REFRESH_COOKIE, refreshToken, TokenType.REFRESH);
+        cookieUtil.setTokenCookie(response, REFRESH_COOKIE, refreshToken.getToken(), TokenType.REFRESH);
+    }
+
+    /**
+     * Revokes a still-valid access token; expired or invalid tokens need no revocation.
+     */
+    private void revokeAccessToken(String accessToken) {
+        try {
+            JwtClaims claims = jwtService.verify(accessToken);
+            accessTokenRevocationList.revoke(claims.tokenId(), claims.expiresAt());
+        } catch (JwtException ex) {
+            log.debug("Access token presented at logout is no longer valid: {}", ex.getMessage());
+        }
     }
 
     /**
@@ -0,0 +1,140 @@
+package com.workbridge.workbridge_app.auth.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import com.workbridge.workbridge_app.auth.exception.AuthenticationBusyException;
+import com.workbridge.workbridge_app.config.PasswordHashingProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs password hashing ({@link PasswordEncoder#encode} and {@link PasswordEncoder#matches}) on
+ * a dedicated pool sized to the CPU, instead of on request threads.
+ * <p>
+ * BCrypt is deliberately slow, so a burst of logins could otherwise occupy every core and starve
+ * unrelated endpoints. Here at most {@code auth.hashing.threads} hashes run at once and at most
+ * {@code auth.hashing.queue-capacity} wait; anything beyond that, or anything not finished
+ * within {@code auth.hashing.max-wait}, fails fast with {@link AuthenticationBusyException}.
+ * <p>
+ * Publishes:
+ * <ul>
+ *   <li>{@code auth.hashing.queue.time} – time a hash waited for a thread</li>
+ *   <li>{@code auth.hashing.duration} – time spent hashing</li>
+ *   <li>{@code auth.hashing.queue.depth} – hashes currently waiting</li>
+ *   <li>{@code auth.hashing.rejected} – hashes refused, tagged {@code reason=queue_full|timeout}</li>
+ * </ul>
+ */
+@Slf4j
+@Service
+public class PasswordHashingService {
+
+    private static final String BUSY_MESSAGE = "Authentication is temporarily overloaded. Please retry shortly.";
+
+    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Timer queueTime;
+    private final Timer hashTime;
+    private final Counter queueFullRejections;
+    private final Counter timeoutRejections;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  PasswordHashingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.properties = properties;
+        int threads = properties.resolvedThreads();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("password-hash-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()), threadFactory,
+            new ThreadPoolExecutor.AbortPolicy());
+
+        this.queueTime = Timer.builder("auth.hashing.queue.time")
+            .description("Time a password hash waited for a hashing thread")
+            .register(meterRegistry);
+        this.hashTime = Timer.builder("auth.hashing.duration")
+            .description("Time spent hashing or checking a password")
+            .register(meterRegistry);
+        this.queueFullRejections = Counter.builder("auth.hashing.rejected")
+            .tag("reason", "queue_full")
+            .description("Password hashes refused because the hashing queue was full")
+            .register(meterRegistry);
+        this.timeoutRejections = Counter.builder("auth.hashing.rejected")
+            .tag("reason", "timeout")
+            .description("Password hashes abandoned because they did not finish in time")
+            .register(meterRegistry);
+        Gauge.builder("auth.hashing.queue.depth", executor, e -> e.getQueue().size())
+            .description("Password hashes waiting for a hashing thread")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @throws AuthenticationBusyException if hashing capacity is exhausted
+     */
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * @throws AuthenticationBusyException if hashing capacity is exhausted
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T run(Callable<T> hash) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueTime.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+                return hashTime.recordCallable(hash);
+            });
+        } catch (RejectedExecutionException ex) {
+            queueFullRejections.increment();
+            log.warn("Password hashing queue full ({} waiting), rejecting request", executor.getQueue().size());
+            throw new AuthenticationBusyException(BUSY_MESSAGE);
+        }
+
+        long remaining = properties.getMaxWait().toNanos() - (System.nanoTime() - submittedAt);
+        try {
+            return future.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            timeoutRejections.increment();
+            log.warn("Password hashing did not finish within {}, rejecting request", properties.getMaxWait());
+            throw new AuthenticationBusyException(BUSY_MESSAGE);
+        } catch (InterruptedException ex) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthenticationBusyException(BUSY_MESSAGE);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Password hashing failed", ex.getCause());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
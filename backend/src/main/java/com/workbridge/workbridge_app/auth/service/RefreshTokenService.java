@@ -1,6 +1,12 @@
 package com.workbridge.workbridge_app.auth.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,24 +17,27 @@ import org.springframework.stereotype.Service;
 
 import com.workbridge.workbridge_app.auth.entity.RefreshToken;
 import com.workbridge.workbridge_app.auth.exception.InvalidTokenException;
+import com.workbridge.workbridge_app.auth.projection.RotatedRefreshToken;
 import com.workbridge.workbridge_app.auth.repository.RefreshTokenRepository;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
 /**
  * Service responsible for managing refresh tokens, including:
  * <ul>
  *   <li>Creating new refresh tokens during login or token rotation</li>
- *   <li>Validating token existence, expiration, and revocation state</li>
- *   <li>Rotating tokens securely</li>
+ *   <li>Rotating tokens atomically and detecting reuse of rotated tokens</li>
  *   <li>Revoking or deleting tokens</li>
  *   <li>Querying token-related data (by token, ID, or user)</li>
  * </ul>
  *
- * <p>Refresh tokens are persisted in the database and associated with:
+ * <p>Tokens are 256-bit random values; only their SHA-256 hash is persisted, so a leaked
+ * table cannot be replayed. Refresh tokens are persisted in the database and associated with:
  * <ul>
  *   <li>User ID</li>
  *   <li>Client IP address</li>
@@ -42,88 +51,77 @@ import lombok.RequiredArgsConstructor;
  * @author WorkBridge
  * @since 2025-06-22
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class RefreshTokenService {
 
     private static final String USER_AGENT_HEADER = "User-Agent";
-    private static final String ERR_TOKEN_NOT_FOUND = "Refresh token not found";
     private static final String ERR_TOKEN_EXPIRED_OR_REVOKED = "Refresh token expired or revoked";
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
 
     private final RefreshTokenRepository refreshTokenRepository;
+    private final UserRepository userRepository;
 
     @Value("${auth.refresh-token-validity-days:7}")
     private int refreshTokenValidityDays;
 
     /**
-     * Creates a new refresh token associated with a user and request metadata.
+     * Creates a new refresh token associated with a user and request metadata, starting a new
+     * session family.
      *
      * <p>The token includes client IP and user agent, and is set to expire based on
      * the configured validity period.</p>
      *
-     * @param user    The authenticated user
-     * @param request The HTTP request (to extract IP and user-agent)
-     * @return Persisted {@link RefreshToken} entity
+     * @param user          The authenticated user
+     * @param accessTokenId The {@code jti} of the access token issued with it
+     * @param request       The HTTP request (to extract IP and user-agent)
+     * @return Persisted {@link RefreshToken} entity, carrying the raw token in {@code token}
      */
     @Transactional
-    public RefreshToken createRefreshToken(ApplicationUser user, HttpServletRequest request) {
-        RefreshToken token = RefreshToken.builder()
-            .token(UUID.randomUUID().toString())
-            .ip(request.getRemoteAddr())
-            .userAgent(request.getHeader(USER_AGENT_HEADER))
-            .expiresAt(LocalDateTime.now().plusDays(refreshTokenValidityDays))
-            .revoked(false)
-            .user(user)
-            .build();
-
-        return refreshTokenRepository.save(token);
+    public RefreshToken createRefreshToken(ApplicationUser user, String accessTokenId, HttpServletRequest request) {
+        return createRefreshToken(user, UUID.randomUUID(), accessTokenId, request);
     }
 
     /**
-     * Validates whether the given refresh token is active (exists, not revoked, and not expired).
+     * Rotates a refresh token: revokes the presented token and issues a new one in the same
+     * session family.
      *
-     * @param token The token string
-     * @return {@code true} if the token is valid and usable; {@code false} otherwise
-     */
-    public boolean isTokenValid(String token) {
-        return refreshTokenRepository.findByToken(token)
-            .map(this::isTokenUsable)
-            .orElse(false);
-    }
-
-    /**
-     * Retrieves the user associated with a valid refresh token.
+     * <p>The presented token is revoked and its owner read back by a single
+     * {@code UPDATE ... RETURNING} on the token hash index. If nothing matched but the token
+     * exists and was already revoked, it has been used before; every token in its family is
+     * revoked so neither the thief nor the victim can keep refreshing that session.</p>
      *
-     * @param token The token string
-     * @return The {@link ApplicationUser} who owns the token
-     * @throws InvalidTokenException if the token is not found or is revoked/expired
+     * @param presentedToken The raw token from the client
+     * @param accessTokenId  The {@code jti} of the access token issued with the new token
+     * @param request        The HTTP request for capturing new IP/user-agent
+     * @return The new {@link RefreshToken}, carrying its raw value and user
+     * @throws InvalidTokenException if the token is missing, unknown, expired or revoked, or
+     *                               its user can no longer log in
      */
-    public ApplicationUser getUserFromToken(String token) {
-        RefreshToken refreshToken = getValidTokenOrThrow(token);
-        return refreshToken.getUser();
-    }
-
-    /**
-     * Rotates a refresh token by revoking the existing one and issuing a new one.
-     *
-     * <p>This is typically done after successful access token renewal.</p>
-     *
-     * @param oldToken The current token string to be revoked
-     * @param request  The HTTP request for capturing new IP/user-agent
-     * @return New refresh token string
-     * @throws InvalidTokenException if the old token is missing or invalid
-     */
-    @Transactional
-    public String rotateRefreshToken(String oldToken, HttpServletRequest request) {
-        if (oldToken == null || oldToken.isBlank()) {
+    @Transactional(dontRollbackOn = InvalidTokenException.class)
+    public RefreshToken rotateRefreshToken(String presentedToken, String accessTokenId, HttpServletRequest request) {
+        if (presentedToken == null || presentedToken.isBlank()) {
             throw new InvalidTokenException("Missing refresh token.");
         }
 
-        RefreshToken existing = getValidTokenOrThrow(oldToken);
-        existing.setRevoked(true);
-        refreshTokenRepository.save(existing);
-
-        return createRefreshToken(existing.getUser(), request).getToken();
+        String tokenHash = hash(presentedToken);
+        LocalDateTime now = LocalDateTime.now();
+        RotatedRefreshToken rotated = refreshTokenRepository.revokeActiveByTokenHash(tokenHash, now)
+            .orElseThrow(() -> {
+                refreshTokenRepository.findFamilyIdOfRevokedToken(tokenHash)
+                    .ifPresent(familyId -> revokeFamily(familyId, now));
+                return new InvalidTokenException(ERR_TOKEN_EXPIRED_OR_REVOKED);
+            });
+
+        ApplicationUser user = userRepository.findById(rotated.getUserId())
+            .filter(ApplicationUser::isEnabled)
+            .orElseThrow(() -> new InvalidTokenException(ERR_TOKEN_EXPIRED_OR_REVOKED));
+
+        UUID familyId = rotated.getFamilyId() != null ? rotated.getFamilyId() : UUID.randomUUID();
+        return createRefreshToken(user, familyId, accessTokenId, request);
     }
 
     /**
@@ -136,16 +134,6 @@ public class RefreshTokenService {
         refreshTokenRepository.deleteByUserId(userId);
     }
 
-    /**
-     * Finds a refresh token by its token string.
-     *
-     * @param token The token string
-     * @return Optional containing the token if found
-     */
-    public Optional<RefreshToken> findByToken(String token) {
-        return refreshTokenRepository.findByToken(token);
-    }
-
     /**
      * Finds a refresh token by its database ID.
      *
@@ -168,12 +156,21 @@ public class RefreshTokenService {
     }
 
     /**
-     * Deletes a refresh token by its token string.
+     * Deletes a refresh token by its raw token string.
      *
-     * @param token Token string to delete
+     * @param token Raw token string to delete
      */
     public void deleteByToken(String token) {
-        refreshTokenRepository.deleteByToken(token);
+        refreshTokenRepository.deleteByTokenHash(hash(token));
+    }
+
+    /**
+     * Deletes a refresh token by its database ID.
+     *
+     * @param tokenId The token's ID
+     */
+    public void deleteByTokenId(Long tokenId) {
+        refreshTokenRepository.deleteById(tokenId);
     }
 
     /**
@@ -185,40 +182,45 @@ public class RefreshTokenService {
         this.refreshTokenValidityDays = validityInDays;
     }
 
-    /**
-     * Retrieves a valid token or throws an exception if it's missing, expired, or revoked.
-     *
-     * @param token The token string
-     * @return Valid {@link RefreshToken}
-     * @throws InvalidTokenException if invalid
-     */
-    private RefreshToken getValidTokenOrThrow(String token) {
-        return refreshTokenRepository.findByTokenWithUser(token)
-            .filter(this::isTokenUsable)
-            .orElseThrow(() -> new InvalidTokenException(
-                isTokenExpired(token) ? ERR_TOKEN_EXPIRED_OR_REVOKED : ERR_TOKEN_NOT_FOUND
-            ));
+    private RefreshToken createRefreshToken(ApplicationUser user, UUID familyId, String accessTokenId,
+                                            HttpServletRequest request) {
+        String rawToken = newRawToken();
+        RefreshToken token = RefreshToken.builder()
+            .token(rawToken)
+            .tokenHash(hash(rawToken))
+            .familyId(familyId)
+            .accessTokenId(accessTokenId)
+            .ip(request.getRemoteAddr())
+            .userAgent(request.getHeader(USER_AGENT_HEADER))
+            .expiresAt(LocalDateTime.now().plusDays(refreshTokenValidityDays))
+            .revoked(false)
+            .user(user)
+            .build();
+
+        return refreshTokenRepository.save(token);
     }
 
-    /**
-     * Checks if a token is usable (not revoked and not expired).
-     *
-     * @param token RefreshToken to validate
-     * @return {@code true} if usable
-     */
-    private boolean isTokenUsable(RefreshToken token) {
-        return !token.isRevoked() && token.getExpiresAt().isAfter(LocalDateTime.now());
+    private void revokeFamily(UUID familyId, LocalDateTime now) {
+        int revoked = refreshTokenRepository.revokeFamily(familyId, now);
+        log.warn("Rotated refresh token reused; revoked {} token(s) of family {}", revoked, familyId);
+    }
+
+    private static String newRawToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 
     /**
-     * Checks whether a token has expired.
-     *
-     * @param token Token string
-     * @return {@code true} if expired; {@code false} otherwise
+     * The token is already 256 bits of randomness, so a plain (unsalted, fast) digest is enough
+     * to make the stored value useless to an attacker while keeping lookups indexable.
      */
-    private boolean isTokenExpired(String token) {
-        return refreshTokenRepository.findByToken(token)
-            .map(t -> t.getExpiresAt().isBefore(LocalDateTime.now()))
-            .orElse(false);
+    static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
     }
 }
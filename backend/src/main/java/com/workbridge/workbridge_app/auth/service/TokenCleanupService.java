@@ -1,43 +1,169 @@
 package com.workbridge.workbridge_app.auth.service;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.function.IntSupplier;
 
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.workbridge.workbridge_app.auth.repository.RefreshTokenRepository;
+import com.workbridge.workbridge_app.auth.repository.RevokedAccessTokenRepository;
 import com.workbridge.workbridge_app.auth.repository.VerificationTokenRepository;
+import com.workbridge.workbridge_app.common.repository.OutboundEmailRepository;
+import com.workbridge.workbridge_app.config.TokenCleanupProperties;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Periodically purges expired verification tokens, expired, revoked or pre-hashing refresh
+ * tokens, revocations of access tokens that have expired anyway, and outbox mails that failed
+ * for good (rows written before failed bodies were cleared may still hold verification codes).
+ * <p>
+ * Rows are deleted in batches of {@code auth.cleanup.batch-size}, each in its own short
+ * transaction, with {@code auth.cleanup.pause-between-batches} between them. A large backlog
+ * therefore never holds locks for long or loads rows into memory; it just takes more batches.
+ * <p>
+ * Publishes {@code token.cleanup.purged} (rows deleted) and {@code token.cleanup.duration}
+ * (time per run), both tagged with the {@code table}.
+ */
 @Slf4j
 @Service
 public class TokenCleanupService {
-    private final int ONE_HOUR_MS = 3600000; // 1 hour in milliseconds
-    // private final int SEVEN_DAYS_MS = 1;
 
-    private final VerificationTokenRepository tokenRepository;
+    static final String REFRESH_TOKEN_TABLE = "refresh_token";
+    static final String VERIFICATION_TOKEN_TABLE = "verification_token";
+    static final String REVOKED_ACCESS_TOKEN_TABLE = "revoked_access_token";
+    static final String EMAIL_OUTBOX_TABLE = "email_outbox";
 
-    public TokenCleanupService(VerificationTokenRepository tokenRepository) {
-        this.tokenRepository = tokenRepository;
+    private final VerificationTokenRepository verificationTokenRepository;
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final TokenCleanupProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public TokenCleanupService(VerificationTokenRepository verificationTokenRepository,
+                               RefreshTokenRepository refreshTokenRepository,
+                               RevokedAccessTokenRepository revokedAccessTokenRepository,
+                               OutboundEmailRepository outboundEmailRepository,
+                               TokenCleanupProperties properties,
+                               MeterRegistry meterRegistry) {
+        this.verificationTokenRepository = verificationTokenRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
-     * Periodically deletes expired verification tokens from the database.
-     * Runs every hour by default.
+     * Runs all purges on the {@code auth.cleanup.cron} schedule (hourly by default).
      */
-    @Transactional
-    @Scheduled(fixedRate = ONE_HOUR_MS)
-    public void cleanExpiredVerificationTokens() {
-        tokenRepository.deleteByExpiresAtBefore(LocalDateTime.now());
-        log.info("Expired verification tokens have been cleaned up.");
-    }
-
-    // Future enhancement:
-    // @Transactional
-    // @Scheduled(fixedRate = Duration.ofDays(7).toMillis())
-    // public void cleanExpiredRefreshTokens() {
-    //     // TODO: Implement deletion logic for expired refresh tokens
-    // }
-}
+    @Scheduled(cron = "${auth.cleanup.cron:0 0 * * * *}")
+    public void purgeExpiredTokens() {
+        cleanExpiredVerificationTokens();
+        cleanExpiredRefreshTokens();
+        cleanExpiredAccessTokenRevocations();
+        cleanFailedEmails();
+    }
+
+    /**
+     * Deletes expired verification tokens.
+     *
+     * @return number of rows deleted
+     */
+    public long cleanExpiredVerificationTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        return purge(VERIFICATION_TOKEN_TABLE,
+            () -> verificationTokenRepository.deleteExpiredBatch(now, properties.getBatchSize()));
+    }
 
+    /**
+     * Deletes refresh tokens that are expired, were revoked longer than
+     * {@code auth.cleanup.revoked-retention} ago, or were stored before tokens were hashed.
+     *
+     * @return number of rows deleted
+     */
+    public long cleanExpiredRefreshTokens() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime revokedBefore = now.minus(properties.getRevokedRetention());
+        return purge(REFRESH_TOKEN_TABLE,
+            () -> refreshTokenRepository.deletePurgeableBatch(now, revokedBefore, properties.getBatchSize()));
+    }
+
+    /**
+     * Deletes revocations of access tokens past their expiry, which are rejected anyway.
+     *
+     * @return number of rows deleted
+     */
+    public long cleanExpiredAccessTokenRevocations() {
+        Instant now = Instant.now();
+        return purge(REVOKED_ACCESS_TOKEN_TABLE,
+            () -> revokedAccessTokenRepository.deleteExpiredBatch(now, properties.getBatchSize()));
+    }
+
+    /**
+     * Deletes outbox mails marked failed more than {@code auth.cleanup.failed-email-retention} after
+     * they were queued.
+     *
+     * @return number of rows deleted
+     */
+    public long cleanFailedEmails() {
+        LocalDateTime createdBefore = LocalDateTime.now().minus(properties.getFailedEmailRetention());
+        return purge(EMAIL_OUTBOX_TABLE,
+            () -> outboundEmailRepository.deleteFailedBatch(createdBefore, properties.getBatchSize()));
+    }
+
+    /**
+     * Repeats {@code deleteBatch} until it deletes less than a full batch.
+     */
+    private long purge(String table, IntSupplier deleteBatch) {
+        Counter purged = Counter.builder("token.cleanup.purged")
+            .tag("table", table)
+            .description("Expired, revoked or failed rows deleted")
+            .register(meterRegistry);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        long total = 0;
+        int batches = 0;
+        try {
+            int deleted;
+            do {
+                if (batches > 0 && !pause()) {
+                    break;
+                }
+                deleted = deleteBatch.getAsInt();
+                purged.increment(deleted);
+                total += deleted;
+                batches++;
+            } while (deleted >= properties.getBatchSize());
+        } finally {
+            sample.stop(Timer.builder("token.cleanup.duration")
+                .tag("table", table)
+                .description("Time taken by one purge run")
+                .register(meterRegistry));
+        }
+        log.info("Purged {} rows from {} in {} batch(es)", total, table, batches);
+        return total;
+    }
+
+    /**
+     * @return {@code false} if interrupted, in which case the purge stops early
+     */
+    private boolean pause() {
+        long millis = properties.getPauseBetweenBatches().toMillis();
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
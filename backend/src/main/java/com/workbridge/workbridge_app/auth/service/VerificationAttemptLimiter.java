@@ -0,0 +1,68 @@
+package com.workbridge.workbridge_app.auth.service;
+
+import java.time.Duration;
+import java.util.Locale;
+
+import org.springframework.stereotype.Service;
+
+import com.workbridge.workbridge_app.auth.exception.TooManyAttemptsException;
+import com.workbridge.workbridge_app.common.util.StripedFailureCounters;
+import com.workbridge.workbridge_app.config.VerificationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limits guesses at email verification codes, checked before any database lookup.
+ * <p>
+ * Wrong codes are counted per email; after {@code auth.verification.free-attempts} misses the
+ * email is locked out for an exponentially growing period, so guessing a 6-digit code takes
+ * days instead of minutes. Counters live in memory and are per node, like the login rate limits.
+ * A successful verification clears the counter. Locked-out attempts are counted in
+ * {@code auth.verification.rejected{reason=locked}}.
+ */
+@Slf4j
+@Service
+public class VerificationAttemptLimiter {
+
+    private static final String MESSAGE = "Too many verification attempts. Please try again later.";
+
+    private final StripedFailureCounters failures;
+    private final Counter lockedRejections;
+
+    public VerificationAttemptLimiter(VerificationProperties properties, MeterRegistry meterRegistry) {
+        this.failures = new StripedFailureCounters(properties.getStripes(), properties.getKeysPerStripe(),
+            properties.getFreeAttempts(), properties.getInitialLockout(), properties.getMaxLockout());
+        this.lockedRejections = Counter.builder("auth.verification.rejected")
+            .tag("reason", "locked")
+            .description("Verification attempts rejected because the email is locked out")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @throws TooManyAttemptsException if the email is locked out
+     */
+    public void check(String email) {
+        long lockedNanos = failures.lockedFor(key(email));
+        if (lockedNanos > 0) {
+            lockedRejections.increment();
+            throw new TooManyAttemptsException(MESSAGE, Duration.ofNanos(lockedNanos));
+        }
+    }
+
+    public void recordFailure(String email) {
+        long lockoutNanos = failures.recordFailure(key(email));
+        if (lockoutNanos > 0) {
+            log.warn("Verification for {} locked for {}", email, Duration.ofNanos(lockoutNanos));
+        }
+    }
+
+    public void recordSuccess(String email) {
+        failures.reset(key(email));
+    }
+
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+}
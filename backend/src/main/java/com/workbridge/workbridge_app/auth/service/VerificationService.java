@@ -1,7 +1,14 @@
 package com.workbridge.workbridge_app.auth.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -9,11 +16,14 @@ import org.springframework.transaction.annotation.Transactional;
 import com.workbridge.workbridge_app.auth.entity.VerificationToken;
 import com.workbridge.workbridge_app.auth.exception.TokenExpiredException;
 import com.workbridge.workbridge_app.auth.exception.TokenVerificationException;
+import com.workbridge.workbridge_app.auth.exception.TooManyAttemptsException;
 import com.workbridge.workbridge_app.auth.repository.VerificationTokenRepository;
 import com.workbridge.workbridge_app.common.service.EmailService;
+import com.workbridge.workbridge_app.config.VerificationProperties;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -22,7 +32,7 @@ import lombok.extern.slf4j.Slf4j;
  * This includes:
  * <ul>
  *   <li>Generating and sending one-time codes</li>
- *   <li>Persisting and verifying token validity</li>
+ *   <li>Persisting codes as keyed hashes and verifying them, behind a per-email attempt limit</li>
  *   <li>Deleting old or redundant tokens</li>
  * </ul>
  *
@@ -34,15 +44,37 @@ import lombok.extern.slf4j.Slf4j;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class VerificationService {
 
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
     private static final int VERIFICATION_CODE_LENGTH = 6;
     private static final int VERIFICATION_CODE_EXPIRY_MINUTES = 10;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
 
     private final VerificationTokenRepository verificationTokenRepository;
     private final EmailService emailService;
+    private final VerificationAttemptLimiter attemptLimiter;
+    private final SecretKeySpec codeKey;
+    private final Counter invalidCodeRejections;
+    private final Counter unknownEmailRejections;
+    private final Counter expiredRejections;
+
+    public VerificationService(VerificationTokenRepository verificationTokenRepository,
+                               EmailService emailService,
+                               VerificationAttemptLimiter attemptLimiter,
+                               VerificationProperties properties,
+                               MeterRegistry meterRegistry) {
+        if (properties.getCodeSecret() == null || properties.getCodeSecret().isBlank()) {
+            throw new IllegalStateException("auth.verification.code-secret must be set");
+        }
+        this.verificationTokenRepository = verificationTokenRepository;
+        this.emailService = emailService;
+        this.attemptLimiter = attemptLimiter;
+        this.codeKey = new SecretKeySpec(properties.getCodeSecret().getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM);
+        this.invalidCodeRejections = rejectionCounter(meterRegistry, "invalid_code");
+        this.unknownEmailRejections = rejectionCounter(meterRegistry, "unknown_email");
+        this.expiredRejections = rejectionCounter(meterRegistry, "expired");
+    }
     
     /**
      * Creates a new verification token for a user and sends the code by email.
@@ -65,23 +97,26 @@ public class VerificationService {
 
         VerificationToken token = new VerificationToken(
             email,
-            code,
+            hashVerificationCode(code),
             LocalDateTime.now().plusMinutes(VERIFICATION_CODE_EXPIRY_MINUTES)
         );
 
         verificationTokenRepository.save(token);
-        emailService.sendVerificationCode(email, code);
+        emailService.queueVerificationCode(email, code);
 
-        log.info("Verification code sent to {}", email);
+        log.info("Verification code queued for {}", email);
     }
     
     /**
      * Verifies the email ownership by validating the given code.
      * <p>
-     * If the code is correct and not expired, the token is marked as verified.
+     * The email's attempt limit is checked before the token is loaded. If the code is correct and
+     * not expired, the token is marked as verified; a wrong code, or an email without a token,
+     * counts as a failed attempt.
      *
      * @param email the user's email address
      * @param code the verification code provided by the user
+     * @throws TooManyAttemptsException if the email is locked out after repeated wrong codes
      * @throws TokenVerificationException if the code is missing or incorrect
      * @throws TokenExpiredException if the token has expired
      */
@@ -89,9 +124,13 @@ public class VerificationService {
     public void verifyToken(String email, String code) {
         log.debug("Attempting to verify token for {}", email);
 
+        attemptLimiter.check(email);
+
         VerificationToken token = verificationTokenRepository.findByEmail(email)
             .orElseThrow(() -> {
                 log.warn("Verification token not found for {}", email);
+                unknownEmailRejections.increment();
+                attemptLimiter.recordFailure(email);
                 return new TokenVerificationException("Verification code not found");
             });
 
@@ -100,18 +139,24 @@ public class VerificationService {
             return; 
         }
 
-        if (!token.getCode().equals(code)) {
+        if (code == null || token.getCodeHash() == null || !MessageDigest.isEqual(
+                token.getCodeHash().getBytes(StandardCharsets.US_ASCII),
+                hashVerificationCode(code).getBytes(StandardCharsets.US_ASCII))) {
             log.warn("Invalid verification code provided for {}", email);
+            invalidCodeRejections.increment();
+            attemptLimiter.recordFailure(email);
             throw new TokenVerificationException("Invalid verification code");
         }
 
         if (token.getExpiresAt().isBefore(LocalDateTime.now())) {
             log.warn("Verification code for {} has expired", email);
+            expiredRejections.increment();
             throw new TokenExpiredException("Verification code has expired");
         }
 
         token.setVerified(true);
         verificationTokenRepository.save(token);
+        attemptLimiter.recordSuccess(email);
 
         log.info("Email successfully verified: {}", email);
     }
@@ -141,4 +186,25 @@ public class VerificationService {
         int max = (int) Math.pow(10, VERIFICATION_CODE_LENGTH);
         return String.format("%0" + VERIFICATION_CODE_LENGTH + "d", SECURE_RANDOM.nextInt(max));
     }
+
+    /**
+     * Keyed hash of a code, hex encoded. With only a million possible codes an unkeyed digest
+     * would be trivially reversed from a database dump; the HMAC key lives in configuration.
+     */
+    public String hashVerificationCode(String code) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(codeKey);
+            return HexFormat.of().formatHex(mac.doFinal(code.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException(HMAC_ALGORITHM + " not available", ex);
+        }
+    }
+
+    private static Counter rejectionCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("auth.verification.rejected")
+            .tag("reason", reason)
+            .description("Verification attempts rejected")
+            .register(meterRegistry);
+    }
 } 
\ No newline at end of file
@@ -4,15 +4,20 @@ package com.workbridge.workbridge_app.chat.controller;
 import com.workbridge.workbridge_app.chat.dto.ChatMessageRequestDTO;
 import com.workbridge.workbridge_app.chat.dto.ChatMessageResponseDTO;
 import com.workbridge.workbridge_app.chat.service.ChatService;
+import com.workbridge.workbridge_app.common.response.StreamingResponseFactory;
+import com.workbridge.workbridge_app.moderation.exception.ContentRejectedException;
 import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.List;
+import java.time.Instant;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -20,8 +25,9 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
-import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @Controller
@@ -29,21 +35,34 @@ import org.springframework.web.bind.annotation.ResponseBody;
 public class ChatController {
 
     private final ChatService chatService;
+    private final StreamingResponseFactory streamingResponseFactory;
 
     @MessageMapping("/chat")
     public void sendMessage(ChatMessageRequestDTO message) {
         chatService.sendPrivateMessage(message);
     }
 
+    @MessageExceptionHandler(ContentRejectedException.class)
+    public void handleRejectedMessage(ContentRejectedException ex) {
+        log.warn("Chat message rejected by moderation: {}", ex.getMessage());
+    }
+
     @ExceptionHandler(UserNotFoundException.class)
     public ResponseEntity<String> handleUserNotFoundException(UserNotFoundException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
-    @GetMapping("/api/v1/chat/{username}")
-    @ResponseBody
-    public List<ChatMessageResponseDTO> getMessagesForUser(@PathVariable String username) {
-        return chatService.getMessages(username);
+    /**
+     * Streams the user's chat history as a JSON array, or as NDJSON when the client sends
+     * {@code Accept: application/x-ndjson}.
+     */
+    @GetMapping(value = "/api/v1/chat/{username}",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<StreamingResponseBody> getMessagesForUser(@PathVariable String username,
+            @RequestParam(required = false) Instant since,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return streamingResponseFactory.<ChatMessageResponseDTO>stream(accept,
+                sink -> chatService.streamMessages(username, since, sink));
     }
 
     @DeleteMapping("/api/v1/chat/conversation/{otherUsername}")
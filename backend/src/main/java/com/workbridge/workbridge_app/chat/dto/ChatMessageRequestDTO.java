@@ -17,5 +17,6 @@ public class ChatMessageRequestDTO {
     private String recipientUsername;
     private String content;
     private String timestamp;
+    private String clientMessageId;
 }
 
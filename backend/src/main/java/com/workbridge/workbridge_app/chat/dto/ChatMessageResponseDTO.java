@@ -1,5 +1,6 @@
 package com.workbridge.workbridge_app.chat.dto;
 
+import java.time.Instant;
 
 
 import lombok.AllArgsConstructor;
@@ -18,6 +19,9 @@ public class ChatMessageResponseDTO {
     private String recipientUsername;
     private String content;
     private String timestamp;
+    private String clientMessageId;
+    private Long sequence;
+    private Instant sentAt;
     private boolean deletedBySender;
     private boolean deletedByRecipient;
 }
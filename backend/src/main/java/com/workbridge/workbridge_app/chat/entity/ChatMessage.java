@@ -1,5 +1,7 @@
 package com.workbridge.workbridge_app.chat.entity;
 
+import java.time.Instant;
+
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 
 import jakarta.persistence.*;
@@ -11,6 +13,8 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @ToString
+// Indexes and foreign keys are created by ChatPartitionService: Hibernate cannot see them on a
+// partitioned table and would try to add them again on every schema update.
 public class ChatMessage {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -18,16 +22,40 @@ public class ChatMessage {
 
     // Relacionamento Muitos para Um com a entidade Usuario
     @ManyToOne
-    @JoinColumn(name = "sender_id", referencedColumnName = "id", nullable = false)
+    @JoinColumn(name = "sender_id", referencedColumnName = "id", nullable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private ApplicationUser sender; // Relaciona-se com a tabela 'application_user'
 
     @ManyToOne
-    @JoinColumn(name = "recipient_id", referencedColumnName = "id", nullable = false)
+    @JoinColumn(name = "recipient_id", referencedColumnName = "id", nullable = false,
+                foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private ApplicationUser recipient; // Relaciona-se com a tabela 'application_user'
 
     private String content;
     private String timestamp;
 
+    /**
+     * Server receive time. The table is range-partitioned by month on this column
+     * (see {@code ChatPartitionService}), so history queries should always bound it.
+     */
+    @Column(name = "sent_at")
+    private Instant sentAt;
+
+    /**
+     * Client-generated ID used to drop retried sends. Uniqueness per sender is enforced by
+     * {@code chat_message_client_id}, since a unique index on a partitioned table would have
+     * to include {@code sent_at}.
+     */
+    @Column(name = "client_message_id", length = 64)
+    private String clientMessageId;
+
+    /** Stable key for the pair of participants, see {@code ChatService#conversationKey}. */
+    @Column(name = "conversation_key", length = 40)
+    private String conversationKey;
+
+    /** Monotonic position of the message inside its conversation, starting at 1. */
+    private Long sequence;
+
     @Column(columnDefinition = "boolean default false")
     private boolean deletedBySender;
 
@@ -16,6 +16,9 @@ public class ChatMessageMapper {
                 .recipientUsername(message.getRecipient().getUsername())
                 .content(message.getContent())
                 .timestamp(message.getTimestamp().toString())
+                .clientMessageId(message.getClientMessageId())
+                .sequence(message.getSequence())
+                .sentAt(message.getSentAt())
                 .deletedBySender(message.isDeletedBySender())
                 .deletedByRecipient(message.isDeletedByRecipient())
                 .build();
@@ -1,29 +1,72 @@
 package com.workbridge.workbridge_app.chat.repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import com.workbridge.workbridge_app.chat.entity.ChatMessage;
+import com.workbridge.workbridge_app.common.util.EntityStreams;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 
+import jakarta.persistence.QueryHint;
+
 public interface ChatMessageRepository extends JpaRepository<ChatMessage, Long> {
 
     List<ChatMessage> findByRecipient(ApplicationUser recipient);
 
     List<ChatMessage> findBySender(ApplicationUser sender);
 
-    List<ChatMessage> findBySenderOrRecipientOrderByTimestampAsc(ApplicationUser sender, ApplicationUser recipient);
+    /**
+     * Messages sent or received by the user since the given instant, read through a cursor. The
+     * {@code sentAt} bound lets Postgres prune monthly partitions outside the window.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT m FROM ChatMessage m JOIN FETCH m.sender JOIN FETCH m.recipient "
+         + "WHERE (m.sender = :user OR m.recipient = :user) "
+         + "AND m.sentAt >= :since ORDER BY m.sentAt ASC, m.id ASC")
+    Stream<ChatMessage> streamHistoryForUser(ApplicationUser user, Instant since);
 
     @Query("SELECT m FROM ChatMessage m WHERE "
          + "((m.sender = :user1 AND m.recipient = :user2 AND m.deletedBySender = false) "
          + "OR (m.sender = :user2 AND m.recipient = :user1 AND m.deletedByRecipient = false)) "
-         + "ORDER BY m.timestamp ASC")
-    List<ChatMessage> findVisibleMessagesBetween(ApplicationUser user1, ApplicationUser user2);
+         + "AND m.sentAt >= :since "
+         + "ORDER BY m.sentAt ASC, m.id ASC")
+    List<ChatMessage> findVisibleMessagesBetween(ApplicationUser user1, ApplicationUser user2, Instant since);
 
     @Query("SELECT m FROM ChatMessage m WHERE "
          + "((m.sender = :user AND m.deletedBySender = false) "
          + "OR (m.recipient = :user AND m.deletedByRecipient = false))")
     List<ChatMessage> findVisibleMessagesForUser(ApplicationUser user);
+
+    /**
+     * Allocates the conversation's next sequence number from its counter row, which outlives the
+     * message partitions. The row stays locked until the caller's transaction ends, so sequences
+     * of one conversation commit in order and a rolled-back send gives its number back.
+     */
+    @Query(value = "INSERT INTO chat_conversation_sequence (conversation_key, last_sequence) "
+                 + "VALUES (:conversationKey, 1) ON CONFLICT (conversation_key) DO UPDATE "
+                 + "SET last_sequence = chat_conversation_sequence.last_sequence + 1 RETURNING last_sequence",
+           nativeQuery = true)
+    long nextSequence(String conversationKey);
+
+    /**
+     * Records a client message ID for the sender.
+     *
+     * @return 1 if the ID was new, 0 if it was already recorded
+     */
+    @Modifying
+    @Query(value = "INSERT INTO chat_message_client_id (sender_id, client_message_id, created_at) "
+                 + "VALUES (:senderId, :clientMessageId, now()) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int claimClientMessageId(Long senderId, String clientMessageId);
 }
@@ -0,0 +1,40 @@
+package com.workbridge.workbridge_app.chat.service;
+
+import java.util.Optional;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.workbridge.workbridge_app.chat.entity.ChatMessage;
+import com.workbridge.workbridge_app.chat.repository.ChatMessageRepository;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Stores a chat message together with its client message ID claim and its sequence number in
+ * one transaction, so a failed insert never leaves the ID marked as used or the number taken.
+ */
+@Component
+@RequiredArgsConstructor
+public class ChatMessageWriter {
+
+    private final ChatMessageRepository chatMessageRepository;
+
+    /**
+     * Stamps the message with the next sequence number of its conversation and stores it.
+     * Duplicates are detected before a number is allocated, so they leave no gap.
+     *
+     * @param message the message to store
+     * @return the stored message, or empty if the sender already used its client message ID
+     */
+    @Transactional
+    public Optional<ChatMessage> store(ChatMessage message) {
+        if (message.getClientMessageId() != null
+                && chatMessageRepository.claimClientMessageId(
+                    message.getSender().getId(), message.getClientMessageId()) == 0) {
+            return Optional.empty();
+        }
+        message.setSequence(chatMessageRepository.nextSequence(message.getConversationKey()));
+        return Optional.of(chatMessageRepository.save(message));
+    }
+}
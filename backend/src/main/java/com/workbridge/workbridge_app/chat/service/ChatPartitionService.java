@@ -0,0 +1,284 @@
+package com.workbridge.workbridge_app.chat.service;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.config.ChatProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@code chat_message} range-partitioned by month on {@code sent_at}.
+ * <p>
+ * Responsibilities:
+ * <ul>
+ *   <li>Owns the indexes and foreign keys of {@code chat_message}</li>
+ *   <li>On startup, converts a plain {@code chat_message} table (as created by Hibernate) into a
+ *       partitioned one, copying existing rows in a single transaction</li>
+ *   <li>Creates the current month's partition and {@code chat.partitioning.premake-months} ahead</li>
+ *   <li>Expires whole partitions older than the retention window by detaching (and optionally
+ *       dropping) them, which costs the same no matter how many rows they hold</li>
+ *   <li>Prunes the {@code chat_message_client_id} dedupe table</li>
+ *   <li>Creates the {@code chat_conversation_sequence} counters that number each conversation's
+ *       messages, seeding them from the stored messages when the table is new</li>
+ * </ul>
+ * Partitions are named {@code chat_message_pYYYYMM} and cover {@code [first of month, first of next month)} in UTC.
+ *
+ * @author Workbridge Team
+ * @since 2025-08-04
+ */
+@Slf4j
+@Service
+public class ChatPartitionService implements CommandLineRunner {
+
+    static final String TABLE = "chat_message";
+    static final String SEQUENCE_TABLE = "chat_conversation_sequence";
+    private static final Pattern PARTITION_NAME = Pattern.compile("^" + TABLE + "_p(\\d{6})$");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ChatProperties chatProperties;
+
+    private Clock clock = Clock.systemUTC();
+
+    public ChatPartitionService(JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                ChatProperties chatProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chatProperties = chatProperties;
+    }
+
+    @Override
+    public void run(String... args) {
+        ensureClientIdTable();
+        ensureSequenceTable();
+        if (chatProperties.getPartitioning().isEnabled()) {
+            if (!isPartitioned()) {
+                transactionTemplate.executeWithoutResult(status -> convertToPartitioned());
+            }
+            ensureUpcomingPartitions();
+        } else {
+            log.info("Chat message partitioning disabled");
+        }
+        ensureIndexesAndForeignKeys();
+    }
+
+    /**
+     * Daily maintenance: create upcoming partitions, expire old ones and prune dedupe IDs.
+     */
+    @Scheduled(cron = "${chat.partitioning.maintenance-cron:0 15 3 * * *}")
+    public void maintain() {
+        if (chatProperties.getPartitioning().isEnabled() && isPartitioned()) {
+            ensureUpcomingPartitions();
+            enforceRetention();
+        }
+        pruneClientMessageIds();
+    }
+
+    /**
+     * Creates monthly partitions from the current month up to {@code premake-months} ahead.
+     */
+    public void ensureUpcomingPartitions() {
+        YearMonth current = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+        for (int i = 0; i <= chatProperties.getPartitioning().getPremakeMonths(); i++) {
+            createPartition(current.plusMonths(i));
+        }
+    }
+
+    /**
+     * Detaches partitions whose whole range lies before the retention horizon, then drops
+     * them unless the retention mode is {@code DETACH}. The conversations' sequence counters live
+     * in {@code chat_conversation_sequence} and are left alone, so a conversation whose messages
+     * have all expired keeps numbering after its last one instead of starting over.
+     *
+     * @return number of partitions expired
+     */
+    public int enforceRetention() {
+        ChatProperties.Partitioning partitioning = chatProperties.getPartitioning();
+        YearMonth oldestRetained = YearMonth.from(partitioning.retentionHorizon(clock).atZone(ZoneOffset.UTC));
+        int expired = 0;
+
+        for (String partition : listPartitions()) {
+            Optional<YearMonth> month = monthOf(partition);
+            if (month.isEmpty() || !month.get().isBefore(oldestRetained)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            if (partitioning.getRetentionMode() == ChatProperties.Partitioning.RetentionMode.DROP) {
+                jdbcTemplate.execute("DROP TABLE " + partition);
+                log.info("Dropped expired chat partition {}", partition);
+            } else {
+                log.info("Detached expired chat partition {}", partition);
+            }
+            expired++;
+        }
+        return expired;
+    }
+
+    /**
+     * Removes client message IDs older than {@code chat.client-message-id-retention-days};
+     * clients never retry that late, so the IDs no longer protect against duplicates.
+     */
+    public void pruneClientMessageIds() {
+        Instant cutoff = clock.instant().minus(Duration.ofDays(chatProperties.getClientMessageIdRetentionDays()));
+        int removed = jdbcTemplate.update(
+            "DELETE FROM chat_message_client_id WHERE created_at < ?", Timestamp.from(cutoff));
+        log.debug("Pruned {} chat client message IDs older than {}", removed, cutoff);
+    }
+
+    /**
+     * Used by unit tests to pin the current time.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    static String partitionName(YearMonth month) {
+        return TABLE + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    static Optional<YearMonth> monthOf(String partitionName) {
+        Matcher matcher = PARTITION_NAME.matcher(partitionName);
+        return matcher.matches()
+            ? Optional.of(YearMonth.parse(matcher.group(1), PARTITION_SUFFIX))
+            : Optional.empty();
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+            + " PARTITION OF " + TABLE
+            + " FOR VALUES FROM ('" + monthStart(month) + "') TO ('" + monthStart(month.plusMonths(1)) + "')");
+    }
+
+    private List<String> listPartitions() {
+        return jdbcTemplate.queryForList(
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = to_regclass(?) ORDER BY c.relname",
+            String.class, TABLE);
+    }
+
+    private boolean isPartitioned() {
+        Boolean partitioned = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+            Boolean.class, TABLE);
+        return Boolean.TRUE.equals(partitioned);
+    }
+
+    private void ensureClientIdTable() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS chat_message_client_id ("
+            + "sender_id bigint NOT NULL, "
+            + "client_message_id varchar(64) NOT NULL, "
+            + "created_at timestamp(6) with time zone NOT NULL DEFAULT now(), "
+            + "PRIMARY KEY (sender_id, client_message_id))");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_chat_message_client_id_created "
+            + "ON chat_message_client_id (created_at)");
+    }
+
+    /**
+     * Creates the per-conversation sequence counters. A new table is seeded from the messages
+     * already stored in the same transaction, so no send allocates from an unseeded counter.
+     */
+    private void ensureSequenceTable() {
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, SEQUENCE_TABLE);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + SEQUENCE_TABLE + " ("
+                + "conversation_key varchar(40) PRIMARY KEY, "
+                + "last_sequence bigint NOT NULL)");
+            int seeded = jdbcTemplate.update("INSERT INTO " + SEQUENCE_TABLE + " (conversation_key, last_sequence) "
+                + "SELECT conversation_key, MAX(sequence) FROM " + TABLE
+                + " WHERE conversation_key IS NOT NULL AND sequence IS NOT NULL "
+                + "GROUP BY conversation_key ON CONFLICT DO NOTHING");
+            log.info("Created {}, seeded {} conversations", SEQUENCE_TABLE, seeded);
+        });
+    }
+
+    /**
+     * Creates the table's indexes and foreign keys if missing. Statements on the partitioned
+     * parent cascade to every partition, including ones created later.
+     */
+    private void ensureIndexesAndForeignKeys() {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_chat_message_conversation_seq ON " + TABLE
+            + " (conversation_key, sequence)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_chat_message_sender_sent ON " + TABLE
+            + " (sender_id, sent_at)");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_chat_message_recipient_sent ON " + TABLE
+            + " (recipient_id, sent_at)");
+        ensureForeignKey("fk_chat_message_sender", "sender_id");
+        ensureForeignKey("fk_chat_message_recipient", "recipient_id");
+    }
+
+    private void ensureForeignKey(String name, String column) {
+        Boolean exists = jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ? AND conrelid = to_regclass(?))",
+            Boolean.class, name, TABLE);
+        if (!Boolean.TRUE.equals(exists)) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + name
+                + " FOREIGN KEY (" + column + ") REFERENCES application_user (id)");
+        }
+    }
+
+    /**
+     * Rebuilds {@code chat_message} as a partitioned table. Column definitions are copied from
+     * the existing table, so the entity mapping stays the single source of truth. The primary
+     * key is added after the old table is dropped because constraint names are schema-wide.
+     */
+    private void convertToPartitioned() {
+        String legacy = TABLE + "_unpartitioned";
+        log.info("Converting {} to monthly range partitions on sent_at", TABLE);
+
+        jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + legacy);
+        jdbcTemplate.execute("ALTER TABLE " + legacy + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+        jdbcTemplate.execute("UPDATE " + legacy + " SET sent_at = now() WHERE sent_at IS NULL");
+
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + legacy + " INCLUDING DEFAULTS) "
+            + "PARTITION BY RANGE (sent_at)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN sent_at SET NOT NULL");
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + TABLE + "_id_seq OWNED BY " + TABLE + ".id");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + TABLE + "_id_seq')");
+
+        Timestamp oldest = jdbcTemplate.queryForObject(
+            "SELECT COALESCE(MIN(sent_at), now()) FROM " + legacy, Timestamp.class);
+        YearMonth month = YearMonth.from(oldest.toInstant().atZone(ZoneOffset.UTC));
+        YearMonth current = YearMonth.now(clock.withZone(ZoneOffset.UTC));
+        for (; !month.isAfter(current); month = month.plusMonths(1)) {
+            createPartition(month);
+        }
+
+        int copied = jdbcTemplate.update("INSERT INTO " + TABLE + " SELECT * FROM " + legacy);
+        jdbcTemplate.queryForObject("SELECT setval('" + TABLE + "_id_seq', "
+            + "COALESCE((SELECT MAX(id) FROM " + TABLE + "), 0) + 1, false)", Long.class);
+        jdbcTemplate.update("INSERT INTO chat_message_client_id (sender_id, client_message_id, created_at) "
+            + "SELECT sender_id, client_message_id, sent_at FROM " + legacy
+            + " WHERE client_message_id IS NOT NULL ON CONFLICT DO NOTHING");
+        jdbcTemplate.execute("DROP TABLE " + legacy);
+
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + TABLE + "_pkey PRIMARY KEY (id, sent_at)");
+
+        log.info("Converted {} to a partitioned table, {} rows copied", TABLE, copied);
+    }
+
+    private static String monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant().toString();
+    }
+}
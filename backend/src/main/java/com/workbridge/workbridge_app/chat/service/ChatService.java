@@ -6,28 +6,91 @@ import com.workbridge.workbridge_app.chat.entity.ChatMessage;
 import com.workbridge.workbridge_app.chat.exception.MessageNotFoundException;
 import com.workbridge.workbridge_app.chat.mapper.ChatMessageMapper;
 import com.workbridge.workbridge_app.chat.repository.ChatMessageRepository;
+import com.workbridge.workbridge_app.common.util.BoundedLruCache;
+import com.workbridge.workbridge_app.common.util.EntityStreams;
+import com.workbridge.workbridge_app.config.ChatProperties;
+import com.workbridge.workbridge_app.moderation.service.ContentModerationService;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
 import com.workbridge.workbridge_app.user.repository.UserRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+import java.time.Clock;
+import java.time.Instant;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Persists and fans out private chat messages.
+ * <p>
+ * Sends are idempotent per {@code (sender, clientMessageId)}: retries are dropped by an
+ * in-memory LRU of recently seen IDs before any database work happens, and the
+ * {@code chat_message_client_id} table catches whatever the cache has already evicted. Every stored message
+ * gets a per-conversation sequence number so clients can order messages and detect gaps. Numbers
+ * come from a counter row in {@code chat_conversation_sequence}, allocated by
+ * {@link ChatMessageWriter} in the insert's transaction: senders of one conversation wait on that
+ * row in the database rather than on a JVM lock, and the counter survives restarts and the
+ * expiry of the conversation's partitions.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class ChatService {
 
+    static final int MAX_CLIENT_MESSAGE_ID_LENGTH = 64;
+
     private final SimpMessagingTemplate messagingTemplate;
     private final ChatMessageRepository chatMessageRepository;
+    private final ChatMessageWriter chatMessageWriter;
     private final UserRepository userRepository;
+    private final ContentModerationService contentModerationService;
+    private final ChatProperties chatProperties;
+    private final BoundedLruCache<String, Boolean> recentMessageIds;
+    private Clock clock = Clock.systemUTC();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ChatService(SimpMessagingTemplate messagingTemplate,
+                       ChatMessageRepository chatMessageRepository,
+                       ChatMessageWriter chatMessageWriter,
+                       UserRepository userRepository,
+                       ContentModerationService contentModerationService,
+                       ChatProperties chatProperties) {
+        this.messagingTemplate = messagingTemplate;
+        this.chatMessageRepository = chatMessageRepository;
+        this.chatMessageWriter = chatMessageWriter;
+        this.userRepository = userRepository;
+        this.contentModerationService = contentModerationService;
+        this.chatProperties = chatProperties;
+        this.recentMessageIds = new BoundedLruCache<>(chatProperties.getRecentMessageIdCacheSize());
+    }
 
     public void sendPrivateMessage(ChatMessageRequestDTO message) {
+        String dedupeKey = dedupeKey(message);
+
+        if (dedupeKey != null && recentMessageIds.putIfAbsent(dedupeKey, Boolean.TRUE) != null) {
+            log.debug("Dropping duplicate chat message {}", dedupeKey);
+            return;
+        }
+
+        try {
+            deliver(message);
+        } catch (RuntimeException ex) {
+            forget(dedupeKey);
+            throw ex;
+        }
+    }
+
+    private void deliver(ChatMessageRequestDTO message) {
+        String content = contentModerationService.moderate(message.getContent());
 
         ApplicationUser sender = userRepository.findByUsername(message.getSenderUsername()).orElseThrow(
                 () -> new UserNotFoundException("Sender username not found: " + message.getSenderUsername()));
@@ -35,20 +98,41 @@ public class ChatService {
         ApplicationUser recipient = userRepository.findByUsername(message.getRecipientUsername()).orElseThrow(
                 () -> new UserNotFoundException("Recipient username not found: " + message.getRecipientUsername()));
 
-        ChatMessage entity = ChatMessage.builder().sender(sender).recipient(recipient).content(message.getContent())
-                .timestamp(message.getTimestamp()).build();
+        String conversationKey = conversationKey(sender.getId(), recipient.getId());
+
+        ChatMessage entity = ChatMessage.builder().sender(sender).recipient(recipient).content(content)
+                .timestamp(message.getTimestamp()).clientMessageId(normalizedClientMessageId(message))
+                .conversationKey(conversationKey).sentAt(clock.instant()).build();
 
-        chatMessageRepository.save(entity);
+        Optional<ChatMessage> saved = chatMessageWriter.store(entity);
 
-        messagingTemplate.convertAndSend("/topic/users/" + message.getRecipientUsername(), message);
+        saved.ifPresentOrElse(
+                stored -> messagingTemplate.convertAndSend("/topic/users/" + message.getRecipientUsername(),
+                        ChatMessageMapper.toDTO(stored)),
+                () -> log.debug("Dropping duplicate chat message {} from {} (already stored)",
+                        entity.getClientMessageId(), sender.getUsername()));
     }
 
-    public List<ChatMessageResponseDTO> getMessages(String username) {
+    /**
+     * Streams the user's messages sent at or after {@code since} to {@code sink}, reading them
+     * through a database cursor so memory use does not grow with the history size. Messages are
+     * ordered by the server send time ({@code sentAt}), not the client-supplied timestamp.
+     *
+     * @param username the user whose history is requested
+     * @param since    lower bound on the server send time; defaults to the partition retention
+     *                 horizon when {@code null}, so every retained message is returned
+     * @param sink     receives each message in send order
+     */
+    @Transactional
+    public void streamMessages(String username, Instant since, Consumer<? super ChatMessageResponseDTO> sink) {
         ApplicationUser sender = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UserNotFoundException("Sender username not found: " + username));
-        List<ChatMessage> messages = chatMessageRepository.findBySenderOrRecipientOrderByTimestampAsc(sender, sender);
+        Instant lowerBound = since != null ? since : chatProperties.getPartitioning().retentionHorizon(clock);
 
-        return messages.stream().map(ChatMessageMapper::toDTO).collect(Collectors.toList());
+        EntityStreams.forEachDetached(
+                chatMessageRepository.streamHistoryForUser(sender, lowerBound),
+                entityManager,
+                message -> sink.accept(ChatMessageMapper.toDTO(message)));
     }
 
     @Transactional
@@ -60,7 +144,8 @@ public class ChatService {
         ApplicationUser otherUser = userRepository.findByUsername(otherUsername)
                 .orElseThrow(() -> new UserNotFoundException("Usuário não encontrado: " + otherUsername));
 
-        List<ChatMessage> messages = chatMessageRepository.findVisibleMessagesBetween(currentUser, otherUser);
+        List<ChatMessage> messages = chatMessageRepository.findVisibleMessagesBetween(currentUser, otherUser,
+                chatProperties.getPartitioning().retentionHorizon(clock));
 
         for (ChatMessage msg : messages) {
             if (msg.getSender().equals(currentUser)) {
@@ -100,4 +185,41 @@ public class ChatService {
         chatMessageRepository.save(message);
     }
 
+    /**
+     * Builds an order-independent key for the conversation between two users.
+     */
+    static String conversationKey(Long userA, Long userB) {
+        return userA <= userB ? userA + ":" + userB : userB + ":" + userA;
+    }
+
+    /**
+     * Used by unit tests to pin the current time.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    private String dedupeKey(ChatMessageRequestDTO message) {
+        String clientMessageId = normalizedClientMessageId(message);
+        return clientMessageId == null ? null : message.getSenderUsername() + '\0' + clientMessageId;
+    }
+
+    private String normalizedClientMessageId(ChatMessageRequestDTO message) {
+        String clientMessageId = message.getClientMessageId();
+        if (clientMessageId == null || clientMessageId.isBlank()) {
+            return null;
+        }
+        clientMessageId = clientMessageId.strip();
+        if (clientMessageId.length() > MAX_CLIENT_MESSAGE_ID_LENGTH) {
+            throw new IllegalArgumentException(
+                    "clientMessageId must be at most " + MAX_CLIENT_MESSAGE_ID_LENGTH + " characters");
+        }
+        return clientMessageId;
+    }
+
+    private void forget(String dedupeKey) {
+        if (dedupeKey != null) {
+            recentMessageIds.remove(dedupeKey);
+        }
+    }
 }
@@ -0,0 +1,6 @@
+package com.workbridge.workbridge_app.common.entity;
+
+public enum OutboundEmailStatus {
+    PENDING,
+    FAILED
+}
@@ -9,6 +9,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authorization.AuthorizationDeniedException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -128,6 +129,21 @@ public class GlobalExceptionHandler {
         return ResponseFactory.error(HttpStatus.METHOD_NOT_ALLOWED, ex.getMessage(), request);
     }
 
+    /**
+     * Handles request bodies whose Content-Type the endpoint does not accept.
+     *
+     * @param ex the thrown HttpMediaTypeNotSupportedException
+     * @param request the originating HTTP request
+     * @return HTTP 415 Unsupported Media Type with the exception message
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ErrorResponse> handleMediaTypeNotSupported(
+        HttpMediaTypeNotSupportedException ex,
+        HttpServletRequest request) {
+        log.warn("415 Unsupported Media Type: {} {} ({})", request.getMethod(), request.getRequestURI(), ex.getContentType());
+        return ResponseFactory.error(HttpStatus.UNSUPPORTED_MEDIA_TYPE, ex.getMessage(), request);
+    }
+
     /**
      * Handles malformed or unreadable JSON bodies.
      *
@@ -0,0 +1,70 @@
+package com.workbridge.workbridge_app.common.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.workbridge.workbridge_app.common.entity.OutboundEmail;
+
+public interface OutboundEmailRepository extends JpaRepository<OutboundEmail, Long> {
+
+    /**
+     * Claims up to {@code limit} due messages in one statement: their attempt counter is bumped and
+     * their next attempt pushed to {@code leaseUntil}, so a sender that dies mid-batch simply lets
+     * the lease run out. Rows claimed by a concurrent sender are skipped rather than waited for.
+     */
+    @Transactional
+    @Query(value = "UPDATE email_outbox SET attempts = attempts + 1, next_attempt_at = :leaseUntil "
+                 + "WHERE id IN (SELECT id FROM email_outbox "
+                 + "WHERE status = 'PENDING' AND next_attempt_at <= :now "
+                 + "ORDER BY next_attempt_at LIMIT :limit FOR UPDATE SKIP LOCKED) "
+                 + "RETURNING *",
+           nativeQuery = true)
+    List<OutboundEmail> claimDue(@Param("now") LocalDateTime now,
+                                 @Param("leaseUntil") LocalDateTime leaseUntil,
+                                 @Param("limit") int limit);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM OutboundEmail e WHERE e.id IN :ids")
+    int deleteDelivered(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.nextAttemptAt = :nextAttemptAt, e.lastError = :error WHERE e.id = :id")
+    int scheduleRetry(@Param("id") Long id,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error);
+
+    /**
+     * Gives up on a message and clears its body, which may carry a one-time verification code.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE OutboundEmail e SET e.status = com.workbridge.workbridge_app.common.entity.OutboundEmailStatus.FAILED, "
+         + "e.body = '', e.lastError = :error WHERE e.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    /**
+     * Deletes up to {@code limit} failed messages queued before {@code createdBefore}.
+     *
+     * @return number of rows deleted
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM email_outbox WHERE id IN ("
+                 + "SELECT id FROM email_outbox WHERE status = 'FAILED' AND created_at < :createdBefore "
+                 + "LIMIT :limit FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deleteFailedBatch(@Param("createdBefore") LocalDateTime createdBefore, @Param("limit") int limit);
+
+    @Query("SELECT COUNT(e) FROM OutboundEmail e "
+         + "WHERE e.status = com.workbridge.workbridge_app.common.entity.OutboundEmailStatus.PENDING")
+    long countPending();
+}
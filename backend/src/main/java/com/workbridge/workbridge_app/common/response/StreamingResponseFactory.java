@@ -0,0 +1,129 @@
+package com.workbridge.workbridge_app.common.response;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Builds responses that serialize rows while they are read from the database, so memory use does
+ * not depend on the number of rows.
+ * <p>
+ * The body is a JSON array by default, or newline-delimited JSON (one object per line) when the
+ * client asks for {@code application/x-ndjson} explicitly.
+ *
+ * <p><strong>Typical Usage:</strong></p>
+ * <pre>{@code
+ * return streamingResponseFactory.<UserResponseDTO>stream(accept, userService::streamAllUsers);
+ * }</pre>
+ */
+@Component
+@RequiredArgsConstructor
+public class StreamingResponseFactory {
+
+    /** {@link MimeTypeUtils#sortBySpecificity} refuses to sort more types than this. */
+    private static final int MAX_ACCEPTED_TYPES = 50;
+
+    /**
+     * A source that pushes every row to the given sink, typically a transactional service method
+     * reading from a database cursor.
+     */
+    @FunctionalInterface
+    public interface RowSource<T> {
+        void forEach(Consumer<? super T> sink);
+    }
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Returns 200 OK with a body that pulls rows from {@code source} while writing.
+     * <p>
+     * The source runs on the MVC async executor once the handler returns. Output is buffered, so
+     * exceptions thrown before the first few kilobytes are written (e.g. a missing user) still
+     * reach the regular exception handlers.
+     *
+     * @param accept the request's {@code Accept} header, may be {@code null}
+     * @param source the rows to write
+     */
+    public <T> ResponseEntity<StreamingResponseBody> stream(String accept, RowSource<T> source) {
+        boolean ndjson = prefersNdjson(accept);
+        StreamingResponseBody body = out -> write(out, source, ndjson);
+        return ResponseEntity.ok()
+            .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.CACHE_CONTROL, "no-store")
+            .body(body);
+    }
+
+    static boolean prefersNdjson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return false;
+        }
+        List<MediaType> accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+        if (accepted.size() > MAX_ACCEPTED_TYPES) {
+            // sortBySpecificity rejects longer lists; the least preferred types cannot matter here
+            accepted = accepted.subList(0, MAX_ACCEPTED_TYPES);
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.isWildcardType() || type.isWildcardSubtype()) {
+                continue;
+            }
+            if (MediaType.APPLICATION_NDJSON.includes(type)) {
+                return true;
+            }
+            if (MediaType.APPLICATION_JSON.includes(type)) {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes rows through one generator. Jackson's per-value flush is disabled so rows are sent
+     * in buffer-sized chunks rather than one small write per row. The generator is deliberately
+     * not closed when the source fails, so a failure before the first buffer fills leaves the
+     * response uncommitted.
+     */
+    private <T> void write(OutputStream out, RowSource<T> source, boolean ndjson) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (ndjson) {
+            generator.setRootValueSeparator(null);
+        } else {
+            generator.writeStartArray();
+        }
+        source.forEach(row -> {
+            try {
+                writer.writeValue(generator, row);
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+        if (!ndjson) {
+            generator.writeEndArray();
+        }
+        generator.close();
+    }
+}
@@ -0,0 +1,194 @@
+package com.workbridge.workbridge_app.common.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.workbridge.workbridge_app.common.entity.OutboundEmail;
+import com.workbridge.workbridge_app.common.entity.OutboundEmailStatus;
+import com.workbridge.workbridge_app.common.repository.OutboundEmailRepository;
+import com.workbridge.workbridge_app.config.EmailOutboxProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Transactional email outbox.
+ * <p>
+ * {@link #enqueue} only inserts a row, so it joins the caller's transaction and the mail is sent
+ * if and only if that transaction commits, without holding a database connection across an SMTP
+ * round-trip. A scheduled sender claims due rows in batches and hands each batch to
+ * {@link JavaMailSender#send(SimpleMailMessage...)}, which delivers it over one SMTP connection.
+ * Delivered rows are deleted; rejected ones are retried with exponential backoff until
+ * {@code email.outbox.max-attempts}, then marked {@link OutboundEmailStatus#FAILED} and their
+ * body cleared, so an undeliverable verification code does not stay readable in the table.
+ *
+ * @author Workbridge Team
+ * @since 2025-06-22
+ */
+@Slf4j
+@Service
+public class EmailOutboxService {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboundEmailRepository outboundEmailRepository;
+    private final JavaMailSender mailSender;
+    private final EmailOutboxProperties properties;
+
+    private final Counter sentCounter;
+    private final Counter retriedCounter;
+    private final Counter failedCounter;
+    private final Timer batchTimer;
+    private final Timer deliveryLag;
+
+    public EmailOutboxService(OutboundEmailRepository outboundEmailRepository,
+                              JavaMailSender mailSender,
+                              EmailOutboxProperties properties,
+                              MeterRegistry meterRegistry) {
+        this.outboundEmailRepository = outboundEmailRepository;
+        this.mailSender = mailSender;
+        this.properties = properties;
+        this.sentCounter = meterRegistry.counter("email.outbox.messages", "outcome", "sent");
+        this.retriedCounter = meterRegistry.counter("email.outbox.messages", "outcome", "retry");
+        this.failedCounter = meterRegistry.counter("email.outbox.messages", "outcome", "failed");
+        this.batchTimer = meterRegistry.timer("email.outbox.batch.duration");
+        this.deliveryLag = meterRegistry.timer("email.outbox.delivery.lag");
+        Gauge.builder("email.outbox.pending", outboundEmailRepository, OutboundEmailRepository::countPending)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queues a plain-text message. Must be called inside the transaction whose outcome decides
+     * whether the message goes out.
+     */
+    @Transactional
+    public void enqueue(String recipient, String subject, String body) {
+        LocalDateTime now = LocalDateTime.now();
+        outboundEmailRepository.save(OutboundEmail.builder()
+            .recipient(recipient)
+            .subject(subject)
+            .body(body)
+            .status(OutboundEmailStatus.PENDING)
+            .attempts(0)
+            .nextAttemptAt(now)
+            .createdAt(now)
+            .build());
+        log.debug("Queued email '{}' to {}", subject, recipient);
+    }
+
+    /**
+     * Sends due messages batch by batch until a batch comes back short, or until nothing in a
+     * batch gets through (the server is likely down; the next poll tries again).
+     *
+     * @return number of messages accepted by the SMTP server
+     */
+    @Scheduled(fixedDelayString = "${email.outbox.poll-interval:PT2S}")
+    public int dispatchPending() {
+        int sent = 0;
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboundEmail> batch = outboundEmailRepository.claimDue(
+                now, now.plus(properties.getLease()), properties.getBatchSize());
+            if (batch.isEmpty()) {
+                return sent;
+            }
+            int batchSent = batchTimer.record(() -> sendBatch(batch));
+            sent += batchSent;
+            if (batch.size() < properties.getBatchSize() || batchSent == 0) {
+                return sent;
+            }
+        }
+    }
+
+    private int sendBatch(List<OutboundEmail> batch) {
+        Map<SimpleMailMessage, OutboundEmail> byMessage = new IdentityHashMap<>(batch.size());
+        for (OutboundEmail email : batch) {
+            byMessage.put(toMessage(email), email);
+        }
+
+        Map<OutboundEmail, Exception> failures = new IdentityHashMap<>();
+        try {
+            mailSender.send(byMessage.keySet().toArray(SimpleMailMessage[]::new));
+        } catch (MailSendException e) {
+            e.getFailedMessages().forEach((message, cause) -> {
+                OutboundEmail email = byMessage.get(message);
+                if (email != null) {
+                    failures.put(email, cause);
+                }
+            });
+        } catch (MailException e) {
+            // Authentication or connection setup failed before anything was sent
+            batch.forEach(email -> failures.put(email, e));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> delivered = new ArrayList<>(batch.size());
+        for (OutboundEmail email : batch) {
+            Exception failure = failures.get(email);
+            if (failure == null) {
+                delivered.add(email.getId());
+                deliveryLag.record(Duration.between(email.getCreatedAt(), now));
+            } else {
+                handleFailure(email, failure, now);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            outboundEmailRepository.deleteDelivered(delivered);
+            sentCounter.increment(delivered.size());
+        }
+        log.debug("Email batch: {} sent, {} failed", delivered.size(), failures.size());
+        return delivered.size();
+    }
+
+    private void handleFailure(OutboundEmail email, Exception failure, LocalDateTime now) {
+        String error = truncate(failure.getMessage());
+        if (email.getAttempts() >= properties.getMaxAttempts()) {
+            outboundEmailRepository.markFailed(email.getId(), error);
+            failedCounter.increment();
+            log.error("Giving up on email {} to {} after {} attempts: {}",
+                email.getId(), email.getRecipient(), email.getAttempts(), error);
+        } else {
+            outboundEmailRepository.scheduleRetry(email.getId(), now.plus(backoff(email.getAttempts())), error);
+            retriedCounter.increment();
+            log.warn("Email {} to {} failed (attempt {}), will retry: {}",
+                email.getId(), email.getRecipient(), email.getAttempts(), error);
+        }
+    }
+
+    /** Delay after the given (1-based) failed attempt: initial backoff doubled per attempt, capped. */
+    Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    private SimpleMailMessage toMessage(OutboundEmail email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(properties.getFrom());
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return null;
+        }
+        return message.length() <= MAX_ERROR_LENGTH ? message : message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
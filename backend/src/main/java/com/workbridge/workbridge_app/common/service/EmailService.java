@@ -18,21 +18,18 @@ import lombok.RequiredArgsConstructor;
 @Service
 public class EmailService {
     private final JavaMailSender mailSender;
+    private final EmailOutboxService emailOutboxService;
 
-    public void sendVerificationCode(String toEmail, String code) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(toEmail);
-            message.setSubject("WorkBridge Email Verification");
-            message.setText("Your verification code is: " + code + ". It expires in 10 minutes.\n\n"
-                             + "If you did not request this verification, please ignore this email.");
-            message.setFrom("noreply.workbridge@gmail.com"); // Specify the 'from' address to match the sending Gmail account.
-            
-            mailSender.send(message);
-        } catch (Exception e) {
-            System.err.println("Failed to send email: " + e.getMessage());
-            e.printStackTrace();
-        }
+    /**
+     * Queues the verification code mail in the caller's transaction; it is delivered by
+     * {@link EmailOutboxService} once that transaction commits.
+     */
+    public void queueVerificationCode(String toEmail, String code) {
+        emailOutboxService.enqueue(
+            toEmail,
+            "WorkBridge Email Verification",
+            "Your verification code is: " + code + ". It expires in 10 minutes.\n\n"
+                + "If you did not request this verification, please ignore this email.");
     }
 
     public void sendSimpleEmail(String toEmail, String subject, String body) {
@@ -0,0 +1,66 @@
+package com.workbridge.workbridge_app.common.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small thread-safe LRU map with a fixed upper bound.
+ * <p>
+ * Intended for hot in-memory lookups (recently seen IDs, per-key counters) where
+ * an occasional eviction is acceptable because the database remains the source
+ * of truth. All operations lock the instance, so keep the work done in
+ * {@link #computeIfAbsent} short.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public class BoundedLruCache<K, V> {
+
+    private final LinkedHashMap<K, V> entries;
+
+    public BoundedLruCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    public synchronized V put(K key, V value) {
+        return entries.put(key, value);
+    }
+
+    /**
+     * Associates the value with the key only if the key is not already present.
+     *
+     * @return the existing value, or {@code null} if the value was stored
+     */
+    public synchronized V putIfAbsent(K key, V value) {
+        return entries.putIfAbsent(key, value);
+    }
+
+    public synchronized V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        return entries.computeIfAbsent(key, loader);
+    }
+
+    public synchronized V remove(K key) {
+        return entries.remove(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+}
@@ -0,0 +1,47 @@
+package com.workbridge.workbridge_app.common.util;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import jakarta.persistence.EntityManager;
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Helpers for consuming cursor-backed repository streams without growing the persistence context.
+ * <p>
+ * Repository methods returning {@link Stream} should declare
+ * {@code @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE))}
+ * so the Postgres driver reads rows in batches from a server-side cursor instead of buffering the
+ * whole result set. The caller must run inside a read-only transaction of its own, because the
+ * persistence context is cleared between batches.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class EntityStreams {
+
+    /** Rows fetched per round trip and entities kept in the persistence context at a time. */
+    public static final int BATCH_SIZE = 500;
+
+    /** {@link #BATCH_SIZE} as a string, for use in {@code @QueryHint} annotations. */
+    public static final String FETCH_SIZE = "" + BATCH_SIZE;
+
+    /**
+     * Applies {@code action} to every row, clearing the persistence context after each batch, then
+     * closes the stream (and with it the database cursor).
+     *
+     * @param rows          the repository stream
+     * @param entityManager the entity manager of the surrounding transaction
+     * @param action        what to do with each entity; must not keep references to it
+     */
+    public static <E> void forEachDetached(Stream<E> rows, EntityManager entityManager, Consumer<? super E> action) {
+        try (rows) {
+            int[] count = {0};
+            rows.forEachOrdered(row -> {
+                action.accept(row);
+                if (++count[0] % BATCH_SIZE == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.workbridge.workbridge_app.common.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory consecutive-failure counters keyed by string, with exponential lockout.
+ * <p>
+ * The first {@code freeAttempts} failures of a key cost nothing; each further failure locks the
+ * key for {@code initialLockout}, doubled per failure and capped at {@code maxLockout}. Striped
+ * and bounded like {@link StripedTokenBuckets}: a forgotten key starts again from zero.
+ */
+public class StripedFailureCounters {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final int freeAttempts;
+    private final long initialLockoutNanos;
+    private final long maxLockoutNanos;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param stripes        number of stripes, rounded up to a power of two
+     * @param keysPerStripe  counters kept per stripe
+     * @param freeAttempts   failures allowed before the first lockout
+     * @param initialLockout lockout after the first failure beyond {@code freeAttempts}
+     * @param maxLockout     upper bound for the doubled lockout
+     */
+    public StripedFailureCounters(int stripes, int keysPerStripe, int freeAttempts,
+                                  Duration initialLockout, Duration maxLockout) {
+        this(stripes, keysPerStripe, freeAttempts, initialLockout, maxLockout, System::nanoTime);
+    }
+
+    StripedFailureCounters(int stripes, int keysPerStripe, int freeAttempts,
+                           Duration initialLockout, Duration maxLockout, LongSupplier nanoClock) {
+        if (stripes <= 0 || keysPerStripe <= 0 || freeAttempts < 0
+                || initialLockout.isNegative() || maxLockout.compareTo(initialLockout) < 0) {
+            throw new IllegalArgumentException("Invalid failure counter configuration");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[Math.max(1, size)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe(keysPerStripe);
+        }
+        this.mask = this.stripes.length - 1;
+        this.freeAttempts = freeAttempts;
+        this.initialLockoutNanos = initialLockout.toNanos();
+        this.maxLockoutNanos = maxLockout.toNanos();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * @return {@code 0} if the key may attempt now, otherwise the nanoseconds until it may
+     */
+    public long lockedFor(String key) {
+        Stripe stripe = stripe(key);
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Counter counter = stripe.get(key);
+            return counter == null ? 0 : Math.max(0, counter.lockedUntil - now);
+        }
+    }
+
+    /**
+     * Counts a failure for the key.
+     *
+     * @return the lockout it triggered in nanoseconds, or {@code 0} if none
+     */
+    public long recordFailure(String key) {
+        Stripe stripe = stripe(key);
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Counter counter = stripe.computeIfAbsent(key, k -> new Counter(now));
+            counter.failures++;
+            int excess = counter.failures - freeAttempts;
+            if (excess <= 0) {
+                return 0;
+            }
+            long lockout = initialLockoutNanos;
+            for (int i = 1; i < excess && lockout < maxLockoutNanos; i++) {
+                lockout <<= 1;
+            }
+            lockout = Math.min(lockout, maxLockoutNanos);
+            counter.lockedUntil = now + lockout;
+            return lockout;
+        }
+    }
+
+    /** Forgets the key's failures, e.g. after a success. */
+    public void reset(String key) {
+        Stripe stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    private Stripe stripe(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private static final class Counter {
+
+        private int failures;
+        private long lockedUntil;
+
+        Counter(long now) {
+            this.lockedUntil = now;
+        }
+    }
+
+    /**
+     * Access-ordered map of counters, guarded by its own monitor.
+     */
+    private static final class Stripe extends LinkedHashMap<String, Counter> {
+
+        private final int maxKeys;
+
+        Stripe(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Counter> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.workbridge.workbridge_app.common.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets keyed by string, for rate limiting.
+ * <p>
+ * Keys are spread over a fixed number of stripes, each a small LRU map with its own lock, so
+ * unrelated keys rarely contend and memory stays bounded. When a stripe is full its least
+ * recently used bucket is forgotten; a forgotten key simply starts again with a full bucket.
+ */
+public class StripedTokenBuckets {
+
+    private final Stripe[] stripes;
+    private final int mask;
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param stripes         number of stripes, rounded up to a power of two
+     * @param keysPerStripe   buckets kept per stripe
+     * @param capacity        maximum (and initial) tokens per bucket
+     * @param refillPerMinute tokens added per minute
+     */
+    public StripedTokenBuckets(int stripes, int keysPerStripe, int capacity, int refillPerMinute) {
+        this(stripes, keysPerStripe, capacity, refillPerMinute, System::nanoTime);
+    }
+
+    StripedTokenBuckets(int stripes, int keysPerStripe, int capacity, int refillPerMinute, LongSupplier nanoClock) {
+        if (stripes <= 0 || keysPerStripe <= 0 || capacity <= 0 || refillPerMinute <= 0) {
+            throw new IllegalArgumentException("stripes, keysPerStripe, capacity and refillPerMinute must be positive");
+        }
+        int size = Integer.highestOneBit(stripes - 1) << 1;
+        this.stripes = new Stripe[Math.max(1, size)];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new Stripe(keysPerStripe);
+        }
+        this.mask = this.stripes.length - 1;
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Takes one token from the key's bucket if one is available.
+     *
+     * @return {@code 0} if a token was taken, otherwise the nanoseconds until one will be
+     */
+    public long tryConsume(String key) {
+        Stripe stripe = stripes[spread(key.hashCode()) & mask];
+        long now = nanoClock.getAsLong();
+        synchronized (stripe) {
+            Bucket bucket = stripe.computeIfAbsent(key, k -> new Bucket(capacity, now));
+            bucket.tokens = Math.min(capacity, bucket.tokens + (now - bucket.refilledAt) * tokensPerNano);
+            bucket.refilledAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+        private long refilledAt;
+
+        Bucket(double tokens, long refilledAt) {
+            this.tokens = tokens;
+            this.refilledAt = refilledAt;
+        }
+    }
+
+    /**
+     * Access-ordered map of buckets, guarded by its own monitor.
+     */
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+
+        private final int maxKeys;
+
+        Stripe(int maxKeys) {
+            super(16, 0.75f, true);
+            this.maxKeys = maxKeys;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maxKeys;
+        }
+    }
+}
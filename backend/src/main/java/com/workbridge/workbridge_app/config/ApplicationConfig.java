@@ -29,7 +29,7 @@ public class ApplicationConfig {
             user.getId(),
             user.getUsername(),
             user.getPassword(),
-            user.getAuthorities(), 
+            user.getRoleMask(),
             user.isEnabled()))
         .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
@@ -0,0 +1,57 @@
+package com.workbridge.workbridge_app.config;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "chat")
+@Getter
+@Setter
+public class ChatProperties {
+
+    /** Number of recent client message IDs remembered for duplicate detection. */
+    private int recentMessageIdCacheSize = 50_000;
+
+    /** How long client message IDs are kept for duplicate detection in the database. */
+    private int clientMessageIdRetentionDays = 7;
+
+    private Partitioning partitioning = new Partitioning();
+
+    @Getter
+    @Setter
+    public static class Partitioning {
+
+        public enum RetentionMode { DETACH, DROP }
+
+        /** Convert {@code chat_message} to monthly range partitions on {@code sent_at} at startup. */
+        private boolean enabled = true;
+
+        /** Number of full months kept in addition to the current one. */
+        private int retentionMonths = 12;
+
+        /** Number of future monthly partitions created ahead of time. */
+        private int premakeMonths = 3;
+
+        /** {@code DETACH} leaves expired partitions as standalone tables for archiving, {@code DROP} removes them. */
+        private RetentionMode retentionMode = RetentionMode.DROP;
+
+        /**
+         * Start of the oldest month that is still retained (UTC).
+         */
+        public Instant retentionHorizon(Clock clock) {
+            return YearMonth.now(clock.withZone(ZoneOffset.UTC))
+                .minusMonths(retentionMonths)
+                .atDay(1)
+                .atStartOfDay(ZoneOffset.UTC)
+                .toInstant();
+        }
+    }
+}
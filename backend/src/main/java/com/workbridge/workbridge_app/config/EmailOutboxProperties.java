@@ -0,0 +1,36 @@
+package com.workbridge.workbridge_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "email.outbox")
+@Getter
+@Setter
+public class EmailOutboxProperties {
+
+    /** Sender address on every outgoing message. */
+    private String from = "noreply.workbridge@gmail.com";
+
+    /** Delay between polls of the outbox; read by {@code EmailOutboxService}. */
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    /** Maximum messages claimed per batch; each batch is sent over a single SMTP connection. */
+    private int batchSize = 50;
+
+    /** How long a claimed batch is reserved before another sender may pick it up again. */
+    private Duration lease = Duration.ofMinutes(5);
+
+    /** Attempts after which a message is marked failed and left for inspection. */
+    private int maxAttempts = 8;
+
+    /** Delay before the first retry; doubled for every further attempt up to {@link #maxBackoff}. */
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    private Duration maxBackoff = Duration.ofHours(1);
+}
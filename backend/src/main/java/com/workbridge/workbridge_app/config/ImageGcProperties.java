@@ -0,0 +1,40 @@
+package com.workbridge.workbridge_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.gc")
+@Getter
+@Setter
+public class ImageGcProperties {
+
+    /** Whether the orphaned image collector runs on its schedule. */
+    private boolean enabled = true;
+
+    /** Cron expression for the collector; read by {@code OrphanedImageCollector}. */
+    private String cron = "0 30 4 * * *";
+
+    /**
+     * Minimum age of an object, and of an unreferenced row, before it is collected. Must exceed
+     * the longest upload, so objects written before their row was committed are never taken.
+     */
+    private Duration gracePeriod = Duration.ofDays(1);
+
+    /** Keys requested per {@code ListObjectsV2} page (S3 caps this at 1000). */
+    private int pageSize = 1000;
+
+    /** Keys per {@code DeleteObjects} request, and rows per purge statement (S3 caps this at 1000). */
+    private int deleteBatchSize = 1000;
+
+    /** Upper bound on objects deleted per second, so a large sweep does not starve uploads; 0 disables. */
+    private int maxDeletesPerSecond = 200;
+
+    /** False-positive rate of the referenced-key filter; a false positive only keeps an orphan. */
+    private double falsePositiveRate = 0.001;
+}
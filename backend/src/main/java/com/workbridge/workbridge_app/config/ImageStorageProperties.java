@@ -0,0 +1,36 @@
+package com.workbridge.workbridge_app.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.storage")
+@Getter
+@Setter
+public class ImageStorageProperties {
+
+    /**
+     * Backend holding image bytes: {@code s3} (MinIO, presigned URLs) or {@code local} (a
+     * directory on this node, served by the application itself).
+     */
+    private String type = "s3";
+
+    /** Directory holding images when {@code type} is {@code local}; created on startup. */
+    private Path localRoot = Path.of("data/images");
+
+    /** Largest body accepted by the streaming upload endpoint in local mode. */
+    private DataSize maxStreamUploadSize = DataSize.ofMegabytes(100);
+
+    /**
+     * {@code max-age} sent with local image bytes. Keys are content hashes, so a key's bytes
+     * never change and browsers may keep them for as long as they like.
+     */
+    private Duration cacheMaxAge = Duration.ofDays(365);
+}
@@ -0,0 +1,51 @@
+package com.workbridge.workbridge_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.validation")
+@Getter
+@Setter
+public class ImageValidationProperties {
+
+    /**
+     * Most bytes read from the start of an upload to find its format and dimensions. PNG, GIF
+     * and WebP need a few dozen; JPEG metadata segments (EXIF, ICC profiles) before the frame
+     * header count against this too. Streamed uploads buffer this much to replay it.
+     */
+    private DataSize maxHeaderSize = DataSize.ofKilobytes(256);
+
+    private Limits jpeg = new Limits(DataSize.ofMegabytes(25));
+    private Limits png = new Limits(DataSize.ofMegabytes(50));
+    private Limits gif = new Limits(DataSize.ofMegabytes(15));
+    private Limits webp = new Limits(DataSize.ofMegabytes(25));
+
+    @Getter
+    @Setter
+    public static class Limits {
+
+        /** Largest file accepted in this format. */
+        private DataSize maxSize;
+
+        /** Widest image accepted, in pixels. */
+        private int maxWidth = 12_000;
+
+        /** Tallest image accepted, in pixels. */
+        private int maxHeight = 12_000;
+
+        /** Most pixels (width × height) accepted; bounds the memory needed to decode. */
+        private long maxPixels = 40_000_000;
+
+        public Limits() {
+        }
+
+        Limits(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+}
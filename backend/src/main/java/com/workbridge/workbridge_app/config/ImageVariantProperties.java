@@ -0,0 +1,41 @@
+package com.workbridge.workbridge_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "image.variants")
+@Getter
+@Setter
+public class ImageVariantProperties {
+
+    /** Whether uploads produce resized variants next to the original. */
+    private boolean enabled = true;
+
+    /** Threads resizing images; {@code 0} uses one per available processor. */
+    private int threads = 0;
+
+    /** Uploads allowed to wait for a resize thread; further uploads store only the original. */
+    private int queueCapacity = 32;
+
+    /** Longest an upload waits for its variants before storing only the original. */
+    private Duration maxWait = Duration.ofSeconds(10);
+
+    /**
+     * Largest source, in pixels, that is resized. Checked from the image header before decoding,
+     * so oversized images never allocate a full-size raster.
+     */
+    private long maxSourcePixels = 40_000_000;
+
+    /** JPEG quality (0–1) for variants of opaque images; images with alpha are stored as PNG. */
+    private float jpegQuality = 0.82f;
+
+    public int resolvedThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
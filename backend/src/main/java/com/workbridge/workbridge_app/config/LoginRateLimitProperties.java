@@ -0,0 +1,47 @@
+package com.workbridge.workbridge_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.rate-limit")
+@Getter
+@Setter
+public class LoginRateLimitProperties {
+
+    private boolean enabled = true;
+
+    /** Number of independently locked stripes per key space; rounded up to a power of two. */
+    private int stripes = 64;
+
+    /** Keys remembered per stripe; the least recently used bucket is forgotten beyond that. */
+    private int keysPerStripe = 4096;
+
+    /** Login and registration attempts per client IP. */
+    private Bucket perIp = new Bucket(30, 30);
+
+    /** Login attempts per account email. */
+    private Bucket perEmail = new Bucket(5, 5);
+
+    @Getter
+    @Setter
+    public static class Bucket {
+
+        /** Burst size: attempts available to a key that has been idle. */
+        private int capacity;
+
+        /** Attempts regained per minute. */
+        private int refillPerMinute;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+        }
+    }
+}
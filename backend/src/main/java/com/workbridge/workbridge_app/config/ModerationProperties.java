@@ -0,0 +1,32 @@
+package com.workbridge.workbridge_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "moderation")
+@Getter
+@Setter
+public class ModerationProperties {
+
+    public enum Mode { MASK, REJECT }
+
+    private boolean enabled = true;
+
+    /** Whether offending text is masked in place or the whole submission is rejected. */
+    private Mode mode = Mode.MASK;
+
+    /** Resource location of the word list, one term per line, {@code #} starts a comment. */
+    private String wordList = "classpath:moderation/banned-words.txt";
+
+    /** Only match terms that are not part of a longer word. */
+    private boolean wholeWords = true;
+
+    private char maskCharacter = '*';
+
+    /** How often the word list is checked for changes, in milliseconds. */
+    private long reloadIntervalMs = 60_000;
+}
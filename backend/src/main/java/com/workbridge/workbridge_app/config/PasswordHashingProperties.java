@@ -0,0 +1,29 @@
+package com.workbridge.workbridge_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.hashing")
+@Getter
+@Setter
+public class PasswordHashingProperties {
+
+    /** Threads hashing passwords; {@code 0} uses one per available processor. */
+    private int threads = 0;
+
+    /** Hash requests allowed to wait for a thread; further requests are rejected at once. */
+    private int queueCapacity = 64;
+
+    /** Longest a request waits for its hash, queueing included, before it is rejected. */
+    private Duration maxWait = Duration.ofSeconds(2);
+
+    public int resolvedThreads() {
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+}
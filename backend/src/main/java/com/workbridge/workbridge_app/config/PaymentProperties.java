@@ -0,0 +1,40 @@
+package com.workbridge.workbridge_app.config;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "payment")
+@Getter
+@Setter
+public class PaymentProperties {
+
+    /** Gateway implementation to charge through; {@code fake} keeps charges in memory. */
+    private String gateway = "fake";
+
+    /**
+     * How long a payment may stay {@code PROCESSING} before another submission with the same
+     * idempotency key may take it over, e.g. after the node charging it crashed. The gateway is
+     * asked again under the same key, so a charge that did go through is not repeated.
+     */
+    private Duration processingTimeout = Duration.ofMinutes(1);
+
+    private Fake fake = new Fake();
+
+    @Getter
+    @Setter
+    public static class Fake {
+
+        /** Time each charge takes, to mimic a provider round trip. */
+        private Duration latency = Duration.ofMillis(20);
+
+        /** Charges above this amount are declined. */
+        private BigDecimal declineAbove = new BigDecimal("10000");
+    }
+}
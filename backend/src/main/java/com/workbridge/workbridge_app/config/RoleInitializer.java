@@ -1,30 +1,45 @@
 package com.workbridge.workbridge_app.config;
 
-import org.springframework.boot.CommandLineRunner;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.workbridge.workbridge_app.user.entity.UserRole;
 import com.workbridge.workbridge_app.user.entity.UserRoleEntity;
 import com.workbridge.workbridge_app.user.repository.UserRoleRepository;
+import com.workbridge.workbridge_app.user.service.RoleRegistry;
 
 import lombok.RequiredArgsConstructor;
 
+/**
+ * Ensures a row exists for every {@link UserRole} and loads them into the {@link RoleRegistry}.
+ * Runs once all singletons exist but before the web server starts, so no request sees an empty
+ * registry.
+ */
 @Component
 @RequiredArgsConstructor
-public class RoleInitializer implements CommandLineRunner {
+public class RoleInitializer implements SmartInitializingSingleton {
 
     private final UserRoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
-    @Transactional
-    public void run(String... args) {
-        for (UserRole role : UserRole.values()) {
-            roleRepository.findByRole(role).orElseGet(() -> {
-                UserRoleEntity newRole = new UserRoleEntity();
-                newRole.setRole(role);
-                return roleRepository.save(newRole);
-            });
-        }
+    public void afterSingletonsInstantiated() {
+        List<UserRoleEntity> roles = transactionTemplate.execute(status -> {
+            List<UserRoleEntity> all = new ArrayList<>();
+            for (UserRole role : UserRole.values()) {
+                all.add(roleRepository.findByRole(role).orElseGet(() -> {
+                    UserRoleEntity newRole = new UserRoleEntity();
+                    newRole.setRole(role);
+                    return roleRepository.save(newRole);
+                }));
+            }
+            return all;
+        });
+        roleRegistry.register(roles);
     }
 }
@@ -0,0 +1,41 @@
+package com.workbridge.workbridge_app.config;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.task.ThreadPoolTaskSchedulerBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+
+/**
+ * Runs {@code @Scheduled} jobs on their own pool, sized by {@code spring.task.scheduling}.
+ * <p>
+ * The STOMP broker registers a {@code messageBrokerTaskScheduler}, which keeps Spring Boot from
+ * creating its default scheduler; without this class the batch jobs (token cleanup, image sweeps,
+ * the outbox poll) would share that broker's thread with the WebSocket heartbeats and could
+ * delay them for as long as a sweep takes.
+ */
+@Configuration
+public class SchedulingConfig implements SchedulingConfigurer {
+
+    private TaskScheduler taskScheduler;
+
+    @Autowired
+    public void setTaskScheduler(@Lazy @Qualifier("taskScheduler") TaskScheduler taskScheduler) {
+        this.taskScheduler = taskScheduler;
+    }
+
+    @Bean(name = "taskScheduler")
+    public ThreadPoolTaskScheduler taskScheduler(ThreadPoolTaskSchedulerBuilder builder) {
+        return builder.build();
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        registrar.setTaskScheduler(taskScheduler);
+    }
+}
@@ -1,5 +1,6 @@
 package com.workbridge.workbridge_app.config;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -17,6 +18,28 @@ public class SecurityProperties {
     private List<String> publicUrls;
     private Cors cors = new Cors();
 
+    /** Number of users whose token version and enabled flag are kept in memory. */
+    private int userStateCacheSize = 100_000;
+
+    private Revocation revocation = new Revocation();
+
+    @Getter
+    @Setter
+    public static class Revocation {
+
+        /** Minimum number of revoked access tokens the Bloom filter is sized for. */
+        private int expectedRevocations = 100_000;
+
+        /** Target false-positive rate of the Bloom filter; positives cost one indexed lookup. */
+        private double falsePositiveRate = 0.001;
+
+        /** How often the Bloom filter is rebuilt from the table, dropping expired tokens. */
+        private Duration rebuildInterval = Duration.ofMinutes(10);
+
+        /** Number of confirmed revoked token IDs remembered so replays skip the database. */
+        private int confirmedCacheSize = 10_000;
+    }
+
     @Getter
     @Setter
     public static class Cors {
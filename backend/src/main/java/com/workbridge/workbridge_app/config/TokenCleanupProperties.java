@@ -0,0 +1,34 @@
+package com.workbridge.workbridge_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.cleanup")
+@Getter
+@Setter
+public class TokenCleanupProperties {
+
+    /** Cron expression for the purge job; read by {@code TokenCleanupService}. */
+    private String cron = "0 0 * * * *";
+
+    /** Maximum rows deleted per statement (and per transaction). */
+    private int batchSize = 1000;
+
+    /** Pause between batches, giving other transactions a chance at the table. */
+    private Duration pauseBetweenBatches = Duration.ofMillis(50);
+
+    /**
+     * How long rotated or revoked refresh tokens are kept. While kept, replaying one revokes its
+     * whole session family; after that it is merely unknown.
+     */
+    private Duration revokedRetention = Duration.ofDays(1);
+
+    /** How long outbox mails that failed for good are kept for inspection of their last error. */
+    private Duration failedEmailRetention = Duration.ofDays(1);
+}
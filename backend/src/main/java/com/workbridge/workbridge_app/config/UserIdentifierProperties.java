@@ -0,0 +1,28 @@
+package com.workbridge.workbridge_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "user.identifiers")
+@Getter
+@Setter
+public class UserIdentifierProperties {
+
+    /** Sizing floor for the taken-username and taken-email Bloom filters. */
+    private long expectedUsers = 1_000_000;
+
+    /** Share of free identifiers that still need a database check. */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * How often the filters are rebuilt from the table; drops deleted users and picks up
+     * registrations made on other nodes. Read by {@code UserIdentifierFilter}.
+     */
+    private Duration rebuildInterval = Duration.ofHours(1);
+}
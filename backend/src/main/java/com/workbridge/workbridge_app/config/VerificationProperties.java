@@ -0,0 +1,36 @@
+package com.workbridge.workbridge_app.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "auth.verification")
+@Getter
+@Setter
+public class VerificationProperties {
+
+    /**
+     * HMAC key for stored verification codes. A plain hash of a 6-digit code is reversed by
+     * trying all million values, so the key must not live in the database.
+     */
+    private String codeSecret;
+
+    /** Number of independently locked stripes; rounded up to a power of two. */
+    private int stripes = 64;
+
+    /** Emails remembered per stripe; the least recently used counter is forgotten beyond that. */
+    private int keysPerStripe = 4096;
+
+    /** Wrong codes accepted per email before lockouts start. */
+    private int freeAttempts = 5;
+
+    /** Lockout after the first wrong code beyond {@link #freeAttempts}; doubled per further miss. */
+    private Duration initialLockout = Duration.ofMinutes(1);
+
+    private Duration maxLockout = Duration.ofHours(1);
+}
@@ -1,7 +1,16 @@
 package com.workbridge.workbridge_app.config;
 
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.*;
 
 import com.workbridge.workbridge_app.security.JwtHandshakeInterceptor;
@@ -14,10 +23,21 @@ import lombok.RequiredArgsConstructor;
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     private final JwtHandshakeInterceptor jwtHandshakeInterceptor;
+    private final WebSocketProperties properties;
+    private final WebSocketMetrics metrics;
+
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    @Autowired
+    public void setMessageBrokerTaskScheduler(@Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
 
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
 
+        // Process each session's frames in the order they arrived
+        registry.setPreserveReceiveOrder(true);
         registry.addEndpoint("/api/v1/ws-chat")
                 .addInterceptors(jwtHandshakeInterceptor)
                 .setAllowedOriginPatterns("http://localhost:4200")
@@ -26,7 +46,54 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        config.enableSimpleBroker("/topic");
+        WebSocketProperties.Heartbeat heartbeat = properties.getHeartbeat();
+        config.enableSimpleBroker("/topic")
+                .setHeartbeatValue(new long[] {heartbeat.getServerIntervalMs(), heartbeat.getClientIntervalMs()})
+                .setTaskScheduler(messageBrokerTaskScheduler);
         config.setApplicationDestinationPrefixes("/app");
+        // Keep per-session delivery order even though the outbound channel is multi-threaded
+        config.setPreservePublishOrder(true);
+    }
+
+    /**
+     * Inbound frames are handed back to the reading thread when the queue is full,
+     * which stops reading from that socket until the backlog drains.
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutor("inbound", properties.getInbound(),
+                new ThreadPoolExecutor.CallerRunsPolicy()));
+    }
+
+    /**
+     * Outbound messages are rejected when the queue is full; slow sessions are
+     * additionally bounded by the transport send limits below.
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.executor(channelExecutor("outbound", properties.getOutbound(),
+                metrics.countingRejections("outbound", new ThreadPoolExecutor.AbortPolicy())));
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        WebSocketProperties.Transport transport = properties.getTransport();
+        registration.setSendBufferSizeLimit(transport.getSendBufferSizeLimit())
+                .setSendTimeLimit(transport.getSendTimeLimit())
+                .setMessageSizeLimit(transport.getMessageSizeLimit());
+    }
+
+    private ThreadPoolTaskExecutor channelExecutor(String name, WebSocketProperties.Channel channel,
+                                                   RejectedExecutionHandler rejectionPolicy) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("ws-" + name + "-");
+        executor.setCorePoolSize(channel.getCorePoolSize());
+        executor.setMaxPoolSize(channel.getMaxPoolSize());
+        executor.setQueueCapacity(channel.getQueueCapacity());
+        executor.setKeepAliveSeconds(channel.getKeepAliveSeconds());
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setVirtualThreads(properties.isVirtualThreads());
+        executor.setRejectedExecutionHandler(rejectionPolicy);
+        return metrics.monitor(name, executor);
     }
 }
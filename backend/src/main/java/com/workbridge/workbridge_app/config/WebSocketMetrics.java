@@ -0,0 +1,110 @@
+package com.workbridge.workbridge_app.config;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Micrometer instrumentation for the STOMP broker.
+ * <p>
+ * Publishes:
+ * <ul>
+ *   <li>{@code websocket.channel.queue.depth} – pending tasks per channel executor</li>
+ *   <li>{@code websocket.channel.active.threads} – busy threads per channel executor</li>
+ *   <li>{@code websocket.sessions.active} – currently connected STOMP sessions</li>
+ *   <li>{@code websocket.messages.dropped} – outbound messages rejected by a full queue and
+ *       sessions closed because their send buffer or send time limit was exceeded</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class WebSocketMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    private final Counter droppedMessages;
+    private final Counter slowConsumerDisconnects;
+
+    public WebSocketMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("websocket.sessions.active", activeSessions, AtomicInteger::get)
+            .description("Currently connected STOMP sessions")
+            .register(meterRegistry);
+        this.droppedMessages = Counter.builder("websocket.messages.dropped")
+            .tag("reason", "queue_full")
+            .description("Messages rejected because a channel queue was full")
+            .register(meterRegistry);
+        this.slowConsumerDisconnects = Counter.builder("websocket.messages.dropped")
+            .tag("reason", "slow_consumer")
+            .description("Sessions closed because the client could not keep up")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Registers queue depth and active thread gauges for a channel executor.
+     *
+     * @param channel  tag value identifying the channel (e.g. {@code inbound})
+     * @param executor the executor backing the channel
+     * @return the same executor, for fluent use during registration
+     */
+    public ThreadPoolTaskExecutor monitor(String channel, ThreadPoolTaskExecutor executor) {
+        Gauge.builder("websocket.channel.queue.depth", executor, WebSocketMetrics::queueDepth)
+            .tag("channel", channel)
+            .description("Tasks waiting in the channel executor queue")
+            .register(meterRegistry);
+        Gauge.builder("websocket.channel.active.threads", executor, ThreadPoolTaskExecutor::getActiveCount)
+            .tag("channel", channel)
+            .description("Threads currently processing channel tasks")
+            .register(meterRegistry);
+        return executor;
+    }
+
+    /**
+     * Wraps a rejection policy so every rejected task is counted as a dropped message.
+     *
+     * @param channel  name of the channel, used for logging
+     * @param delegate the policy that decides what happens to the rejected task
+     * @return a counting rejection handler
+     */
+    public RejectedExecutionHandler countingRejections(String channel, RejectedExecutionHandler delegate) {
+        return (task, executor) -> {
+            droppedMessages.increment();
+            log.warn("WebSocket {} channel saturated (queue={}), dropping message",
+                channel, executor.getQueue().size());
+            delegate.rejectedExecution(task, executor);
+        };
+    }
+
+    @EventListener
+    public void onSessionConnected(SessionConnectedEvent event) {
+        activeSessions.incrementAndGet();
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        activeSessions.updateAndGet(count -> Math.max(0, count - 1));
+        if (CloseStatus.SESSION_NOT_RELIABLE.equalsCode(event.getCloseStatus())) {
+            slowConsumerDisconnects.increment();
+            log.warn("Closed slow WebSocket session {}", event.getSessionId());
+        }
+    }
+
+    private static double queueDepth(ThreadPoolTaskExecutor executor) {
+        try {
+            return executor.getThreadPoolExecutor().getQueue().size();
+        } catch (IllegalStateException notInitialized) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.workbridge.workbridge_app.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Tuning knobs for the STOMP message broker.
+ * <p>
+ * Each channel gets its own bounded executor so a slow consumer on the outbound
+ * side cannot starve inbound processing, and the transport limits make sure a
+ * client that stops reading is disconnected instead of buffering without bound.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "websocket")
+@Getter
+@Setter
+public class WebSocketProperties {
+
+    /**
+     * Run channel tasks on virtual threads. Pool sizes still cap concurrency
+     * and the queue capacity still applies backpressure.
+     */
+    private boolean virtualThreads = false;
+
+    private Channel inbound = new Channel();
+    private Channel outbound = new Channel();
+    private Transport transport = new Transport();
+    private Heartbeat heartbeat = new Heartbeat();
+
+    @Getter
+    @Setter
+    public static class Channel {
+        private int corePoolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private int maxPoolSize = Runtime.getRuntime().availableProcessors() * 4;
+        private int queueCapacity = 1000;
+        private int keepAliveSeconds = 60;
+    }
+
+    @Getter
+    @Setter
+    public static class Transport {
+        /** Maximum bytes buffered per session while a send is in progress. */
+        private int sendBufferSizeLimit = 512 * 1024;
+        /** Maximum time in milliseconds a single send may block before the session is closed. */
+        private int sendTimeLimit = 15_000;
+        /** Maximum size in bytes of an inbound STOMP message. */
+        private int messageSizeLimit = 64 * 1024;
+    }
+
+    @Getter
+    @Setter
+    public static class Heartbeat {
+        /** How often the server sends heartbeats, in milliseconds (0 disables). */
+        private long serverIntervalMs = 10_000;
+        /** How often the server expects heartbeats from clients, in milliseconds (0 disables). */
+        private long clientIntervalMs = 10_000;
+    }
+}
@@ -2,17 +2,24 @@ package com.workbridge.workbridge_app.config.minio;
 
 import java.net.URI;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
 @Configuration
+// Shared by the blocking (s3) and non-blocking (s3-async) image backends
+@ConditionalOnExpression("'${image.storage.type:s3}'.startsWith('s3')")
 public class MinioConfig {
     @Bean
     public S3Client s3Client(MinioProperties props) {
@@ -41,4 +48,38 @@ public class MinioConfig {
                 .build())
             .build();
     }
+
+    /**
+     * Non-blocking client for the {@code s3-async} backend. Requests share one Netty event loop
+     * and a bounded connection pool, so no thread waits on MinIO. Bodies above one upload part
+     * are split into parallel multipart uploads by the SDK.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "image.storage", name = "type", havingValue = "s3-async")
+    public S3AsyncClient s3AsyncClient(MinioProperties props) {
+        MinioProperties.Async pool = props.getAsync();
+        long partSize = props.getUploadPartSize().toBytes();
+        return S3AsyncClient.builder()
+            .endpointOverride(URI.create(props.getUrl()))
+            .region(Region.US_EAST_1)
+            .credentialsProvider(StaticCredentialsProvider.create(
+                AwsBasicCredentials.create(props.getAccessKey(), props.getSecretKey())
+            ))
+            .forcePathStyle(true)
+            .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(pool.getMaxConcurrency())
+                .maxPendingConnectionAcquires(pool.getMaxPendingConnectionAcquires())
+                .connectionAcquisitionTimeout(pool.getConnectionAcquisitionTimeout())
+                .connectionTimeout(pool.getConnectionTimeout())
+                .readTimeout(pool.getReadTimeout())
+                .connectionMaxIdleTime(pool.getConnectionMaxIdleTime())
+                .tcpKeepAlive(true))
+            .multipartEnabled(true)
+            .multipartConfiguration(MultipartConfiguration.builder()
+                .thresholdInBytes(partSize)
+                .minimumPartSizeInBytes(partSize)
+                .apiCallBufferSizeInBytes(partSize * (props.getUploadPartConcurrency() + 1))
+                .build())
+            .build();
+    }
 }
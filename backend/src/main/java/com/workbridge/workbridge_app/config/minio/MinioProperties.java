@@ -1,7 +1,10 @@
 package com.workbridge.workbridge_app.config.minio;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
 
 import lombok.Data;
 
@@ -13,4 +16,59 @@ public class MinioProperties {
     private String accessKey;
     private String secretKey;
     private String bucket;
+
+    /** Validity of presigned GET URLs handed to clients. */
+    private long presignedExpirationMinutes = 10;
+
+    /**
+     * A cached presigned URL is only reused while at least this much of its validity is left,
+     * so clients never receive a URL that expires before the image has loaded.
+     */
+    private Duration presignedUrlMinRemaining = Duration.ofMinutes(2);
+
+    /** Upper bound on cached presigned URLs. */
+    private int presignedUrlCacheSize = 10_000;
+
+    /** Upper bound on object keys remembered as existing, which skips their HEAD request. */
+    private int knownObjectCacheSize = 50_000;
+
+    /**
+     * Part size for S3 multipart uploads; bodies that fit in one part are sent with a single
+     * PUT. S3 requires at least 5MB for every part but the last.
+     */
+    private DataSize uploadPartSize = DataSize.ofMegabytes(8);
+
+    /**
+     * Parts of one upload sent to MinIO at the same time. Heap use per upload is bounded by
+     * {@code (uploadPartConcurrency + 1) * uploadPartSize}.
+     */
+    private int uploadPartConcurrency = 4;
+
+    /** Largest body accepted by the streaming upload endpoint. */
+    private DataSize maxStreamUploadSize = DataSize.ofMegabytes(100);
+
+    /** Connection pool of the non-blocking client used when {@code image.storage.type} is {@code s3-async}. */
+    private Async async = new Async();
+
+    @Data
+    public static class Async {
+
+        /** Connections open to MinIO at once; requests beyond this wait for a free connection. */
+        private int maxConcurrency = 128;
+
+        /** Requests allowed to wait for a connection before new ones fail fast. */
+        private int maxPendingConnectionAcquires = 2_000;
+
+        /** Longest a request waits for a pooled connection. */
+        private Duration connectionAcquisitionTimeout = Duration.ofSeconds(5);
+
+        /** Longest a TCP connect to MinIO may take. */
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+
+        /** Longest a connection may see no response bytes before the request fails. */
+        private Duration readTimeout = Duration.ofSeconds(30);
+
+        /** Idle connections are closed after this long. */
+        private Duration connectionMaxIdleTime = Duration.ofSeconds(60);
+    }
 }
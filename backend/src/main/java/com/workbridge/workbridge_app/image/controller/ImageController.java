@@ -1,11 +1,15 @@
 package com.workbridge.workbridge_app.image.controller;
 
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -14,9 +18,15 @@ import org.springframework.web.multipart.MultipartFile;
 import com.workbridge.workbridge_app.common.response.ApiResponse;
 import com.workbridge.workbridge_app.common.response.ResponseFactory;
 import com.workbridge.workbridge_app.image.dto.GetImageResponseDTO;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsRequestDTO;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsResponseDTO;
 import com.workbridge.workbridge_app.image.dto.UploadResponseDTO;
 import com.workbridge.workbridge_app.image.service.ImageStorageService;
+import com.workbridge.workbridge_app.image.service.ImageVariant;
+import com.workbridge.workbridge_app.security.SecurityUtil;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
 @RestController
@@ -26,24 +36,44 @@ public class ImageController {
     private final ImageStorageService imageStorageService;
 
     @GetMapping("/{key}")
-    public ResponseEntity<ApiResponse<GetImageResponseDTO>> getImageUrl(@PathVariable String key) {
-        return ResponseFactory.ok(
-            imageStorageService.getImageUrl(key),
-            "Image Url retrieved successfully."
-        );
+    public CompletableFuture<ResponseEntity<ApiResponse<GetImageResponseDTO>>> getImageUrl(
+        @PathVariable String key,
+        @RequestParam(defaultValue = "original") String variant
+    ) {
+        return imageStorageService.getImageUrlAsync(key, ImageVariant.fromParameter(variant))
+            .thenApply(url -> ResponseFactory.ok(url, "Image Url retrieved successfully."));
+    }
+
+    @PostMapping(value = "/urls", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<ApiResponse<GetImageUrlsResponseDTO>>> getImageUrls(
+        @Valid @RequestBody GetImageUrlsRequestDTO request
+    ) {
+        return imageStorageService.getImageUrlsAsync(request.getKeys(), ImageVariant.fromParameter(request.getVariant()))
+            .thenApply(urls -> ResponseFactory.ok(urls, "Image Urls retrieved successfully."));
     }
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<ApiResponse<UploadResponseDTO>> upload(@RequestParam("file") MultipartFile file) {
+    public CompletableFuture<ResponseEntity<ApiResponse<UploadResponseDTO>>> upload(@RequestParam("file") MultipartFile file) {
+        Long ownerId = SecurityUtil.getAuthenticatedId();
+        // Blocking backends are called through their proxy so their upload retries apply
+        CompletableFuture<UploadResponseDTO> upload = imageStorageService.nonBlocking()
+            ? imageStorageService.uploadImageAsync(file, ownerId)
+            : CompletableFuture.completedFuture(imageStorageService.uploadImage(file, ownerId));
+        return upload.thenApply(stored -> ResponseFactory.ok(stored, "Image uploaded successfully."));
+    }
+
+    @PostMapping(value = "/stream", consumes = "image/*")
+    public ResponseEntity<ApiResponse<UploadResponseDTO>> uploadStream(HttpServletRequest request) throws IOException {
         return ResponseFactory.ok(
-            imageStorageService.uploadImage(file),
+            imageStorageService.uploadImageStream(request.getInputStream(), request.getContentType(),
+                SecurityUtil.getAuthenticatedId()),
             "Image uploaded successfully."
         );
     }
 
     @DeleteMapping("/{key}")
     public ResponseEntity<Void> delete(@PathVariable String key) {
-        imageStorageService.deleteImage(key);
+        imageStorageService.deleteImage(key, SecurityUtil.getAuthenticatedId());
         return ResponseEntity.noContent().build();
     }
 }
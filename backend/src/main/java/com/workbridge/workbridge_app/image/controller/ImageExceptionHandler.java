@@ -1,5 +1,7 @@
 package com.workbridge.workbridge_app.image.controller;
 
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -8,6 +10,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import com.workbridge.workbridge_app.common.response.ErrorResponse;
 import com.workbridge.workbridge_app.common.response.ResponseFactory;
 import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.exception.TransientImageStorageException;
 
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +22,8 @@ import lombok.extern.slf4j.Slf4j;
  * and returns a standardized error response format with appropriate status codes.
  *
  * <p>This handler supplements the {@link com.workbridge.workbridge_app.common.exception.GlobalExceptionHandler}
- * by focusing on image-specific domain errors, like invalid uploads or access to non-existent image keys.</p>
+ * by focusing on image-specific domain errors, like invalid uploads or access to non-existent image keys.
+ * It is ordered first so the global catch-all handler does not claim these exceptions.</p>
  *
  * <p>Typical triggers:</p>
  * <ul>
@@ -32,6 +36,7 @@ import lombok.extern.slf4j.Slf4j;
  * @since 2025-07-16
  */
 @RestControllerAdvice(assignableTypes = ImageController.class)
+@Order(Ordered.HIGHEST_PRECEDENCE)
 @Slf4j
 public class ImageExceptionHandler {
 
@@ -64,12 +69,22 @@ public class ImageExceptionHandler {
      * Maps exception cause or message to a relevant HTTP status code.
      *
      * @param ex the exception to inspect
-     * @return {@link HttpStatus#BAD_REQUEST} for client-related errors, {@link HttpStatus#INTERNAL_SERVER_ERROR} otherwise
+     * @return {@link HttpStatus#BAD_REQUEST} for client-related errors, {@link HttpStatus#PAYLOAD_TOO_LARGE}
+     *         for oversized uploads, {@link HttpStatus#SERVICE_UNAVAILABLE}
+     *         when storage stayed unavailable through all retries, {@link HttpStatus#INTERNAL_SERVER_ERROR} otherwise
      */
     private HttpStatus determineHttpStatus(ImageStorageException ex) {
+        if (ex instanceof TransientImageStorageException) {
+            return HttpStatus.SERVICE_UNAVAILABLE;
+        }
         String message = ex.getMessage().toLowerCase();
 
-        if (message.contains("empty") || message.contains("only image files are allowed") || message.contains("does not exist")) {
+        if (message.contains("too large")) {
+            return HttpStatus.PAYLOAD_TOO_LARGE;
+        }
+
+        if (message.contains("empty") || message.contains("only image files are allowed") || message.contains("does not exist")
+            || message.contains("unknown image variant") || message.contains("corrupt")) {
             return HttpStatus.BAD_REQUEST;
         }
 
@@ -0,0 +1,136 @@
+package com.workbridge.workbridge_app.image.controller;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import com.workbridge.workbridge_app.config.ImageStorageProperties;
+import com.workbridge.workbridge_app.image.service.LocalImageStorageService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the bytes of images kept by {@link LocalImageStorageService}.
+ * <p>
+ * Keys are content hashes, so the ETag is the key itself and responses may be cached for
+ * {@code image.storage.cache-max-age} without revalidation. A single byte range is honoured
+ * (multiple ranges get the whole file, which HTTP allows). The body is handed to Tomcat's
+ * sendfile support when the connector offers it, so the kernel copies the file straight to the
+ * socket; otherwise it is written with {@link FileChannel#transferTo}. The {@code Content-Type}
+ * comes from the file's leading bytes, not its extension, since variants may be re-encoded.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@RestController
+@RequestMapping(LocalImageStorageService.FILES_PATH)
+@ConditionalOnProperty(prefix = "image.storage", name = "type", havingValue = "local")
+public class LocalImageFileController {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final LocalImageStorageService storageService;
+    private final String cacheControl;
+
+    public LocalImageFileController(LocalImageStorageService storageService, ImageStorageProperties properties) {
+        this.storageService = storageService;
+        // Authenticated endpoint, so shared caches must not keep the bytes
+        this.cacheControl = CacheControl.maxAge(properties.getCacheMaxAge())
+            .cachePrivate()
+            .immutable()
+            .getHeaderValue();
+    }
+
+    @GetMapping("/{*key}")
+    public void serve(
+        @PathVariable String key,
+        HttpServletRequest request,
+        HttpServletResponse response
+    ) throws IOException {
+        String objectKey = key.startsWith("/") ? key.substring(1) : key;
+        Optional<Path> found = storageService.findFile(objectKey);
+        if (found.isEmpty()) {
+            response.setStatus(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        Path file = found.get();
+        String etag = "\"" + objectKey.replace('/', '-') + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            return;
+        }
+
+        long length = Files.size(file);
+        long start = 0;
+        long count = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    if (start >= length) {
+                        throw new IllegalArgumentException("Range starts after the end of the file");
+                    }
+                    count = ranges.get(0).getRangeEnd(length) - start + 1;
+                    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + start + "-" + (start + count - 1) + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(storageService.contentType(objectKey, file));
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file after this method returns, without copying it through the heap
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long end = start + count;
+            while (position < end) {
+                long sent = channel.transferTo(position, end - position, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+            }
+        }
+    }
+}
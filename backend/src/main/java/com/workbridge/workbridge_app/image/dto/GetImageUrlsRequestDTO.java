@@ -0,0 +1,25 @@
+package com.workbridge.workbridge_app.image.dto;
+
+import java.util.List;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetImageUrlsRequestDTO {
+
+    public static final int MAX_KEYS = 100;
+
+    @NotEmpty(message = "At least one image key is required")
+    @Size(max = MAX_KEYS, message = "At most " + MAX_KEYS + " image keys can be requested at once")
+    private List<@NotBlank(message = "Image keys must not be blank") String> keys;
+
+    /** Rendition to link to, e.g. {@code thumbnail}; the original when absent. */
+    private String variant;
+}
@@ -0,0 +1,18 @@
+package com.workbridge.workbridge_app.image.dto;
+
+import java.util.List;
+import java.util.Map;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class GetImageUrlsResponseDTO {
+    /** Presigned URL per requested key, in request order. */
+    private Map<String, String> urls;
+    /** Requested keys that do not exist in the bucket. */
+    private List<String> missing;
+}
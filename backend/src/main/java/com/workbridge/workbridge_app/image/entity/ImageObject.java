@@ -0,0 +1,51 @@
+package com.workbridge.workbridge_app.image.entity;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A content-addressed image in object storage and the number of uploads referring to it.
+ * <p>
+ * The key is derived from the SHA-256 of the content, so identical uploads share one row and one
+ * object. {@code stored} turns true once the original and its variants are in the bucket; until
+ * then a second upload of the same content stores it again rather than trusting an object that
+ * may still be in flight.
+ */
+@Entity
+@Table(name = "image_object")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImageObject {
+
+    @Id
+    @Column(name = "object_key", length = 80)
+    private String objectKey;
+
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "stored", nullable = false)
+    private boolean stored;
+
+    @Column(name = "size_bytes", nullable = false)
+    private long sizeBytes;
+
+    @Column(name = "content_type", length = 100)
+    private String contentType;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
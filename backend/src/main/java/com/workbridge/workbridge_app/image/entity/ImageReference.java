@@ -0,0 +1,52 @@
+package com.workbridge.workbridge_app.image.entity;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A user's reference to a content-addressed {@link ImageObject}.
+ * <p>
+ * Each user holds at most one reference per key, however often they upload the same content, and
+ * the object's {@code ref_count} is the number of these rows. Deleting an image releases only the
+ * caller's own reference, so knowing or computing a key is not enough to remove someone else's
+ * image. Keys have no foreign key to {@code image_object} or the users, so deleting a user never
+ * fails on their images.
+ */
+@Entity
+@Table(name = "image_reference")
+@IdClass(ImageReference.Key.class)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ImageReference {
+
+    @Id
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Id
+    @Column(name = "object_key", length = 80, nullable = false)
+    private String objectKey;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Key implements Serializable {
+        private Long ownerId;
+        private String objectKey;
+    }
+}
@@ -0,0 +1,11 @@
+package com.workbridge.workbridge_app.image.exception;
+
+/**
+ * Storage failure that may succeed when retried, such as a network error, a 5xx or throttling
+ * response, or a bucket that disappeared and has to be re-created.
+ */
+public class TransientImageStorageException extends ImageStorageException {
+    public TransientImageStorageException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
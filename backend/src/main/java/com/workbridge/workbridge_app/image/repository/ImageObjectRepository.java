@@ -0,0 +1,110 @@
+package com.workbridge.workbridge_app.image.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.workbridge.workbridge_app.common.util.EntityStreams;
+import com.workbridge.workbridge_app.image.entity.ImageObject;
+
+import jakarta.persistence.QueryHint;
+
+public interface ImageObjectRepository extends JpaRepository<ImageObject, String> {
+
+    /**
+     * Records the owner's reference to the object, creating its row on first use, in one
+     * statement. An owner holds at most one reference per key, so uploading the same content
+     * again leaves the count unchanged.
+     *
+     * @return whether the object is already fully stored, and whether this call added a reference
+     */
+    @Transactional
+    @Query(value = "WITH added AS ("
+                 + "INSERT INTO image_reference (owner_id, object_key, created_at) VALUES (:ownerId, :key, now()) "
+                 + "ON CONFLICT (owner_id, object_key) DO NOTHING RETURNING object_key) "
+                 + "INSERT INTO image_object (object_key, ref_count, stored, size_bytes, content_type, created_at, updated_at) "
+                 + "VALUES (:key, (SELECT count(*) FROM added), false, :size, :contentType, now(), now()) "
+                 + "ON CONFLICT (object_key) DO UPDATE "
+                 + "SET ref_count = image_object.ref_count + (SELECT count(*) FROM added), updated_at = now() "
+                 + "RETURNING stored, EXISTS (SELECT 1 FROM added) AS added",
+           nativeQuery = true)
+    Acquisition acquire(@Param("key") String key,
+                        @Param("ownerId") Long ownerId,
+                        @Param("size") long size,
+                        @Param("contentType") String contentType);
+
+    /**
+     * Drops the owner's reference, if they hold one. The object row stays locked until the
+     * caller's transaction ends, so an object whose count reached zero can be deleted before a
+     * concurrent upload re-references it.
+     *
+     * @return the remaining count, or an empty list if the owner holds no reference to the key
+     */
+    @Transactional
+    @Query(value = "WITH released AS ("
+                 + "DELETE FROM image_reference WHERE owner_id = :ownerId AND object_key = :key RETURNING object_key) "
+                 + "UPDATE image_object SET ref_count = ref_count - 1, updated_at = now() "
+                 + "WHERE object_key IN (SELECT object_key FROM released) AND ref_count > 0 RETURNING ref_count",
+           nativeQuery = true)
+    List<Integer> release(@Param("key") String key, @Param("ownerId") Long ownerId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageObject o SET o.stored = true WHERE o.objectKey = :key")
+    int markStored(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ImageObject o WHERE o.objectKey = :key AND o.refCount = 0")
+    int deleteUnreferenced(@Param("key") String key);
+
+    /**
+     * Streams every key with a row, referenced or still being uploaded. Must be consumed inside a
+     * transaction and closed.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o.objectKey FROM ImageObject o")
+    Stream<String> streamAllKeys();
+
+    /**
+     * @return those of {@code keys} that currently have a row
+     */
+    @Query("SELECT o.objectKey FROM ImageObject o WHERE o.objectKey IN :keys")
+    List<String> findExistingKeys(@Param("keys") Collection<String> keys);
+
+    /**
+     * Deletes up to {@code limit} rows that have had no references since before {@code cutoff},
+     * left behind when a delete failed after dropping the last reference.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM image_object WHERE object_key IN ("
+                 + "SELECT object_key FROM image_object WHERE ref_count = 0 AND updated_at < :cutoff "
+                 + "LIMIT :limit FOR UPDATE SKIP LOCKED)",
+           nativeQuery = true)
+    int deleteUnreferencedBatch(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+
+    /**
+     * Outcome of {@link #acquire}.
+     */
+    interface Acquisition {
+
+        /** Whether the object and its variants are already stored, so the upload can be skipped. */
+        boolean getStored();
+
+        /** Whether the call added the owner's reference, which a failed upload must then release. */
+        boolean getAdded();
+    }
+}
@@ -0,0 +1,577 @@
+package com.workbridge.workbridge_app.image.service;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.workbridge.workbridge_app.config.minio.MinioProperties;
+import com.workbridge.workbridge_app.image.dto.GetImageResponseDTO;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsResponseDTO;
+import com.workbridge.workbridge_app.image.dto.UploadResponseDTO;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.exception.TransientImageStorageException;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository.Acquisition;
+import com.workbridge.workbridge_app.image.service.ImageVariantGenerator.RenderedVariant;
+import com.workbridge.workbridge_app.image.service.ImageValidator.ImageInfo;
+import com.workbridge.workbridge_app.image.service.ImageValidator.ValidatedStream;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+/**
+ * {@link ImageStorageService} on the non-blocking {@link S3AsyncClient}, selected with
+ * {@code image.storage.type=s3-async}.
+ * <p>
+ * Behaves like {@link MinioImageStorageService} (content keys, reference counts, variants, and
+ * the presigned URL and existence caches of a shared {@link MinioObjectCatalog}) but its
+ * {@code *Async} methods never hold a thread while
+ * MinIO answers: requests go out on the SDK's Netty event loop with a bounded connection pool
+ * ({@code minio.async.*}), and the controller releases its servlet thread until the future
+ * completes. Steps that must block (reading the upload, JDBC, waiting for variants) run on
+ * virtual threads. Bodies larger than one part are uploaded in parallel parts by the SDK's
+ * multipart support, so {@link MultipartStreamUploader} is not used here.
+ * <p>
+ * Uploads that fail transiently are retried with the same jittered backoff as the blocking
+ * backend, scheduled on a timer instead of a sleeping thread. Streamed uploads and deletes keep
+ * the blocking signature: the former reads the servlet input stream, the latter holds the
+ * reference row lock until the objects are gone.
+ * <p>
+ * Publishes:
+ * <ul>
+ *   <li>{@code image.s3.inflight} – MinIO requests currently in flight</li>
+ *   <li>{@code image.s3.requests} – MinIO request latency by {@code operation} and {@code outcome}</li>
+ * </ul>
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@Service
+@ConditionalOnProperty(prefix = "image.storage", name = "type", havingValue = "s3-async")
+@Slf4j
+public class AsyncMinioImageStorageService implements ImageStorageService {
+
+    private static final int MAX_UPLOAD_ATTEMPTS = 3;
+    private static final long INITIAL_BACKOFF_MILLIS = 200;
+    private static final long MAX_BACKOFF_MILLIS = 2000;
+
+    private final S3AsyncClient s3Client;
+    private final S3Presigner s3Presigner;
+    private final ImageVariantGenerator variantGenerator;
+    private final ImageValidator imageValidator;
+    private final ImageObjectRepository imageObjectRepository;
+    private final MinioProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService blockingExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final MinioObjectCatalog catalog;
+    /** HEAD requests in flight, so concurrent lookups of a cold key share one request. */
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> pendingChecks = new ConcurrentHashMap<>();
+
+    public AsyncMinioImageStorageService(
+        S3AsyncClient s3Client,
+        S3Presigner s3Presigner,
+        ImageVariantGenerator variantGenerator,
+        ImageValidator imageValidator,
+        ImageObjectRepository imageObjectRepository,
+        MinioProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.variantGenerator = variantGenerator;
+        this.imageValidator = imageValidator;
+        this.imageObjectRepository = imageObjectRepository;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.catalog = new MinioObjectCatalog(s3Presigner, imageObjectRepository, properties, meterRegistry);
+        Gauge.builder("image.s3.inflight", inFlight, AtomicInteger::get)
+            .description("MinIO requests currently in flight")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Verifies the bucket once at startup. A failure here is only logged; the first upload
+     * checks the bucket again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeBucket() {
+        try {
+            ensureBucketExists().join();
+        } catch (RuntimeException e) {
+            log.warn("Could not verify bucket '{}' at startup; will retry on first upload: {}",
+                properties.getBucket(), unwrap(e).getMessage());
+        }
+    }
+
+    @Override
+    public boolean nonBlocking() {
+        return true;
+    }
+
+    @Override
+    public UploadResponseDTO uploadImage(MultipartFile file, Long ownerId) {
+        return await(uploadImageAsync(file, ownerId));
+    }
+
+    @Override
+    public GetImageResponseDTO getImageUrl(String key, ImageVariant variant) {
+        return await(getImageUrlAsync(key, variant));
+    }
+
+    @Override
+    public GetImageUrlsResponseDTO getImageUrls(Collection<String> keys, ImageVariant variant) {
+        return await(getImageUrlsAsync(keys, variant));
+    }
+
+    /**
+     * Uploads a validated image file under a key derived from its SHA-256, with its variants.
+     * <p>
+     * Hashing and the reference count update happen on the calling thread; duplicates complete
+     * immediately. Otherwise the original is sent without blocking, retried on transient
+     * failures, and the variants follow once rendered.
+     *
+     * @param file    the {@link MultipartFile} to upload
+     * @param ownerId the user who holds the reference to the stored image
+     * @return the public URL of the stored object, once it is stored
+     * @throws ImageStorageException if the file is invalid; storage failures complete the future exceptionally
+     */
+    @Override
+    public CompletableFuture<UploadResponseDTO> uploadImageAsync(MultipartFile file, Long ownerId) {
+        ImageInfo image = imageValidator.validate(file);
+        String key = ImageContent.contentKey(ImageContent.sha256(file), image.contentType());
+        Acquisition acquisition = catalog.acquire(key, ownerId, file.getSize(), image.contentType());
+        if (acquisition.getStored()) {
+            return CompletableFuture.completedFuture(new UploadResponseDTO(objectUrl(key)));
+        }
+
+        var variants = variantGenerator.submit(file::getInputStream);
+        return withRetry(() -> putOriginal(key, file, image.contentType()), 1)
+            .thenComposeAsync(stored -> storeVariants(key, variantGenerator.await(variants)), blockingExecutor)
+            .thenRunAsync(() -> imageObjectRepository.markStored(key), blockingExecutor)
+            .handleAsync((ignored, failure) -> {
+                if (failure == null) {
+                    return new UploadResponseDTO(objectUrl(key));
+                }
+                if (variants != null) {
+                    variants.cancel(true);
+                }
+                catalog.abandon(key, ownerId, acquisition);
+                throw new CompletionException(unwrap(failure));
+            }, blockingExecutor);
+    }
+
+    /**
+     * Uploads an image streamed from the request body, hashing it on the way to a staging key
+     * and then copying it server-side to its content key. Blocks until done, since the body is
+     * read from the servlet input stream.
+     */
+    @Override
+    public UploadResponseDTO uploadImageStream(InputStream content, String contentType, Long ownerId) {
+        ValidatedStream validated = imageValidator.validate(content, contentType, properties.getMaxStreamUploadSize().toBytes());
+        String storedType = validated.info().contentType();
+        MessageDigest digest = ImageContent.newSha256();
+        CountingInputStream body = new CountingInputStream(new DigestInputStream(validated.content(), digest),
+            validated.maxBytes());
+        String bucket = properties.getBucket();
+        String stagingKey = MinioImageStorageService.STAGING_PREFIX + UUID.randomUUID();
+
+        try {
+            await(ensureBucketExists().thenCompose(ready -> track("put", () -> s3Client.putObject(
+                    PutObjectRequest.builder().bucket(bucket).key(stagingKey).contentType(storedType).build(),
+                    AsyncRequestBody.fromInputStream(body, null, blockingExecutor))))
+                .exceptionally(failure -> {
+                    throw new CompletionException(catalog.uploadFailure(stagingKey, unwrap(failure)));
+                }));
+            if (body.count == 0) {
+                throw new ImageStorageException("Uploaded file is empty.");
+            }
+
+            String key = ImageContent.contentKey(HexFormat.of().formatHex(digest.digest()), storedType);
+            Acquisition acquisition = catalog.acquire(key, ownerId, body.count, storedType);
+            if (!acquisition.getStored()) {
+                try {
+                    await(track("copy", () -> s3Client.copyObject(CopyObjectRequest.builder()
+                        .sourceBucket(bucket)
+                        .sourceKey(stagingKey)
+                        .destinationBucket(bucket)
+                        .destinationKey(key)
+                        .build())));
+                    imageObjectRepository.markStored(key);
+                    catalog.remember(key);
+                } catch (RuntimeException e) {
+                    catalog.abandon(key, ownerId, acquisition);
+                    throw catalog.uploadFailure(key, e);
+                }
+            }
+            log.info("Image uploaded successfully to bucket '{}'. Key: {}, Size: {} bytes", bucket, key, body.count);
+            return new UploadResponseDTO(objectUrl(key));
+        } finally {
+            track("delete", () -> s3Client.deleteObject(DeleteObjectRequest.builder().bucket(bucket).key(stagingKey).build()))
+                .exceptionally(failure -> {
+                    log.warn("Failed to delete staging object '{}'; left for garbage collection: {}",
+                        stagingKey, unwrap(failure).getMessage());
+                    return null;
+                });
+        }
+    }
+
+    /**
+     * Drops the owner's reference to an image and deletes it, with all of its variants, once no
+     * upload refers to it any more. Does nothing if the owner holds no reference. Waits for MinIO
+     * while the reference row is locked, so a concurrent upload of the same content cannot be
+     * pointed at objects being deleted.
+     *
+     * @param key     the unique key identifying the image in the bucket
+     * @param ownerId the user whose reference is released
+     */
+    @Override
+    @Transactional
+    public void deleteImage(String key, Long ownerId) {
+        catalog.release(key, ownerId, delete -> await(track("delete", () -> s3Client.deleteObjects(DeleteObjectsRequest.builder()
+            .bucket(properties.getBucket())
+            .delete(delete)
+            .build()))));
+    }
+
+    @Override
+    public CompletableFuture<GetImageResponseDTO> getImageUrlAsync(String key, ImageVariant variant) {
+        return getImageUrlsAsync(List.of(key), variant).thenApply(resolved -> {
+            if (!resolved.getMissing().isEmpty()) {
+                log.warn("Requested image '{}' not found in bucket '{}'", key, properties.getBucket());
+                throw new ImageStorageException("Requested image does not exist");
+            }
+            return new GetImageResponseDTO(resolved.getUrls().get(key));
+        });
+    }
+
+    /**
+     * Presigns many images at once. Keys without a cached URL or known existence are checked
+     * with concurrent non-blocking HEAD requests; missing variants fall back to the original.
+     */
+    @Override
+    public CompletableFuture<GetImageUrlsResponseDTO> getImageUrlsAsync(Collection<String> keys, ImageVariant variant) {
+        List<String> distinct = List.copyOf(new LinkedHashSet<>(keys));
+        CompletableFuture<Map<String, String>> variantLookup = variant == ImageVariant.ORIGINAL
+            ? CompletableFuture.completedFuture(Map.of())
+            : presignExisting(distinct, variant);
+
+        return variantLookup.thenCompose(variantUrls -> presignExisting(
+                distinct.stream().filter(key -> !variantUrls.containsKey(key)).toList(), ImageVariant.ORIGINAL)
+            .thenApply(originalUrls -> MinioObjectCatalog.collect(distinct, variantUrls, originalUrls)));
+    }
+
+    private CompletableFuture<Map<String, String>> presignExisting(List<String> keys, ImageVariant variant) {
+        Map<String, String> urls = new HashMap<>();
+        Map<String, String> unknown = catalog.resolveCached(keys, variant, urls);
+        if (unknown.isEmpty()) {
+            return CompletableFuture.completedFuture(urls);
+        }
+
+        Map<String, CompletableFuture<Boolean>> checks = new LinkedHashMap<>();
+        unknown.keySet().forEach(objectKey -> checks.put(objectKey, objectExists(objectKey)));
+        return CompletableFuture.allOf(checks.values().toArray(CompletableFuture[]::new)).thenApply(done -> {
+            Map<String, Boolean> existence = new HashMap<>();
+            checks.forEach((objectKey, exists) -> existence.put(objectKey, exists.join()));
+            catalog.resolveChecked(unknown, existence, variant, urls);
+            return urls;
+        });
+    }
+
+    /**
+     * @return whether the object exists; completes exceptionally if MinIO cannot be queried
+     */
+    private CompletableFuture<Boolean> objectExists(String key) {
+        CompletableFuture<Boolean> pending = pendingChecks.get(key);
+        if (pending != null) {
+            return pending;
+        }
+        CompletableFuture<Boolean> check = new CompletableFuture<>();
+        pending = pendingChecks.putIfAbsent(key, check);
+        if (pending != null) {
+            return pending;
+        }
+        headObject(key).whenComplete((exists, failure) -> {
+            pendingChecks.remove(key, check);
+            if (failure != null) {
+                check.completeExceptionally(failure);
+            } else {
+                check.complete(exists);
+            }
+        });
+        return check;
+    }
+
+    private CompletableFuture<Boolean> headObject(String key) {
+        catalog.countExistenceCheck();
+        return track("head", () -> s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(properties.getBucket())
+                .key(key)
+                .build()))
+            .handle((response, failure) -> {
+                if (failure == null) {
+                    catalog.remember(key);
+                    return true;
+                }
+                Throwable cause = unwrap(failure);
+                if (MinioObjectCatalog.isMissing(cause)) {
+                    return false;
+                }
+                log.error("Failed to check image '{}' in bucket '{}'", key, properties.getBucket(), cause);
+                throw new CompletionException(new ImageStorageException("Failed to check image", cause));
+            });
+    }
+
+    private CompletableFuture<Void> putOriginal(String key, MultipartFile file, String contentType) {
+        String bucket = properties.getBucket();
+        return ensureBucketExists().thenCompose(ready -> {
+            InputStream content;
+            try {
+                // Every attempt reopens the file, so a retry never resumes a half-read stream
+                content = file.getInputStream();
+            } catch (IOException e) {
+                return CompletableFuture.failedFuture(new ImageStorageException("Failed to upload image", e));
+            }
+            return track("put", () -> s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .contentType(contentType)
+                        .contentLength(file.getSize())
+                        .build(),
+                    AsyncRequestBody.fromInputStream(content, file.getSize(), blockingExecutor)))
+                .whenComplete((response, failure) -> closeQuietly(content));
+        }).handle((response, failure) -> {
+            if (failure != null) {
+                throw new CompletionException(catalog.uploadFailure(key, unwrap(failure)));
+            }
+            catalog.remember(key);
+            log.info("Image uploaded successfully to bucket '{}'. Key: {}, Size: {} bytes", bucket, key, file.getSize());
+            return null;
+        });
+    }
+
+    /**
+     * Stores rendered variants concurrently. Variants are best effort: failures are logged and
+     * URLs for them fall back to the original.
+     */
+    private CompletableFuture<Void> storeVariants(String key, List<RenderedVariant> variants) {
+        CompletableFuture<?>[] puts = variants.stream().map(variant -> {
+            String variantKey = variant.variant().keyFor(key);
+            return track("put", () -> s3Client.putObject(PutObjectRequest.builder()
+                        .bucket(properties.getBucket())
+                        .key(variantKey)
+                        .contentType(variant.contentType())
+                        .build(),
+                    AsyncRequestBody.fromBytes(variant.content())))
+                .handle((response, failure) -> {
+                    if (failure == null) {
+                        catalog.rememberVariant(variantKey);
+                    } else {
+                        log.warn("Failed to store {} variant of '{}': {}", variant.variant(), key, unwrap(failure).getMessage());
+                    }
+                    return null;
+                });
+        }).toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(puts);
+    }
+
+    /**
+     * Checks the bucket unless it is known to exist, creating it if missing.
+     */
+    private CompletableFuture<Void> ensureBucketExists() {
+        if (catalog.bucketReady()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        String bucket = properties.getBucket();
+        return track("head-bucket", () -> s3Client.headBucket(HeadBucketRequest.builder().bucket(bucket).build()))
+            .handle((response, failure) -> {
+                Throwable cause = failure == null ? null : unwrap(failure);
+                if (cause == null) {
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                if (cause instanceof S3Exception s3 && s3.statusCode() == 404) {
+                    log.warn("Bucket '{}' not found. Creating it now...", bucket);
+                    return track("create-bucket", () -> s3Client.createBucket(CreateBucketRequest.builder().bucket(bucket).build()))
+                        .handle((created, createFailure) -> {
+                            Throwable createCause = createFailure == null ? null : unwrap(createFailure);
+                            if (createCause != null && !(createCause instanceof BucketAlreadyOwnedByYouException
+                                || createCause instanceof BucketAlreadyExistsException)) {
+                                throw new CompletionException(createCause);
+                            }
+                            return (Void) null;
+                        });
+                }
+                if (cause instanceof S3Exception s3 && (s3.statusCode() == 403 || s3.statusCode() == 409)) {
+                    log.warn("Bucket '{}' exists but is not accessible (status {}). Skipping creation.", bucket, s3.statusCode());
+                    return CompletableFuture.<Void>completedFuture(null);
+                }
+                return CompletableFuture.<Void>failedFuture(cause);
+            })
+            .thenCompose(next -> next)
+            .thenRun(catalog::markBucketReady);
+    }
+
+    /**
+     * Runs the attempt, retrying transient failures with jittered exponential backoff on a timer.
+     */
+    private <T> CompletableFuture<T> withRetry(Supplier<CompletableFuture<T>> attempt, int attemptNumber) {
+        return attempt.get().exceptionallyCompose(failure -> {
+            Throwable cause = unwrap(failure);
+            if (!(cause instanceof TransientImageStorageException) || attemptNumber >= MAX_UPLOAD_ATTEMPTS) {
+                return CompletableFuture.failedFuture(cause);
+            }
+            long delay = Math.min(MAX_BACKOFF_MILLIS, INITIAL_BACKOFF_MILLIS << (attemptNumber - 1));
+            delay += ThreadLocalRandom.current().nextLong(delay + 1);
+            log.debug("Retrying upload in {} ms (attempt {} failed: {})", delay, attemptNumber, cause.getMessage());
+            return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                .thenCompose(ignored -> withRetry(attempt, attemptNumber + 1));
+        });
+    }
+
+    /**
+     * Counts a MinIO request as in flight and records its latency when it completes.
+     */
+    private <T> CompletableFuture<T> track(String operation, Supplier<CompletableFuture<T>> request) {
+        inFlight.incrementAndGet();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        CompletableFuture<T> response;
+        try {
+            response = request.get();
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((result, failure) -> {
+            inFlight.decrementAndGet();
+            sample.stop(Timer.builder("image.s3.requests")
+                .description("MinIO request latency")
+                .tag("operation", operation)
+                .tag("outcome", failure == null ? "success" : "error")
+                .register(meterRegistry));
+        });
+    }
+
+    /**
+     * Strips the wrappers futures and the SDK put around a failure. An {@link ImageStorageException}
+     * raised while the SDK was reading a request body is returned as is.
+     */
+    private static Throwable unwrap(Throwable failure) {
+        Throwable cause = failure;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        for (Throwable nested = cause; nested != null; nested = nested.getCause()) {
+            if (nested instanceof ImageStorageException) {
+                return nested;
+            }
+        }
+        return cause;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = unwrap(e);
+            if (cause instanceof ImageStorageException storageException) {
+                throw storageException;
+            }
+            if (cause instanceof SdkException sdkException) {
+                throw new ImageStorageException("Image storage request failed", sdkException);
+            }
+            throw e;
+        }
+    }
+
+    private String objectUrl(String key) {
+        return s3Client.utilities().getUrl(GetUrlRequest.builder()
+            .bucket(properties.getBucket())
+            .key(key)
+            .build()).toString();
+    }
+
+    private static void closeQuietly(InputStream content) {
+        try {
+            content.close();
+        } catch (IOException e) {
+            log.debug("Failed to close upload stream: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        blockingExecutor.shutdownNow();
+    }
+
+    /**
+     * Counts the bytes read from a request body and fails once it exceeds the limit.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final long maxBytes;
+        private long count;
+
+        CountingInputStream(InputStream in, long maxBytes) {
+            super(in);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                added(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                added(read);
+            }
+            return read;
+        }
+
+        private void added(long bytes) {
+            count += bytes;
+            if (count > maxBytes) {
+                throw new ImageStorageException("Uploaded file is too large.");
+            }
+        }
+    }
+}
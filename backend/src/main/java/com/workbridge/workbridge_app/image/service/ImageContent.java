@@ -0,0 +1,69 @@
+package com.workbridge.workbridge_app.image.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+
+/**
+ * Content addressing shared by the {@link ImageStorageService} implementations.
+ * <p>
+ * Every backend stores an image under the SHA-256 of its bytes, so the same key names the same
+ * content whichever backend wrote it.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+final class ImageContent {
+
+    private ImageContent() {
+    }
+
+    /**
+     * Hashes the uploaded file without loading it into memory.
+     *
+     * @return lowercase hex SHA-256 of the content
+     */
+    static String sha256(MultipartFile file) {
+        MessageDigest digest = newSha256();
+        try (InputStream content = new DigestInputStream(file.getInputStream(), digest)) {
+            content.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new ImageStorageException("Failed to read uploaded image", e);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Builds the object key for content: its hash plus an extension taken from the MIME type,
+     * e.g. {@code 9f86d0…0f00a08.png}.
+     */
+    static String contentKey(String sha256Hex, String contentType) {
+        String subtype = contentType.substring(contentType.indexOf('/') + 1).toLowerCase(Locale.ROOT);
+        int parameters = subtype.indexOf(';');
+        if (parameters >= 0) {
+            subtype = subtype.substring(0, parameters);
+        }
+        String extension = subtype.equals("jpeg") ? "jpg" : subtype.replaceAll("[^a-z0-9]", "");
+        if (extension.isEmpty()) {
+            return sha256Hex;
+        }
+        return sha256Hex + "." + extension.substring(0, Math.min(extension.length(), 10));
+    }
+}
@@ -0,0 +1,62 @@
+package com.workbridge.workbridge_app.image.service;
+
+/**
+ * Image formats accepted for upload, recognised by their leading bytes rather than by the
+ * {@code Content-Type} the client declared.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+public enum ImageFormat {
+    JPEG("image/jpeg"),
+    PNG("image/png"),
+    GIF("image/gif"),
+    WEBP("image/webp");
+
+    private final String mimeType;
+
+    ImageFormat(String mimeType) {
+        this.mimeType = mimeType;
+    }
+
+    /**
+     * @return the MIME type objects of this format are stored and keyed under
+     */
+    public String mimeType() {
+        return mimeType;
+    }
+
+    /**
+     * Identifies the format from the first bytes of a file.
+     *
+     * @param head at least the first 12 bytes, fewer only if the file is shorter
+     * @return the format, or {@code null} if the bytes are not a supported image
+     */
+    static ImageFormat sniff(byte[] head) {
+        if (startsWith(head, 0, 0xFF, 0xD8, 0xFF)) {
+            return JPEG;
+        }
+        if (startsWith(head, 0, 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n')) {
+            return PNG;
+        }
+        if (startsWith(head, 0, 'G', 'I', 'F', '8', '7', 'a') || startsWith(head, 0, 'G', 'I', 'F', '8', '9', 'a')) {
+            return GIF;
+        }
+        if (startsWith(head, 0, 'R', 'I', 'F', 'F') && startsWith(head, 8, 'W', 'E', 'B', 'P')) {
+            return WEBP;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] bytes, int offset, int... expected) {
+        if (bytes.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((bytes[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
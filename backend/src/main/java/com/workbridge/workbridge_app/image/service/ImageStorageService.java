@@ -1,12 +1,43 @@
 package com.workbridge.workbridge_app.image.service;
 
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
 import org.springframework.web.multipart.MultipartFile;
 
 import com.workbridge.workbridge_app.image.dto.GetImageResponseDTO;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsResponseDTO;
 import com.workbridge.workbridge_app.image.dto.UploadResponseDTO;
 
 public interface ImageStorageService {
-    UploadResponseDTO uploadImage(MultipartFile file);
-    void deleteImage(String key);
-    GetImageResponseDTO getImageUrl(String key);
+    // Uploads record a reference held by ownerId; deleteImage releases only that owner's reference
+    UploadResponseDTO uploadImage(MultipartFile file, Long ownerId);
+    UploadResponseDTO uploadImageStream(InputStream content, String contentType, Long ownerId);
+    void deleteImage(String key, Long ownerId);
+    GetImageResponseDTO getImageUrl(String key, ImageVariant variant);
+    GetImageUrlsResponseDTO getImageUrls(Collection<String> keys, ImageVariant variant);
+
+    // Non-blocking forms used by the controller; by default they run the blocking call in place
+
+    /**
+     * Whether the {@code *Async} methods complete without holding the calling thread. The default
+     * forms call the blocking method on the target itself, past any proxy, so advice on it (such
+     * as upload retries) does not apply; callers use the blocking form when this is {@code false}.
+     */
+    default boolean nonBlocking() {
+        return false;
+    }
+
+    default CompletableFuture<UploadResponseDTO> uploadImageAsync(MultipartFile file, Long ownerId) {
+        return CompletableFuture.completedFuture(uploadImage(file, ownerId));
+    }
+
+    default CompletableFuture<GetImageResponseDTO> getImageUrlAsync(String key, ImageVariant variant) {
+        return CompletableFuture.completedFuture(getImageUrl(key, variant));
+    }
+
+    default CompletableFuture<GetImageUrlsResponseDTO> getImageUrlsAsync(Collection<String> keys, ImageVariant variant) {
+        return CompletableFuture.completedFuture(getImageUrls(keys, variant));
+    }
 }
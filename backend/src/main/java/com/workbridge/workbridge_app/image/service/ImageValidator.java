@@ -0,0 +1,315 @@
+package com.workbridge.workbridge_app.image.service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.util.HexFormat;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.workbridge.workbridge_app.config.ImageValidationProperties;
+import com.workbridge.workbridge_app.config.ImageValidationProperties.Limits;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Checks uploads from their bytes before anything is written to storage.
+ * <p>
+ * The format is sniffed from the magic bytes and the dimensions are read from the image header
+ * (PNG {@code IHDR}, GIF screen descriptor, WebP {@code VP8}/{@code VP8L}/{@code VP8X} chunk,
+ * JPEG start-of-frame segment) without decoding any pixels. Each format has its own limits on
+ * file size and dimensions ({@code image.validation.*}). Objects are stored under the sniffed
+ * MIME type; the declared {@code Content-Type} only has to claim to be an image.
+ * <p>
+ * At most {@code image.validation.max-header-size} bytes are read; a streamed body keeps them
+ * buffered so it can be replayed from its first byte. Rejections are counted in
+ * {@code image.upload.rejected}, tagged with the {@code reason}.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@Component
+@Slf4j
+public class ImageValidator {
+
+    private static final int MAGIC_BYTES = 12;
+
+    private final ImageValidationProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final int maxHeaderBytes;
+
+    /** Format and dimensions of an upload, read from its header. */
+    public record ImageInfo(ImageFormat format, int width, int height) {
+
+        public String contentType() {
+            return format.mimeType();
+        }
+    }
+
+    /**
+     * A validated streamed upload.
+     *
+     * @param info     format and dimensions of the body
+     * @param content  the body from its first byte, including the part already inspected
+     * @param maxBytes the smaller of the caller's limit and the format's size limit
+     */
+    public record ValidatedStream(ImageInfo info, InputStream content, long maxBytes) {}
+
+    public ImageValidator(ImageValidationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.maxHeaderBytes = (int) Math.min(Integer.MAX_VALUE - 8, properties.getMaxHeaderSize().toBytes());
+    }
+
+    /**
+     * Validates an uploaded file: non-empty, a supported format, and within that format's limits.
+     *
+     * @throws ImageStorageException if the file is empty, not a supported image, or too large
+     */
+    public ImageInfo validate(MultipartFile file) {
+        if (file.isEmpty() || file.getSize() <= 0) {
+            log.warn("Uploaded file is empty.");
+            throw reject("empty", "Uploaded file is empty.");
+        }
+        validateContentType(file.getContentType());
+        ImageInfo info;
+        try (InputStream content = file.getInputStream()) {
+            info = inspect(new BufferedInputStream(content, MAGIC_BYTES * 2));
+        } catch (IOException e) {
+            throw new ImageStorageException("Failed to read uploaded image", e);
+        }
+        long maxBytes = limitsFor(info.format()).getMaxSize().toBytes();
+        if (file.getSize() > maxBytes) {
+            throw reject("size", "Uploaded file is too large for " + info.format() + " (limit " + maxBytes + " bytes).");
+        }
+        return info;
+    }
+
+    /**
+     * Validates the head of a streamed upload. Only the header is read here; the returned stream
+     * replays it, and the caller enforces {@link ValidatedStream#maxBytes()} while storing.
+     *
+     * @param maxBytes the caller's own limit for streamed uploads
+     * @throws ImageStorageException if the body is empty or not a supported image within its limits
+     */
+    public ValidatedStream validate(InputStream content, String contentType, long maxBytes) {
+        validateContentType(contentType);
+        BufferedInputStream buffered = new BufferedInputStream(content, Math.min(maxHeaderBytes, 64 * 1024));
+        buffered.mark(maxHeaderBytes);
+        ImageInfo info;
+        try {
+            info = inspect(buffered);
+            buffered.reset();
+        } catch (IOException e) {
+            throw new ImageStorageException("Failed to read uploaded image", e);
+        }
+        long formatMax = limitsFor(info.format()).getMaxSize().toBytes();
+        return new ValidatedStream(info, buffered, Math.min(maxBytes, formatMax));
+    }
+
+    void validateContentType(String contentType) {
+        if (contentType == null || !contentType.startsWith("image/")) {
+            log.warn("Invalid file type: {}. Only images are allowed.", contentType);
+            throw reject("type", "Only image files are allowed.");
+        }
+    }
+
+    /**
+     * Reads format and dimensions from the start of {@code content} and checks them against the
+     * format's limits. Consumes at most {@code max-header-size} bytes.
+     */
+    private ImageInfo inspect(InputStream content) throws IOException {
+        HeaderWindow window = new HeaderWindow(content, maxHeaderBytes);
+        byte[] head = window.readNBytes(MAGIC_BYTES);
+        if (head.length == 0) {
+            throw reject("empty", "Uploaded file is empty.");
+        }
+        ImageFormat format = ImageFormat.sniff(head);
+        if (format == null) {
+            log.warn("Upload is not a supported image format; first bytes: {}", HexFormat.of().formatHex(head));
+            throw reject("type", "Only image files are allowed.");
+        }
+        DataInputStream in = new DataInputStream(new SequenceInputStream(
+            new ByteArrayInputStream(head), window));
+        int[] size;
+        try {
+            size = switch (format) {
+                case PNG -> pngSize(in);
+                case GIF -> gifSize(in);
+                case WEBP -> webpSize(in);
+                case JPEG -> jpegSize(in);
+            };
+        } catch (EOFException e) {
+            size = null;
+        }
+        if (size == null || size[0] <= 0 || size[1] <= 0) {
+            throw reject("header", "Uploaded image has a corrupt or unsupported " + format + " header.");
+        }
+        ImageInfo info = new ImageInfo(format, size[0], size[1]);
+        Limits limits = limitsFor(format);
+        if (info.width() > limits.getMaxWidth() || info.height() > limits.getMaxHeight()
+            || (long) info.width() * info.height() > limits.getMaxPixels()) {
+            throw reject("dimensions", "Uploaded image is too large: " + info.width() + "x" + info.height()
+                + " exceeds the " + format + " limit of " + limits.getMaxWidth() + "x" + limits.getMaxHeight()
+                + " and " + limits.getMaxPixels() + " pixels.");
+        }
+        return info;
+    }
+
+    /** Signature, then the {@code IHDR} chunk: length, type, width, height. */
+    private static int[] pngSize(DataInputStream in) throws IOException {
+        in.skipNBytes(8 + 4);
+        if (in.readInt() != 0x49484452) {
+            return null;
+        }
+        return new int[] {in.readInt(), in.readInt()};
+    }
+
+    /** Signature, then the logical screen width and height, little-endian. */
+    private static int[] gifSize(DataInputStream in) throws IOException {
+        in.skipNBytes(6);
+        return new int[] {readLe(in, 2), readLe(in, 2)};
+    }
+
+    /** {@code RIFF} header, then the first chunk, whose layout depends on the encoding. */
+    private static int[] webpSize(DataInputStream in) throws IOException {
+        in.skipNBytes(12);
+        int chunk = in.readInt();
+        in.skipNBytes(4);
+        switch (chunk) {
+            case 0x56503820 -> { // "VP8 ": frame tag, start code, then 14-bit dimensions
+                in.skipNBytes(3);
+                if (in.readUnsignedByte() != 0x9D || in.readUnsignedByte() != 0x01 || in.readUnsignedByte() != 0x2A) {
+                    return null;
+                }
+                return new int[] {readLe(in, 2) & 0x3FFF, readLe(in, 2) & 0x3FFF};
+            }
+            case 0x5650384C -> { // "VP8L": signature, then 14-bit dimensions minus one
+                if (in.readUnsignedByte() != 0x2F) {
+                    return null;
+                }
+                int bits = readLe(in, 4);
+                return new int[] {(bits & 0x3FFF) + 1, ((bits >>> 14) & 0x3FFF) + 1};
+            }
+            case 0x56503858 -> { // "VP8X": flags, then 24-bit canvas dimensions minus one
+                in.skipNBytes(4);
+                return new int[] {readLe(in, 3) + 1, readLe(in, 3) + 1};
+            }
+            default -> {
+                return null;
+            }
+        }
+    }
+
+    /** Walks the segments after {@code SOI} up to the first start-of-frame marker. */
+    private static int[] jpegSize(DataInputStream in) throws IOException {
+        in.skipNBytes(2);
+        while (true) {
+            if (in.readUnsignedByte() != 0xFF) {
+                return null;
+            }
+            int marker = in.readUnsignedByte();
+            while (marker == 0xFF) {
+                marker = in.readUnsignedByte();
+            }
+            if (marker == 0x01 || (marker >= 0xD0 && marker <= 0xD7)) {
+                continue;
+            }
+            if (marker == 0xD9 || marker == 0xDA) {
+                return null;
+            }
+            int length = in.readUnsignedShort();
+            if (length < 2) {
+                return null;
+            }
+            boolean startOfFrame = marker >= 0xC0 && marker <= 0xCF
+                && marker != 0xC4 && marker != 0xC8 && marker != 0xCC;
+            if (startOfFrame) {
+                in.skipNBytes(1);
+                int height = in.readUnsignedShort();
+                int width = in.readUnsignedShort();
+                return new int[] {width, height};
+            }
+            in.skipNBytes(length - 2);
+        }
+    }
+
+    private static int readLe(DataInputStream in, int bytes) throws IOException {
+        int value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value |= in.readUnsignedByte() << (8 * i);
+        }
+        return value;
+    }
+
+    private Limits limitsFor(ImageFormat format) {
+        return switch (format) {
+            case JPEG -> properties.getJpeg();
+            case PNG -> properties.getPng();
+            case GIF -> properties.getGif();
+            case WEBP -> properties.getWebp();
+        };
+    }
+
+    private ImageStorageException reject(String reason, String message) {
+        meterRegistry.counter("image.upload.rejected", "reason", reason).increment();
+        return new ImageStorageException(message);
+    }
+
+    /**
+     * Reports end of stream once {@code limit} bytes were read or skipped, so a header that does
+     * not end within the window is rejected instead of buffering the whole body.
+     */
+    private static final class HeaderWindow extends FilterInputStream {
+        private long remaining;
+
+        HeaderWindow(InputStream in, long limit) {
+            super(in);
+            this.remaining = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int read = super.read(b, off, (int) Math.min(len, remaining));
+            if (read > 0) {
+                remaining -= read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(Math.min(n, remaining));
+            remaining -= skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() {
+            // The caller owns the underlying stream
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.workbridge.workbridge_app.image.service;
+
+import java.util.Locale;
+
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+
+/**
+ * Renditions stored for each uploaded image.
+ * <p>
+ * Every variant except {@link #ORIGINAL} is a downscaled copy whose longest edge is at most
+ * {@link #maxEdge()} pixels, stored under {@code variants/<name>/<original key>}. Images smaller
+ * than a variant are stored at their own size rather than upscaled.
+ */
+public enum ImageVariant {
+    ORIGINAL(0),
+    FULL(1280),
+    CARD(480),
+    THUMBNAIL(160);
+
+    private static final String PREFIX = "variants/";
+
+    private final int maxEdge;
+    private final String parameter;
+
+    ImageVariant(int maxEdge) {
+        this.maxEdge = maxEdge;
+        this.parameter = name().toLowerCase(Locale.ROOT);
+    }
+
+    public int maxEdge() {
+        return maxEdge;
+    }
+
+    /**
+     * @return the object key holding this rendition of the original image
+     */
+    public String keyFor(String originalKey) {
+        return this == ORIGINAL ? originalKey : PREFIX + parameter + "/" + originalKey;
+    }
+
+    /**
+     * Parses a variant request parameter such as {@code thumbnail}; blank means the original.
+     *
+     * @throws ImageStorageException if the name is not a known variant
+     */
+    public static ImageVariant fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return ORIGINAL;
+        }
+        for (ImageVariant variant : values()) {
+            if (variant.parameter.equalsIgnoreCase(value.trim())) {
+                return variant;
+            }
+        }
+        throw new ImageStorageException("Unknown image variant: " + value);
+    }
+}
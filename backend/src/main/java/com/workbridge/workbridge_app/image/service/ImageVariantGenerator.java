@@ -0,0 +1,382 @@
+package com.workbridge.workbridge_app.image.service;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.metadata.IIOMetadataNode;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.w3c.dom.Node;
+
+import com.workbridge.workbridge_app.config.ImageVariantProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Produces the resized {@link ImageVariant}s of an uploaded image with plain JDK ImageIO.
+ * <p>
+ * Work runs on a dedicated pool of {@code image.variants.threads} threads with a bounded queue,
+ * so a burst of uploads cannot take every core from request handling; when the queue is full
+ * {@link #submit} returns {@code null} and the caller keeps just the original. The source is
+ * decoded once, with ImageIO subsampling when it is far larger than the biggest variant, and each
+ * variant is scaled from the next larger one in steps of at most one half, which keeps bilinear
+ * scaling sharp without a full-size intermediate per variant. JPEGs are turned upright by their
+ * EXIF Orientation tag before scaling, since the variants are re-encoded without that tag.
+ * <p>
+ * Variants are best effort: every failure path leaves the caller with the original only.
+ * <p>
+ * Publishes:
+ * <ul>
+ *   <li>{@code image.variants.duration} – decode, scale and encode time per upload</li>
+ *   <li>{@code image.variants.queue.depth} – uploads waiting for a resize thread</li>
+ *   <li>{@code image.variants.uploads} – uploads by {@code outcome=rendered|unsupported|rejected|timeout|failed}</li>
+ * </ul>
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@Component
+@Slf4j
+public class ImageVariantGenerator {
+
+    /** A rendered variant, ready to store. */
+    public record RenderedVariant(ImageVariant variant, byte[] content, String contentType) {}
+
+    private static final ImageVariant[] LARGEST_FIRST = {ImageVariant.FULL, ImageVariant.CARD, ImageVariant.THUMBNAIL};
+
+    private static final String JPEG_METADATA_FORMAT = "javax_imageio_jpeg_image_1.0";
+    private static final int APP1_MARKER = 0xE1;
+    private static final byte[] EXIF_HEADER = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+    private static final int ORIENTATION_TAG = 0x0112;
+
+    private final ImageVariantProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Timer renderTime;
+    private final MeterRegistry meterRegistry;
+
+    public ImageVariantGenerator(ImageVariantProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        int threads = properties.resolvedThreads();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("image-variant-");
+        threadFactory.setDaemon(true);
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(properties.getQueueCapacity()), threadFactory,
+            new ThreadPoolExecutor.AbortPolicy());
+        this.renderTime = Timer.builder("image.variants.duration")
+            .description("Time spent decoding, scaling and encoding the variants of one upload")
+            .register(meterRegistry);
+        Gauge.builder("image.variants.queue.depth", executor, e -> e.getQueue().size())
+            .description("Uploads waiting for a resize thread")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Schedules variant generation for an image.
+     *
+     * @param source opens the image bytes; called once on the resize thread
+     * @return the pending variants, or {@code null} if variants are disabled or the pool is saturated
+     */
+    public Future<List<RenderedVariant>> submit(Callable<InputStream> source) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        try {
+            return executor.submit(() -> {
+                try (InputStream content = source.call()) {
+                    return renderTime.recordCallable(() -> render(content));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            outcome("rejected");
+            log.warn("Image variant queue full ({} waiting); storing original only", executor.getQueue().size());
+            return null;
+        }
+    }
+
+    /**
+     * Waits up to {@code image.variants.max-wait} for variants scheduled by {@link #submit}.
+     *
+     * @param pending the value returned by {@link #submit}; may be {@code null}
+     * @return the rendered variants, or an empty list if none could be produced in time
+     */
+    public List<RenderedVariant> await(Future<List<RenderedVariant>> pending) {
+        if (pending == null) {
+            return List.of();
+        }
+        try {
+            List<RenderedVariant> variants = pending.get(properties.getMaxWait().toNanos(), TimeUnit.NANOSECONDS);
+            outcome(variants.isEmpty() ? "unsupported" : "rendered");
+            return variants;
+        } catch (TimeoutException e) {
+            pending.cancel(true);
+            outcome("timeout");
+            log.warn("Image variants not ready within {}; storing original only", properties.getMaxWait());
+        } catch (InterruptedException e) {
+            pending.cancel(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            outcome("failed");
+            log.warn("Could not render image variants; storing original only: {}", e.getCause().toString());
+        }
+        return List.of();
+    }
+
+    private void outcome(String outcome) {
+        Counter.builder("image.variants.uploads")
+            .description("Uploads by variant generation outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .increment();
+    }
+
+    /**
+     * Decodes the image and renders every variant.
+     *
+     * @return the variants, largest first; empty if ImageIO cannot read the format or the image
+     *         exceeds {@code image.variants.max-source-pixels}
+     * @throws IOException if the image is corrupt
+     */
+    public List<RenderedVariant> render(InputStream content) throws IOException {
+        BufferedImage source = decode(content);
+        if (source == null) {
+            return List.of();
+        }
+
+        boolean alpha = source.getColorModel().hasAlpha();
+        List<RenderedVariant> variants = new ArrayList<>(LARGEST_FIRST.length);
+        BufferedImage current = source;
+        for (ImageVariant variant : LARGEST_FIRST) {
+            current = scaleToFit(current, variant.maxEdge(), alpha);
+            variants.add(alpha
+                ? new RenderedVariant(variant, encodePng(current), "image/png")
+                : new RenderedVariant(variant, encodeJpeg(current), "image/jpeg"));
+        }
+        return variants;
+    }
+
+    /**
+     * Reads the header first to reject oversized images, then decodes with enough subsampling
+     * that the raster is no more than twice the largest variant, and applies the EXIF orientation.
+     */
+    private BufferedImage decode(InputStream content) throws IOException {
+        // Memory-backed so ImageIO does not spool the upload to a temp file
+        try (ImageInputStream input = new MemoryCacheImageInputStream(content)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                log.debug("No ImageIO reader for upload; skipping variants");
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                // Metadata is kept for the EXIF orientation
+                reader.setInput(input, true, false);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > properties.getMaxSourcePixels()) {
+                    log.info("Image of {}x{} exceeds the variant source limit; skipping variants", width, height);
+                    return null;
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, Math.max(width, height) / (ImageVariant.FULL.maxEdge() * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                int orientation = readOrientation(reader);
+                return orient(reader.read(0, param), orientation);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Finds the EXIF Orientation tag in a JPEG's APP1 segment.
+     *
+     * @return the tag value (1–8), or 1 if the image is not a JPEG or has no usable tag
+     */
+    private static int readOrientation(ImageReader reader) {
+        try {
+            IIOMetadata metadata = reader.getImageMetadata(0);
+            if (metadata == null || !JPEG_METADATA_FORMAT.equals(metadata.getNativeMetadataFormatName())) {
+                return 1;
+            }
+            // The JDK reader keeps APP1 as an "unknown" marker segment with the raw payload
+            Node markers = metadata.getAsTree(JPEG_METADATA_FORMAT).getFirstChild();
+            for (; markers != null; markers = markers.getNextSibling()) {
+                if (!"markerSequence".equals(markers.getNodeName())) {
+                    continue;
+                }
+                for (Node marker = markers.getFirstChild(); marker != null; marker = marker.getNextSibling()) {
+                    if ("unknown".equals(marker.getNodeName())
+                            && marker instanceof IIOMetadataNode segment
+                            && Integer.toString(APP1_MARKER).equals(segment.getAttribute("MarkerTag"))
+                            && segment.getUserObject() instanceof byte[] payload) {
+                        int orientation = exifOrientation(payload);
+                        if (orientation != 0) {
+                            return orientation;
+                        }
+                    }
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Could not read image metadata; assuming upright: {}", e.toString());
+        }
+        return 1;
+    }
+
+    /**
+     * Reads the Orientation entry of IFD0 from an APP1 payload.
+     *
+     * @return the tag value (1–8), or 0 if the payload is not EXIF or carries no valid tag
+     */
+    private static int exifOrientation(byte[] payload) {
+        if (payload.length < EXIF_HEADER.length + 8
+                || !Arrays.equals(payload, 0, EXIF_HEADER.length, EXIF_HEADER, 0, EXIF_HEADER.length)) {
+            return 0;
+        }
+        ByteBuffer tiff = ByteBuffer.wrap(payload, EXIF_HEADER.length, payload.length - EXIF_HEADER.length).slice();
+        if (tiff.get(0) == 'I' && tiff.get(1) == 'I') {
+            tiff.order(ByteOrder.LITTLE_ENDIAN);
+        } else if (tiff.get(0) != 'M' || tiff.get(1) != 'M') {
+            return 0;
+        }
+        long ifd = Integer.toUnsignedLong(tiff.getInt(4));
+        if (ifd + 2 > tiff.limit()) {
+            return 0;
+        }
+        int entries = Short.toUnsignedInt(tiff.getShort((int) ifd));
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > tiff.limit()) {
+                return 0;
+            }
+            if (Short.toUnsignedInt(tiff.getShort(entry)) == ORIENTATION_TAG) {
+                int value = Short.toUnsignedInt(tiff.getShort(entry + 8));
+                return value >= 1 && value <= 8 ? value : 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Rotates or mirrors the decoded raster so it displays upright without the orientation tag.
+     */
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        if (orientation <= 1) {
+            return image;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        // Transforms from the stored raster to the upright one, per the EXIF Orientation values
+        AffineTransform transform = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, width, 0);       // mirrored horizontally
+            case 3 -> new AffineTransform(-1, 0, 0, -1, width, height); // rotated 180°
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, height);      // mirrored vertically
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);            // transposed
+            case 6 -> new AffineTransform(0, 1, -1, 0, height, 0);      // rotated 90° clockwise
+            case 7 -> new AffineTransform(0, -1, -1, 0, height, width); // transversed
+            default -> new AffineTransform(0, -1, 1, 0, 0, width);      // rotated 90° counter-clockwise
+        };
+        boolean swap = orientation >= 5;
+        int type = image.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage upright = new BufferedImage(swap ? height : width, swap ? width : height, type);
+        Graphics2D graphics = upright.createGraphics();
+        try {
+            graphics.drawImage(image, transform, null);
+        } finally {
+            graphics.dispose();
+        }
+        return upright;
+    }
+
+    private static BufferedImage scaleToFit(BufferedImage image, int maxEdge, boolean alpha) {
+        int type = alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        double scale = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+
+        BufferedImage current = image;
+        do {
+            // Halve at most per pass; bilinear drops detail when shrinking further in one step
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            if (current != image && current.getWidth() == width && current.getHeight() == height) {
+                break;
+            }
+            BufferedImage next = new BufferedImage(width, height, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (width > targetWidth || height > targetHeight);
+        return current;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(output);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getJpegQuality());
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] encodePng(BufferedImage image) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", bytes);
+        return bytes.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,379 @@
+package com.workbridge.workbridge_app.image.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import com.workbridge.workbridge_app.common.util.BoundedLruCache;
+import com.workbridge.workbridge_app.config.ImageStorageProperties;
+import com.workbridge.workbridge_app.image.dto.GetImageResponseDTO;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsResponseDTO;
+import com.workbridge.workbridge_app.image.dto.UploadResponseDTO;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository.Acquisition;
+import com.workbridge.workbridge_app.image.service.ImageVariantGenerator.RenderedVariant;
+import com.workbridge.workbridge_app.image.service.ImageValidator.ImageInfo;
+import com.workbridge.workbridge_app.image.service.ImageValidator.ValidatedStream;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * {@link ImageStorageService} keeping images in a directory on this node, for single-node and
+ * edge deployments without MinIO. Selected with {@code image.storage.type=local}.
+ * <p>
+ * Objects use the same content keys, reference counts and variant layout as
+ * {@link MinioImageStorageService}, so {@code variants/card/<key>} is a file under
+ * {@code image.storage.local-root}. Files are written to a staging directory first and moved
+ * into place atomically, so a reader never sees a partial image.
+ * <p>
+ * Instead of presigned URLs, clients get URLs of {@code LocalImageFileController}, which serves
+ * the bytes straight from disk. Existence checks are a {@code stat} call, so nothing is cached.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@Service
+@ConditionalOnProperty(prefix = "image.storage", name = "type", havingValue = "local")
+@Slf4j
+public class LocalImageStorageService implements ImageStorageService {
+
+    /** Path of the endpoint serving local image bytes; keys are appended to it. */
+    public static final String FILES_PATH = "/api/v1/images/files/";
+
+    private static final String STAGING_DIR = ".staging";
+    private static final int MAGIC_BYTES = 12;
+    private static final int CONTENT_TYPE_CACHE_SIZE = 10_000;
+
+    /** Keys are content hashes with an extension, optionally under {@code variants/<name>/}. */
+    private static final Pattern KEY_PATTERN = Pattern.compile("[A-Za-z0-9_.-]+(/[A-Za-z0-9_.-]+)*");
+
+    private final ImageVariantGenerator variantGenerator;
+    private final ImageValidator imageValidator;
+    private final ImageObjectRepository imageObjectRepository;
+    private final Path root;
+    private final Path staging;
+    private final long maxStreamUploadBytes;
+    private final BoundedLruCache<String, String> contentTypes = new BoundedLruCache<>(CONTENT_TYPE_CACHE_SIZE);
+
+    public LocalImageStorageService(
+        ImageVariantGenerator variantGenerator,
+        ImageValidator imageValidator,
+        ImageObjectRepository imageObjectRepository,
+        ImageStorageProperties properties
+    ) {
+        this.variantGenerator = variantGenerator;
+        this.imageValidator = imageValidator;
+        this.imageObjectRepository = imageObjectRepository;
+        this.root = properties.getLocalRoot().toAbsolutePath().normalize();
+        this.staging = root.resolve(STAGING_DIR);
+        this.maxStreamUploadBytes = properties.getMaxStreamUploadSize().toBytes();
+        try {
+            Files.createDirectories(staging);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create image directory " + staging, e);
+        }
+        log.info("Storing images in {}", root);
+    }
+
+    /**
+     * Stores a validated image under the SHA-256 of its content, with its variants.
+     * If the same content is already stored, the owner gets a reference to its key and nothing is written.
+     *
+     * @param file    the {@link MultipartFile} to store
+     * @param ownerId the user who holds the reference to the stored image
+     * @return an {@link UploadResponseDTO} containing the URL of the stored image
+     * @throws ImageStorageException if the file is invalid or cannot be written
+     */
+    @Override
+    public UploadResponseDTO uploadImage(MultipartFile file, Long ownerId) {
+        ImageInfo image = imageValidator.validate(file);
+        String key = ImageContent.contentKey(ImageContent.sha256(file), image.contentType());
+        Acquisition acquisition = imageObjectRepository.acquire(key, ownerId, file.getSize(), image.contentType());
+        if (acquisition.getStored()) {
+            return new UploadResponseDTO(fileUrl(key));
+        }
+
+        try {
+            Future<List<RenderedVariant>> variants = variantGenerator.submit(file::getInputStream);
+            Path temp = newStagingFile();
+            try (InputStream content = file.getInputStream()) {
+                copy(content, temp, null, Long.MAX_VALUE);
+                moveIntoPlace(temp, key);
+            } catch (IOException | RuntimeException e) {
+                if (variants != null) {
+                    variants.cancel(true);
+                }
+                if (e instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new ImageStorageException("Failed to upload image", e);
+            } finally {
+                deleteQuietly(temp);
+            }
+            storeVariants(key, variantGenerator.await(variants));
+            imageObjectRepository.markStored(key);
+        } catch (RuntimeException e) {
+            abandon(key, ownerId, acquisition);
+            throw e;
+        }
+        log.info("Image stored locally. Key: {}, Size: {} bytes", key, file.getSize());
+        return new UploadResponseDTO(fileUrl(key));
+    }
+
+    /**
+     * Stores an image streamed from the request body. The body is hashed while it is written to
+     * the staging directory, then moved to its content key or dropped if that content is already
+     * stored. Variants are rendered from the stored file, which is already on local disk.
+     *
+     * @param content     the request body
+     * @param contentType the declared MIME type of the body
+     * @param ownerId     the user who holds the reference to the stored image
+     * @return an {@link UploadResponseDTO} containing the URL of the stored image
+     * @throws ImageStorageException if the body is not an image, is empty or too large, or cannot be written
+     */
+    @Override
+    public UploadResponseDTO uploadImageStream(InputStream content, String contentType, Long ownerId) {
+        ValidatedStream validated = imageValidator.validate(content, contentType, maxStreamUploadBytes);
+        String storedType = validated.info().contentType();
+        MessageDigest digest = ImageContent.newSha256();
+        Path temp = newStagingFile();
+        try {
+            long bytes = copy(validated.content(), temp, digest, validated.maxBytes());
+            String key = ImageContent.contentKey(HexFormat.of().formatHex(digest.digest()), storedType);
+            Acquisition acquisition = imageObjectRepository.acquire(key, ownerId, bytes, storedType);
+            if (acquisition.getStored()) {
+                return new UploadResponseDTO(fileUrl(key));
+            }
+            try {
+                Path stored = moveIntoPlace(temp, key);
+                storeVariants(key, variantGenerator.await(variantGenerator.submit(() -> Files.newInputStream(stored))));
+                imageObjectRepository.markStored(key);
+            } catch (IOException | RuntimeException e) {
+                abandon(key, ownerId, acquisition);
+                throw e;
+            }
+            log.info("Image stored locally. Key: {}, Size: {} bytes", key, bytes);
+            return new UploadResponseDTO(fileUrl(key));
+        } catch (IOException e) {
+            throw new ImageStorageException("Failed to upload image", e);
+        } finally {
+            deleteQuietly(temp);
+        }
+    }
+
+    /**
+     * Drops the owner's reference to an image and deletes its files once no upload refers to it
+     * any more. Does nothing if the owner holds no reference, so repeating a delete is harmless.
+     *
+     * @param key     the unique key identifying the image
+     * @param ownerId the user whose reference is released
+     */
+    @Override
+    @Transactional
+    public void deleteImage(String key, Long ownerId) {
+        List<Integer> remaining = imageObjectRepository.release(key, ownerId);
+        if (remaining.isEmpty()) {
+            log.info("User {} holds no reference to image '{}'; nothing to delete", ownerId, key);
+            return;
+        }
+        if (remaining.get(0) > 0) {
+            log.info("Image '{}' still has {} references; keeping it", key, remaining.get(0));
+            return;
+        }
+        for (ImageVariant variant : ImageVariant.values()) {
+            Path path = resolve(variant.keyFor(key));
+            if (path != null) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.error("Failed to delete image file {}", path, e);
+                    throw new ImageStorageException("Failed to delete image", e);
+                }
+            }
+        }
+        imageObjectRepository.deleteUnreferenced(key);
+        log.info("Image deleted locally. Key: {}", key);
+    }
+
+    /**
+     * Returns the URL of an image or, if that variant was never rendered, of its original.
+     *
+     * @throws ImageStorageException if the image does not exist
+     */
+    @Override
+    public GetImageResponseDTO getImageUrl(String key, ImageVariant variant) {
+        GetImageUrlsResponseDTO urls = getImageUrls(List.of(key), variant);
+        if (!urls.getMissing().isEmpty()) {
+            log.warn("Image does not exist. Key: {}", key);
+            throw new ImageStorageException("Requested image does not exist");
+        }
+        return new GetImageResponseDTO(urls.getUrls().get(key));
+    }
+
+    /**
+     * Returns URLs for many images, falling back to the original where the variant is missing.
+     * Keys that do not exist are listed separately.
+     */
+    @Override
+    public GetImageUrlsResponseDTO getImageUrls(Collection<String> keys, ImageVariant variant) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String key : new LinkedHashSet<>(keys)) {
+            Optional<Path> file = findFile(variant.keyFor(key));
+            String found = file.isPresent() ? variant.keyFor(key)
+                : findFile(key).isPresent() ? key : null;
+            if (found != null) {
+                urls.put(key, fileUrl(found));
+            } else {
+                missing.add(key);
+            }
+        }
+        return new GetImageUrlsResponseDTO(urls, missing);
+    }
+
+    /**
+     * Looks up the file stored under a key.
+     *
+     * @param key an image or variant key, e.g. {@code variants/card/<hash>.png}
+     * @return the file, or empty if the key is malformed, escapes the image directory or does not exist
+     */
+    public Optional<Path> findFile(String key) {
+        Path path = resolve(key);
+        return path != null && Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * Returns the MIME type of a stored file, read from its leading bytes rather than its
+     * extension: variants of an opaque PNG are JPEGs stored under the original's {@code .png}
+     * key. Stored files never change, so the answer is cached per key.
+     *
+     * @param key  the key the file was found under
+     * @param file the file returned by {@link #findFile(String)}
+     */
+    public String contentType(String key, Path file) throws IOException {
+        String cached = contentTypes.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        byte[] head;
+        try (InputStream in = Files.newInputStream(file)) {
+            head = in.readNBytes(MAGIC_BYTES);
+        }
+        ImageFormat format = ImageFormat.sniff(head);
+        String contentType = format != null ? format.mimeType() : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        contentTypes.put(key, contentType);
+        return contentType;
+    }
+
+    /**
+     * Drops the owner's reference after a failed upload, if the upload added it.
+     */
+    private void abandon(String key, Long ownerId, Acquisition acquisition) {
+        if (acquisition.getAdded()) {
+            imageObjectRepository.release(key, ownerId);
+        }
+    }
+
+    private Path resolve(String key) {
+        if (key == null || !KEY_PATTERN.matcher(key).matches()) {
+            return null;
+        }
+        Path path = root.resolve(key).normalize();
+        return path.startsWith(root) && !path.startsWith(staging) ? path : null;
+    }
+
+    private void storeVariants(String key, List<RenderedVariant> variants) {
+        for (RenderedVariant variant : variants) {
+            Path temp = newStagingFile();
+            try {
+                Files.write(temp, variant.content());
+                moveIntoPlace(temp, variant.variant().keyFor(key));
+            } catch (IOException | RuntimeException e) {
+                // Variants are best effort; URLs fall back to the original
+                log.warn("Failed to store {} variant of {}: {}", variant.variant(), key, e.toString());
+            } finally {
+                deleteQuietly(temp);
+            }
+        }
+    }
+
+    /**
+     * Copies a stream to a file, optionally hashing it.
+     *
+     * @return number of bytes copied
+     * @throws ImageStorageException if the stream is empty or longer than {@code maxBytes}
+     */
+    private static long copy(InputStream content, Path target, MessageDigest digest, long maxBytes) throws IOException {
+        long total = 0;
+        try (OutputStream file = Files.newOutputStream(target);
+             OutputStream out = digest != null ? new DigestOutputStream(file, digest) : file) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = content.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new ImageStorageException("Uploaded file is too large.");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        if (total == 0) {
+            throw new ImageStorageException("Uploaded file is empty.");
+        }
+        return total;
+    }
+
+    private Path moveIntoPlace(Path temp, String key) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        return Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private Path newStagingFile() {
+        try {
+            return Files.createTempFile(staging, "upload-", ".tmp");
+        } catch (IOException e) {
+            throw new ImageStorageException("Failed to upload image", e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete staging file {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String fileUrl(String key) {
+        if (RequestContextHolder.getRequestAttributes() == null) {
+            return FILES_PATH + key;
+        }
+        return ServletUriComponentsBuilder.fromCurrentContextPath().path(FILES_PATH).path(key).toUriString();
+    }
+}
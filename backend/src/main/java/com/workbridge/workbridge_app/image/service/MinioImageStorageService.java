@@ -1,27 +1,50 @@
 package com.workbridge.workbridge_app.image.service;
 
 import java.io.IOException;
-import java.net.URL;
-import java.time.Duration;
-import java.util.Objects;
+import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.workbridge.workbridge_app.config.minio.MinioProperties;
 import com.workbridge.workbridge_app.image.dto.GetImageResponseDTO;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsResponseDTO;
 import com.workbridge.workbridge_app.image.dto.UploadResponseDTO;
 import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.exception.TransientImageStorageException;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository.Acquisition;
+import com.workbridge.workbridge_app.image.service.ImageVariantGenerator.RenderedVariant;
+import com.workbridge.workbridge_app.image.service.ImageValidator.ImageInfo;
+import com.workbridge.workbridge_app.image.service.ImageValidator.ValidatedStream;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 
 /**
  * Service class for managing image storage operations using MinIO (S3-compatible).
@@ -30,15 +53,24 @@ import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignReques
  * <ul>
  *   <li>Uploading validated image files to a MinIO bucket</li>
  *   <li>Deleting images by their key from the bucket</li>
- *   <li>Generating secure, temporary presigned URLs to access images</li>
+ *   <li>Generating secure, temporary presigned URLs to access images, one key or a batch at a time</li>
  * </ul>
  *
+ * <p>Presigned URLs and known objects are cached by a {@link MinioObjectCatalog}, which also does
+ * the content reference accounting; only keys it cannot answer for cost a HEAD request.</p>
+ *
+ * <p>The bucket is verified (or created) once when the application is ready and only checked
+ * again after MinIO reports it missing. Uploads that fail transiently are retried with jittered
+ * exponential backoff; each attempt reopens the file, so a retry never sends a half-read stream.
+ * Bodies are sent through {@link MultipartStreamUploader}, which splits anything larger than
+ * one part into a parallel multipart upload.</p>
+ *
  * <p>All methods handle MinIO/S3 exceptions and wrap them in domain-specific {@link ImageStorageException}.</p>
  *
  * <p>Typical usage:</p>
  * <pre>
- *   imageStorageService.uploadImage(file);
- *   imageStorageService.deleteImage(key);
+ *   imageStorageService.uploadImage(file, ownerId);
+ *   imageStorageService.deleteImage(key, ownerId);
  *   imageStorageService.getImageUrl(key);
  * </pre>
  *
@@ -46,118 +78,353 @@ import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignReques
  * @since 2025-07-16
  */
 @Service
-@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "image.storage", name = "type", havingValue = "s3", matchIfMissing = true)
 @Slf4j
 public class MinioImageStorageService implements ImageStorageService {
 
     private final S3Client s3Client;
     private final S3Presigner s3Presigner;
+    private final MultipartStreamUploader streamUploader;
+    private final ImageVariantGenerator variantGenerator;
+    private final ImageValidator imageValidator;
+    private final ImageObjectRepository imageObjectRepository;
     private final MinioProperties properties;
+    private final MinioObjectCatalog catalog;
+
+    /** Prefix of objects holding streamed uploads until their content hash is known. */
+    static final String STAGING_PREFIX = "uploads/staging/";
 
-    @Value("${minio.presigned-expiration-minutes:10}")
-    private Long presignedExpirationMinutes;
+    public MinioImageStorageService(
+        S3Client s3Client,
+        S3Presigner s3Presigner,
+        MultipartStreamUploader streamUploader,
+        ImageVariantGenerator variantGenerator,
+        ImageValidator imageValidator,
+        ImageObjectRepository imageObjectRepository,
+        MinioProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.s3Client = s3Client;
+        this.s3Presigner = s3Presigner;
+        this.streamUploader = streamUploader;
+        this.variantGenerator = variantGenerator;
+        this.imageValidator = imageValidator;
+        this.imageObjectRepository = imageObjectRepository;
+        this.properties = properties;
+        this.catalog = new MinioObjectCatalog(s3Presigner, imageObjectRepository, properties, meterRegistry);
+    }
+
+    /**
+     * Verifies the bucket once at startup so uploads do not pay for a {@code headBucket} call.
+     * <p>
+     * A failure here is only logged; the first upload checks the bucket again.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initializeBucket() {
+        try {
+            ensureBucketExists();
+        } catch (RuntimeException e) {
+            log.warn("Could not verify bucket '{}' at startup; will retry on first upload: {}",
+                properties.getBucket(), e.getMessage());
+        }
+    }
 
     /**
-     * Uploads a validated image file to the MinIO bucket using a unique object key.
+     * Uploads a validated image file under a key derived from its SHA-256.
      * <p>
-     * If the bucket does not exist, it is created automatically.
+     * The file is already local, so it is hashed before anything is sent: if the same content
+     * was stored before, its key gets one more reference and nothing is uploaded. Otherwise, if
+     * the bucket is not known to exist, it is checked and created if missing. Network errors,
+     * 5xx/429 responses and a missing bucket are retried with jittered exponential backoff;
+     * validation errors and other client errors are not.
      *
-     * @param file the {@link MultipartFile} to upload
+     * @param file    the {@link MultipartFile} to upload
+     * @param ownerId the user who holds the reference to the stored image
      * @return an {@link UploadResponseDTO} containing the public URL to the stored object
      * @throws ImageStorageException if the file is invalid or upload fails
      */
     @Override
     @Retryable(
-        value = {ImageStorageException.class},
+        retryFor = TransientImageStorageException.class,
         maxAttempts = 3,
-        backoff = @org.springframework.retry.annotation.Backoff(delay = 2000)
+        backoff = @Backoff(delay = 200, multiplier = 2, maxDelay = 2000, random = true)
     )
-    public UploadResponseDTO uploadImage(MultipartFile file) {
-        ensureBucketExists();
-        validateFile(file);
+    public UploadResponseDTO uploadImage(MultipartFile file, Long ownerId) {
+        ImageInfo image = imageValidator.validate(file);
+        String key = ImageContent.contentKey(ImageContent.sha256(file), image.contentType());
+        Acquisition acquisition = catalog.acquire(key, ownerId, file.getSize(), image.contentType());
+        if (acquisition.getStored()) {
+            return new UploadResponseDTO(objectUrl(key));
+        }
 
-        String key = generateUniqueKey(file);
-        String bucket = properties.getBucket();
+        try {
+            // Variants decode their own copy of the file while the original is being uploaded
+            Future<List<RenderedVariant>> variants = variantGenerator.submit(file::getInputStream);
+            // Every attempt reopens the file, so a retry never resumes a half-read stream
+            try (InputStream content = file.getInputStream()) {
+                put(key, content, image.contentType(), file.getSize(), Long.MAX_VALUE);
+            } catch (IOException e) {
+                cancel(variants);
+                log.error("Failed to read upload for bucket '{}'. Key: {}", properties.getBucket(), key, e);
+                throw new ImageStorageException("Failed to upload image", e);
+            } catch (RuntimeException e) {
+                cancel(variants);
+                throw e;
+            }
+            storeVariants(key, variantGenerator.await(variants));
+            imageObjectRepository.markStored(key);
+        } catch (RuntimeException e) {
+            catalog.abandon(key, ownerId, acquisition);
+            throw e;
+        }
+        return new UploadResponseDTO(objectUrl(key));
+    }
 
-        PutObjectRequest putRequest = PutObjectRequest.builder()
-            .bucket(bucket)
-            .key(key)
-            .contentType(file.getContentType())
-            .build();
+    /**
+     * Uploads an image streamed straight from the request body, without multipart parsing.
+     * <p>
+     * The body is forwarded to MinIO part by part as it arrives, so neither the heap nor a temp
+     * file ever holds the whole image. Its SHA-256 is computed on the way through, so the body
+     * first lands under a staging key and is then copied server-side to its content key, or
+     * dropped if that content is already stored. The stream can only be read once, so this path
+     * is not retried; a transient failure surfaces as {@link TransientImageStorageException}. No
+     * variants are rendered here; variant URLs for such images fall back to the original.
+     *
+     * @param content     the request body
+     * @param contentType the declared MIME type of the body
+     * @param ownerId     the user who holds the reference to the stored image
+     * @return an {@link UploadResponseDTO} containing the public URL to the stored object
+     * @throws ImageStorageException if the body is not an image, is empty or too large, or the upload fails
+     */
+    @Override
+    public UploadResponseDTO uploadImageStream(InputStream content, String contentType, Long ownerId) {
+        ValidatedStream validated = imageValidator.validate(content, contentType, properties.getMaxStreamUploadSize().toBytes());
+        String storedType = validated.info().contentType();
+        MessageDigest digest = ImageContent.newSha256();
+        String stagingKey = STAGING_PREFIX + UUID.randomUUID();
+        long bytes = put(stagingKey, new DigestInputStream(validated.content(), digest), storedType, -1, validated.maxBytes());
 
+        String key = ImageContent.contentKey(HexFormat.of().formatHex(digest.digest()), storedType);
         try {
-            s3Client.putObject(putRequest, RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-        } catch (IOException e) {
-            log.error("Failed to upload image to bucket '{}'. Key: {}", bucket, key, e);
-            throw new ImageStorageException("Failed to upload image", e);
+            Acquisition acquisition = catalog.acquire(key, ownerId, bytes, storedType);
+            if (!acquisition.getStored()) {
+                try {
+                    s3Client.copyObject(CopyObjectRequest.builder()
+                        .sourceBucket(properties.getBucket())
+                        .sourceKey(stagingKey)
+                        .destinationBucket(properties.getBucket())
+                        .destinationKey(key)
+                        .build());
+                    imageObjectRepository.markStored(key);
+                    catalog.remember(key);
+                } catch (RuntimeException e) {
+                    catalog.abandon(key, ownerId, acquisition);
+                    throw e instanceof SdkException sdk ? catalog.uploadFailure(key, sdk) : e;
+                }
+            }
+        } finally {
+            deleteQuietly(stagingKey);
         }
+        return new UploadResponseDTO(objectUrl(key));
+    }
 
-        URL url = s3Client.utilities().getUrl(GetUrlRequest.builder()
-            .bucket(bucket)
-            .key(key)
-            .build());
+    /**
+     * Streams content to the key, checking the bucket first if it is not known to exist.
+     *
+     * @return number of bytes stored
+     */
+    private long put(String key, InputStream content, String contentType, long expectedBytes, long maxBytes) {
+        String bucket = properties.getBucket();
+        try {
+            if (!catalog.bucketReady()) {
+                ensureBucketExists();
+            }
+            long bytes = streamUploader.upload(bucket, key, content, contentType, expectedBytes, maxBytes);
+            catalog.remember(key);
+            log.info("Image uploaded successfully to bucket '{}'. Key: {}, Size: {} bytes", bucket, key, bytes);
+            return bytes;
+        } catch (SdkException e) {
+            throw catalog.uploadFailure(key, e);
+        }
+    }
 
-        log.info("Image uploaded successfully to bucket '{}'. Key: {}, URL: {}", bucket, key, url);
+    private String objectUrl(String key) {
+        return s3Client.utilities().getUrl(GetUrlRequest.builder()
+            .bucket(properties.getBucket())
+            .key(key)
+            .build()).toString();
+    }
 
-        return new UploadResponseDTO(url.toString());
+    private void deleteQuietly(String key) {
+        try {
+            s3Client.deleteObject(DeleteObjectRequest.builder().bucket(properties.getBucket()).key(key).build());
+        } catch (SdkException e) {
+            log.warn("Failed to delete staging object '{}'; left for garbage collection: {}", key, e.getMessage());
+        }
     }
 
     /**
-     * Deletes an image from the configured bucket by its object key.
-     *
-     * @param key the unique key identifying the image in the bucket
+     * Stores rendered variants next to the original, concurrently. A variant that fails to store
+     * is only logged; URLs for it fall back to the original.
      */
-    @Override
-    public void deleteImage(String key) {
+    private void storeVariants(String key, List<RenderedVariant> variants) {
+        if (variants.isEmpty()) {
+            return;
+        }
         String bucket = properties.getBucket();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (RenderedVariant variant : variants) {
+                String variantKey = variant.variant().keyFor(key);
+                executor.execute(() -> {
+                    try {
+                        s3Client.putObject(PutObjectRequest.builder()
+                                .bucket(bucket)
+                                .key(variantKey)
+                                .contentType(variant.contentType())
+                                .build(),
+                            RequestBody.fromBytes(variant.content()));
+                        catalog.rememberVariant(variantKey);
+                    } catch (SdkException e) {
+                        log.warn("Failed to store {} variant of '{}': {}", variant.variant(), key, e.getMessage());
+                    }
+                });
+            }
+        }
+        log.debug("Stored {} variants of '{}'", variants.size(), key);
+    }
 
-        DeleteObjectRequest deleteRequest = DeleteObjectRequest.builder()
-            .bucket(bucket)
-            .key(key)
-            .build();
+    private static void cancel(Future<?> pending) {
+        if (pending != null) {
+            pending.cancel(true);
+        }
+    }
 
-        s3Client.deleteObject(deleteRequest);
-        log.info("Image deleted from bucket '{}'. Key: {}", bucket, key);
+    /**
+     * Drops the owner's reference to an image and deletes it, with all of its variants, once no
+     * upload refers to it any more. Does nothing if the owner holds no reference. The reference
+     * row stays locked until the objects are gone; see {@link MinioObjectCatalog#release}.
+     *
+     * @param key     the unique key identifying the image in the bucket
+     * @param ownerId the user whose reference is released
+     */
+    @Override
+    @Transactional
+    public void deleteImage(String key, Long ownerId) {
+        catalog.release(key, ownerId, delete -> s3Client.deleteObjects(DeleteObjectsRequest.builder()
+            .bucket(properties.getBucket())
+            .delete(delete)
+            .build()));
     }
 
     /**
-     * Generates a presigned URL for accessing the image.
+     * Generates a presigned URL for accessing the image or one of its variants.
      * <p>
-     * The presigned URL allows secure access for a limited time.
+     * The presigned URL allows secure access for a limited time. A cached URL is returned
+     * when one with enough remaining validity exists. If the requested variant was never
+     * rendered, the URL of the original is returned instead.
      *
-     * @param key the key of the image to generate a URL for
+     * @param key     the key of the image to generate a URL for
+     * @param variant the rendition to link to
      * @return a {@link GetImageResponseDTO} containing the presigned URL
      * @throws ImageStorageException if the object does not exist
      */
     @Override
-    public GetImageResponseDTO getImageUrl(String key) {
-        String bucket = properties.getBucket();
-        ensureObjectExists(key);
+    public GetImageResponseDTO getImageUrl(String key, ImageVariant variant) {
+        GetImageUrlsResponseDTO resolved = getImageUrls(List.of(key), variant);
+        if (!resolved.getMissing().isEmpty()) {
+            log.warn("Requested image '{}' not found in bucket '{}'", key, properties.getBucket());
+            throw new ImageStorageException("Requested image does not exist");
+        }
+        return new GetImageResponseDTO(resolved.getUrls().get(key));
+    }
 
-        GetObjectRequest getRequest = GetObjectRequest.builder()
-            .bucket(bucket)
-            .key(key)
-            .build();
+    /**
+     * Generates presigned URLs for many images at once.
+     * <p>
+     * Duplicate keys are collapsed. Keys without a cached URL or known existence are checked
+     * with concurrent HEAD requests; keys that turn out not to exist are reported in
+     * {@link GetImageUrlsResponseDTO#getMissing()} instead of failing the whole batch. Keys
+     * whose variant is missing get the URL of their original; missing variants are remembered
+     * so later requests skip the HEAD.
+     *
+     * @param keys    the image keys to presign
+     * @param variant the rendition to link to
+     * @return presigned URLs in request order, plus the keys that do not exist
+     * @throws ImageStorageException if MinIO cannot be reached
+     */
+    @Override
+    public GetImageUrlsResponseDTO getImageUrls(Collection<String> keys, ImageVariant variant) {
+        List<String> distinct = List.copyOf(new LinkedHashSet<>(keys));
+        Map<String, String> variantUrls = variant == ImageVariant.ORIGINAL
+            ? Map.of()
+            : presignExisting(distinct, variant);
+        Map<String, String> originalUrls = presignExisting(
+            distinct.stream().filter(key -> !variantUrls.containsKey(key)).toList(),
+            ImageVariant.ORIGINAL);
 
-        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-            .signatureDuration(Duration.ofMinutes(presignedExpirationMinutes))
-            .getObjectRequest(getRequest)
-            .build();
+        GetImageUrlsResponseDTO resolved = MinioObjectCatalog.collect(distinct, variantUrls, originalUrls);
+        log.debug("Presigned {} {} image URLs ({} missing)",
+            resolved.getUrls().size(), variant, resolved.getMissing().size());
+        return resolved;
+    }
 
-        String presignedUrl = s3Presigner.presignGetObject(presignRequest).url().toString();
+    /**
+     * Presigns the given variant of each key whose object exists.
+     *
+     * @return presigned URL per original key; keys whose object does not exist are absent
+     */
+    private Map<String, String> presignExisting(List<String> keys, ImageVariant variant) {
+        Map<String, String> urls = new HashMap<>();
+        Map<String, String> unknown = catalog.resolveCached(keys, variant, urls);
+        catalog.resolveChecked(unknown, checkExistence(List.copyOf(unknown.keySet())), variant, urls);
+        return urls;
+    }
 
-        log.info("Generated presigned URL for key '{}' in bucket '{}'. Expires in {} minutes.", key, bucket, presignedExpirationMinutes);
+    /**
+     * Checks existence of several keys with concurrent HEAD requests on virtual threads.
+     *
+     * @return existence per key
+     */
+    private Map<String, Boolean> checkExistence(List<String> keys) {
+        Map<String, Boolean> existence = new LinkedHashMap<>();
+        if (keys.isEmpty()) {
+            return existence;
+        }
+        if (keys.size() == 1) {
+            existence.put(keys.get(0), objectExists(keys.get(0)));
+            return existence;
+        }
 
-        return new GetImageResponseDTO(presignedUrl);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Map<String, Future<Boolean>> pending = new LinkedHashMap<>();
+            for (String key : keys) {
+                pending.put(key, executor.submit(() -> objectExists(key)));
+            }
+            for (Map.Entry<String, Future<Boolean>> entry : pending.entrySet()) {
+                existence.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImageStorageException("Interrupted while checking images", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof ImageStorageException storageException) {
+                throw storageException;
+            }
+            throw new ImageStorageException("Failed to check images", e.getCause());
+        }
+        return existence;
     }
 
     /**
-     * Ensures the target bucket exists in MinIO.
+     * Ensures the target bucket exists in MinIO and marks it ready.
      * <p>
      * If the bucket does not exist (404), it is created.
      * If it already exists or is inaccessible (403/409), logs a warning and skips creation.
      */
-    private void ensureBucketExists() {
+    private synchronized void ensureBucketExists() {
+        if (catalog.bucketReady()) {
+            return;
+        }
         String bucket = properties.getBucket();
 
         try {
@@ -165,7 +432,11 @@ public class MinioImageStorageService implements ImageStorageService {
         } catch (S3Exception e) {
             if (e.statusCode() == 404) {
                 log.warn("Bucket '{}' not found. Creating it now...", bucket);
-                s3Client.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
+                try {
+                    s3Client.createBucket(CreateBucketRequest.builder().bucket(bucket).build());
+                } catch (BucketAlreadyOwnedByYouException | BucketAlreadyExistsException raced) {
+                    log.info("Bucket '{}' was created concurrently", bucket);
+                }
             } else if (e.statusCode() == 403 || e.statusCode() == 409) {
                 log.warn("Bucket '{}' exists but is not accessible (status {}). Skipping creation.", bucket, e.statusCode());
             } else {
@@ -173,16 +444,19 @@ public class MinioImageStorageService implements ImageStorageService {
                 throw e;
             }
         }
+        catalog.markBucketReady();
     }
 
     /**
-     * Verifies that the object (image) exists in the bucket.
+     * Checks whether the object (image) exists in the bucket and remembers keys that do.
      *
      * @param key the key of the image to check
-     * @throws ImageStorageException if the object does not exist or is inaccessible
+     * @return {@code true} if the object exists
+     * @throws ImageStorageException if the bucket cannot be queried
      */
-    private void ensureObjectExists(String key) {
+    private boolean objectExists(String key) {
         String bucket = properties.getBucket();
+        catalog.countExistenceCheck();
 
         try {
             s3Client.headObject(HeadObjectRequest.builder()
@@ -190,41 +464,14 @@ public class MinioImageStorageService implements ImageStorageService {
                 .key(key)
                 .build());
         } catch (S3Exception e) {
-            log.warn("Requested image '{}' not found in bucket '{}'", key, bucket);
-            throw new ImageStorageException("Requested image does not exist", e);
-        }
-    }
-
-    /**
-     * Validates the uploaded file to ensure it's a non-empty image.
-     *
-     * @param file the uploaded file to validate
-     * @throws ImageStorageException if the file is empty or not an image
-     */
-    private void validateFile(MultipartFile file) {
-        if (file.isEmpty() || file.getSize() <= 0) {
-            log.warn("Uploaded file is empty.");
-            throw new ImageStorageException("Uploaded file is empty.");
-        }
-
-        if (file.getContentType() == null || !file.getContentType().startsWith("image/")) {
-            log.warn("Invalid file type: {}. Only images are allowed.", file.getContentType());
-            throw new ImageStorageException("Only image files are allowed.");
+            if (MinioObjectCatalog.isMissing(e)) {
+                return false;
+            }
+            log.error("Failed to check image '{}' in bucket '{}' (status {})", key, bucket, e.statusCode(), e);
+            throw new ImageStorageException("Failed to check image", e);
         }
-    }
 
-    /**
-     * Generates a unique key for the uploaded image using UUID and original filename.
-     *
-     * @param file the image file to generate a key for
-     * @return a unique key string used to store the image
-     */
-    private String generateUniqueKey(MultipartFile file) {
-        String originalFilename = Objects.requireNonNull(file.getOriginalFilename(), "File name is null")
-            .replaceAll("\\s+", "_");
-        String uuid = java.util.UUID.randomUUID().toString();
-        String key = uuid + "_" + originalFilename;
-        log.debug("Generated unique key for upload: {}", key);
-        return key;
+        catalog.remember(key);
+        return true;
     }
 }
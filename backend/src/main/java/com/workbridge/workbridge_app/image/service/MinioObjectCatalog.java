@@ -0,0 +1,337 @@
+package com.workbridge.workbridge_app.image.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import com.workbridge.workbridge_app.common.util.BoundedLruCache;
+import com.workbridge.workbridge_app.config.minio.MinioProperties;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsResponseDTO;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.exception.TransientImageStorageException;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository.Acquisition;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+
+/**
+ * What the MinIO backends know about their bucket, shared by {@link MinioImageStorageService} and
+ * {@link AsyncMinioImageStorageService}, which differ only in how they send requests to MinIO.
+ * <p>
+ * Presigning is a local signature computation; the expensive part is the HEAD request that
+ * confirms the object exists. Keys seen to exist (uploaded here or confirmed by a HEAD) are
+ * remembered in a bounded cache, and presigned URLs are reused until only
+ * {@code minio.presigned-url-min-remaining} of their validity is left. Only positive existence
+ * results are cached for originals, so an upload on another node is never hidden by a stale miss;
+ * an image deleted on another node may still get a URL, which then fails with 404 at MinIO.
+ * Variants found missing are remembered, so their lookups fall back to the original without a HEAD.
+ * <p>
+ * Also keeps the per-owner content reference accounting and the classification of upload
+ * failures, so both backends dedupe and retry alike. Publishes {@code image.presign.cache},
+ * {@code image.exists.checks} and {@code image.upload.dedup}.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@Slf4j
+final class MinioObjectCatalog {
+
+    private final S3Presigner s3Presigner;
+    private final ImageObjectRepository imageObjectRepository;
+    private final MinioProperties properties;
+    private final BoundedLruCache<String, Boolean> knownObjects;
+    private final BoundedLruCache<String, Boolean> missingVariants;
+    private final BoundedLruCache<String, CachedUrl> presignedUrls;
+    private final Duration presignedExpiration;
+    private final long urlReuseNanos;
+    private final Counter urlCacheHits;
+    private final Counter urlCacheMisses;
+    private final Counter existenceChecks;
+    private final Counter dedupHits;
+    private final Counter dedupMisses;
+    private volatile boolean bucketReady;
+
+    /** A presigned URL and the {@link System#nanoTime()} after which it is no longer handed out. */
+    private record CachedUrl(String url, long reuseUntilNanos) {}
+
+    MinioObjectCatalog(S3Presigner s3Presigner,
+                       ImageObjectRepository imageObjectRepository,
+                       MinioProperties properties,
+                       MeterRegistry meterRegistry) {
+        this.s3Presigner = s3Presigner;
+        this.imageObjectRepository = imageObjectRepository;
+        this.properties = properties;
+        this.knownObjects = new BoundedLruCache<>(properties.getKnownObjectCacheSize());
+        this.missingVariants = new BoundedLruCache<>(properties.getKnownObjectCacheSize());
+        this.presignedUrls = new BoundedLruCache<>(properties.getPresignedUrlCacheSize());
+        this.presignedExpiration = Duration.ofMinutes(properties.getPresignedExpirationMinutes());
+        // Non-positive when the margin swallows the whole validity; URLs are then never reused
+        this.urlReuseNanos = presignedExpiration.minus(properties.getPresignedUrlMinRemaining()).toNanos();
+        this.urlCacheHits = Counter.builder("image.presign.cache")
+            .description("Presigned URL requests by cache outcome")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.urlCacheMisses = Counter.builder("image.presign.cache")
+            .description("Presigned URL requests by cache outcome")
+            .tag("result", "miss")
+            .register(meterRegistry);
+        this.existenceChecks = Counter.builder("image.exists.checks")
+            .description("HEAD requests sent to confirm an image exists")
+            .register(meterRegistry);
+        this.dedupHits = Counter.builder("image.upload.dedup")
+            .description("Uploads by whether their content was already stored")
+            .tag("result", "hit")
+            .register(meterRegistry);
+        this.dedupMisses = Counter.builder("image.upload.dedup")
+            .description("Uploads by whether their content was already stored")
+            .tag("result", "miss")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return whether the bucket is known to exist, so uploads can skip checking it
+     */
+    boolean bucketReady() {
+        return bucketReady;
+    }
+
+    void markBucketReady() {
+        bucketReady = true;
+    }
+
+    /**
+     * Records the owner's reference to the content key and counts whether the upload is a duplicate.
+     *
+     * @return the {@link Acquisition}; if the content is already stored it must not be uploaded again
+     */
+    Acquisition acquire(String key, Long ownerId, long size, String contentType) {
+        Acquisition acquisition = imageObjectRepository.acquire(key, ownerId, size, contentType);
+        if (acquisition.getStored()) {
+            dedupHits.increment();
+            knownObjects.putIfAbsent(key, Boolean.TRUE);
+            log.info("Image content already stored in bucket '{}'. Reusing key: {}", properties.getBucket(), key);
+        } else {
+            dedupMisses.increment();
+        }
+        return acquisition;
+    }
+
+    /**
+     * Undoes {@link #acquire} after a failed upload, dropping the owner's reference only if that
+     * call added it.
+     */
+    void abandon(String key, Long ownerId, Acquisition acquisition) {
+        if (acquisition.getAdded()) {
+            imageObjectRepository.release(key, ownerId);
+        }
+    }
+
+    /**
+     * Remembers that the object exists.
+     */
+    void remember(String objectKey) {
+        knownObjects.putIfAbsent(objectKey, Boolean.TRUE);
+    }
+
+    /**
+     * Remembers that a variant was stored, replacing an earlier miss.
+     */
+    void rememberVariant(String variantKey) {
+        missingVariants.remove(variantKey);
+        knownObjects.putIfAbsent(variantKey, Boolean.TRUE);
+    }
+
+    /**
+     * Counts a HEAD request sent to confirm an object exists.
+     */
+    void countExistenceCheck() {
+        existenceChecks.increment();
+    }
+
+    /**
+     * @return whether a failed HEAD means the object does not exist, rather than that MinIO
+     *         could not be queried
+     */
+    static boolean isMissing(Throwable failure) {
+        return failure instanceof NoSuchKeyException
+            || (failure instanceof S3Exception s3 && s3.statusCode() == 404);
+    }
+
+    /**
+     * Drops the owner's reference to an image and, once no upload refers to it any more, deletes
+     * it with all of its variants through {@code deleteObjects} and forgets what was cached about
+     * them. Does nothing if the owner holds no reference, so repeating a delete is harmless.
+     * <p>
+     * Runs in the caller's transaction: the reference row stays locked while the objects are
+     * deleted, so a concurrent upload of the same content waits and then stores it afresh instead
+     * of pointing at a deleted object.
+     */
+    void release(String key, Long ownerId, Consumer<Delete> deleteObjects) {
+        List<Integer> remaining = imageObjectRepository.release(key, ownerId);
+        if (remaining.isEmpty()) {
+            log.info("User {} holds no reference to image '{}'; nothing to delete", ownerId, key);
+            return;
+        }
+        if (remaining.get(0) > 0) {
+            log.info("Image '{}' still has {} references; keeping it", key, remaining.get(0));
+            return;
+        }
+
+        List<ObjectIdentifier> objects = new ArrayList<>();
+        for (ImageVariant variant : ImageVariant.values()) {
+            objects.add(ObjectIdentifier.builder().key(variant.keyFor(key)).build());
+        }
+        deleteObjects.accept(Delete.builder().objects(objects).quiet(true).build());
+        imageObjectRepository.deleteUnreferenced(key);
+
+        for (ImageVariant variant : ImageVariant.values()) {
+            String objectKey = variant.keyFor(key);
+            knownObjects.remove(objectKey);
+            presignedUrls.remove(objectKey);
+            missingVariants.remove(objectKey);
+        }
+        log.info("Image deleted from bucket '{}'. Key: {}", properties.getBucket(), key);
+    }
+
+    /**
+     * Presigns the given variant of each key that the caches can answer for.
+     *
+     * @param urls receives the presigned URL per original key
+     * @return object keys that need a HEAD request, mapped to their original key; keys of
+     *         variants known to be missing are in neither
+     */
+    Map<String, String> resolveCached(List<String> keys, ImageVariant variant, Map<String, String> urls) {
+        Map<String, String> unknown = new LinkedHashMap<>();
+        for (String key : keys) {
+            String objectKey = variant.keyFor(key);
+            String cached = cachedUrl(objectKey);
+            if (cached != null) {
+                urls.put(key, cached);
+            } else if (knownObjects.get(objectKey) != null) {
+                urls.put(key, presign(objectKey));
+            } else if (missingVariants.get(objectKey) == null) {
+                unknown.put(objectKey, key);
+            }
+        }
+        return unknown;
+    }
+
+    /**
+     * Presigns the keys left by {@link #resolveCached} whose HEAD found them, and remembers the
+     * variants that are missing.
+     *
+     * @param unknown   object keys mapped to their original key, as returned by {@link #resolveCached}
+     * @param existence HEAD result per object key
+     * @param urls      receives the presigned URL per original key
+     */
+    void resolveChecked(Map<String, String> unknown, Map<String, Boolean> existence, ImageVariant variant,
+                        Map<String, String> urls) {
+        unknown.forEach((objectKey, key) -> {
+            if (existence.get(objectKey)) {
+                urls.put(key, presign(objectKey));
+            } else if (variant != ImageVariant.ORIGINAL) {
+                missingVariants.put(objectKey, Boolean.TRUE);
+            }
+        });
+    }
+
+    /**
+     * Picks the variant URL of each key, else its original's, and reports keys with neither.
+     *
+     * @param keys         distinct keys in request order
+     * @param variantUrls  presigned variant URL per key
+     * @param originalUrls presigned original URL per key
+     */
+    static GetImageUrlsResponseDTO collect(List<String> keys, Map<String, String> variantUrls,
+                                           Map<String, String> originalUrls) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String key : keys) {
+            String url = variantUrls.containsKey(key) ? variantUrls.get(key) : originalUrls.get(key);
+            if (url != null) {
+                urls.put(key, url);
+            } else {
+                missing.add(key);
+            }
+        }
+        return new GetImageUrlsResponseDTO(urls, missing);
+    }
+
+    /**
+     * @return a cached presigned URL for the key that is still valid long enough, or {@code null}
+     */
+    private String cachedUrl(String key) {
+        CachedUrl cached = presignedUrls.get(key);
+        if (cached != null && System.nanoTime() - cached.reuseUntilNanos() < 0) {
+            urlCacheHits.increment();
+            return cached.url();
+        }
+        urlCacheMisses.increment();
+        return null;
+    }
+
+    /**
+     * Signs a GET URL for the key and caches it for reuse.
+     */
+    private String presign(String key) {
+        long signedAt = System.nanoTime();
+        GetObjectRequest getRequest = GetObjectRequest.builder()
+            .bucket(properties.getBucket())
+            .key(key)
+            .build();
+
+        GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
+            .signatureDuration(presignedExpiration)
+            .getObjectRequest(getRequest)
+            .build();
+
+        String presignedUrl = s3Presigner.presignGetObject(presignRequest).url().toString();
+        if (urlReuseNanos > 0) {
+            presignedUrls.put(key, new CachedUrl(presignedUrl, signedAt + urlReuseNanos));
+        }
+
+        log.debug("Generated presigned URL for key '{}'. Expires in {}.", key, presignedExpiration);
+        return presignedUrl;
+    }
+
+    /**
+     * Maps a failed upload to a retryable or final storage exception.
+     * <p>
+     * Network errors, 5xx/429 responses and a missing bucket are transient; a missing bucket also
+     * clears {@link #bucketReady()} so the next attempt re-creates it. A storage exception raised
+     * while the body was read is returned as is.
+     */
+    ImageStorageException uploadFailure(String key, Throwable failure) {
+        String bucket = properties.getBucket();
+        if (failure instanceof ImageStorageException storageException) {
+            return storageException;
+        }
+        if (failure instanceof NoSuchBucketException) {
+            log.warn("Bucket '{}' disappeared during upload of '{}'; re-validating on retry", bucket, key);
+            bucketReady = false;
+            return new TransientImageStorageException("Failed to upload image", failure);
+        }
+        if (failure instanceof SdkClientException || failure instanceof IOException
+            || (failure instanceof S3Exception s3 && (s3.statusCode() >= 500 || s3.statusCode() == 429))) {
+            log.warn("Transient failure uploading image to bucket '{}'. Key: {}: {}", bucket, key, failure.getMessage());
+            return new TransientImageStorageException("Failed to upload image", failure);
+        }
+        log.error("Failed to upload image to bucket '{}'. Key: {}", bucket, key, failure);
+        return new ImageStorageException("Failed to upload image", failure);
+    }
+}
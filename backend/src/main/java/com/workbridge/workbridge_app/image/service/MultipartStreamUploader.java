@@ -0,0 +1,279 @@
+package com.workbridge.workbridge_app.image.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.workbridge.workbridge_app.config.minio.MinioProperties;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+
+/**
+ * Copies an input stream of unknown length into an S3 object without holding it in memory
+ * or on disk.
+ * <p>
+ * The stream is cut into {@code minio.upload-part-size} parts. A body that ends inside the
+ * first part is stored with one {@code putObject}; anything larger becomes a multipart upload
+ * whose parts are sent on virtual threads, at most {@code minio.upload-part-concurrency} at a
+ * time. A permit is taken before a part buffer is filled, so reading pauses while all slots are
+ * busy and heap use stays at {@code (concurrency + 1) * partSize} per upload; a body shorter than
+ * one part only takes about its own size. Any failure aborts
+ * the multipart upload so MinIO discards the parts already sent.
+ * <p>
+ * The stream is read exactly once, so callers cannot retry an upload whose source was consumed.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@Component
+@ConditionalOnProperty(prefix = "image.storage", name = "type", havingValue = "s3", matchIfMissing = true)
+@Slf4j
+public class MultipartStreamUploader {
+
+    /** First buffer for a body of unknown length; enough for a typical avatar or thumbnail. */
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+
+    private final S3Client s3Client;
+    private final int partSize;
+    private final int partConcurrency;
+    private final DistributionSummary partsPerUpload;
+
+    private record UploadedParts(List<CompletedPart> parts, long bytes) {}
+
+    private record FirstPart(byte[] buffer, int length) {}
+
+    public MultipartStreamUploader(S3Client s3Client, MinioProperties properties, MeterRegistry meterRegistry) {
+        this.s3Client = s3Client;
+        this.partSize = Math.toIntExact(properties.getUploadPartSize().toBytes());
+        this.partConcurrency = Math.max(1, properties.getUploadPartConcurrency());
+        this.partsPerUpload = DistributionSummary.builder("image.upload.parts")
+            .description("Parts sent per image upload; 1 means a single PUT")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Uploads the stream to {@code bucket/key}.
+     *
+     * @param content       the body to store; read to the end but not closed
+     * @param contentType   the MIME type recorded on the object
+     * @param expectedBytes the body size if known up front, or {@code -1}; sizes the first buffer
+     * @param maxBytes      upper bound on the body size
+     * @return number of bytes stored
+     * @throws ImageStorageException if the body is empty, exceeds {@code maxBytes} or cannot be read
+     */
+    public long upload(String bucket, String key, InputStream content, String contentType,
+                       long expectedBytes, long maxBytes) {
+        FirstPart head = readFirstPart(content, expectedBytes);
+        byte[] first = head.buffer();
+        int firstLength = head.length();
+        if (firstLength == 0) {
+            throw new ImageStorageException("Uploaded file is empty.");
+        }
+        if (firstLength < partSize) {
+            checkSize(firstLength, maxBytes);
+            s3Client.putObject(PutObjectRequest.builder()
+                    .bucket(bucket)
+                    .key(key)
+                    .contentType(contentType)
+                    .build(),
+                RequestBody.fromRemainingByteBuffer(ByteBuffer.wrap(first, 0, firstLength)));
+            partsPerUpload.record(1);
+            return firstLength;
+        }
+
+        String uploadId = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .contentType(contentType)
+                .build())
+            .uploadId();
+
+        try {
+            UploadedParts uploaded = uploadParts(bucket, key, uploadId, content, first, maxBytes);
+            s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(uploaded.parts()).build())
+                .build());
+            partsPerUpload.record(uploaded.parts().size());
+            return uploaded.bytes();
+        } catch (RuntimeException e) {
+            abort(bucket, key, uploadId);
+            throw e;
+        }
+    }
+
+    /**
+     * Sends the first part and every following one. Leaving the executor block waits for parts
+     * still in flight, so an abort issued by the caller afterwards cannot race a late part.
+     */
+    private UploadedParts uploadParts(
+        String bucket,
+        String key,
+        String uploadId,
+        InputStream content,
+        byte[] first,
+        long maxBytes
+    ) {
+        Semaphore slots = new Semaphore(partConcurrency);
+        List<Future<CompletedPart>> pending = new ArrayList<>();
+        long total = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            byte[] buffer = first;
+            int length = first.length;
+            int partNumber = 1;
+            slots.acquire();
+            while (true) {
+                total += length;
+                checkSize(total, maxBytes);
+                pending.add(executor.submit(uploadPart(bucket, key, uploadId, partNumber++, buffer, length, slots)));
+                if (length < partSize) {
+                    break;
+                }
+                slots.acquire();
+                throwIfAnyFailed(pending);
+                buffer = new byte[partSize];
+                length = readPart(content, buffer);
+                if (length == 0) {
+                    slots.release();
+                    break;
+                }
+            }
+
+            List<CompletedPart> parts = new ArrayList<>(pending.size());
+            for (Future<CompletedPart> part : pending) {
+                parts.add(part.get());
+            }
+            parts.sort(Comparator.comparing(CompletedPart::partNumber));
+            return new UploadedParts(parts, total);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImageStorageException("Interrupted while uploading image", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new ImageStorageException("Failed to upload image", e.getCause());
+        }
+    }
+
+    private Callable<CompletedPart> uploadPart(
+        String bucket,
+        String key,
+        String uploadId,
+        int partNumber,
+        byte[] buffer,
+        int length,
+        Semaphore slots
+    ) {
+        return () -> {
+            try {
+                String eTag = s3Client.uploadPart(UploadPartRequest.builder()
+                        .bucket(bucket)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber)
+                        .contentLength((long) length)
+                        .build(),
+                    RequestBody.fromByteBuffer(ByteBuffer.wrap(buffer, 0, length)))
+                    .eTag();
+                return CompletedPart.builder().partNumber(partNumber).eTag(eTag).build();
+            } finally {
+                slots.release();
+            }
+        };
+    }
+
+    /**
+     * Stops reading the body as soon as a part has failed instead of after the last part.
+     */
+    private static void throwIfAnyFailed(List<Future<CompletedPart>> pending)
+        throws InterruptedException, ExecutionException {
+        for (Future<CompletedPart> part : pending) {
+            if (part.isDone()) {
+                part.get();
+            }
+        }
+    }
+
+    /**
+     * Reads up to one part from the stream. The buffer starts at the expected size, or small when
+     * the size is unknown, and doubles up to {@code partSize} only while data keeps arriving, so a
+     * small image never costs a whole part.
+     *
+     * @return the bytes read; a full {@code partSize} buffer if the stream continues past them
+     */
+    private FirstPart readFirstPart(InputStream content, long expectedBytes) {
+        long initial = expectedBytes >= 0 ? expectedBytes + 1 : INITIAL_BUFFER_SIZE;
+        byte[] buffer = new byte[(int) Math.min(partSize, Math.max(1, initial))];
+        int length = 0;
+        while (true) {
+            length += readInto(content, buffer, length);
+            if (length < buffer.length || buffer.length == partSize) {
+                return new FirstPart(buffer, length);
+            }
+            buffer = Arrays.copyOf(buffer, (int) Math.min(partSize, 2L * buffer.length));
+        }
+    }
+
+    /**
+     * Fills the buffer from the stream.
+     *
+     * @return bytes read; less than the buffer length only at the end of the stream
+     */
+    private int readPart(InputStream content, byte[] buffer) {
+        return readInto(content, buffer, 0);
+    }
+
+    private int readInto(InputStream content, byte[] buffer, int offset) {
+        try {
+            return content.readNBytes(buffer, offset, buffer.length - offset);
+        } catch (IOException e) {
+            throw new ImageStorageException("Failed to read uploaded image", e);
+        }
+    }
+    private void checkSize(long bytes, long maxBytes) {
+        if (bytes > maxBytes) {
+            throw new ImageStorageException("Uploaded file is too large.");
+        }
+    }
+
+    private void abort(String bucket, String key, String uploadId) {
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(bucket)
+                .key(key)
+                .uploadId(uploadId)
+                .build());
+        } catch (RuntimeException e) {
+            log.warn("Failed to abort multipart upload {} for key '{}'; MinIO will expire it", uploadId, key, e);
+        }
+    }
+}
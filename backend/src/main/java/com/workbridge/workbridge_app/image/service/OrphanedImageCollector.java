@@ -0,0 +1,352 @@
+package com.workbridge.workbridge_app.image.service;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.common.util.BloomFilter;
+import com.workbridge.workbridge_app.config.ImageGcProperties;
+import com.workbridge.workbridge_app.config.minio.MinioProperties;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Mark-and-sweep collection of image objects that no upload refers to any more.
+ * <p>
+ * Each run, on the {@code image.gc.cron} schedule:
+ * <ol>
+ *   <li>purges {@code image_object} rows that have had no references for longer than
+ *       {@code image.gc.grace-period} (left behind when a delete failed half way);</li>
+ *   <li>marks: streams every remaining key into a Bloom filter, a few bits per key, so even
+ *       millions of images fit in memory;</li>
+ *   <li>sweeps: pages through the bucket with {@code ListObjectsV2} and deletes, in
+ *       {@code DeleteObjects} batches of up to 1000 keys, every content-addressed original or
+ *       variant whose key is not in the filter, and every leftover staging object.</li>
+ * </ol>
+ * Only objects last modified before the grace period are considered, which covers uploads whose
+ * row was written after the mark. Before each batch is deleted its keys are checked against the
+ * table once more, so an image re-uploaded during the sweep is kept. A Bloom false positive only
+ * keeps an orphan until a later run. Keys that are not content hashes (uploaded before content
+ * addressing) have no rows and are never collected.
+ * <p>
+ * Deletes are paced to {@code image.gc.max-deletes-per-second}. Publishes
+ * {@code image.gc.scanned} (objects listed), {@code image.gc.deleted} (objects deleted, by
+ * {@code kind}), {@code image.gc.reclaimed} (bytes), {@code image.gc.rows.purged},
+ * {@code image.gc.errors} (objects that could not be deleted) and {@code image.gc.duration}.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@Service
+@ConditionalOnExpression("'${image.storage.type:s3}'.startsWith('s3') and ${image.gc.enabled:true}")
+@Slf4j
+public class OrphanedImageCollector {
+
+    /** S3 rejects {@code DeleteObjects} requests and pages with more keys than this. */
+    static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    /** Content keys are the hex SHA-256 of the bytes with an optional extension. */
+    private static final Pattern CONTENT_KEY = Pattern.compile("[0-9a-f]{64}(\\.[a-z0-9]+)?");
+
+    private final S3Client s3Client;
+    private final ImageObjectRepository imageObjectRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MinioProperties minioProperties;
+    private final ImageGcProperties properties;
+    private final Counter scanned;
+    private final Counter deletedImages;
+    private final Counter deletedStaging;
+    private final Counter reclaimed;
+    private final Counter rowsPurged;
+    private final Counter errors;
+    private final Timer duration;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private Clock clock = Clock.systemUTC();
+
+    public OrphanedImageCollector(S3Client s3Client,
+                                  ImageObjectRepository imageObjectRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  MinioProperties minioProperties,
+                                  ImageGcProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.s3Client = s3Client;
+        this.imageObjectRepository = imageObjectRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.minioProperties = minioProperties;
+        this.properties = properties;
+        this.scanned = Counter.builder("image.gc.scanned")
+            .description("Objects listed by the orphaned image collector")
+            .register(meterRegistry);
+        this.deletedImages = Counter.builder("image.gc.deleted")
+            .tag("kind", "image")
+            .description("Orphaned objects deleted")
+            .register(meterRegistry);
+        this.deletedStaging = Counter.builder("image.gc.deleted")
+            .tag("kind", "staging")
+            .description("Orphaned objects deleted")
+            .register(meterRegistry);
+        this.reclaimed = Counter.builder("image.gc.reclaimed")
+            .baseUnit("bytes")
+            .description("Bytes of orphaned objects deleted")
+            .register(meterRegistry);
+        this.rowsPurged = Counter.builder("image.gc.rows.purged")
+            .description("Unreferenced image_object rows deleted")
+            .register(meterRegistry);
+        this.errors = Counter.builder("image.gc.errors")
+            .description("Orphaned objects that could not be deleted")
+            .register(meterRegistry);
+        this.duration = Timer.builder("image.gc.duration")
+            .description("Time taken by one collector run")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Runs a collection on the {@code image.gc.cron} schedule (daily by default).
+     */
+    @Scheduled(cron = "${image.gc.cron:0 30 4 * * *}")
+    public void scheduledCollect() {
+        try {
+            collect();
+        } catch (SdkException e) {
+            log.error("Orphaned image collection aborted: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Runs one mark-and-sweep pass, unless one is already running.
+     *
+     * @return number of objects deleted
+     */
+    public long collect() {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Orphaned image collection already running; skipping");
+            return 0;
+        }
+        Timer.Sample sample = Timer.start();
+        try {
+            Instant cutoff = clock.instant().minus(properties.getGracePeriod());
+            long rows = purgeUnreferencedRows(cutoff);
+            BloomFilter referenced = markReferencedKeys();
+            Sweep sweep = new Sweep(referenced, cutoff);
+            sweep.run();
+            log.info("Orphaned image collection: {} objects listed, {} deleted ({} bytes), {} rows purged",
+                sweep.listed, sweep.deleted, sweep.bytes, rows);
+            return sweep.deleted;
+        } finally {
+            sample.stop(duration);
+            running.set(false);
+        }
+    }
+
+    /**
+     * Deletes rows without references older than {@code cutoff}, a batch per statement, so their
+     * objects are swept in the same run.
+     */
+    long purgeUnreferencedRows(Instant cutoff) {
+        int batchSize = batchSize();
+        long total = 0;
+        int deleted;
+        do {
+            deleted = imageObjectRepository.deleteUnreferencedBatch(cutoff, batchSize);
+            rowsPurged.increment(deleted);
+            total += deleted;
+        } while (deleted >= batchSize);
+        return total;
+    }
+
+    private BloomFilter markReferencedKeys() {
+        long rows = imageObjectRepository.count();
+        BloomFilter referenced = new BloomFilter(Math.max(1024, rows * 2), properties.getFalsePositiveRate());
+        transactionTemplate.executeWithoutResult(status -> {
+            try (var keys = imageObjectRepository.streamAllKeys()) {
+                keys.forEach(referenced::put);
+            }
+        });
+        return referenced;
+    }
+
+    /**
+     * @return the original content key an object belongs to, or {@code null} if it is neither a
+     *         content-addressed original nor one of its variants
+     */
+    static String contentKeyOf(String objectKey) {
+        String key = objectKey;
+        for (ImageVariant variant : ImageVariant.values()) {
+            String prefix = variant.keyFor("");
+            if (variant != ImageVariant.ORIGINAL && key.startsWith(prefix)) {
+                key = key.substring(prefix.length());
+                break;
+            }
+        }
+        return CONTENT_KEY.matcher(key).matches() ? key : null;
+    }
+
+    private static boolean isStaging(String objectKey) {
+        return objectKey.startsWith(MinioImageStorageService.STAGING_PREFIX);
+    }
+
+    private int batchSize() {
+        return Math.max(1, Math.min(properties.getDeleteBatchSize(), MAX_KEYS_PER_REQUEST));
+    }
+
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /** State of one sweep over the bucket. */
+    private final class Sweep {
+        private final BloomFilter referenced;
+        private final Instant cutoff;
+        private final int batchSize = batchSize();
+        private final long nanosPerDelete = properties.getMaxDeletesPerSecond() > 0
+            ? TimeUnit.SECONDS.toNanos(1) / properties.getMaxDeletesPerSecond() : 0;
+        private final List<S3Object> candidates = new ArrayList<>();
+        private long nextDeleteAt = System.nanoTime();
+        private long listed;
+        private long deleted;
+        private long bytes;
+
+        Sweep(BloomFilter referenced, Instant cutoff) {
+            this.referenced = referenced;
+            this.cutoff = cutoff;
+        }
+
+        void run() {
+            ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(minioProperties.getBucket())
+                .maxKeys(Math.max(1, Math.min(properties.getPageSize(), MAX_KEYS_PER_REQUEST)))
+                .build();
+            for (ListObjectsV2Response page : s3Client.listObjectsV2Paginator(request)) {
+                for (S3Object object : page.contents()) {
+                    listed++;
+                    scanned.increment();
+                    if (isOrphan(object)) {
+                        candidates.add(object);
+                        if (candidates.size() >= batchSize && !flush()) {
+                            return;
+                        }
+                    }
+                }
+            }
+            flush();
+        }
+
+        private boolean isOrphan(S3Object object) {
+            if (object.lastModified() == null || !object.lastModified().isBefore(cutoff)) {
+                return false;
+            }
+            if (isStaging(object.key())) {
+                return true;
+            }
+            String contentKey = contentKeyOf(object.key());
+            return contentKey != null && !referenced.mightContain(contentKey);
+        }
+
+        /**
+         * Deletes the pending candidates that still have no row.
+         *
+         * @return {@code false} if interrupted, in which case the sweep stops
+         */
+        private boolean flush() {
+            if (candidates.isEmpty()) {
+                return true;
+            }
+            List<S3Object> orphans = recheck(candidates);
+            candidates.clear();
+            if (orphans.isEmpty()) {
+                return true;
+            }
+            if (!throttle(orphans.size())) {
+                return false;
+            }
+            try {
+                DeleteObjectsResponse response = s3Client.deleteObjects(DeleteObjectsRequest.builder()
+                    .bucket(minioProperties.getBucket())
+                    .delete(d -> d.quiet(true).objects(orphans.stream()
+                        .map(object -> ObjectIdentifier.builder().key(object.key()).build())
+                        .toList()))
+                    .build());
+                Set<String> failed = new HashSet<>();
+                response.errors().forEach(error -> failed.add(error.key()));
+                if (!failed.isEmpty()) {
+                    errors.increment(failed.size());
+                    log.warn("Could not delete {} orphaned objects, e.g. {}: {}", failed.size(),
+                        response.errors().get(0).key(), response.errors().get(0).message());
+                }
+                for (S3Object object : orphans) {
+                    if (!failed.contains(object.key())) {
+                        long size = object.size() != null ? object.size() : 0;
+                        (isStaging(object.key()) ? deletedStaging : deletedImages).increment();
+                        reclaimed.increment(size);
+                        bytes += size;
+                        deleted++;
+                    }
+                }
+            } catch (SdkException e) {
+                errors.increment(orphans.size());
+                log.warn("Failed to delete {} orphaned objects: {}", orphans.size(), e.getMessage());
+            }
+            return true;
+        }
+
+        /** Drops candidates whose content got a row after the mark, i.e. was uploaded again. */
+        private List<S3Object> recheck(List<S3Object> objects) {
+            Set<String> keys = new HashSet<>();
+            for (S3Object object : objects) {
+                if (!isStaging(object.key())) {
+                    keys.add(contentKeyOf(object.key()));
+                }
+            }
+            Set<String> live = keys.isEmpty() ? Set.of() : new HashSet<>(imageObjectRepository.findExistingKeys(keys));
+            return objects.stream()
+                .filter(object -> isStaging(object.key()) || !live.contains(contentKeyOf(object.key())))
+                .toList();
+        }
+
+        /**
+         * Waits until {@code count} more deletes fit under {@code image.gc.max-deletes-per-second}.
+         *
+         * @return {@code false} if interrupted
+         */
+        private boolean throttle(int count) {
+            if (nanosPerDelete == 0) {
+                return true;
+            }
+            long wait = nextDeleteAt - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            nextDeleteAt = Math.max(nextDeleteAt, System.nanoTime()) + count * nanosPerDelete;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.workbridge.workbridge_app.moderation.exception;
+
+public class ContentRejectedException extends RuntimeException {
+    public ContentRejectedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,231 @@
+package com.workbridge.workbridge_app.moderation.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable Aho–Corasick automaton for case-insensitive multi-term matching.
+ * <p>
+ * The trie is compiled once into flat arrays (sorted edge labels per state, failure
+ * links and dictionary-suffix links), so scanning a text is a single left-to-right
+ * pass whose cost depends on the text length and the number of matches, not on the
+ * number of terms. Case folding is done per {@code char}, which keeps match offsets
+ * aligned with the original text.
+ * <p>
+ * Instances are safe to share between threads; reloading a word list means compiling
+ * a new matcher and swapping the reference.
+ */
+public final class AhoCorasickMatcher {
+
+    private static final AhoCorasickMatcher EMPTY = compile(List.of());
+
+    /** Edges of state {@code s} live in {@code [edgeStart[s], edgeStart[s + 1])}. */
+    private final int[] edgeStart;
+    private final char[] edgeLabel;
+    private final int[] edgeTarget;
+    private final int[] failure;
+    /** Nearest proper suffix state that ends a term, or 0 if none. */
+    private final int[] dictionaryLink;
+    /** Length of the term ending at a state, or 0 if the state is not terminal. */
+    private final int[] termLength;
+    private final int termCount;
+
+    private AhoCorasickMatcher(int[] edgeStart, char[] edgeLabel, int[] edgeTarget, int[] failure,
+                               int[] dictionaryLink, int[] termLength, int termCount) {
+        this.edgeStart = edgeStart;
+        this.edgeLabel = edgeLabel;
+        this.edgeTarget = edgeTarget;
+        this.failure = failure;
+        this.dictionaryLink = dictionaryLink;
+        this.termLength = termLength;
+        this.termCount = termCount;
+    }
+
+    public static AhoCorasickMatcher empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compiles the given terms. Blank entries are ignored and duplicates collapse.
+     *
+     * @param terms the terms to match, in any case
+     * @return a compiled matcher
+     */
+    public static AhoCorasickMatcher compile(Collection<String> terms) {
+        List<Map<Character, Integer>> children = new ArrayList<>();
+        List<Integer> lengths = new ArrayList<>();
+        children.add(new TreeMap<>());
+        lengths.add(0);
+        int termCount = 0;
+
+        for (String raw : terms) {
+            if (raw == null || raw.isBlank()) {
+                continue;
+            }
+            String term = raw.strip();
+            int state = 0;
+            for (int i = 0; i < term.length(); i++) {
+                char c = fold(term.charAt(i));
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = children.size();
+                    children.add(new TreeMap<>());
+                    lengths.add(0);
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+            if (lengths.get(state) == 0) {
+                lengths.set(state, term.length());
+                termCount++;
+            }
+        }
+
+        int states = children.size();
+        int[] edgeStart = new int[states + 1];
+        for (int s = 0; s < states; s++) {
+            edgeStart[s + 1] = edgeStart[s] + children.get(s).size();
+        }
+        char[] edgeLabel = new char[edgeStart[states]];
+        int[] edgeTarget = new int[edgeStart[states]];
+        int[] termLength = new int[states];
+        for (int s = 0; s < states; s++) {
+            int e = edgeStart[s];
+            // TreeMap iteration keeps labels sorted for binary search
+            for (Map.Entry<Character, Integer> edge : children.get(s).entrySet()) {
+                edgeLabel[e] = edge.getKey();
+                edgeTarget[e] = edge.getValue();
+                e++;
+            }
+            termLength[s] = lengths.get(s);
+        }
+
+        int[] failure = new int[states];
+        int[] dictionaryLink = new int[states];
+        AhoCorasickMatcher partial = new AhoCorasickMatcher(
+            edgeStart, edgeLabel, edgeTarget, failure, dictionaryLink, termLength, termCount);
+
+        // Breadth-first so every failure target is final before it is used
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int e = edgeStart[0]; e < edgeStart[1]; e++) {
+            queue.add(edgeTarget[e]);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            for (int e = edgeStart[state]; e < edgeStart[state + 1]; e++) {
+                int child = edgeTarget[e];
+                int fail = partial.step(failure[state], edgeLabel[e]);
+                failure[child] = fail;
+                dictionaryLink[child] = termLength[fail] > 0 ? fail : dictionaryLink[fail];
+                queue.add(child);
+            }
+        }
+        return partial;
+    }
+
+    /**
+     * @return the number of distinct terms in the automaton
+     */
+    public int termCount() {
+        return termCount;
+    }
+
+    /**
+     * Returns whether the text contains at least one term, stopping at the first match.
+     *
+     * @param text       the text to scan
+     * @param wholeWords only accept matches not surrounded by letters or digits
+     */
+    public boolean containsMatch(CharSequence text, boolean wholeWords) {
+        if (termCount == 0 || text == null) {
+            return false;
+        }
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = step(state, fold(text.charAt(i)));
+            for (int out = termLength[state] > 0 ? state : dictionaryLink[state]; out != 0; out = dictionaryLink[out]) {
+                if (!wholeWords || isWholeWord(text, i + 1 - termLength[out], i + 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Replaces every character covered by a match with {@code maskChar}.
+     *
+     * @param text       the text to scan
+     * @param maskChar   replacement character
+     * @param wholeWords only mask matches not surrounded by letters or digits
+     * @return the masked text, or the same instance when nothing matched
+     */
+    public String mask(String text, char maskChar, boolean wholeWords) {
+        if (termCount == 0 || text == null) {
+            return text;
+        }
+        char[] masked = null;
+        int state = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            state = step(state, fold(text.charAt(i)));
+            for (int out = termLength[state] > 0 ? state : dictionaryLink[state]; out != 0; out = dictionaryLink[out]) {
+                int start = i + 1 - termLength[out];
+                if (wholeWords && !isWholeWord(text, start, i + 1)) {
+                    continue;
+                }
+                if (masked == null) {
+                    masked = text.toCharArray();
+                }
+                Arrays.fill(masked, start, i + 1, maskChar);
+            }
+        }
+        return masked == null ? text : new String(masked);
+    }
+
+    private int step(int state, char c) {
+        while (true) {
+            int next = transition(state, c);
+            if (next >= 0) {
+                return next;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failure[state];
+        }
+    }
+
+    private int transition(int state, char c) {
+        int low = edgeStart[state];
+        int high = edgeStart[state + 1] - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            char label = edgeLabel[mid];
+            if (label < c) {
+                low = mid + 1;
+            } else if (label > c) {
+                high = mid - 1;
+            } else {
+                return edgeTarget[mid];
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWholeWord(CharSequence text, int start, int end) {
+        return (start == 0 || !Character.isLetterOrDigit(text.charAt(start - 1)))
+            && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+    }
+
+    private static char fold(char c) {
+        if (c < 128) {
+            return (c >= 'A' && c <= 'Z') ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(c);
+    }
+}
@@ -0,0 +1,120 @@
+package com.workbridge.workbridge_app.moderation.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.workbridge.workbridge_app.config.ModerationProperties;
+import com.workbridge.workbridge_app.moderation.exception.ContentRejectedException;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Screens user-generated text (chat messages, review comments) against a list of banned terms.
+ * <p>
+ * The word list is compiled into an {@link AhoCorasickMatcher}, so each call is a single linear
+ * scan regardless of how many terms are configured. The list is re-read when the underlying
+ * resource changes and the compiled matcher is swapped atomically; requests in flight keep
+ * using the previous one.
+ *
+ * @author Workbridge Team
+ * @since 2025-08-02
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentModerationService {
+
+    private static final String COMMENT_PREFIX = "#";
+
+    private final ModerationProperties properties;
+    private final ResourceLoader resourceLoader;
+
+    private volatile AhoCorasickMatcher matcher = AhoCorasickMatcher.empty();
+    private volatile long loadedLastModified = Long.MIN_VALUE;
+
+    @PostConstruct
+    void init() {
+        reloadIfChanged();
+    }
+
+    /**
+     * Applies the configured moderation policy to the given text.
+     *
+     * @param text the user-supplied text, may be {@code null}
+     * @return the text unchanged, or with banned terms masked when running in {@code MASK} mode
+     * @throws ContentRejectedException if a banned term is found in {@code REJECT} mode
+     */
+    public String moderate(String text) {
+        if (!properties.isEnabled() || text == null || text.isEmpty()) {
+            return text;
+        }
+        AhoCorasickMatcher current = matcher;
+        if (properties.getMode() == ModerationProperties.Mode.REJECT) {
+            if (current.containsMatch(text, properties.isWholeWords())) {
+                throw new ContentRejectedException("Content contains terms that are not allowed");
+            }
+            return text;
+        }
+        return current.mask(text, properties.getMaskCharacter(), properties.isWholeWords());
+    }
+
+    /**
+     * Recompiles the matcher if the word list changed since it was last loaded.
+     * Resources that cannot report a modification time (e.g. inside a jar) are loaded once.
+     */
+    @Scheduled(fixedDelayString = "${moderation.reload-interval-ms:60000}",
+               initialDelayString = "${moderation.reload-interval-ms:60000}")
+    public void reloadIfChanged() {
+        Resource resource = resourceLoader.getResource(properties.getWordList());
+        if (!resource.exists()) {
+            log.warn("Moderation word list {} not found, keeping {} terms", properties.getWordList(), matcher.termCount());
+            return;
+        }
+        long lastModified = lastModified(resource);
+        if (lastModified == loadedLastModified) {
+            return;
+        }
+        try {
+            AhoCorasickMatcher compiled = AhoCorasickMatcher.compile(readTerms(resource));
+            matcher = compiled;
+            loadedLastModified = lastModified;
+            log.info("Loaded {} moderation terms from {}", compiled.termCount(), properties.getWordList());
+        } catch (IOException e) {
+            log.error("Failed to read moderation word list {}: {}", properties.getWordList(), e.getMessage());
+        }
+    }
+
+    private List<String> readTerms(Resource resource) throws IOException {
+        List<String> terms = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String term = line.strip();
+                if (!term.isEmpty() && !term.startsWith(COMMENT_PREFIX)) {
+                    terms.add(term);
+                }
+            }
+        }
+        return terms;
+    }
+
+    private long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            return -1L;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.workbridge.workbridge_app.payment.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.workbridge.workbridge_app.common.response.ApiResponse;
+import com.workbridge.workbridge_app.common.response.ResponseFactory;
+import com.workbridge.workbridge_app.payment.dto.PaymentResponseDTO;
+import com.workbridge.workbridge_app.payment.service.PaymentService;
+import com.workbridge.workbridge_app.security.SecurityUtil;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * REST controller for paying bookings.
+ * <p>
+ * Clients send an {@code Idempotency-Key} header with each payment and reuse it when retrying,
+ * e.g. after a timeout; a retry returns the original payment instead of charging again. A
+ * {@code PROCESSING} payment is still being charged and can be polled, or resubmitted with the
+ * same key.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@RestController
+@RequestMapping("/api/v1/bookings/{bookingId}/payments")
+@RequiredArgsConstructor
+public class PaymentController {
+
+    private final PaymentService paymentService;
+
+    /**
+     * Pays for a booking of the authenticated service seeker.
+     *
+     * @param bookingId the ID of the booking to pay for
+     * @param idempotencyKey the client's key for this payment, reused on retries
+     * @return a standardized API response containing the payment
+     */
+    @PreAuthorize("hasRole('SERVICE_SEEKER')")
+    @PostMapping
+    public ResponseEntity<ApiResponse<PaymentResponseDTO>> pay(
+        @PathVariable Long bookingId,
+        @RequestHeader(name = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseFactory.ok(
+            paymentService.pay(SecurityUtil.getAuthenticatedUsername(), bookingId, idempotencyKey),
+            "Payment processed."
+        );
+    }
+
+    /**
+     * Retrieves a payment for a booking of the authenticated service seeker.
+     *
+     * @param bookingId the ID of the booking
+     * @param paymentId the ID of the payment
+     * @return a standardized API response containing the payment
+     */
+    @PreAuthorize("hasRole('SERVICE_SEEKER')")
+    @GetMapping("/{paymentId}")
+    public ResponseEntity<ApiResponse<PaymentResponseDTO>> getPayment(
+        @PathVariable Long bookingId,
+        @PathVariable Long paymentId) {
+        return ResponseFactory.ok(
+            paymentService.getPayment(SecurityUtil.getAuthenticatedUsername(), bookingId, paymentId),
+            "Fetched payment successfully."
+        );
+    }
+}
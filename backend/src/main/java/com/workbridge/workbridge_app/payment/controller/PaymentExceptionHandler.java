@@ -0,0 +1,70 @@
+package com.workbridge.workbridge_app.payment.controller;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import com.workbridge.workbridge_app.booking.exception.BookingNotFoundException;
+import com.workbridge.workbridge_app.common.response.ErrorResponse;
+import com.workbridge.workbridge_app.common.response.ResponseFactory;
+import com.workbridge.workbridge_app.payment.exception.PaymentConflictException;
+import com.workbridge.workbridge_app.payment.exception.PaymentNotFoundException;
+import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exception handler for payment-related REST API errors.
+ * <p>
+ * Missing users, bookings and payments map to HTTP 404; a payment that conflicts with an earlier
+ * one (idempotency key reused for another booking, booking already paid) maps to HTTP 409.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@RestControllerAdvice(assignableTypes = PaymentController.class)
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Slf4j
+public class PaymentExceptionHandler {
+
+    /**
+     * Handles cases where the user, booking or payment is not found.
+     *
+     * @param ex the thrown exception
+     * @param request the HTTP request
+     * @return a standardized 404 error response
+     */
+    @ExceptionHandler({UserNotFoundException.class, BookingNotFoundException.class, PaymentNotFoundException.class})
+    public ResponseEntity<ErrorResponse> notFound(
+        RuntimeException ex,
+        HttpServletRequest request) {
+            return ResponseFactory.error(
+                HttpStatus.NOT_FOUND,
+                ex.getMessage(),
+                request
+            );
+        }
+
+    /**
+     * Handles payments that conflict with an earlier payment or with the booking's state.
+     *
+     * @param ex the thrown PaymentConflictException
+     * @param request the HTTP request
+     * @return a standardized 409 error response
+     */
+    @ExceptionHandler(PaymentConflictException.class)
+    public ResponseEntity<ErrorResponse> conflict(
+        PaymentConflictException ex,
+        HttpServletRequest request) {
+            log.warn("409 Payment conflict: {} - {}", request.getRequestURI(), ex.getMessage());
+            return ResponseFactory.error(
+                HttpStatus.CONFLICT,
+                ex.getMessage(),
+                request
+            );
+        }
+}
@@ -0,0 +1,21 @@
+package com.workbridge.workbridge_app.payment.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class PaymentResponseDTO {
+    private Long id;
+    private Long bookingId;
+    private Double amount;
+    private String status;
+    private String gatewayReference;
+    private String failureReason;
+    private LocalDateTime createdAt;
+    private LocalDateTime paymentDate;
+}
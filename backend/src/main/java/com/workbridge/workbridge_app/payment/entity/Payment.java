@@ -2,14 +2,24 @@ package com.workbridge.workbridge_app.payment.entity;
 
 import java.time.LocalDateTime;
 
+import com.workbridge.workbridge_app.booking.entity.Booking;
 import com.workbridge.workbridge_app.service.entity.Service;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 import com.workbridge.workbridge_app.user.entity.UserRole;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
+/**
+ * One attempt to pay for a booking.
+ * <p>
+ * {@code idempotencyKey} is the client's key for the submission, unique per payer, so a retried
+ * request finds this row instead of charging again. {@code version} guards every status change:
+ * of two submissions racing to move the same payment on, only the first commit wins.
+ */
 @Data
 @NoArgsConstructor
 @Entity
@@ -19,6 +29,9 @@ public class Payment {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @Version
+    private Long version;
+
     private Double amount;
 
     @ManyToOne
@@ -27,6 +40,25 @@ public class Payment {
     @ManyToOne
     private ApplicationUser payer; 
 
+    /** The booking paid for; a booking whose payment failed may have several attempts. */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Booking booking;
+
+    @Column(length = 100)
+    private String idempotencyKey;
+
+    /** The gateway's identifier for the charge, once completed. */
+    @Column(length = 100)
+    private String gatewayReference;
+
+    private String failureReason;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
     private LocalDateTime paymentDate;
 
     @Enumerated(EnumType.STRING)
@@ -35,4 +67,18 @@ public class Payment {
     public boolean isPayer(ApplicationUser user) {
         return user != null && user.hasRole(UserRole.SERVICE_SEEKER);
     }
-}
\ No newline at end of file
+
+    /**
+     * Moves the payment to {@code next}. The change is only persisted if no other transaction has
+     * updated the row since it was read.
+     *
+     * @throws IllegalStateException if the lifecycle does not allow the transition
+     */
+    public void transitionTo(PaymentStatus next, LocalDateTime now) {
+        if (status == null ? next != PaymentStatus.PENDING : !status.canTransitionTo(next)) {
+            throw new IllegalStateException("Payment " + id + " cannot move from " + status + " to " + next);
+        }
+        status = next;
+        updatedAt = now;
+    }
+}
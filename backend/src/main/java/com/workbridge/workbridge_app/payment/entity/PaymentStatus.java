@@ -1,7 +1,29 @@
 package com.workbridge.workbridge_app.payment.entity;
 
+import java.util.Set;
+
+/**
+ * Lifecycle of a {@link Payment}.
+ * <p>
+ * {@code PENDING} payments are recorded but not yet sent to the gateway; {@code PROCESSING}
+ * means one submission has claimed the payment and is charging it. {@code COMPLETED} and
+ * {@code FAILED} are final.
+ */
 public enum PaymentStatus {
     PENDING,
+    PROCESSING,
     COMPLETED,
-    FAILED
+    FAILED;
+
+    public boolean isFinal() {
+        return this == COMPLETED || this == FAILED;
+    }
+
+    public boolean canTransitionTo(PaymentStatus next) {
+        return switch (this) {
+            case PENDING -> next == PROCESSING;
+            case PROCESSING -> Set.of(COMPLETED, FAILED).contains(next);
+            case COMPLETED, FAILED -> false;
+        };
+    }
 }
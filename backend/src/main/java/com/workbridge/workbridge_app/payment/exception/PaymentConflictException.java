@@ -0,0 +1,7 @@
+package com.workbridge.workbridge_app.payment.exception;
+
+public class PaymentConflictException extends RuntimeException {
+    public PaymentConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.workbridge.workbridge_app.payment.exception;
+
+public class PaymentNotFoundException extends RuntimeException {
+    public PaymentNotFoundException(String message) {
+        super(message);
+    }
+}
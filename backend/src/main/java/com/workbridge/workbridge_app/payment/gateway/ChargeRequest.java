@@ -0,0 +1,10 @@
+package com.workbridge.workbridge_app.payment.gateway;
+
+import java.math.BigDecimal;
+
+/**
+ * @param idempotencyKey the key the provider deduplicates on; stable for the life of a payment
+ * @param amount         amount to charge
+ * @param payerId        the paying user
+ */
+public record ChargeRequest(String idempotencyKey, BigDecimal amount, Long payerId) {}
@@ -0,0 +1,17 @@
+package com.workbridge.workbridge_app.payment.gateway;
+
+/**
+ * @param approved      whether the charge went through
+ * @param reference     the provider's identifier for the charge
+ * @param declineReason why the charge was declined, if it was
+ */
+public record ChargeResult(boolean approved, String reference, String declineReason) {
+
+    public static ChargeResult approved(String reference) {
+        return new ChargeResult(true, reference, null);
+    }
+
+    public static ChargeResult declined(String reference, String reason) {
+        return new ChargeResult(false, reference, reason);
+    }
+}
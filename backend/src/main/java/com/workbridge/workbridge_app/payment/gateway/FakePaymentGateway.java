@@ -0,0 +1,87 @@
+package com.workbridge.workbridge_app.payment.gateway;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.workbridge.workbridge_app.config.PaymentProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-process gateway for local development and tests. Nothing leaves the JVM.
+ * <p>
+ * Behaves like a real provider where the payment engine depends on it: each idempotency key is
+ * charged at most once and repeats get the first outcome, every charge takes
+ * {@code payment.fake.latency}, and amounts above {@code payment.fake.decline-above} are declined.
+ * {@link #requests()} and {@link #charges()} let tests check that nothing was charged twice.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+@Component
+@ConditionalOnProperty(name = "payment.gateway", havingValue = "fake", matchIfMissing = true)
+@Slf4j
+public class FakePaymentGateway implements PaymentGateway {
+
+    private final Duration latency;
+    private final BigDecimal declineAbove;
+    private final ConcurrentHashMap<String, CompletableFuture<ChargeResult>> outcomes = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong charges = new AtomicLong();
+
+    @Autowired
+    public FakePaymentGateway(PaymentProperties properties) {
+        this(properties.getFake().getLatency(), properties.getFake().getDeclineAbove());
+    }
+
+    public FakePaymentGateway(Duration latency, BigDecimal declineAbove) {
+        this.latency = latency;
+        this.declineAbove = declineAbove;
+    }
+
+    @Override
+    public ChargeResult charge(ChargeRequest request) {
+        requests.incrementAndGet();
+        CompletableFuture<ChargeResult> outcome = new CompletableFuture<>();
+        CompletableFuture<ChargeResult> first = outcomes.putIfAbsent(request.idempotencyKey(), outcome);
+        if (first != null) {
+            log.debug("Replaying charge outcome for key {}", request.idempotencyKey());
+            return first.join();
+        }
+        try {
+            Thread.sleep(latency);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcomes.remove(request.idempotencyKey(), outcome);
+            outcome.completeExceptionally(e);
+            throw new PaymentGatewayException("Interrupted while charging " + request.idempotencyKey(), e);
+        }
+        String reference = "fake_" + UUID.randomUUID();
+        ChargeResult result = request.amount().compareTo(declineAbove) > 0
+            ? ChargeResult.declined(reference, "Amount exceeds the card limit.")
+            : ChargeResult.approved(reference);
+        if (result.approved()) {
+            charges.incrementAndGet();
+        }
+        outcome.complete(result);
+        return result;
+    }
+
+    /** @return charge requests received, including repeats of a key */
+    public long requests() {
+        return requests.get();
+    }
+
+    /** @return approved charges actually made, at most one per key */
+    public long charges() {
+        return charges.get();
+    }
+}
@@ -0,0 +1,23 @@
+package com.workbridge.workbridge_app.payment.gateway;
+
+/**
+ * Charges payers through an external payment provider.
+ * <p>
+ * Implementations must be idempotent on {@link ChargeRequest#idempotencyKey()}: a repeated
+ * request with the same key returns the outcome of the first one instead of charging again.
+ * {@code PaymentService} relies on this to retry a payment whose outcome it never learned.
+ * The implementation is chosen with {@code payment.gateway}.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
+public interface PaymentGateway {
+
+    /**
+     * Charges {@link ChargeRequest#amount()} to the payer.
+     *
+     * @return whether the charge was approved, with the provider's reference or decline reason
+     * @throws PaymentGatewayException if the outcome is unknown (timeout, provider error)
+     */
+    ChargeResult charge(ChargeRequest request);
+}
@@ -0,0 +1,15 @@
+package com.workbridge.workbridge_app.payment.gateway;
+
+/**
+ * The provider could not be reached or did not answer, so whether the payer was charged is
+ * unknown. Retrying with the same idempotency key is safe.
+ */
+public class PaymentGatewayException extends RuntimeException {
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,23 @@
+package com.workbridge.workbridge_app.payment.mapper;
+
+import org.springframework.stereotype.Component;
+
+import com.workbridge.workbridge_app.payment.dto.PaymentResponseDTO;
+import com.workbridge.workbridge_app.payment.entity.Payment;
+
+@Component
+public class PaymentMapper {
+
+    public PaymentResponseDTO toDTO(Payment payment) {
+        return new PaymentResponseDTO(
+            payment.getId(),
+            payment.getBooking().getId(),
+            payment.getAmount(),
+            payment.getStatus().name(),
+            payment.getGatewayReference(),
+            payment.getFailureReason(),
+            payment.getCreatedAt(),
+            payment.getPaymentDate()
+        );
+    }
+}
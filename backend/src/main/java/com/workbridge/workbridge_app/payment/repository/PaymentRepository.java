@@ -1,9 +1,12 @@
 package com.workbridge.workbridge_app.payment.repository;
 
+import java.util.Optional;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import com.workbridge.workbridge_app.payment.entity.Payment;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long>{
-    
+
+    Optional<Payment> findByPayer_IdAndIdempotencyKey(Long payerId, String idempotencyKey);
 }
@@ -1,9 +1,436 @@
 package com.workbridge.workbridge_app.payment.service;
 
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.auth.exception.UserNotAuthorizedException;
+import com.workbridge.workbridge_app.booking.entity.Booking;
+import com.workbridge.workbridge_app.booking.entity.BookingStatus;
+import com.workbridge.workbridge_app.booking.exception.BookingNotFoundException;
+import com.workbridge.workbridge_app.booking.repository.BookingRepository;
+import com.workbridge.workbridge_app.config.PaymentProperties;
+import com.workbridge.workbridge_app.payment.dto.PaymentResponseDTO;
+import com.workbridge.workbridge_app.payment.entity.Payment;
+import com.workbridge.workbridge_app.payment.entity.PaymentStatus;
+import com.workbridge.workbridge_app.payment.exception.PaymentConflictException;
+import com.workbridge.workbridge_app.payment.exception.PaymentNotFoundException;
+import com.workbridge.workbridge_app.payment.gateway.ChargeRequest;
+import com.workbridge.workbridge_app.payment.gateway.ChargeResult;
+import com.workbridge.workbridge_app.payment.gateway.PaymentGateway;
+import com.workbridge.workbridge_app.payment.gateway.PaymentGatewayException;
+import com.workbridge.workbridge_app.payment.mapper.PaymentMapper;
+import com.workbridge.workbridge_app.payment.repository.PaymentRepository;
+import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Pays for bookings through the configured {@link PaymentGateway}, charging each payment at most
+ * once however often it is submitted.
+ * <p>
+ * Every submission carries a client-chosen idempotency key. The first submission for a key
+ * records a {@code PENDING} payment; a retry with the same key finds that payment and returns its
+ * state instead of charging again. Submissions then race to move the payment to
+ * {@code PROCESSING}; the {@code @Version} check lets exactly one of them win, and only the winner
+ * calls the gateway, outside any transaction. The outcome is recorded as {@code COMPLETED} or
+ * {@code FAILED}, again guarded by the version. The gateway is asked under a key derived from the
+ * payment id, so a payment taken over after {@code payment.processing-timeout} is not charged twice.
+ * <p>
+ * Duplicate submissions arriving at this node while the first is still running do not touch the
+ * database at all: they wait for the running submission and share its result. Across nodes the
+ * unique index on payer and key, and the version checks, give the same guarantee. A partial unique
+ * index also allows only one pending, processing or completed payment per booking.
+ * <p>
+ * Submissions are counted in {@code payment.submissions}, tagged with the {@code outcome};
+ * {@code payment.coalesced} counts duplicates answered in memory and {@code payment.gateway}
+ * times the gateway calls.
+ *
+ * @author Workbridge Team
+ * @since 2025-07-16
+ */
 @Service
+@Slf4j
 public class PaymentService {
 
+    static final String STATUS_CHECK = "payment_status_check";
+    static final String KEY_INDEX = "ux_payment_payer_idempotency_key";
+    static final String ACTIVE_BOOKING_INDEX = "ux_payment_booking_active";
+    static final int MAX_KEY_LENGTH = 100;
+    private static final Pattern QUOTED = Pattern.compile("'([^']*)'");
+
+    private final PaymentRepository paymentRepository;
+    private final BookingRepository bookingRepository;
+    private final UserRepository userRepository;
+    private final PaymentGateway paymentGateway;
+    private final PaymentMapper paymentMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final PaymentProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Counter coalesced;
+    private final Timer gatewayTimer;
+
+    /** Submissions running on this node, so a duplicate can wait for the first one's result. */
+    private final ConcurrentHashMap<Submission, CompletableFuture<PaymentResponseDTO>> inFlight = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemUTC();
+
+    private record Submission(String username, String idempotencyKey) {}
+
+    public PaymentService(PaymentRepository paymentRepository,
+                          BookingRepository bookingRepository,
+                          UserRepository userRepository,
+                          PaymentGateway paymentGateway,
+                          PaymentMapper paymentMapper,
+                          TransactionTemplate transactionTemplate,
+                          JdbcTemplate jdbcTemplate,
+                          PaymentProperties properties,
+                          MeterRegistry meterRegistry) {
+        this.paymentRepository = paymentRepository;
+        this.bookingRepository = bookingRepository;
+        this.userRepository = userRepository;
+        this.paymentGateway = paymentGateway;
+        this.paymentMapper = paymentMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.coalesced = meterRegistry.counter("payment.coalesced");
+        this.gatewayTimer = meterRegistry.timer("payment.gateway");
+    }
+
+    /**
+     * Used by unit tests to pin the current time.
+     */
+    public void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Pays for a booking, or returns the payment an earlier submission with the same key made.
+     *
+     * @param username       the seeker's username
+     * @param bookingId      the booking to pay for
+     * @param idempotencyKey the client's key for this submission
+     * @return the payment; {@code PROCESSING} if another submission is still charging it, or if
+     *         the gateway's answer was lost and the client should retry with the same key
+     * @throws IllegalArgumentException if the key is missing or too long
+     * @throws UserNotFoundException if the user is not found
+     * @throws BookingNotFoundException if the booking is not found
+     * @throws UserNotAuthorizedException if the user is not the booking's seeker
+     * @throws PaymentConflictException if the key was used for another booking, or the booking
+     *         is cancelled, paid, or being paid under another key
+     */
+    public PaymentResponseDTO pay(String username, Long bookingId, String idempotencyKey) {
+        if (idempotencyKey == null || idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                "An Idempotency-Key of 1 to " + MAX_KEY_LENGTH + " characters is required.");
+        }
+        Submission submission = new Submission(username, idempotencyKey);
+        CompletableFuture<PaymentResponseDTO> mine = new CompletableFuture<>();
+        CompletableFuture<PaymentResponseDTO> running = inFlight.putIfAbsent(submission, mine);
+        if (running != null) {
+            coalesced.increment();
+            log.debug("Waiting for in-flight payment submission: user={} key={}", username, idempotencyKey);
+            return sameBooking(join(running), bookingId);
+        }
+        try {
+            PaymentResponseDTO result = process(username, bookingId, idempotencyKey);
+            mine.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(submission, mine);
+        }
+    }
+
+    /**
+     * Retrieves one of the seeker's payments for a booking.
+     *
+     * @throws PaymentNotFoundException if there is no such payment for this user and booking
+     */
+    public PaymentResponseDTO getPayment(String username, Long bookingId, Long paymentId) {
+        return transactionTemplate.execute(status -> paymentRepository.findById(paymentId)
+            .filter(payment -> payment.getPayer().getUsername().equals(username)
+                && payment.getBooking().getId().equals(bookingId))
+            .map(paymentMapper::toDTO)
+            .orElseThrow(() -> new PaymentNotFoundException("Payment not found.")));
+    }
+
+    /**
+     * Creates the unique indexes that make idempotency keys and active payments hold across
+     * nodes. The booking index is partial, which JPA cannot declare, hence the DDL here. If
+     * existing duplicates prevent creation, startup continues and the error is logged.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSchema() {
+        ensureStatusCheck();
+        createUniqueIndex(KEY_INDEX, "payer_id, idempotency_key", "");
+        createUniqueIndex(ACTIVE_BOOKING_INDEX, "booking_id",
+            " WHERE status IN ('PENDING', 'PROCESSING', 'COMPLETED')");
+    }
+
+    /**
+     * Rebuilds the status check constraint when it does not allow exactly the values of
+     * {@link PaymentStatus}: Hibernate created it with the statuses of the time, and
+     * {@code ddl-auto: update} never widens it. Replacing it locks the table and re-checks every
+     * row, so an up-to-date constraint is left alone.
+     */
+    void ensureStatusCheck() {
+        Set<String> expected = Arrays.stream(PaymentStatus.values())
+            .map(PaymentStatus::name)
+            .collect(Collectors.toCollection(TreeSet::new));
+        try {
+            List<String> definitions = jdbcTemplate.queryForList(
+                "SELECT pg_get_constraintdef(oid) FROM pg_constraint WHERE conrelid = to_regclass(?) AND conname = ?",
+                String.class, "payment", STATUS_CHECK);
+            if (definitions.size() == 1 && allowedStatuses(definitions.get(0)).equals(expected)) {
+                return;
+            }
+            String statuses = expected.stream().map(status -> "'" + status + "'").collect(Collectors.joining(", "));
+            log.info("Replacing constraint {} to allow statuses {}", STATUS_CHECK, expected);
+            jdbcTemplate.execute("ALTER TABLE payment DROP CONSTRAINT IF EXISTS " + STATUS_CHECK
+                + ", ADD CONSTRAINT " + STATUS_CHECK + " CHECK (status IN (" + statuses + "))");
+        } catch (DataAccessException e) {
+            log.error("Could not update constraint {}: {}", STATUS_CHECK, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    /** The quoted literals of a check constraint, e.g. {@code CHECK (status = ANY (ARRAY['A', 'B']))}. */
+    static Set<String> allowedStatuses(String definition) {
+        Set<String> statuses = new TreeSet<>();
+        Matcher matcher = QUOTED.matcher(definition);
+        while (matcher.find()) {
+            statuses.add(matcher.group(1));
+        }
+        return statuses;
+    }
+
+    private void createUniqueIndex(String name, String columns, String predicate) {
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + name
+                + " ON payment (" + columns + ")" + predicate);
+        } catch (DataAccessException e) {
+            log.error("Could not create unique index {}; resolve duplicate ({}) values: {}",
+                name, columns, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private PaymentResponseDTO process(String username, Long bookingId, String idempotencyKey) {
+        Payment payment = findOrCreate(username, bookingId, idempotencyKey);
+        if (payment.getStatus().isFinal()) {
+            return respond(payment, "replayed");
+        }
+        Payment claimed = claim(payment.getId());
+        if (claimed == null) {
+            return respond(reload(payment.getId()), "in_progress");
+        }
+        ChargeResult result;
+        try {
+            result = gatewayTimer.recordCallable(() -> paymentGateway.charge(new ChargeRequest(
+                "payment-" + claimed.getId(), BigDecimal.valueOf(claimed.getAmount()), claimed.getPayer().getId())));
+        } catch (PaymentGatewayException e) {
+            log.warn("Gateway outcome unknown for payment id={}; it stays PROCESSING: {}", claimed.getId(), e.getMessage());
+            return respond(claimed, "unknown");
+        } catch (Exception e) {
+            throw e instanceof RuntimeException runtime ? runtime : new IllegalStateException(e);
+        }
+        Payment finished = finish(claimed, result);
+        return respond(finished, finished.getStatus() == PaymentStatus.COMPLETED ? "completed" : "failed");
+    }
+
+    /**
+     * Returns the payment recorded for the key, or records a new {@code PENDING} one. If a
+     * concurrent submission on another node inserts first, the unique index rejects this insert
+     * and the other node's payment is returned.
+     */
+    private Payment findOrCreate(String username, Long bookingId, String idempotencyKey) {
+        try {
+            return transactionTemplate.execute(status -> {
+                ApplicationUser payer = findUser(username);
+                Payment existing = paymentRepository.findByPayer_IdAndIdempotencyKey(payer.getId(), idempotencyKey)
+                    .orElse(null);
+                if (existing != null) {
+                    return sameBooking(existing, bookingId);
+                }
+                Booking booking = findBookingById(bookingId);
+                validateUserIsBookingSeeker(username, booking);
+                if (booking.getStatus() == BookingStatus.CANCELLED) {
+                    throw new PaymentConflictException("Booking is cancelled.");
+                }
+                if (booking.getPayment() != null && booking.getPayment().getStatus() == PaymentStatus.COMPLETED) {
+                    throw new PaymentConflictException("Booking is already paid.");
+                }
+                LocalDateTime now = LocalDateTime.now(clock);
+                Payment payment = new Payment();
+                payment.setPayer(payer);
+                payment.setBooking(booking);
+                payment.setService(booking.getService());
+                payment.setAmount(booking.getService().getPrice());
+                payment.setIdempotencyKey(idempotencyKey);
+                payment.setCreatedAt(now);
+                payment.transitionTo(PaymentStatus.PENDING, now);
+                Payment saved = paymentRepository.saveAndFlush(payment);
+                log.info("Payment created: id={} booking={} payer={}", saved.getId(), bookingId, username);
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Concurrent payment insert for booking={} key={}: {}", bookingId, idempotencyKey,
+                e.getMostSpecificCause().getMessage());
+            return transactionTemplate.execute(status -> paymentRepository
+                .findByPayer_IdAndIdempotencyKey(findUser(username).getId(), idempotencyKey)
+                .map(payment -> sameBooking(payment, bookingId))
+                .orElseThrow(() -> new PaymentConflictException(
+                    "A payment for this booking is already in progress or completed.")));
+        }
+    }
+
+    /**
+     * Moves the payment to {@code PROCESSING} for this submission, or takes over one left
+     * {@code PROCESSING} for longer than the timeout.
+     *
+     * @return the claimed payment, or {@code null} if another submission holds it or finished it
+     */
+    private Payment claim(Long paymentId) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Payment payment = reload(paymentId);
+                LocalDateTime now = LocalDateTime.now(clock);
+                if (payment.getStatus() == PaymentStatus.PENDING) {
+                    payment.transitionTo(PaymentStatus.PROCESSING, now);
+                } else if (payment.getStatus() == PaymentStatus.PROCESSING
+                    && payment.getUpdatedAt().plus(properties.getProcessingTimeout()).isBefore(now)) {
+                    log.warn("Taking over payment id={} left PROCESSING since {}", paymentId, payment.getUpdatedAt());
+                    payment.setUpdatedAt(now);
+                } else {
+                    return null;
+                }
+                return paymentRepository.saveAndFlush(payment);
+            });
+        } catch (OptimisticLockingFailureException e) {
+            log.debug("Payment id={} was claimed by another submission", paymentId);
+            return null;
+        }
+    }
+
+    /**
+     * Records the gateway's answer, provided no other submission took the payment over meanwhile.
+     * A completed payment becomes the booking's payment.
+     */
+    private Payment finish(Payment claimed, ChargeResult result) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Payment payment = reload(claimed.getId());
+                if (!payment.getVersion().equals(claimed.getVersion())) {
+                    log.info("Payment id={} was taken over while charging; keeping its state", payment.getId());
+                    return payment;
+                }
+                LocalDateTime now = LocalDateTime.now(clock);
+                payment.setGatewayReference(result.reference());
+                if (result.approved()) {
+                    payment.transitionTo(PaymentStatus.COMPLETED, now);
+                    payment.setPaymentDate(now);
+                    payment.getBooking().setPayment(payment);
+                } else {
+                    payment.transitionTo(PaymentStatus.FAILED, now);
+                    payment.setFailureReason(result.declineReason());
+                }
+                Payment saved = paymentRepository.saveAndFlush(payment);
+                log.info("Payment {}: id={} reference={}", saved.getStatus(), saved.getId(), saved.getGatewayReference());
+                return saved;
+            });
+        } catch (OptimisticLockingFailureException e) {
+            log.info("Payment id={} was taken over while charging; keeping its state", claimed.getId());
+            return reload(claimed.getId());
+        }
+    }
+
+    private PaymentResponseDTO respond(Payment payment, String outcome) {
+        meterRegistry.counter("payment.submissions", "outcome", outcome).increment();
+        return paymentMapper.toDTO(payment);
+    }
+
+    private Payment reload(Long paymentId) {
+        return paymentRepository.findById(paymentId)
+            .orElseThrow(() -> new PaymentNotFoundException("Payment not found."));
+    }
+
+    private static Payment sameBooking(Payment payment, Long bookingId) {
+        if (!payment.getBooking().getId().equals(bookingId)) {
+            throw keyReused();
+        }
+        return payment;
+    }
+
+    private static PaymentResponseDTO sameBooking(PaymentResponseDTO payment, Long bookingId) {
+        if (!payment.getBookingId().equals(bookingId)) {
+            throw keyReused();
+        }
+        return payment;
+    }
+
+    private static PaymentConflictException keyReused() {
+        return new PaymentConflictException("Idempotency key was already used for another booking.");
+    }
+
+    private static PaymentResponseDTO join(CompletableFuture<PaymentResponseDTO> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private ApplicationUser findUser(String username) {
+        return userRepository.findByUsername(username)
+                .orElseThrow(() -> {
+                    log.warn("User not found: {}", username);
+                    return new UserNotFoundException("User not found.");
+                });
+    }
+
+    private Booking findBookingById(Long bookingId) {
+        return bookingRepository.findById(bookingId)
+                .orElseThrow(() -> {
+                    log.warn("Booking not found: id={}", bookingId);
+                    return new BookingNotFoundException("Booking not found.");
+                });
+    }
+
+    private void validateUserIsBookingSeeker(String username, Booking booking) {
+        if (!booking.getSeeker().getUsername().equals(username)) {
+            log.warn("Unauthorized payment attempt: user={} bookingId={}", username, booking.getId());
+            throw new UserNotAuthorizedException("You are not authorized to pay for this booking.");
+        }
+    }
 }
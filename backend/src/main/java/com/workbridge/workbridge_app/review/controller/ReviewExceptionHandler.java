@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import com.workbridge.workbridge_app.booking.exception.BookingNotFoundException;
 import com.workbridge.workbridge_app.common.response.ErrorResponse;
 import com.workbridge.workbridge_app.common.response.ResponseFactory;
+import com.workbridge.workbridge_app.moderation.exception.ContentRejectedException;
 import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -23,6 +24,7 @@ import lombok.extern.slf4j.Slf4j;
  * <ul>
  *   <li>{@link UserNotFoundException} - Returns 404 NOT FOUND with a descriptive message</li>
  *   <li>{@link BookingNotFoundException} - Returns 404 NOT FOUND with a descriptive message</li>
+ *   <li>{@link ContentRejectedException} - Returns 422 UNPROCESSABLE ENTITY when the comment is rejected by moderation</li>
  * </ul>
  *
  * <p>All exceptions are logged using SLF4J for audit and debugging purposes.</p>
@@ -68,4 +70,23 @@ public class ReviewExceptionHandler {
                 request
             );
         }
+
+    /**
+     * Handles review comments rejected by content moderation.
+     *
+     * @param ex      the thrown ContentRejectedException
+     * @param request the HTTP request for extracting the URI
+     * @return 422 UNPROCESSABLE ENTITY with a descriptive error message
+     */
+    @ExceptionHandler(ContentRejectedException.class)
+    public ResponseEntity<ErrorResponse> contentRejected(
+        ContentRejectedException ex,
+        HttpServletRequest request) {
+            log.warn("Review rejected by moderation: {}", request.getRequestURI());
+            return ResponseFactory.error(
+                HttpStatus.UNPROCESSABLE_ENTITY,
+                ex.getMessage(),
+                request
+            );
+        }
 }
@@ -7,6 +7,8 @@ import org.springframework.stereotype.Service;
 import com.workbridge.workbridge_app.booking.entity.Booking;
 import com.workbridge.workbridge_app.booking.exception.BookingNotFoundException;
 import com.workbridge.workbridge_app.booking.repository.BookingRepository;
+import com.workbridge.workbridge_app.moderation.exception.ContentRejectedException;
+import com.workbridge.workbridge_app.moderation.service.ContentModerationService;
 import com.workbridge.workbridge_app.review.dto.ReviewRequestDTO;
 import com.workbridge.workbridge_app.review.dto.ReviewResponseDTO;
 import com.workbridge.workbridge_app.review.entity.Review;
@@ -50,6 +52,7 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
+    private final ContentModerationService contentModerationService;
 
     /**
      * Retrieves paginated reviews for a given provider.
@@ -74,6 +77,7 @@ public class ReviewService {
      * @return the saved review as a {@link ReviewResponseDTO}
      * @throws UserNotFoundException if the reviewer or reviewed user is not found
      * @throws BookingNotFoundException if the booking is not found
+     * @throws ContentRejectedException if the comment contains banned terms and moderation rejects it
      */
     @Transactional
     public ReviewResponseDTO reviewProvider(ReviewRequestDTO reviewRequestDTO) {
@@ -81,6 +85,7 @@ public class ReviewService {
                 reviewRequestDTO.getReviewerId(),
                 reviewRequestDTO.getReviewedId(),
                 reviewRequestDTO.getBookingId());
+        String comment = contentModerationService.moderate(reviewRequestDTO.getComment());
         ApplicationUser reviewer = findUserOrThrow(reviewRequestDTO.getReviewerId(), "Reviewer not found");
         ApplicationUser reviewed = findUserOrThrow(reviewRequestDTO.getReviewedId(), "Reviewed not found");
         Booking booking = bookingRepository.findById(reviewRequestDTO.getBookingId())
@@ -89,6 +94,7 @@ public class ReviewService {
                     return new BookingNotFoundException("Booking not found");
                                            });
         Review review = ReviewMapper.toEntity(reviewer, reviewed, booking, reviewRequestDTO);
+        review.setComment(comment);
         Review savedReview = reviewRepository.save(review);
 
         log.info("Review submitted successfully: reviewId={} bookingId={} reviewerId={} reviewedId={}",
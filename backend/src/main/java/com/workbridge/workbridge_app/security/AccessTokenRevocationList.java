@@ -0,0 +1,130 @@
+package com.workbridge.workbridge_app.security;
+
+import java.time.Instant;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.auth.repository.RevokedAccessTokenRepository;
+import com.workbridge.workbridge_app.common.util.BloomFilter;
+import com.workbridge.workbridge_app.common.util.BoundedLruCache;
+import com.workbridge.workbridge_app.config.SecurityProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Deny-list of individually revoked access tokens, keyed by {@code jti}.
+ * <p>
+ * The {@code revoked_access_token} table is the source of truth. In front of it sits a Bloom
+ * filter of every unexpired revoked ID, so the common answer, "not revoked", costs a few hash
+ * probes and no I/O; only Bloom positives are checked against the table, and confirmed
+ * revocations are remembered so a replayed token does not keep hitting it.
+ * <p>
+ * The filter is rebuilt from the table every {@code security.revocation.rebuild-interval},
+ * which drops expired tokens and picks up revocations made by other nodes. Revocations made
+ * while a rebuild is running are added to both the old and the new filter. Until the first
+ * build completes every check goes to the table.
+ */
+@Slf4j
+@Component
+public class AccessTokenRevocationList {
+
+    private final RevokedAccessTokenRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final SecurityProperties.Revocation properties;
+    private final BoundedLruCache<String, Boolean> confirmed;
+
+    private volatile BloomFilter filter;
+    private volatile BloomFilter building;
+
+    public AccessTokenRevocationList(RevokedAccessTokenRepository repository,
+                                     TransactionTemplate transactionTemplate,
+                                     SecurityProperties securityProperties) {
+        this.repository = repository;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = securityProperties.getRevocation();
+        this.confirmed = new BoundedLruCache<>(properties.getConfirmedCacheSize());
+    }
+
+    /**
+     * Revokes the token with the given ID until it expires.
+     *
+     * @param tokenId   the token's {@code jti}; ignored if {@code null}
+     * @param expiresAt when the token expires; nothing is stored for tokens already expired
+     */
+    public void revoke(String tokenId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (tokenId == null || !expiresAt.isAfter(now)) {
+            return;
+        }
+        repository.insertIfAbsent(tokenId, expiresAt, now);
+        BloomFilter current = filter;
+        BloomFilter next = building;
+        if (current != null) {
+            current.put(tokenId);
+        }
+        if (next != null) {
+            next.put(tokenId);
+        }
+        confirmed.putIfAbsent(tokenId, Boolean.TRUE);
+        log.debug("Revoked access token {}", tokenId);
+    }
+
+    /**
+     * @return {@code true} if the token with the given ID has been revoked
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null) {
+            return false;
+        }
+        BloomFilter current = filter;
+        if (current != null && !current.mightContain(tokenId)) {
+            return false;
+        }
+        if (confirmed.get(tokenId) != null) {
+            return true;
+        }
+        boolean revoked = repository.existsById(tokenId);
+        if (revoked) {
+            confirmed.putIfAbsent(tokenId, Boolean.TRUE);
+        }
+        return revoked;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild();
+    }
+
+    /**
+     * Replaces the Bloom filter with one built from the unexpired rows of the table.
+     */
+    @Scheduled(initialDelayString = "${security.revocation.rebuild-interval:PT10M}",
+               fixedDelayString = "${security.revocation.rebuild-interval:PT10M}")
+    public void rebuild() {
+        Instant now = Instant.now();
+        long active = repository.countActive(now);
+        BloomFilter next = new BloomFilter(Math.max(properties.getExpectedRevocations(), active * 2),
+            properties.getFalsePositiveRate());
+        building = next;
+        try {
+            long[] loaded = {0};
+            transactionTemplate.executeWithoutResult(status -> {
+                try (var ids = repository.streamActiveTokenIds(now)) {
+                    ids.forEach(id -> {
+                        next.put(id);
+                        loaded[0]++;
+                    });
+                }
+            });
+            filter = next;
+            log.info("Rebuilt access token revocation filter with {} entries ({} bits, {} hashes)",
+                loaded[0], next.bitCount(), next.hashFunctions());
+        } finally {
+            building = null;
+        }
+    }
+}
@@ -4,14 +4,15 @@ import java.io.IOException;
 
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import com.workbridge.workbridge_app.common.util.JsonWriter;
 
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -26,7 +27,8 @@ import lombok.extern.slf4j.Slf4j;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserAuthStateCache userAuthStateCache;
+    private final AccessTokenRevocationList accessTokenRevocationList;
 
     private static final String BEARER_PREFIX = "Bearer ";
 
@@ -38,7 +40,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     ) throws ServletException, IOException {
 
         String jwt = null;
-        String username = null;
         String path = request.getServletPath();
 
         // 1. Ignore WebSocket paths
@@ -71,45 +72,50 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        // 5. Verify signature and expiry once; every later step reads the returned claims
+        JwtClaims claims;
         try {
-            username = jwtService.extractUsername(jwt);
-        } catch (Exception exception) {
-            log.warn("Failed to extract username from JWT. Reason: {}", exception.getMessage());
-            var errorResponse = com.workbridge.workbridge_app.common.response.ErrorResponse.of(
-                org.springframework.http.HttpStatus.UNAUTHORIZED,
-                "Unauthorized - Invalid JWT token",
-                request.getRequestURI()
-            );
-            JsonWriter.write(response, errorResponse, HttpServletResponse.SC_UNAUTHORIZED);
+            claims = jwtService.verify(jwt);
+        } catch (ExpiredJwtException exception) {
+            log.warn("JWT token for user '{}' is expired", exception.getClaims().getSubject());
+            writeUnauthorized(request, response, "Unauthorized - Token invalid or expired");
+            return;
+        } catch (JwtException exception) {
+            log.warn("Failed to verify JWT. Reason: {}", exception.getMessage());
+            writeUnauthorized(request, response, "Unauthorized - Invalid JWT token");
             return;
         }
 
-        // 5. If username is present and not already authenticated, authenticate
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            if (jwtService.isTokenValid(jwt, userDetails)) {
-                var authToken = new UsernamePasswordAuthenticationToken(
-                    userDetails, null, userDetails.getAuthorities()
-                );
-                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
-
-                log.info("Authenticated user '{}' via {}", username,
-                    request.getCookies() != null ? "cookie" : "Authorization header");
-
-            } else {
-                log.warn("JWT token for user '{}' is invalid or expired", username);
-                var errorResponse = com.workbridge.workbridge_app.common.response.ErrorResponse.of(
-                    org.springframework.http.HttpStatus.UNAUTHORIZED,
-                    "Unauthorized - Token invalid or expired",
-                    request.getRequestURI()
-                );
-                JsonWriter.write(response, errorResponse, HttpServletResponse.SC_UNAUTHORIZED);
-                return;
-            }
+        // 6. Reject tokens revoked by a version bump or by logout, or of disabled or deleted users
+        if (!userAuthStateCache.isCurrent(claims) || accessTokenRevocationList.isRevoked(claims.tokenId())) {
+            log.warn("JWT token for user '{}' has been revoked", claims.subject());
+            writeUnauthorized(request, response, "Unauthorized - Token invalid or expired");
+            return;
+        }
+
+        // 7. If not already authenticated, authenticate from the token's claims
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
+            UserPrincipal principal = UserPrincipal.fromClaims(claims);
+            var authToken = new UsernamePasswordAuthenticationToken(
+                principal, null, principal.getAuthorities()
+            );
+            authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+            SecurityContextHolder.getContext().setAuthentication(authToken);
+
+            log.debug("Authenticated user '{}' via {}", claims.subject(),
+                request.getCookies() != null ? "cookie" : "Authorization header");
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private static void writeUnauthorized(HttpServletRequest request, HttpServletResponse response, String message)
+            throws IOException {
+        var errorResponse = com.workbridge.workbridge_app.common.response.ErrorResponse.of(
+            org.springframework.http.HttpStatus.UNAUTHORIZED,
+            message,
+            request.getRequestURI()
+        );
+        JsonWriter.write(response, errorResponse, HttpServletResponse.SC_UNAUTHORIZED);
+    }
 }
@@ -0,0 +1,29 @@
+package com.workbridge.workbridge_app.security;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The verified contents of an access token, as returned by {@link JwtService#verify(String)}.
+ *
+ * @param subject      the username the token was issued to
+ * @param tokenId      the token's unique ID ({@code jti}), {@code null} for tokens issued before it was added
+ * @param userId       the user's ID ({@code uid}), {@code null} for tokens issued before it was added
+ * @param tokenVersion the user's token version at issue time ({@code ver})
+ * @param roles        the authority names embedded at issue time
+ * @param issuedAt     when the token was issued
+ * @param expiresAt    when the token stops being accepted
+ */
+public record JwtClaims(
+    String subject,
+    String tokenId,
+    Long userId,
+    long tokenVersion,
+    List<String> roles,
+    Instant issuedAt,
+    Instant expiresAt
+) {
+    public JwtClaims {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+}
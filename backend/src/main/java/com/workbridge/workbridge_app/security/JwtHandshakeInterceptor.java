@@ -6,12 +6,11 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.server.ServerHttpRequest;
 import org.springframework.http.server.ServerHttpResponse;
 import org.springframework.http.server.ServletServerHttpRequest;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.WebSocketHandler;
 import org.springframework.web.socket.server.HandshakeInterceptor;
 
+import io.jsonwebtoken.ExpiredJwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,7 +21,9 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
     private final JwtService jwtService;
 
-    private final UserDetailsService userDetailsService;
+    private final UserAuthStateCache userAuthStateCache;
+
+    private final AccessTokenRevocationList accessTokenRevocationList;
 
     @Override
     public boolean beforeHandshake(
@@ -37,16 +38,15 @@ public class JwtHandshakeInterceptor implements HandshakeInterceptor {
 
             if (token != null) {
                 try {
-                    String username = jwtService.extractUsername(token);
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                    if (jwtService.isTokenValid(token, userDetails)) {
-                        attributes.put("user", userDetails);
-                        log.info("WebSocket handshake accepted for user: {}", username);
+                    JwtClaims claims = jwtService.verify(token);
+                    if (userAuthStateCache.isCurrent(claims) && !accessTokenRevocationList.isRevoked(claims.tokenId())) {
+                        attributes.put("user", UserPrincipal.fromClaims(claims));
+                        log.info("WebSocket handshake accepted for user: {}", claims.subject());
                         return true;
-                    } else {
-                        log.warn("WebSocket handshake denied: invalid or expired JWT for user: {}", username);
                     }
+                    log.warn("WebSocket handshake denied: revoked JWT for user: {}", claims.subject());
+                } catch (ExpiredJwtException e) {
+                    log.warn("WebSocket handshake denied: expired JWT for user: {}", e.getClaims().getSubject());
                 } catch (Exception e) {
                     log.warn("WebSocket handshake failed: JWT parsing error - {}", e.getMessage());
                 }
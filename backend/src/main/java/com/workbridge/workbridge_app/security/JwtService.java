@@ -1,50 +1,78 @@
 package com.workbridge.workbridge_app.security;
 
 import java.security.Key;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.Optional;
+import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
-    import java.util.Base64;
 
+/**
+ * Issues and verifies HMAC-signed access tokens.
+ * <p>
+ * The signing key and parser are built once from {@code jwt.secret}; both are immutable and
+ * thread-safe, so verification does no per-request key derivation or parser setup.
+ */
 @Service
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
+    static final String ROLES_CLAIM = "roles";
+    static final String USER_ID_CLAIM = "uid";
+    static final String TOKEN_VERSION_CLAIM = "ver";
 
-    @Value("${jwt.expiration-ms:86400000}")
-    private long jwtExpirationMs;
+    private final Key signingKey;
+    private final JwtParser parser;
+    private final long jwtExpirationMs;
 
+    public JwtService(@Value("${jwt.secret}") String secretKey,
+                      @Value("${jwt.expiration-ms:86400000}") long jwtExpirationMs) {
+        this.signingKey = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secretKey));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
+        this.jwtExpirationMs = jwtExpirationMs;
+    }
 
-    private Key getSigningKey() {
-        byte[] keyBytes = Base64.getDecoder().decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    public String generateToken(ApplicationUser user) {
+        return generateToken(user, newTokenId());
     }
 
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+    /**
+     * @param tokenId the {@code jti} to embed, so the token can later be revoked on its own
+     */
+    public String generateToken(ApplicationUser user, String tokenId) {
+        return generateToken(user, user.getId(), user.getTokenVersion(), tokenId);
     }
 
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+    public String generateToken(UserDetails userDetails, long userId, long tokenVersion) {
+        return generateToken(userDetails, userId, tokenVersion, newTokenId());
     }
 
-    public String generateToken(UserDetails userDetails) {
+    /**
+     * Issues a token carrying everything needed to authenticate later requests without a
+     * database lookup: username, roles, user ID, token version and a unique token ID.
+     */
+    public String generateToken(UserDetails userDetails, long userId, long tokenVersion, String tokenId) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("roles", userDetails.getAuthorities().stream()
+        claims.put(Claims.ID, tokenId);
+        claims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
             .map(GrantedAuthority::getAuthority)
             .toList());
+        claims.put(USER_ID_CLAIM, userId);
+        claims.put(TOKEN_VERSION_CLAIM, tokenVersion);
         return generateToken(claims, userDetails);
     }
 
@@ -57,28 +85,60 @@ public class JwtService {
                 .setSubject(userDetails.getUsername())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+    /**
+     * @return a fresh value for the {@code jti} claim
+     */
+    public static String newTokenId() {
+        return UUID.randomUUID().toString();
+    }
+
+    /**
+     * @return how long issued access tokens stay valid, in milliseconds
+     */
+    public long getExpirationMs() {
+        return jwtExpirationMs;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Parses the token and checks its signature and expiry in a single pass.
+     *
+     * @param token the compact JWS string
+     * @return the token's claims
+     * @throws io.jsonwebtoken.ExpiredJwtException if the token has expired
+     * @throws JwtException if the token is malformed, unsigned or its signature does not match
+     */
+    public JwtClaims verify(String token) {
+        Claims claims;
+        try {
+            claims = parser.parseClaimsJws(token).getBody();
+        } catch (IllegalArgumentException ex) {
+            throw new JwtException("JWT is empty", ex);
+        }
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("JWT is missing subject or expiration");
+        }
+        return new JwtClaims(
+            claims.getSubject(),
+            claims.getId(),
+            longClaim(claims, USER_ID_CLAIM),
+            Optional.ofNullable(longClaim(claims, TOKEN_VERSION_CLAIM)).orElse(0L),
+            roles(claims),
+            claims.getIssuedAt() == null ? null : claims.getIssuedAt().toInstant(),
+            claims.getExpiration().toInstant());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    private static Long longClaim(Claims claims, String name) {
+        return claims.get(name) instanceof Number number ? number.longValue() : null;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static List<String> roles(Claims claims) {
+        if (claims.get(ROLES_CLAIM) instanceof List<?> roles) {
+            return roles.stream().map(String::valueOf).toList();
+        }
+        return List.of();
     }
 }
@@ -0,0 +1,20 @@
+package com.workbridge.workbridge_app.security;
+
+/**
+ * The per-user state an access token is checked against on every request.
+ *
+ * @param tokenVersion the current token version; tokens carrying another version are revoked
+ * @param enabled      whether the account may authenticate at all
+ */
+public record UserAuthState(long tokenVersion, boolean enabled) {
+
+    /** Cached for users that do not exist (or were deleted) so their tokens do not hit the database. */
+    static final UserAuthState MISSING = new UserAuthState(-1, false);
+
+    /**
+     * @return {@code true} if a token with the given claims is still acceptable
+     */
+    public boolean accepts(JwtClaims claims) {
+        return enabled && claims.tokenVersion() == tokenVersion;
+    }
+}
@@ -0,0 +1,85 @@
+package com.workbridge.workbridge_app.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.workbridge.workbridge_app.common.util.BoundedLruCache;
+import com.workbridge.workbridge_app.config.SecurityProperties;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory view of each user's {@link UserAuthState}, so authenticated requests are checked
+ * for revocation and disabled accounts without touching the database.
+ * <p>
+ * Entries are loaded on first use and dropped by {@link #invalidate(Long)}, which every code
+ * path that changes a user's token version, enabled flag, roles or deletion state must call.
+ * Loads run outside the cache lock; a load that overlaps an invalidation is discarded rather
+ * than cached, so a concurrent request can never re-insert state read before the change.
+ * <p>
+ * Like the in-memory STOMP broker, this assumes a single application node.
+ */
+@Slf4j
+@Component
+public class UserAuthStateCache {
+
+    private final UserRepository userRepository;
+    private final BoundedLruCache<Long, UserAuthState> states;
+    private final AtomicLong generation = new AtomicLong();
+
+    public UserAuthStateCache(UserRepository userRepository, SecurityProperties securityProperties) {
+        this.userRepository = userRepository;
+        this.states = new BoundedLruCache<>(securityProperties.getUserStateCacheSize());
+    }
+
+    /**
+     * Returns the user's current state, loading it on a cache miss.
+     *
+     * @return the state, or {@link UserAuthState#MISSING} if the user does not exist
+     */
+    public UserAuthState get(Long userId) {
+        UserAuthState cached = states.get(userId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadGeneration = generation.get();
+        UserAuthState loaded = userRepository.findAuthStateById(userId).orElse(UserAuthState.MISSING);
+        // Checked under the cache lock; evict() bumps the generation before taking it
+        UserAuthState cachedNow = states.computeIfAbsent(userId,
+            id -> generation.get() == loadGeneration ? loaded : null);
+        return cachedNow != null ? cachedNow : loaded;
+    }
+
+    /**
+     * @return {@code true} if the token carries a user ID whose current state still accepts it
+     */
+    public boolean isCurrent(JwtClaims claims) {
+        return claims.userId() != null && get(claims.userId()).accepts(claims);
+    }
+
+    /**
+     * Drops the user's entry now and, when called inside a transaction, again after commit so
+     * requests never cache the pre-commit state.
+     */
+    public void invalidate(Long userId) {
+        evict(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId);
+                }
+            });
+        }
+    }
+
+    private void evict(Long userId) {
+        generation.incrementAndGet();
+        states.remove(userId);
+        log.debug("Invalidated auth state for user {}", userId);
+    }
+}
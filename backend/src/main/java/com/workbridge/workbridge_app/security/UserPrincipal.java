@@ -1,21 +1,51 @@
 package com.workbridge.workbridge_app.security;
 
 import java.util.Collection;
+import java.util.List;
 
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
-import lombok.AllArgsConstructor;
+import com.workbridge.workbridge_app.user.entity.RoleMask;
+import com.workbridge.workbridge_app.user.entity.UserRole;
+
 import lombok.Getter;
 
 @Getter
-@AllArgsConstructor
 public class UserPrincipal implements UserDetails {
-    private Long id;
-    private String username;
-    private String password;
-    private Collection<? extends GrantedAuthority> authorities;
-    private boolean enabled;
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final int roleMask;
+    private final List<GrantedAuthority> authorities;
+    private final boolean enabled;
+
+    public UserPrincipal(Long id, String username, String password, int roleMask, boolean enabled) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.roleMask = roleMask;
+        this.authorities = RoleMask.authorities(roleMask);
+        this.enabled = enabled;
+    }
+
+    public UserPrincipal(Long id, String username, String password,
+                         Collection<? extends GrantedAuthority> authorities, boolean enabled) {
+        this(id, username, password, RoleMask.fromAuthorities(authorities), enabled);
+    }
+
+    /**
+     * Builds the principal of a request authenticated by an access token. The password is not
+     * known at this point and is left {@code null}.
+     */
+    public static UserPrincipal fromClaims(JwtClaims claims) {
+        return new UserPrincipal(claims.userId(), claims.subject(), null,
+            RoleMask.fromAuthorityNames(claims.roles()), true);
+    }
+
+    public boolean hasRole(UserRole role) {
+        return RoleMask.has(roleMask, role);
+    }
 
     @Override public boolean isAccountNonExpired() { return true; }
     @Override public boolean isAccountNonLocked() { return true; }
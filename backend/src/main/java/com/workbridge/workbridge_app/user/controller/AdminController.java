@@ -4,15 +4,20 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.web.PageableDefault;
 import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.workbridge.workbridge_app.common.response.ApiResponse;
 import com.workbridge.workbridge_app.common.response.MessageResponse;
 import com.workbridge.workbridge_app.common.response.ResponseFactory;
+import com.workbridge.workbridge_app.common.response.StreamingResponseFactory;
 import com.workbridge.workbridge_app.user.dto.ProviderRequestDTO;
 import com.workbridge.workbridge_app.user.dto.UserResponseDTO;
+import com.workbridge.workbridge_app.user.entity.UserRole;
 import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
 import com.workbridge.workbridge_app.user.service.UserService;
 
@@ -36,6 +41,8 @@ import lombok.extern.slf4j.Slf4j;
  * <pre>
  *   GET    /api/v1/admins/users                // List all users
  *   GET    /api/v1/admins/non-admin-users      // List all non-admin users
+ *   GET    /api/v1/admins/users/export?role=   // Stream all users (JSON array or NDJSON)
+ *   GET    /api/v1/admins/non-admin-users/export // Stream all non-admin users
  *   GET    /api/v1/admins/provider-requests/pending // List pending provider requests
  *   PATCH  /api/v1/admins/provider-requests/{id}/approve // Approve provider request
  *   PATCH  /api/v1/admins/users/{email}/enable // Enable user account
@@ -55,6 +62,7 @@ import lombok.extern.slf4j.Slf4j;
 public class AdminController {
 
     private final UserService userService;
+    private final StreamingResponseFactory streamingResponseFactory;
 
     /**
      * Retrieves a paginated list of all users in the system.
@@ -102,6 +110,41 @@ public class AdminController {
         );
     }
 
+    /**
+     * Exports all users, or only those with the given role, without paging.
+     * <p>
+     * Rows are streamed from a database cursor as a JSON array, or as NDJSON when the client sends
+     * {@code Accept: application/x-ndjson}, so the response size is not limited by server memory.
+     *
+     * @param role optional role filter
+     * @param accept the request's Accept header
+     * @return ResponseEntity whose body writes UserResponseDTO objects as they are read
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/users/export",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) UserRole role,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return role == null
+            ? streamingResponseFactory.<UserResponseDTO>stream(accept, userService::streamAllUsers)
+            : streamingResponseFactory.<UserResponseDTO>stream(accept, sink -> userService.streamUsersByRole(role, sink));
+    }
+
+    /**
+     * Exports all non-admin users without paging, streamed like {@link #exportUsers}.
+     *
+     * @param accept the request's Accept header
+     * @return ResponseEntity whose body writes UserResponseDTO objects as they are read
+     */
+    @PreAuthorize("hasRole('ROLE_ADMIN')")
+    @GetMapping(value = "/non-admin-users/export",
+            produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<StreamingResponseBody> exportNonAdminUsers(
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+        return streamingResponseFactory.<UserResponseDTO>stream(accept, userService::streamAllNonAdminUsers);
+    }
+
     /**
      * Retrieves a paginated list of all pending provider requests.
      * <p>
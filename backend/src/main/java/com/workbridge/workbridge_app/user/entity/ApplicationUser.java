@@ -37,6 +37,12 @@ public class ApplicationUser implements UserDetails {
     @Column(nullable = false)
     private boolean enabled = false;
 
+    /**
+     * Embedded in access tokens as {@code ver}; bumping it revokes every token issued before.
+     */
+    @Column(nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long tokenVersion;
+
 
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
@@ -53,9 +59,12 @@ public class ApplicationUser implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return roles.stream()
-                .map(role -> (GrantedAuthority) () -> "ROLE_" + role.getRole().name())
-                .toList();
+        return RoleMask.authorities(getRoleMask());
+    }
+
+    /** The user's roles as a {@link RoleMask}. */
+    public int getRoleMask() {
+        return RoleMask.of(roles);
     }
 
     public void addRole(UserRoleEntity role) {
@@ -63,11 +72,11 @@ public class ApplicationUser implements UserDetails {
     }
 
     public boolean hasRole(UserRole role) {
-        return roles.stream().anyMatch(r -> r.getRole() == role);
+        return RoleMask.has(getRoleMask(), role);
     }
 
     public boolean lacksRole(UserRole role) {
-        return roles.stream().noneMatch(r -> r.getRole() == role);
+        return !hasRole(role);
     }
 
     public boolean isAdmin() {
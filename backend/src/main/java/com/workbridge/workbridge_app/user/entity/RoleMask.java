@@ -0,0 +1,84 @@
+package com.workbridge.workbridge_app.user.entity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Role sets as {@code int} bitmasks, one bit per {@link UserRole}.
+ * <p>
+ * With only a handful of roles every possible set is known up front, so the authority list for
+ * each mask is built once here and shared: role checks are a bitwise AND and resolving
+ * authorities allocates nothing.
+ */
+public final class RoleMask {
+
+    private static final UserRole[] ROLES = UserRole.values();
+
+    private static final List<List<GrantedAuthority>> AUTHORITIES = buildAuthorities();
+
+    private RoleMask() {
+    }
+
+    public static int of(Collection<UserRoleEntity> roles) {
+        int mask = 0;
+        for (UserRoleEntity role : roles) {
+            mask |= role.getRole().mask();
+        }
+        return mask;
+    }
+
+    /**
+     * Parses {@code ROLE_*} authority names, as carried in access tokens. Unknown names are
+     * ignored.
+     */
+    public static int fromAuthorityNames(Collection<String> authorities) {
+        int mask = 0;
+        for (String authority : authorities) {
+            mask |= maskOf(authority);
+        }
+        return mask;
+    }
+
+    public static int fromAuthorities(Collection<? extends GrantedAuthority> authorities) {
+        int mask = 0;
+        for (GrantedAuthority authority : authorities) {
+            mask |= maskOf(authority.getAuthority());
+        }
+        return mask;
+    }
+
+    public static boolean has(int mask, UserRole role) {
+        return (mask & role.mask()) != 0;
+    }
+
+    /** The shared, immutable authority list for the given mask. */
+    public static List<GrantedAuthority> authorities(int mask) {
+        return AUTHORITIES.get(mask & ((1 << ROLES.length) - 1));
+    }
+
+    private static int maskOf(String authority) {
+        for (UserRole role : ROLES) {
+            if (role.authority().getAuthority().equals(authority)) {
+                return role.mask();
+            }
+        }
+        return 0;
+    }
+
+    private static List<List<GrantedAuthority>> buildAuthorities() {
+        List<List<GrantedAuthority>> all = new ArrayList<>(1 << ROLES.length);
+        for (int mask = 0; mask < 1 << ROLES.length; mask++) {
+            List<GrantedAuthority> authorities = new ArrayList<>(ROLES.length);
+            for (UserRole role : ROLES) {
+                if (has(mask, role)) {
+                    authorities.add(role.authority());
+                }
+            }
+            all.add(List.copyOf(authorities));
+        }
+        return List.copyOf(all);
+    }
+}
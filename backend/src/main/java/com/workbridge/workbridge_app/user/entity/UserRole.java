@@ -1,7 +1,22 @@
 package com.workbridge.workbridge_app.user.entity;
 
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
 public enum UserRole {
     SERVICE_PROVIDER,
     SERVICE_SEEKER,
-    ADMIN
+    ADMIN;
+
+    private final GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_" + name());
+
+    /** Shared {@code ROLE_*} authority for this role. */
+    public GrantedAuthority authority() {
+        return authority;
+    }
+
+    /** This role's bit in a {@link RoleMask}. */
+    public int mask() {
+        return 1 << ordinal();
+    }
 }
@@ -2,14 +2,22 @@ package com.workbridge.workbridge_app.user.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
+
+import com.workbridge.workbridge_app.common.util.EntityStreams;
+import com.workbridge.workbridge_app.security.UserAuthState;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 import com.workbridge.workbridge_app.user.entity.UserRole;
 
@@ -26,26 +34,72 @@ public interface UserRepository extends JpaRepository<ApplicationUser, Long> {
     Page<ApplicationUser> findDistinctByRoles_RoleNot(UserRole role, Pageable pageable);
     List<ApplicationUser> findDistinctByRoles_RoleNot(UserRole role);
 
+    /**
+     * Loads only what request authentication needs. Soft-deleted users are filtered out by the
+     * entity's {@code @SQLRestriction}, so they come back empty.
+     */
+    @Query("SELECT new com.workbridge.workbridge_app.security.UserAuthState(u.tokenVersion, u.enabled) "
+         + "FROM ApplicationUser u WHERE u.id = :id")
+    Optional<UserAuthState> findAuthStateById(@Param("id") Long id);
+
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
 
-    @Query("SELECT u FROM ApplicationUser u WHERE :role NOT IN (SELECT r.role FROM u.roles r)")
-    Page<ApplicationUser> findAllExcludingRole(@Param("role") com.workbridge.workbridge_app.user.entity.UserRole role, Pageable pageable);
+    /*
+     * Identifier scans for warming UserIdentifierFilter; consume inside a transaction.
+     */
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.username FROM ApplicationUser u")
+    Stream<String> streamAllUsernames();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.email FROM ApplicationUser u")
+    Stream<String> streamAllEmails();
 
     @Query("SELECT u FROM ApplicationUser u WHERE :role NOT IN (SELECT r.role FROM u.roles r)")
-    List<ApplicationUser> findAllExcludingRole(@Param("role") com.workbridge.workbridge_app.user.entity.UserRole role);
+    Page<ApplicationUser> findAllExcludingRole(@Param("role") com.workbridge.workbridge_app.user.entity.UserRole role, Pageable pageable);
 
     default Page<ApplicationUser> findAllNonAdminUsers(Pageable pageable) {
         return findAllExcludingRole(com.workbridge.workbridge_app.user.entity.UserRole.ADMIN, pageable);
     }
-    default List<ApplicationUser> findAllNonAdminUsers() {
-        return findAllExcludingRole(com.workbridge.workbridge_app.user.entity.UserRole.ADMIN);
-    }
-
-    @Query("SELECT u FROM ApplicationUser u JOIN u.roles r WHERE r.role = :role")
-    List<ApplicationUser> findAllByRole(@Param("role") com.workbridge.workbridge_app.user.entity.UserRole role);
 
     @Query("SELECT u FROM ApplicationUser u JOIN u.roles r WHERE r.role = :role")
     Page<ApplicationUser> findAllByRole(@Param("role") com.workbridge.workbridge_app.user.entity.UserRole role, Pageable pageable);
-}
\ No newline at end of file
+
+    /*
+     * Cursor-backed variants for unpaged exports. Roles are fetched in the same query; ordering by
+     * id keeps each user's role rows adjacent so Hibernate can assemble them while scrolling.
+     * Consume with EntityStreams.forEachDetached inside a transaction.
+     */
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM ApplicationUser u LEFT JOIN FETCH u.roles ORDER BY u.id")
+    Stream<ApplicationUser> streamAll();
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM ApplicationUser u LEFT JOIN FETCH u.roles "
+         + "WHERE :role NOT IN (SELECT r.role FROM u.roles r) ORDER BY u.id")
+    Stream<ApplicationUser> streamAllExcludingRole(@Param("role") UserRole role);
+
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EntityStreams.FETCH_SIZE),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM ApplicationUser u LEFT JOIN FETCH u.roles "
+         + "WHERE :role IN (SELECT r.role FROM u.roles r) ORDER BY u.id")
+    Stream<ApplicationUser> streamAllByRole(@Param("role") UserRole role);
+}
@@ -0,0 +1,56 @@
+package com.workbridge.workbridge_app.user.service;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.springframework.stereotype.Component;
+
+import com.workbridge.workbridge_app.user.entity.UserRole;
+import com.workbridge.workbridge_app.user.entity.UserRoleEntity;
+
+/**
+ * Immutable view of the {@code roles} table, filled once at startup by
+ * {@link com.workbridge.workbridge_app.config.RoleInitializer}. Role rows never change at runtime,
+ * so assigning a role needs no query; the cached entities are detached and only serve as join
+ * table references.
+ */
+@Component
+public class RoleRegistry {
+
+    private volatile Map<UserRole, UserRoleEntity> roles = Map.of();
+
+    public void register(Collection<UserRoleEntity> entities) {
+        Map<UserRole, UserRoleEntity> byRole = new EnumMap<>(UserRole.class);
+        for (UserRoleEntity entity : entities) {
+            byRole.put(entity.getRole(), entity);
+        }
+        roles = Map.copyOf(byRole);
+    }
+
+    /**
+     * @throws IllegalStateException if the role has not been registered
+     */
+    public UserRoleEntity get(UserRole role) {
+        UserRoleEntity entity = roles.get(role);
+        if (entity == null) {
+            throw new IllegalStateException(role + " role missing in DB");
+        }
+        return entity;
+    }
+
+    /**
+     * Resolves a case-insensitive role name, as sent by clients.
+     *
+     * @throws IllegalArgumentException if the name is not a known role
+     */
+    public UserRoleEntity resolve(String roleName) {
+        UserRole role;
+        try {
+            role = UserRole.valueOf(roleName.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid role: " + roleName);
+        }
+        return get(role);
+    }
+}
@@ -0,0 +1,162 @@
+package com.workbridge.workbridge_app.user.service;
+
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.common.util.BloomFilter;
+import com.workbridge.workbridge_app.config.UserIdentifierProperties;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Answers "is this username / email taken?" for registration and the availability endpoint.
+ * <p>
+ * Bloom filters of every live username and email sit in front of the {@code application_user}
+ * table, so the common answer for a signup, "free", costs a few hash probes and no I/O; only
+ * Bloom positives are checked against the table. New identifiers are added on insert, and the
+ * filters are rebuilt every {@code user.identifiers.rebuild-interval}. Until the first build
+ * completes every check goes to the table.
+ * <p>
+ * The filters are an optimization only: the partial unique indexes created here are what
+ * actually stops two concurrent signups, or a registration on another node not yet in this
+ * node's filter, from claiming the same identifier.
+ */
+@Slf4j
+@Component
+public class UserIdentifierFilter {
+
+    public static final String USERNAME_INDEX = "ux_application_user_username";
+    public static final String EMAIL_INDEX = "ux_application_user_email";
+
+    private final UserRepository userRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final UserIdentifierProperties properties;
+
+    private volatile Filters filters;
+    private volatile Filters building;
+
+    public UserIdentifierFilter(UserRepository userRepository,
+                                JdbcTemplate jdbcTemplate,
+                                TransactionTemplate transactionTemplate,
+                                UserIdentifierProperties properties) {
+        this.userRepository = userRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+    }
+
+    public boolean isUsernameTaken(String username) {
+        Filters current = filters;
+        if (current != null && !current.usernames.mightContain(username)) {
+            return false;
+        }
+        return userRepository.existsByUsername(username);
+    }
+
+    public boolean isEmailTaken(String email) {
+        Filters current = filters;
+        if (current != null && !current.emails.mightContain(email)) {
+            return false;
+        }
+        return userRepository.existsByEmail(email);
+    }
+
+    /**
+     * Records identifiers that have just been written. Calling this for a transaction that later
+     * rolls back only costs a false positive.
+     */
+    public void add(String username, String email) {
+        Filters current = filters;
+        Filters next = building;
+        if (current != null) {
+            current.put(username, email);
+        }
+        if (next != null) {
+            next.put(username, email);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        ensureUniqueIndexes();
+        rebuild();
+    }
+
+    /**
+     * Replaces both filters with ones built from the live rows of the table.
+     */
+    @Scheduled(initialDelayString = "${user.identifiers.rebuild-interval:PT1H}",
+               fixedDelayString = "${user.identifiers.rebuild-interval:PT1H}")
+    public void rebuild() {
+        long users = userRepository.count();
+        Filters next = new Filters(Math.max(properties.getExpectedUsers(), users * 2),
+            properties.getFalsePositiveRate());
+        building = next;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                load(userRepository.streamAllUsernames(), next.usernames);
+                load(userRepository.streamAllEmails(), next.emails);
+            });
+            filters = next;
+            log.info("Rebuilt username/email filters for {} users ({} bits, {} hashes each)",
+                users, next.usernames.bitCount(), next.usernames.hashFunctions());
+        } finally {
+            building = null;
+        }
+    }
+
+    /**
+     * Creates the unique indexes on live usernames and emails. Soft-deleted users keep their rows,
+     * so the indexes are partial; JPA cannot declare that, hence the DDL here. If existing
+     * duplicates prevent creation, startup continues and the error is logged.
+     */
+    void ensureUniqueIndexes() {
+        createUniqueIndex(USERNAME_INDEX, "username");
+        createUniqueIndex(EMAIL_INDEX, "email");
+    }
+
+    private void createUniqueIndex(String name, String column) {
+        try {
+            jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + name
+                + " ON application_user (" + column + ") WHERE deleted = false");
+        } catch (DataAccessException e) {
+            log.error("Could not create unique index {}; resolve duplicate {} values: {}",
+                name, column, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private static void load(Stream<String> values, BloomFilter filter) {
+        try (values) {
+            values.filter(Objects::nonNull).forEach(filter::put);
+        }
+    }
+
+    private static final class Filters {
+        final BloomFilter usernames;
+        final BloomFilter emails;
+
+        Filters(long expectedInsertions, double falsePositiveRate) {
+            this.usernames = new BloomFilter(expectedInsertions, falsePositiveRate);
+            this.emails = new BloomFilter(expectedInsertions, falsePositiveRate);
+        }
+
+        void put(String username, String email) {
+            if (username != null) {
+                usernames.put(username);
+            }
+            if (email != null) {
+                emails.put(email);
+            }
+        }
+    }
+}
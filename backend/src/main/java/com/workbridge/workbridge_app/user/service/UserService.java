@@ -4,6 +4,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.function.Function;
 
 import org.springframework.data.domain.Page;
@@ -11,8 +12,10 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
 import com.workbridge.workbridge_app.booking.repository.BookingRepository;
+import com.workbridge.workbridge_app.common.util.EntityStreams;
 import com.workbridge.workbridge_app.review.repository.ReviewRepository;
 import com.workbridge.workbridge_app.security.SecurityUtil;
+import com.workbridge.workbridge_app.security.UserAuthStateCache;
 import com.workbridge.workbridge_app.service.repository.ServiceRepository;
 import com.workbridge.workbridge_app.user.dto.ProviderRequestDTO;
 import com.workbridge.workbridge_app.user.dto.UpdateUserProfileDTO;
@@ -20,14 +23,14 @@ import com.workbridge.workbridge_app.user.dto.UserResponseDTO;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 import com.workbridge.workbridge_app.user.entity.ProviderRequest;
 import com.workbridge.workbridge_app.user.entity.UserRole;
-import com.workbridge.workbridge_app.user.entity.UserRoleEntity;
 import com.workbridge.workbridge_app.user.exception.ProviderRequestNotFoundException;
 import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
 import com.workbridge.workbridge_app.user.mapper.UserMapper;
 import com.workbridge.workbridge_app.user.repository.ProviderRequestRepository;
 import com.workbridge.workbridge_app.user.repository.UserRepository;
-import com.workbridge.workbridge_app.user.repository.UserRoleRepository;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -50,7 +53,7 @@ import lombok.extern.slf4j.Slf4j;
  *
  * <p>Typical usage:</p>
  * <pre>
- *   userService.getAllUsers();
+ *   userService.getAllUsers(pageable);
  *   userService.updateUser(username, userDto);
  *   userService.requestToBecomeProvider(username);
  *   userService.approveProviderRequest(requestId);
@@ -66,11 +69,16 @@ public class UserService {
 
     private final UserMapper userMapper;
     private final UserRepository userRepository;
-    private final UserRoleRepository userRoleRepository;
+    private final RoleRegistry roleRegistry;
     private final ReviewRepository reviewRepository;
     private final BookingRepository bookingRepository;
     private final ServiceRepository serviceRepository;
     private final ProviderRequestRepository providerRequestRepository;
+    private final UserAuthStateCache userAuthStateCache;
+    private final UserIdentifierFilter userIdentifierFilter;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     /**
      * Retrieves a paginated list of all users from the database.
@@ -87,13 +95,16 @@ public class UserService {
     }
 
     /**
-     * Retrieves all users from the database.
+     * Streams all users to {@code sink}, ordered by ID, reading them through a database cursor
+     * so memory use does not grow with the number of users.
      *
-     * @return List of UserResponseDTO objects representing all users.
+     * @param sink receives each user as a UserResponseDTO
      */
-    public List<UserResponseDTO> getAllUsers() {
-        log.debug("Fetching all users without pagination");
-        return getAllUsers(Pageable.unpaged()).getContent();
+    @Transactional
+    public void streamAllUsers(Consumer<? super UserResponseDTO> sink) {
+        log.debug("Streaming all users");
+        EntityStreams.forEachDetached(userRepository.streamAll(), entityManager,
+            user -> sink.accept(userMapper.toDTO(user)));
     }
 
     /**
@@ -110,24 +121,28 @@ public class UserService {
     }
 
     /**
-     * Retrieves all non-admin users from the database.
+     * Streams all non-admin users to {@code sink}, ordered by ID.
      *
-     * @return List of UserResponseDTO objects for users without the ADMIN role.
+     * @param sink receives each user without the ADMIN role as a UserResponseDTO
      */
-    public List<UserResponseDTO> getAllNonAdminUsers() {
-        log.debug("Fetching all non-admin users without pagination");
-        return userRepository.findAllNonAdminUsers().stream().map(userMapper::toDTO).toList();
+    @Transactional
+    public void streamAllNonAdminUsers(Consumer<? super UserResponseDTO> sink) {
+        log.debug("Streaming all non-admin users");
+        EntityStreams.forEachDetached(userRepository.streamAllExcludingRole(UserRole.ADMIN), entityManager,
+            user -> sink.accept(userMapper.toDTO(user)));
     }
 
     /**
-     * Retrieves users by a specific role.
+     * Streams users with a specific role to {@code sink}, ordered by ID.
      *
      * @param role The role to filter users by.
-     * @return List of UserResponseDTO objects for users with the specified role.
+     * @param sink receives each matching user as a UserResponseDTO
      */
-    public List<UserResponseDTO> getUsersByRole(UserRole role) {
-        log.debug("Fetching users by role: {}", role);
-        return userRepository.findAllByRole(role).stream().map(userMapper::toDTO).toList();
+    @Transactional
+    public void streamUsersByRole(UserRole role, Consumer<? super UserResponseDTO> sink) {
+        log.debug("Streaming users by role: {}", role);
+        EntityStreams.forEachDetached(userRepository.streamAllByRole(role), entityManager,
+            user -> sink.accept(userMapper.toDTO(user)));
     }
 
     /**
@@ -223,11 +238,16 @@ public class UserService {
     public ApplicationUser updateUser(String username, UpdateUserProfileDTO dto) {
         log.debug("Updating user '{}': {}", username, dto);
         ApplicationUser user = getUser(username);
+        boolean authChanged = !user.getUsername().equals(dto.getUsername()) || user.isEnabled() != dto.isEnabled();
         user.setUsername(dto.getUsername());
         user.setEmail(dto.getEmail());
         user.setEnabled(dto.isEnabled());
         user.setUpdatedAt(LocalDateTime.now());
+        if (authChanged) {
+            revokeTokens(user);
+        }
         ApplicationUser updated = userRepository.save(user);
+        userIdentifierFilter.add(updated.getUsername(), updated.getEmail());
         log.info("User '{}' updated successfully at {}", username, user.getUpdatedAt());
         return updated;
     }
@@ -264,6 +284,7 @@ public class UserService {
         user.setDeleted(true);
         user.setDeletedAt(Instant.now());
         user.setDeletedByUserId(deleterId);
+        revokeTokens(user);
 
         softDeleteRelatedEntities(user, deleterId);
 
@@ -477,6 +498,11 @@ public class UserService {
 
         user.setEnabled(enable);
         user.setUpdatedAt(LocalDateTime.now());
+        if (enable) {
+            userAuthStateCache.invalidate(user.getId());
+        } else {
+            revokeTokens(user);
+        }
         userRepository.save(user);
         log.info("Account for '{}' set to {}", email, enable ? "ENABLED" : "DISABLED");
         return true;
@@ -486,15 +512,12 @@ public class UserService {
      * Grants the SERVICE_PROVIDER role to a user.
      *
      * @param user The ApplicationUser to grant the role to.
-     * @throws IllegalStateException if the SERVICE_PROVIDER role is missing in the database.
+     * @throws IllegalStateException if the SERVICE_PROVIDER role is missing from the registry.
      */
     private void grantServiceProviderRole(ApplicationUser user) {
-        UserRoleEntity spRole = userRoleRepository.findByRole(UserRole.SERVICE_PROVIDER)
-                .orElseThrow(() -> {
-                    log.error("SERVICE_PROVIDER role not found in database");
-                    return new IllegalStateException("SERVICE_PROVIDER role missing in DB");
-                });
-        user.addRole(spRole);
+        user.addRole(roleRegistry.get(UserRole.SERVICE_PROVIDER));
+        // Outstanding tokens carry the old roles claim; force a refresh
+        revokeTokens(user);
         userRepository.save(user);
         log.info("Granted SERVICE_PROVIDER role to user '{}'", user.getUsername());
     }
@@ -515,4 +538,13 @@ public class UserService {
         log.info("Soft-delete complete for related entities of user '{}'", user.getUsername());
     }
 
+
+    /**
+     * Bumps the user's token version so every access token issued so far is rejected, and drops
+     * the cached auth state. The caller saves the user.
+     */
+    private void revokeTokens(ApplicationUser user) {
+        user.setTokenVersion(user.getTokenVersion() + 1);
+        userAuthStateCache.invalidate(user.getId());
+    }
 }
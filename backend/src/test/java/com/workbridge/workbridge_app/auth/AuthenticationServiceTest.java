@@ -3,6 +3,8 @@ package com.workbridge.workbridge_app.auth;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
 
@@ -10,25 +12,36 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.workbridge.workbridge_app.auth.dto.*;
 import com.workbridge.workbridge_app.auth.entity.RefreshToken;
 import com.workbridge.workbridge_app.auth.exception.InvalidTokenException;
+import com.workbridge.workbridge_app.auth.exception.TooManyAttemptsException;
 import com.workbridge.workbridge_app.auth.exception.UserAlreadyExistsException;
 import com.workbridge.workbridge_app.auth.mapper.SessionMapper;
 import com.workbridge.workbridge_app.auth.service.AuthenticationService;
+import com.workbridge.workbridge_app.auth.service.LoginRateLimiter;
+import com.workbridge.workbridge_app.auth.service.PasswordHashingService;
 import com.workbridge.workbridge_app.auth.service.RefreshTokenService;
 import com.workbridge.workbridge_app.auth.service.VerificationService;
 import com.workbridge.workbridge_app.auth.util.CookieUtil;
 import com.workbridge.workbridge_app.auth.util.CookieUtil.TokenType;
+import com.workbridge.workbridge_app.security.AccessTokenRevocationList;
+import com.workbridge.workbridge_app.security.JwtClaims;
 import com.workbridge.workbridge_app.security.JwtService;
+import com.workbridge.workbridge_app.security.UserAuthStateCache;
 import com.workbridge.workbridge_app.user.entity.*;
 import com.workbridge.workbridge_app.user.repository.UserRepository;
-import com.workbridge.workbridge_app.user.repository.UserRoleRepository;
+import com.workbridge.workbridge_app.user.service.RoleRegistry;
+import com.workbridge.workbridge_app.user.service.UserIdentifierFilter;
 
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
@@ -36,15 +49,20 @@ class AuthenticationServiceTest {
 
     @InjectMocks private AuthenticationService authenticationService;
     @Mock private UserRepository userRepository;
-    @Mock private UserRoleRepository roleRepository;
+    @Spy private RoleRegistry roleRegistry = new RoleRegistry();
+    @Mock private UserIdentifierFilter userIdentifierFilter;
     @Mock private VerificationService verificationService;
     @Mock private RefreshTokenService refreshTokenService;
     @Mock private CookieUtil cookieUtil;
     @Mock private SessionMapper sessionMapper;
     @Mock private JwtService jwtService;
+    @Mock private UserAuthStateCache userAuthStateCache;
+    @Mock private AccessTokenRevocationList accessTokenRevocationList;
     @Mock private HttpServletRequest httpRequest;
     @Mock private HttpServletResponse httpResponse;
-    @Mock private org.springframework.security.crypto.password.PasswordEncoder passwordEncoder;
+    @Mock private PasswordHashingService passwordHashingService;
+    @Mock private LoginRateLimiter loginRateLimiter;
+    @Mock private TransactionTemplate transactionTemplate;
 
     private final String username = "john";
     private final String email = "john@example.com";
@@ -53,6 +71,13 @@ class AuthenticationServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        roleRegistry.register(List.of(
+            new UserRoleEntity(1L, UserRole.SERVICE_SEEKER),
+            new UserRoleEntity(2L, UserRole.SERVICE_PROVIDER),
+            new UserRoleEntity(3L, UserRole.ADMIN)));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(httpRequest.getRemoteAddr()).thenReturn("10.0.0.1");
     }
 
     private ApplicationUser buildUser(boolean enabled) {
@@ -69,26 +94,60 @@ class AuthenticationServiceTest {
 
     @Nested
     class RegisterTests {
+        @Test
+        void shouldRejectUnknownRole() {
+            RegisterRequestDTO request = new RegisterRequestDTO(username, email, password, List.of("SUPERUSER"), "INACTIVE");
+            when(passwordHashingService.encode(password)).thenReturn("hashed");
+
+            assertThrows(IllegalArgumentException.class, () -> authenticationService.register(request, httpRequest));
+            verify(userRepository, never()).save(any());
+        }
+
         @Test
         void shouldRegisterUserSuccessfully() {
             RegisterRequestDTO request = new RegisterRequestDTO(username, email, password, List.of("SERVICE_SEEKER"), "INACTIVE");
-            when(userRepository.existsByUsername(username)).thenReturn(false);
-            when(userRepository.existsByEmail(email)).thenReturn(false);
-            when(passwordEncoder.encode(password)).thenReturn("hashed");
-            when(roleRepository.findByRole(UserRole.SERVICE_SEEKER)).thenReturn(Optional.of(new UserRoleEntity(1L, UserRole.SERVICE_SEEKER)));
+            when(userIdentifierFilter.isUsernameTaken(username)).thenReturn(false);
+            when(userIdentifierFilter.isEmailTaken(email)).thenReturn(false);
+            when(passwordHashingService.encode(password)).thenReturn("hashed");
 
-            RegisterResponseDTO response = authenticationService.register(request);
+            RegisterResponseDTO response = authenticationService.register(request, httpRequest);
 
             assertEquals(email, response.getEmail());
-            verify(userRepository).save(any(ApplicationUser.class));
+            verify(loginRateLimiter).checkRegistration("10.0.0.1");
+            verify(userRepository).save(argThat(user -> "hashed".equals(user.getPassword())));
             verify(verificationService).createAndSendVerificationToken(any(ApplicationUser.class));
+            verify(userIdentifierFilter).add(username, email);
+        }
+
+        @Test
+        void shouldReportConcurrentDuplicateAsConflict() {
+            RegisterRequestDTO request = new RegisterRequestDTO(username, email, password, List.of("SERVICE_SEEKER"), "INACTIVE");
+            when(passwordHashingService.encode(password)).thenReturn("hashed");
+            when(userRepository.save(any())).thenThrow(new DataIntegrityViolationException(
+                "duplicate key value violates unique constraint \"ux_application_user_email\""));
+
+            UserAlreadyExistsException e = assertThrows(UserAlreadyExistsException.class,
+                () -> authenticationService.register(request, httpRequest));
+
+            assertEquals("Email is already in use", e.getMessage());
+            verify(userIdentifierFilter, never()).add(any(), any());
+        }
+
+        @Test
+        void shouldCheckUsernameAvailability() {
+            when(userIdentifierFilter.isUsernameTaken("taken")).thenReturn(true);
+
+            assertFalse(authenticationService.checkUsernameAvailability("taken").isAvailable());
+            assertTrue(authenticationService.checkUsernameAvailability("free").isAvailable());
+            assertThrows(IllegalArgumentException.class, () -> authenticationService.checkUsernameAvailability(" "));
         }
 
         @Test
         void shouldThrowIfUsernameExists() {
             RegisterRequestDTO request = new RegisterRequestDTO(username, email, password, List.of("USER"), "INACTIVE");
-            when(userRepository.existsByUsername(username)).thenReturn(true);
-            assertThrows(UserAlreadyExistsException.class, () -> authenticationService.register(request));
+            when(userIdentifierFilter.isUsernameTaken(username)).thenReturn(true);
+            assertThrows(UserAlreadyExistsException.class, () -> authenticationService.register(request, httpRequest));
+            verifyNoInteractions(passwordHashingService);
         }
     }
 
@@ -146,11 +205,12 @@ class AuthenticationServiceTest {
             LoginRequestDTO dto = new LoginRequestDTO(email, password);
 
             when(userRepository.findByEmail(email)).thenReturn(Optional.of(user));
-            when(passwordEncoder.matches(password, "hashed")).thenReturn(true);
-            when(jwtService.generateToken(user)).thenReturn("access-token");
-            when(refreshTokenService.createRefreshToken(eq(user), any())).thenReturn(RefreshToken
+            when(passwordHashingService.matches(password, "hashed")).thenReturn(true);
+            when(jwtService.generateToken(user, "access-jti")).thenReturn("access-token");
+            when(refreshTokenService.createRefreshToken(eq(user), anyString(), any())).thenReturn(RefreshToken
                 .builder()
                     .id(1L)
+                    .accessTokenId("access-jti")
                     .token("refresh-token")
                     .user(user).
                     createdAt(LocalDateTime.now()).build());
@@ -161,6 +221,16 @@ class AuthenticationServiceTest {
             verify(cookieUtil).setTokenCookie(eq(httpResponse), any(), eq("access-token"), eq(TokenType.ACCESS));
             verify(cookieUtil).setTokenCookie(eq(httpResponse), any(), eq("refresh-token"), eq(TokenType.REFRESH));
         }
+
+        @Test
+        void shouldRejectLoginOverRateLimitBeforeCheckingPassword() {
+            LoginRequestDTO dto = new LoginRequestDTO(email, password);
+            doThrow(new TooManyAttemptsException("Too many attempts", Duration.ofSeconds(10)))
+                .when(loginRateLimiter).checkLogin("10.0.0.1", email);
+
+            assertThrows(TooManyAttemptsException.class, () -> authenticationService.login(dto, httpRequest, httpResponse));
+            verifyNoInteractions(userRepository, passwordHashingService, refreshTokenService);
+        }
     }
 
     @Nested
@@ -170,12 +240,11 @@ class AuthenticationServiceTest {
             ApplicationUser user = buildUser(true);
 
             when(cookieUtil.extractTokenFromCookie(httpRequest, "refresh_token")).thenReturn("old-token");
-            when(refreshTokenService.isTokenValid("old-token")).thenReturn(true);
-            when(refreshTokenService.getUserFromToken("old-token")).thenReturn(user);
-            when(jwtService.generateToken(user)).thenReturn("new-access-token");
-            when(refreshTokenService.createRefreshToken(eq(user), any())).thenReturn(RefreshToken
+            when(jwtService.generateToken(user, "new-access-jti")).thenReturn("new-access-token");
+            when(refreshTokenService.rotateRefreshToken(eq("old-token"), anyString(), eq(httpRequest))).thenReturn(RefreshToken
                 .builder()
                     .id(2L)
+                    .accessTokenId("new-access-jti")
                     .token("new-refresh-token")
                     .user(user)
                     .createdAt(LocalDateTime.now())
@@ -189,8 +258,14 @@ class AuthenticationServiceTest {
 
         @Test
         void shouldThrowIfRefreshTokenInvalid() {
-            when(cookieUtil.extractTokenFromCookie(httpRequest, "refresh_token")).thenReturn(null);
+            when(cookieUtil.extractTokenFromCookie(httpRequest, "refresh_token")).thenReturn("rotated-token");
+            when(refreshTokenService.rotateRefreshToken(eq("rotated-token"), anyString(), eq(httpRequest)))
+                .thenThrow(new InvalidTokenException("Refresh token expired or revoked"));
+
             assertThrows(InvalidTokenException.class, () -> authenticationService.refreshAccessToken(httpRequest, httpResponse));
+            verify(cookieUtil).clearCookie(httpResponse, "access_token");
+            verify(cookieUtil).clearCookie(httpResponse, "refresh_token");
+            verify(jwtService, never()).generateToken(any(ApplicationUser.class), any());
         }
     }
 
@@ -205,6 +280,29 @@ class AuthenticationServiceTest {
             verify(refreshTokenService).deleteByToken("token");
             verify(cookieUtil, times(2)).clearCookie(eq(httpResponse), any());
         }
+
+        @Test
+        void shouldRevokeAccessTokenUntilItExpires() {
+            Instant expiresAt = Instant.now().plusSeconds(600);
+            when(cookieUtil.extractTokenFromCookie(httpRequest, "access_token")).thenReturn("access");
+            when(jwtService.verify("access")).thenReturn(
+                new JwtClaims(username, "access-jti", 1L, 0L, List.of(), Instant.now(), expiresAt));
+
+            authenticationService.logout(httpRequest, httpResponse);
+
+            verify(accessTokenRevocationList).revoke("access-jti", expiresAt);
+        }
+
+        @Test
+        void shouldSkipRevocationOfInvalidAccessToken() {
+            when(cookieUtil.extractTokenFromCookie(httpRequest, "access_token")).thenReturn("expired");
+            when(jwtService.verify("expired")).thenThrow(new JwtException("expired"));
+
+            authenticationService.logout(httpRequest, httpResponse);
+
+            verifyNoInteractions(accessTokenRevocationList);
+            verify(cookieUtil, times(2)).clearCookie(eq(httpResponse), any());
+        }
     }
 
     @Nested
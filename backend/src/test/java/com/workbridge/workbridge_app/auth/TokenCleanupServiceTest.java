@@ -1,11 +1,19 @@
 package com.workbridge.workbridge_app.auth;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 
+import com.workbridge.workbridge_app.auth.repository.RefreshTokenRepository;
+import com.workbridge.workbridge_app.auth.repository.RevokedAccessTokenRepository;
 import com.workbridge.workbridge_app.auth.repository.VerificationTokenRepository;
 import com.workbridge.workbridge_app.auth.service.TokenCleanupService;
+import com.workbridge.workbridge_app.common.repository.OutboundEmailRepository;
+import com.workbridge.workbridge_app.config.TokenCleanupProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,17 +22,75 @@ import org.mockito.*;
 public class TokenCleanupServiceTest {
 
     @Mock private VerificationTokenRepository tokenRepository;
+    @Mock private RefreshTokenRepository refreshTokenRepository;
+    @Mock private RevokedAccessTokenRepository revokedAccessTokenRepository;
+    @Mock private OutboundEmailRepository outboundEmailRepository;
+    private SimpleMeterRegistry meterRegistry;
     private TokenCleanupService cleanupService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        cleanupService = new TokenCleanupService(tokenRepository);
+        TokenCleanupProperties properties = new TokenCleanupProperties();
+        properties.setBatchSize(100);
+        properties.setPauseBetweenBatches(Duration.ZERO);
+        properties.setRevokedRetention(Duration.ofHours(6));
+        properties.setFailedEmailRetention(Duration.ofHours(12));
+        meterRegistry = new SimpleMeterRegistry();
+        cleanupService = new TokenCleanupService(tokenRepository, refreshTokenRepository,
+            revokedAccessTokenRepository, outboundEmailRepository, properties, meterRegistry);
     }
 
     @Test
     void shouldDeleteExpiredTokensSuccessfully() {
-        cleanupService.cleanExpiredVerificationTokens();
-        verify(tokenRepository).deleteByExpiresAtBefore(any(LocalDateTime.class));
+        when(tokenRepository.deleteExpiredBatch(any(LocalDateTime.class), eq(100))).thenReturn(3);
+
+        assertEquals(3, cleanupService.cleanExpiredVerificationTokens());
+        verify(tokenRepository, times(1)).deleteExpiredBatch(any(LocalDateTime.class), eq(100));
+    }
+
+    @Test
+    void shouldKeepDeletingWhileBatchesAreFull() {
+        when(refreshTokenRepository.deletePurgeableBatch(any(), any(), eq(100))).thenReturn(100, 100, 42);
+
+        assertEquals(242, cleanupService.cleanExpiredRefreshTokens());
+        verify(refreshTokenRepository, times(3)).deletePurgeableBatch(any(), any(), eq(100));
+        assertEquals(242, meterRegistry.get("token.cleanup.purged").tag("table", "refresh_token").counter().count());
+        assertEquals(1, meterRegistry.get("token.cleanup.duration").tag("table", "refresh_token").timer().count());
+    }
+
+    @Test
+    void shouldPurgeRevokedRefreshTokensAfterRetention() {
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> revokedBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+
+        cleanupService.cleanExpiredRefreshTokens();
+
+        verify(refreshTokenRepository).deletePurgeableBatch(now.capture(), revokedBefore.capture(), eq(100));
+        assertEquals(Duration.ofHours(6), Duration.between(revokedBefore.getValue(), now.getValue()));
+    }
+
+    @Test
+    void shouldPurgeFailedEmailsAfterRetention() {
+        LocalDateTime before = LocalDateTime.now().minusHours(12);
+        when(outboundEmailRepository.deleteFailedBatch(any(), eq(100))).thenReturn(2);
+
+        assertEquals(2, cleanupService.cleanFailedEmails());
+
+        ArgumentCaptor<LocalDateTime> createdBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboundEmailRepository).deleteFailedBatch(createdBefore.capture(), eq(100));
+        assertFalse(createdBefore.getValue().isBefore(before));
+        assertFalse(createdBefore.getValue().isAfter(LocalDateTime.now().minusHours(12)));
+        assertEquals(2, meterRegistry.get("token.cleanup.purged").tag("table", "email_outbox").counter().count());
+    }
+
+    @Test
+    void shouldPurgeAllTablesOnSchedule() {
+        cleanupService.purgeExpiredTokens();
+
+        verify(tokenRepository).deleteExpiredBatch(any(), eq(100));
+        verify(refreshTokenRepository).deletePurgeableBatch(any(), any(), eq(100));
+        verify(revokedAccessTokenRepository).deleteExpiredBatch(any(), eq(100));
+        verify(outboundEmailRepository).deleteFailedBatch(any(), eq(100));
     }
 }
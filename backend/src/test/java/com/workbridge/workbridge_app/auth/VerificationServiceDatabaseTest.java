@@ -0,0 +1,105 @@
+package com.workbridge.workbridge_app.auth;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.workbridge.workbridge_app.auth.entity.VerificationToken;
+import com.workbridge.workbridge_app.auth.repository.VerificationTokenRepository;
+import com.workbridge.workbridge_app.auth.service.VerificationAttemptLimiter;
+import com.workbridge.workbridge_app.auth.service.VerificationService;
+import com.workbridge.workbridge_app.common.service.EmailService;
+import com.workbridge.workbridge_app.config.VerificationProperties;
+import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Runs {@link VerificationService} against a real Postgres so the unique index on
+ * {@code verification_token.email} and the order of the delete and insert statements are checked.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+public class VerificationServiceDatabaseTest {
+
+    @Container
+    private static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired private VerificationTokenRepository tokenRepository;
+    @Autowired private TestEntityManager entityManager;
+
+    private VerificationService verificationService;
+
+    private final String email = "user@example.com";
+
+    @BeforeEach
+    void setUp() {
+        VerificationProperties properties = new VerificationProperties();
+        properties.setCodeSecret("test-secret");
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        verificationService = new VerificationService(
+            tokenRepository,
+            mock(EmailService.class),
+            new VerificationAttemptLimiter(properties, meterRegistry),
+            properties,
+            meterRegistry);
+    }
+
+    private ApplicationUser buildUser() {
+        ApplicationUser user = new ApplicationUser();
+        user.setEmail(email);
+        return user;
+    }
+
+    @Test
+    void createAndSendVerificationToken_shouldReplaceExistingToken() {
+        String staleHash = verificationService.hashVerificationCode("000000");
+        tokenRepository.saveAndFlush(new VerificationToken(email, staleHash, LocalDateTime.now().plusMinutes(5)));
+        entityManager.clear();
+
+        verificationService.createAndSendVerificationToken(buildUser());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<VerificationToken> tokens = tokenRepository.findAll();
+        assertEquals(1, tokens.size());
+        assertEquals(email, tokens.get(0).getEmail());
+        assertNotEquals(staleHash, tokens.get(0).getCodeHash());
+    }
+
+    @Test
+    void createAndSendVerificationToken_shouldReplaceTokenLoadedInSameTransaction() {
+        verificationService.createAndSendVerificationToken(buildUser());
+        VerificationToken first = tokenRepository.findByEmail(email).orElseThrow();
+
+        verificationService.createAndSendVerificationToken(buildUser());
+        entityManager.flush();
+        entityManager.clear();
+
+        List<VerificationToken> tokens = tokenRepository.findAll();
+        assertEquals(1, tokens.size());
+        assertNotEquals(first.getId(), tokens.get(0).getId());
+    }
+}
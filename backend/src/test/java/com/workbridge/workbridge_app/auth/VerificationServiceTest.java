@@ -9,11 +9,16 @@ import java.util.Optional;
 import com.workbridge.workbridge_app.auth.entity.VerificationToken;
 import com.workbridge.workbridge_app.auth.exception.TokenExpiredException;
 import com.workbridge.workbridge_app.auth.exception.TokenVerificationException;
+import com.workbridge.workbridge_app.auth.exception.TooManyAttemptsException;
 import com.workbridge.workbridge_app.auth.repository.VerificationTokenRepository;
+import com.workbridge.workbridge_app.auth.service.VerificationAttemptLimiter;
 import com.workbridge.workbridge_app.auth.service.VerificationService;
 import com.workbridge.workbridge_app.common.service.EmailService;
+import com.workbridge.workbridge_app.config.VerificationProperties;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
@@ -22,7 +27,9 @@ public class VerificationServiceTest {
 
     @Mock private VerificationTokenRepository tokenRepository;
     @Mock private EmailService emailService;
-    @InjectMocks private VerificationService verificationService;
+    private VerificationAttemptLimiter attemptLimiter;
+    private SimpleMeterRegistry meterRegistry;
+    private VerificationService verificationService;
 
     private final String email = "user@example.com";
     private final String code = "123456";
@@ -32,6 +39,16 @@ public class VerificationServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        VerificationProperties properties = new VerificationProperties();
+        properties.setCodeSecret("test-secret");
+        properties.setFreeAttempts(3);
+        meterRegistry = new SimpleMeterRegistry();
+        attemptLimiter = new VerificationAttemptLimiter(properties, meterRegistry);
+        verificationService = new VerificationService(tokenRepository, emailService, attemptLimiter, properties, meterRegistry);
+    }
+
+    private VerificationToken tokenFor(String code, LocalDateTime expiresAt) {
+        return new VerificationToken(email, verificationService.hashVerificationCode(code), expiresAt);
     }
 
     private ApplicationUser buildUser() {
@@ -48,17 +65,19 @@ public class VerificationServiceTest {
 
         verify(tokenRepository).deleteByEmail(email);
         verify(tokenRepository).save(tokenCaptor.capture());
-        verify(emailService).sendVerificationCode(eq(email), anyString());
+        ArgumentCaptor<String> sentCode = ArgumentCaptor.forClass(String.class);
+        verify(emailService).queueVerificationCode(eq(email), sentCode.capture());
 
         VerificationToken savedToken = tokenCaptor.getValue();
         assertEquals(email, savedToken.getEmail());
         assertFalse(savedToken.isVerified());
-        assertNotNull(savedToken.getCode());
+        assertEquals(verificationService.hashVerificationCode(sentCode.getValue()), savedToken.getCodeHash());
+        assertNotEquals(sentCode.getValue(), savedToken.getCodeHash());
     }
 
     @Test
     void shouldVerifyValidTokenSuccessfully() {
-        VerificationToken token = new VerificationToken(email, code, LocalDateTime.now().plusMinutes(5));
+        VerificationToken token = tokenFor(code, LocalDateTime.now().plusMinutes(5));
         when(tokenRepository.findByEmail(email)).thenReturn(Optional.of(token));
 
         verificationService.verifyToken(email, code);
@@ -69,7 +88,7 @@ public class VerificationServiceTest {
 
     @Test
     void shouldSkipVerificationIfTokenAlreadyVerified() {
-        VerificationToken token = new VerificationToken(email, code, LocalDateTime.now().plusMinutes(5));
+        VerificationToken token = tokenFor(code, LocalDateTime.now().plusMinutes(5));
         token.setVerified(true);
 
         when(tokenRepository.findByEmail(email)).thenReturn(Optional.of(token));
@@ -90,7 +109,7 @@ public class VerificationServiceTest {
 
     @Test
     void shouldThrowIfCodeIsInvalid() {
-        VerificationToken token = new VerificationToken(email, "999999", LocalDateTime.now().plusMinutes(5));
+        VerificationToken token = tokenFor("999999", LocalDateTime.now().plusMinutes(5));
         when(tokenRepository.findByEmail(email)).thenReturn(Optional.of(token));
 
         assertThrows(TokenVerificationException.class,
@@ -99,13 +118,57 @@ public class VerificationServiceTest {
 
     @Test
     void shouldThrowIfTokenExpired() {
-        VerificationToken token = new VerificationToken(email, code, LocalDateTime.now().minusMinutes(1));
+        VerificationToken token = tokenFor(code, LocalDateTime.now().minusMinutes(1));
         when(tokenRepository.findByEmail(email)).thenReturn(Optional.of(token));
 
         assertThrows(TokenExpiredException.class,
             () -> verificationService.verifyToken(email, code));
     }
 
+    @Test
+    void shouldLockOutAfterRepeatedWrongCodesWithoutQuerying() {
+        VerificationToken token = tokenFor("999999", LocalDateTime.now().plusMinutes(5));
+        when(tokenRepository.findByEmail(email)).thenReturn(Optional.of(token));
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(TokenVerificationException.class, () -> verificationService.verifyToken(email, code));
+        }
+        TooManyAttemptsException locked = assertThrows(TooManyAttemptsException.class,
+            () -> verificationService.verifyToken(email.toUpperCase(), "999999"));
+
+        assertTrue(locked.getRetryAfter().toSeconds() > 0);
+        verify(tokenRepository, times(4)).findByEmail(email);
+        assertEquals(4, meterRegistry.get("auth.verification.rejected").tag("reason", "invalid_code").counter().count());
+        assertEquals(1, meterRegistry.get("auth.verification.rejected").tag("reason", "locked").counter().count());
+    }
+
+    @Test
+    void shouldResetAttemptsAfterSuccess() {
+        VerificationToken token = tokenFor(code, LocalDateTime.now().plusMinutes(5));
+        when(tokenRepository.findByEmail(email)).thenReturn(Optional.of(token));
+
+        for (int i = 0; i < 3; i++) {
+            assertThrows(TokenVerificationException.class, () -> verificationService.verifyToken(email, "000000"));
+        }
+        verificationService.verifyToken(email, code);
+        token.setVerified(false);
+
+        // Without the reset the fourth miss would have locked the email out
+        assertThrows(TokenVerificationException.class, () -> verificationService.verifyToken(email, "000000"));
+        assertThrows(TokenVerificationException.class, () -> verificationService.verifyToken(email, "000000"));
+    }
+
+    @Test
+    void shouldCountUnknownEmailAsFailedAttempt() {
+        when(tokenRepository.findByEmail(email)).thenReturn(Optional.empty());
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(TokenVerificationException.class, () -> verificationService.verifyToken(email, code));
+        }
+
+        assertThrows(TooManyAttemptsException.class, () -> verificationService.verifyToken(email, code));
+    }
+
     @Test
     void shouldDeleteTokenByEmail() {
         verificationService.deleteExistingToken(email);
@@ -0,0 +1,62 @@
+package com.workbridge.workbridge_app.auth.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.workbridge.workbridge_app.auth.exception.TooManyAttemptsException;
+import com.workbridge.workbridge_app.config.LoginRateLimitProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LoginRateLimiterTest {
+
+    private LoginRateLimitProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new LoginRateLimitProperties();
+        properties.setPerIp(new LoginRateLimitProperties.Bucket(5, 1));
+        properties.setPerEmail(new LoginRateLimitProperties.Bucket(2, 1));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void checkLogin_shouldLimitEachEmailAcrossIps() {
+        LoginRateLimiter limiter = new LoginRateLimiter(properties, meterRegistry);
+
+        limiter.checkLogin("10.0.0.1", "alice@example.com");
+        limiter.checkLogin("10.0.0.2", " Alice@Example.com ");
+        TooManyAttemptsException ex = assertThrows(TooManyAttemptsException.class,
+            () -> limiter.checkLogin("10.0.0.3", "alice@example.com"));
+
+        assertTrue(ex.getRetryAfter().toSeconds() > 0);
+        assertDoesNotThrow(() -> limiter.checkLogin("10.0.0.3", "bob@example.com"));
+        assertEquals(1, meterRegistry.get("auth.rate_limit.rejected").tag("key", "email").counter().count());
+    }
+
+    @Test
+    void checkRegistration_shouldLimitEachIp() {
+        LoginRateLimiter limiter = new LoginRateLimiter(properties, meterRegistry);
+
+        for (int i = 0; i < 5; i++) {
+            limiter.checkRegistration("10.0.0.1");
+        }
+
+        assertThrows(TooManyAttemptsException.class, () -> limiter.checkRegistration("10.0.0.1"));
+        assertDoesNotThrow(() -> limiter.checkRegistration("10.0.0.2"));
+        assertEquals(1, meterRegistry.get("auth.rate_limit.rejected").tag("key", "ip").counter().count());
+    }
+
+    @Test
+    void shouldAdmitEverything_whenDisabled() {
+        properties.setEnabled(false);
+        LoginRateLimiter limiter = new LoginRateLimiter(properties, meterRegistry);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.checkLogin("10.0.0.1", "alice@example.com");
+        }
+    }
+}
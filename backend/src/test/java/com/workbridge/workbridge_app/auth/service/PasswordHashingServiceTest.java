@@ -0,0 +1,113 @@
+package com.workbridge.workbridge_app.auth.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.workbridge.workbridge_app.auth.exception.AuthenticationBusyException;
+import com.workbridge.workbridge_app.config.PasswordHashingProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PasswordHashingServiceTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService service;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        properties.setMaxWait(Duration.ofMillis(300));
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PasswordHashingService(new BlockingEncoder(), properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        service.shutdown();
+    }
+
+    @Test
+    void encodeAndMatches_shouldRunOnHashingPool() {
+        release.countDown();
+
+        assertEquals("hashed:secret@password-hash-1", service.encode("secret"));
+        assertTrue(service.matches("secret", "anything"));
+        assertEquals(2, meterRegistry.get("auth.hashing.queue.time").timer().count());
+        assertEquals(2, meterRegistry.get("auth.hashing.duration").timer().count());
+    }
+
+    @Test
+    void encode_shouldRejectAtOnce_whenQueueIsFull() throws Exception {
+        CompletableFuture.runAsync(this::encodeQuietly);
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(this::encodeQuietly);
+        waitForQueuedTask();
+
+        long start = System.nanoTime();
+        assertThrows(AuthenticationBusyException.class, () -> service.encode("third"));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1, meterRegistry.get("auth.hashing.rejected").tag("reason", "queue_full").counter().count());
+    }
+
+    @Test
+    void encode_shouldGiveUp_afterMaxWait() {
+        assertThrows(AuthenticationBusyException.class, () -> service.encode("slow"));
+        assertEquals(1, meterRegistry.get("auth.hashing.rejected").tag("reason", "timeout").counter().count());
+    }
+
+    private void encodeQuietly() {
+        try {
+            service.encode("blocked");
+        } catch (AuthenticationBusyException ignored) {
+            // Expected once max-wait passes
+        }
+    }
+
+    private void waitForQueuedTask() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (meterRegistry.get("auth.hashing.queue.depth").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * Blocks each hash until the test releases it.
+     */
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            await();
+            return "hashed:" + rawPassword + "@" + Thread.currentThread().getName();
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            await();
+            return true;
+        }
+
+        private void await() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -1,10 +1,12 @@
 package com.workbridge.workbridge_app.auth.service;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.UUID;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -16,8 +18,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.workbridge.workbridge_app.auth.entity.RefreshToken;
 import com.workbridge.workbridge_app.auth.exception.InvalidTokenException;
+import com.workbridge.workbridge_app.auth.projection.RotatedRefreshToken;
 import com.workbridge.workbridge_app.auth.repository.RefreshTokenRepository;
 import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -27,6 +31,9 @@ class RefreshTokenServiceTest {
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Mock
+    private UserRepository userRepository;
+
     @Mock
     private HttpServletRequest request;
 
@@ -39,7 +46,7 @@ class RefreshTokenServiceTest {
     void setup() {
         user = ApplicationUser.builder().id(1L).email("test@domain.com").build();
         // Set token validity days manually
-        refreshTokenService = new RefreshTokenService(refreshTokenRepository);
+        refreshTokenService = new RefreshTokenService(refreshTokenRepository, userRepository);
         refreshTokenService.setTokenValidity(7);
     }
 
@@ -48,7 +55,7 @@ class RefreshTokenServiceTest {
         when(request.getRemoteAddr()).thenReturn("127.0.0.1");
         when(request.getHeader("User-Agent")).thenReturn("JUnit");
 
-        refreshTokenService.createRefreshToken(user, request);
+        refreshTokenService.createRefreshToken(user, "access-jti", request);
 
         ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
         verify(refreshTokenRepository).save(captor.capture());
@@ -62,75 +69,83 @@ class RefreshTokenServiceTest {
     }
 
     @Test
-    void isTokenValid_ShouldReturnTrue_WhenTokenIsActive() {
-        RefreshToken token = RefreshToken.builder()
-            .revoked(false)
-            .expiresAt(LocalDateTime.now().plusDays(1))
-            .build();
+    void createRefreshToken_ShouldStoreOnlyHashOfReturnedToken() {
+        when(refreshTokenRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
-        when(refreshTokenRepository.findByToken("token123")).thenReturn(Optional.of(token));
+        RefreshToken issued = refreshTokenService.createRefreshToken(user, "access-jti", request);
 
-        assertTrue(refreshTokenService.isTokenValid("token123"));
+        assertNotNull(issued.getToken());
+        assertNotEquals(issued.getToken(), issued.getTokenHash());
+        assertEquals(RefreshTokenService.hash(issued.getToken()), issued.getTokenHash());
+        assertNotNull(issued.getFamilyId());
     }
 
     @Test
-    void isTokenValid_ShouldReturnFalse_WhenTokenIsRevoked() {
-        RefreshToken token = RefreshToken.builder()
-            .revoked(true)
-            .expiresAt(LocalDateTime.now().plusDays(1))
-            .build();
+    void rotateRefreshToken_ShouldIssueNewTokenInSameFamily() {
+        UUID familyId = UUID.randomUUID();
+        user.setEnabled(true);
+        when(refreshTokenRepository.revokeActiveByTokenHash(eq(RefreshTokenService.hash("oldToken")), any()))
+            .thenReturn(Optional.of(rotated(1L, familyId)));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        when(request.getRemoteAddr()).thenReturn("192.168.0.1");
+        when(request.getHeader("User-Agent")).thenReturn("Chrome");
+        when(refreshTokenRepository.save(any())).thenAnswer(i -> i.getArgument(0));
 
-        when(refreshTokenRepository.findByToken("token123")).thenReturn(Optional.of(token));
+        RefreshToken newToken = refreshTokenService.rotateRefreshToken("oldToken", "access-jti", request);
 
-        assertFalse(refreshTokenService.isTokenValid("token123"));
+        assertNotEquals("oldToken", newToken.getToken());
+        assertEquals(familyId, newToken.getFamilyId());
+        assertEquals("access-jti", newToken.getAccessTokenId());
+        assertEquals(user, newToken.getUser());
+        assertEquals("192.168.0.1", newToken.getIp());
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
     }
 
     @Test
-    void getUserFromToken_ShouldReturnUser_WhenTokenIsValid() {
-        RefreshToken token = RefreshToken.builder()
-            .revoked(false)
-            .expiresAt(LocalDateTime.now().plusDays(1))
-            .user(user)
-            .build();
+    void rotateRefreshToken_ShouldRevokeFamily_WhenRotatedTokenIsReused() {
+        UUID familyId = UUID.randomUUID();
+        String reusedHash = RefreshTokenService.hash("reused");
+        when(refreshTokenRepository.revokeActiveByTokenHash(eq(reusedHash), any())).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findFamilyIdOfRevokedToken(reusedHash)).thenReturn(Optional.of(familyId));
 
-        when(refreshTokenRepository.findByToken("token123")).thenReturn(Optional.of(token));
+        assertThrows(InvalidTokenException.class, () ->
+            refreshTokenService.rotateRefreshToken("reused", "access-jti", request)
+        );
 
-        assertEquals(user, refreshTokenService.getUserFromToken("token123"));
+        verify(refreshTokenRepository).revokeFamily(eq(familyId), any());
+        verify(refreshTokenRepository, never()).save(any());
     }
 
     @Test
-    void getUserFromToken_ShouldThrow_WhenTokenIsInvalid() {
-        when(refreshTokenRepository.findByToken("invalid"))
-            .thenReturn(Optional.empty());
+    void rotateRefreshToken_ShouldThrow_WhenTokenIsUnknown() {
+        when(refreshTokenRepository.revokeActiveByTokenHash(any(), any())).thenReturn(Optional.empty());
+        when(refreshTokenRepository.findFamilyIdOfRevokedToken(any())).thenReturn(Optional.empty());
 
         assertThrows(InvalidTokenException.class, () ->
-            refreshTokenService.getUserFromToken("invalid")
+            refreshTokenService.rotateRefreshToken("unknown", "access-jti", request)
         );
+
+        verify(refreshTokenRepository, never()).revokeFamily(any(), any());
     }
 
     @Test
-    void rotateRefreshToken_ShouldRevokeOldAndCreateNewToken() {
-        RefreshToken oldToken = RefreshToken.builder()
-            .revoked(false)
-            .expiresAt(LocalDateTime.now().plusDays(1))
-            .user(user)
-            .build();
-
-        when(refreshTokenRepository.findByToken("oldToken")).thenReturn(Optional.of(oldToken));
-        when(request.getRemoteAddr()).thenReturn("192.168.0.1");
-        when(request.getHeader("User-Agent")).thenReturn("Chrome");
-        when(refreshTokenRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+    void rotateRefreshToken_ShouldThrow_WhenUserIsDisabled() {
+        user.setEnabled(false);
+        when(refreshTokenRepository.revokeActiveByTokenHash(any(), any()))
+            .thenReturn(Optional.of(rotated(1L, UUID.randomUUID())));
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
 
-        String newToken = refreshTokenService.rotateRefreshToken("oldToken", request);
+        assertThrows(InvalidTokenException.class, () ->
+            refreshTokenService.rotateRefreshToken("oldToken", "access-jti", request)
+        );
 
-        assertNotNull(newToken);
-        assertTrue(oldToken.isRevoked());
+        verify(refreshTokenRepository, never()).save(any());
     }
 
     @Test
     void rotateRefreshToken_ShouldThrow_WhenTokenIsMissing() {
         assertThrows(InvalidTokenException.class, () ->
-            refreshTokenService.rotateRefreshToken("", request)
+            refreshTokenService.rotateRefreshToken("", "access-jti", request)
         );
     }
 
@@ -141,9 +156,23 @@ class RefreshTokenServiceTest {
     }
 
     @Test
-    void deleteByToken_ShouldCallRepositoryDeleteByToken() {
+    void deleteByToken_ShouldDeleteByHash() {
         refreshTokenService.deleteByToken("token123");
-        verify(refreshTokenRepository).deleteByToken("token123");
+        verify(refreshTokenRepository).deleteByTokenHash(RefreshTokenService.hash("token123"));
+    }
+
+    private static RotatedRefreshToken rotated(Long userId, UUID familyId) {
+        return new RotatedRefreshToken() {
+            @Override
+            public Long getUserId() {
+                return userId;
+            }
+
+            @Override
+            public UUID getFamilyId() {
+                return familyId;
+            }
+        };
     }
 }
 
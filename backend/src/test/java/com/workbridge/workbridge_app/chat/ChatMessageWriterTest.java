@@ -0,0 +1,80 @@
+package com.workbridge.workbridge_app.chat;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.workbridge.workbridge_app.chat.entity.ChatMessage;
+import com.workbridge.workbridge_app.chat.repository.ChatMessageRepository;
+import com.workbridge.workbridge_app.chat.service.ChatMessageWriter;
+import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+
+@ExtendWith(MockitoExtension.class)
+class ChatMessageWriterTest {
+
+    private static final String CONVERSATION_KEY = "3:7";
+
+    @Mock private ChatMessageRepository chatMessageRepository;
+
+    private ChatMessageWriter chatMessageWriter;
+
+    @BeforeEach
+    void setUp() {
+        chatMessageWriter = new ChatMessageWriter(chatMessageRepository);
+    }
+
+    @Test
+    void store_shouldStampNextSequenceAfterClaimingClientId() {
+        when(chatMessageRepository.claimClientMessageId(7L, "c1")).thenReturn(1);
+        when(chatMessageRepository.nextSequence(CONVERSATION_KEY)).thenReturn(42L);
+        when(chatMessageRepository.save(any(ChatMessage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        Optional<ChatMessage> stored = chatMessageWriter.store(message("c1"));
+
+        assertThat(stored).get().extracting(ChatMessage::getSequence).isEqualTo(42L);
+        InOrder inOrder = inOrder(chatMessageRepository);
+        inOrder.verify(chatMessageRepository).claimClientMessageId(7L, "c1");
+        inOrder.verify(chatMessageRepository).nextSequence(CONVERSATION_KEY);
+        inOrder.verify(chatMessageRepository).save(any(ChatMessage.class));
+    }
+
+    @Test
+    void store_shouldNotAllocateSequenceForDuplicate() {
+        when(chatMessageRepository.claimClientMessageId(7L, "c1")).thenReturn(0);
+
+        assertThat(chatMessageWriter.store(message("c1"))).isEmpty();
+
+        verify(chatMessageRepository, never()).nextSequence(anyString());
+        verify(chatMessageRepository, never()).save(any(ChatMessage.class));
+    }
+
+    @Test
+    void store_shouldSequenceMessagesWithoutClientId() {
+        when(chatMessageRepository.nextSequence(CONVERSATION_KEY)).thenReturn(1L);
+        when(chatMessageRepository.save(any(ChatMessage.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        assertThat(chatMessageWriter.store(message(null))).get().extracting(ChatMessage::getSequence).isEqualTo(1L);
+
+        verify(chatMessageRepository, never()).claimClientMessageId(any(), any());
+    }
+
+    private ChatMessage message(String clientMessageId) {
+        ApplicationUser sender = new ApplicationUser();
+        sender.setId(7L);
+        return ChatMessage.builder()
+            .sender(sender)
+            .content("hello")
+            .clientMessageId(clientMessageId)
+            .conversationKey(CONVERSATION_KEY)
+            .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.workbridge.workbridge_app.chat;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.chat.service.ChatPartitionService;
+import com.workbridge.workbridge_app.config.ChatProperties;
+
+@ExtendWith(MockitoExtension.class)
+class ChatPartitionServiceTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private ChatProperties chatProperties;
+    private ChatPartitionService chatPartitionService;
+
+    @BeforeEach
+    void setUp() {
+        chatProperties = new ChatProperties();
+        chatProperties.getPartitioning().setRetentionMonths(12);
+        chatProperties.getPartitioning().setPremakeMonths(2);
+        chatPartitionService = new ChatPartitionService(jdbcTemplate, transactionTemplate, chatProperties);
+        chatPartitionService.setClock(Clock.fixed(Instant.parse("2025-08-15T10:00:00Z"), ZoneOffset.UTC));
+    }
+
+    @Test
+    void ensureUpcomingPartitions_shouldCreateCurrentAndPremadeMonths() {
+        chatPartitionService.ensureUpcomingPartitions();
+
+        verify(jdbcTemplate).execute(contains("chat_message_p202508 PARTITION OF chat_message "
+            + "FOR VALUES FROM ('2025-08-01T00:00:00Z') TO ('2025-09-01T00:00:00Z')"));
+        verify(jdbcTemplate).execute(contains("chat_message_p202509 PARTITION OF"));
+        verify(jdbcTemplate).execute(contains("chat_message_p202510 PARTITION OF"));
+        verify(jdbcTemplate, times(3)).execute(anyString());
+    }
+
+    @Test
+    void enforceRetention_shouldDropOnlyPartitionsBeforeHorizon() {
+        stubPartitions("chat_message_p202406", "chat_message_p202407", "chat_message_p202408",
+            "chat_message_p202508", "chat_message_default_archive");
+
+        int expired = chatPartitionService.enforceRetention();
+
+        assertThat(expired).isEqualTo(2);
+        verify(jdbcTemplate).execute("ALTER TABLE chat_message DETACH PARTITION chat_message_p202406");
+        verify(jdbcTemplate).execute("DROP TABLE chat_message_p202406");
+        verify(jdbcTemplate).execute("ALTER TABLE chat_message DETACH PARTITION chat_message_p202407");
+        verify(jdbcTemplate).execute("DROP TABLE chat_message_p202407");
+        verify(jdbcTemplate, never()).execute(contains("chat_message_p202408"));
+        verify(jdbcTemplate, never()).execute(contains("chat_message_default_archive"));
+    }
+
+    @Test
+    void enforceRetention_shouldKeepSequenceCountersOfExpiredConversations() {
+        stubPartitions("chat_message_p202401", "chat_message_p202402");
+
+        chatPartitionService.enforceRetention();
+
+        verify(jdbcTemplate, never()).execute(contains("chat_conversation_sequence"));
+        verify(jdbcTemplate, never()).update(contains("chat_conversation_sequence"));
+        verify(jdbcTemplate, never()).update(contains("chat_conversation_sequence"), any(Object[].class));
+    }
+
+    @Test
+    void enforceRetention_shouldOnlyDetachInDetachMode() {
+        chatProperties.getPartitioning().setRetentionMode(ChatProperties.Partitioning.RetentionMode.DETACH);
+        stubPartitions("chat_message_p202401");
+
+        chatPartitionService.enforceRetention();
+
+        verify(jdbcTemplate).execute("ALTER TABLE chat_message DETACH PARTITION chat_message_p202401");
+        verify(jdbcTemplate, never()).execute(startsWith("DROP TABLE"));
+    }
+
+    @Test
+    void pruneClientMessageIds_shouldDeleteIdsOlderThanRetention() {
+        chatPartitionService.pruneClientMessageIds();
+
+        verify(jdbcTemplate).update(eq("DELETE FROM chat_message_client_id WHERE created_at < ?"),
+            eq(Timestamp.from(Instant.parse("2025-08-08T10:00:00Z"))));
+    }
+
+    @Test
+    void run_shouldSkipConversionWhenDisabled() {
+        chatProperties.getPartitioning().setEnabled(false);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any())).thenReturn(true);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any())).thenReturn(true);
+
+        chatPartitionService.run();
+
+        verifyNoInteractions(transactionTemplate);
+        verify(jdbcTemplate, never()).execute(contains("PARTITION OF"));
+    }
+
+    @Test
+    void run_shouldCreateAndSeedSequenceCountersWhenMissing() {
+        chatProperties.getPartitioning().setEnabled(false);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any())).thenReturn(false);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(), any())).thenReturn(true);
+        doAnswer(inv -> {
+            Consumer<TransactionStatus> callback = inv.getArgument(0);
+            callback.accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        chatPartitionService.run();
+
+        verify(jdbcTemplate).execute(startsWith("CREATE TABLE IF NOT EXISTS chat_conversation_sequence"));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO chat_conversation_sequence (conversation_key, last_sequence) "
+            + "SELECT conversation_key, MAX(sequence) FROM chat_message"));
+    }
+
+    private void stubPartitions(String... names) {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any())).thenReturn(List.of(names));
+    }
+}
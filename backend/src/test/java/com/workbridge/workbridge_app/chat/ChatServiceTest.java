@@ -0,0 +1,239 @@
+package com.workbridge.workbridge_app.chat;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import com.workbridge.workbridge_app.chat.dto.ChatMessageRequestDTO;
+import com.workbridge.workbridge_app.chat.dto.ChatMessageResponseDTO;
+import com.workbridge.workbridge_app.chat.entity.ChatMessage;
+import com.workbridge.workbridge_app.chat.repository.ChatMessageRepository;
+import com.workbridge.workbridge_app.chat.service.ChatMessageWriter;
+import com.workbridge.workbridge_app.chat.service.ChatService;
+import com.workbridge.workbridge_app.config.ChatProperties;
+import com.workbridge.workbridge_app.moderation.exception.ContentRejectedException;
+import com.workbridge.workbridge_app.moderation.service.ContentModerationService;
+import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
+
+class ChatServiceTest {
+
+    private static final String SENDER = "alice";
+    private static final String RECIPIENT = "bob";
+    private static final Long SENDER_ID = 7L;
+    private static final Long RECIPIENT_ID = 3L;
+    private static final String CONVERSATION_KEY = "3:7";
+    private static final String CLIENT_ID = "c0ffee-1";
+    private static final String TIMESTAMP = "2025-07-01T10:00:00Z";
+
+    @Mock private SimpMessagingTemplate messagingTemplate;
+    @Mock private ChatMessageRepository chatMessageRepository;
+    @Mock private ChatMessageWriter chatMessageWriter;
+    @Mock private UserRepository userRepository;
+    @Mock private ContentModerationService contentModerationService;
+
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        chatService = new ChatService(messagingTemplate, chatMessageRepository, chatMessageWriter, userRepository,
+            contentModerationService, new ChatProperties());
+        when(contentModerationService.moderate(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        ApplicationUser sender = new ApplicationUser();
+        sender.setId(SENDER_ID);
+        sender.setUsername(SENDER);
+        ApplicationUser recipient = new ApplicationUser();
+        recipient.setId(RECIPIENT_ID);
+        recipient.setUsername(RECIPIENT);
+
+        when(userRepository.findByUsername(SENDER)).thenReturn(Optional.of(sender));
+        when(userRepository.findByUsername(RECIPIENT)).thenReturn(Optional.of(recipient));
+        when(chatMessageWriter.store(any(ChatMessage.class))).thenAnswer(inv -> Optional.of(inv.getArgument(0)));
+    }
+
+    @Test
+    void sendPrivateMessage_shouldFanOutStoredMessageWithSequence() {
+        when(chatMessageWriter.store(any(ChatMessage.class))).thenAnswer(inv -> {
+            ChatMessage message = inv.getArgument(0);
+            message.setSequence(42L);
+            return Optional.of(message);
+        });
+
+        chatService.sendPrivateMessage(request(CLIENT_ID));
+
+        ArgumentCaptor<ChatMessageResponseDTO> sent = ArgumentCaptor.forClass(ChatMessageResponseDTO.class);
+        verify(messagingTemplate).convertAndSend(eq("/topic/users/" + RECIPIENT), sent.capture());
+        assertThat(sent.getValue().getSequence()).isEqualTo(42L);
+        assertThat(sent.getValue().getClientMessageId()).isEqualTo(CLIENT_ID);
+        assertThat(sent.getValue().getSenderUsername()).isEqualTo(SENDER);
+        assertThat(sent.getValue().getSentAt()).isNotNull();
+    }
+
+    @Test
+    void sendPrivateMessage_shouldKeyMessagesByConversation() {
+        chatService.sendPrivateMessage(request("a"));
+        chatService.sendPrivateMessage(request("b"));
+
+        ArgumentCaptor<ChatMessage> saved = ArgumentCaptor.forClass(ChatMessage.class);
+        verify(chatMessageWriter, times(2)).store(saved.capture());
+        assertThat(saved.getAllValues()).extracting(ChatMessage::getConversationKey)
+            .containsOnly(CONVERSATION_KEY);
+    }
+
+    @Test
+    void sendPrivateMessage_shouldNotSerializeSendersInTheJvm() throws Exception {
+        CountDownLatch bothStoring = new CountDownLatch(2);
+        when(chatMessageWriter.store(any(ChatMessage.class))).thenAnswer(inv -> {
+            bothStoring.countDown();
+            // Ordering within a conversation is left to the counter row lock in the database
+            assertThat(bothStoring.await(5, TimeUnit.SECONDS)).isTrue();
+            return Optional.of(inv.getArgument(0));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> first = executor.submit(() -> chatService.sendPrivateMessage(request("first")));
+            Future<?> second = executor.submit(() -> chatService.sendPrivateMessage(request("second")));
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(messagingTemplate, times(2)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void sendPrivateMessage_shouldDropRetryWithoutTouchingDatabase() {
+        chatService.sendPrivateMessage(request(CLIENT_ID));
+        chatService.sendPrivateMessage(request(CLIENT_ID));
+
+        verify(userRepository, times(1)).findByUsername(SENDER);
+        verify(chatMessageWriter, times(1)).store(any());
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void sendPrivateMessage_shouldDropDuplicateAlreadyStored() {
+        when(chatMessageWriter.store(any(ChatMessage.class)))
+            .thenReturn(Optional.empty())
+            .thenAnswer(inv -> Optional.of(inv.getArgument(0)));
+
+        chatService.sendPrivateMessage(request(CLIENT_ID));
+        chatService.sendPrivateMessage(request("other"));
+
+        ArgumentCaptor<ChatMessageResponseDTO> sent = ArgumentCaptor.forClass(ChatMessageResponseDTO.class);
+        verify(messagingTemplate, times(1)).convertAndSend(anyString(), sent.capture());
+        assertThat(sent.getValue().getClientMessageId()).isEqualTo("other");
+    }
+
+    @Test
+    void sendPrivateMessage_shouldAllowRetryAfterFailure() {
+        when(userRepository.findByUsername(RECIPIENT)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> chatService.sendPrivateMessage(request(CLIENT_ID)))
+            .isInstanceOf(UserNotFoundException.class);
+        assertThatThrownBy(() -> chatService.sendPrivateMessage(request(CLIENT_ID)))
+            .isInstanceOf(UserNotFoundException.class);
+
+        verify(userRepository, times(2)).findByUsername(SENDER);
+    }
+
+    @Test
+    void sendPrivateMessage_shouldPersistModeratedContent() {
+        when(contentModerationService.moderate("hello")).thenReturn("*****");
+
+        chatService.sendPrivateMessage(request(CLIENT_ID));
+
+        ArgumentCaptor<ChatMessage> saved = ArgumentCaptor.forClass(ChatMessage.class);
+        verify(chatMessageWriter).store(saved.capture());
+        assertThat(saved.getValue().getContent()).isEqualTo("*****");
+    }
+
+    @Test
+    void sendPrivateMessage_shouldNotPersistRejectedContent() {
+        when(contentModerationService.moderate("hello")).thenThrow(new ContentRejectedException("rejected"));
+
+        assertThatThrownBy(() -> chatService.sendPrivateMessage(request(CLIENT_ID)))
+            .isInstanceOf(ContentRejectedException.class);
+
+        verify(chatMessageWriter, never()).store(any());
+        verifyNoInteractions(messagingTemplate);
+    }
+
+    @Test
+    void sendPrivateMessage_shouldNotDedupeWithoutClientId() {
+        chatService.sendPrivateMessage(request(null));
+        chatService.sendPrivateMessage(request(null));
+
+        verify(chatMessageWriter, times(2)).store(any());
+    }
+
+    @Test
+    void streamMessages_shouldDefaultToRetentionHorizon() {
+        chatService.setClock(Clock.fixed(Instant.parse("2025-07-20T12:00:00Z"), ZoneOffset.UTC));
+        when(chatMessageRepository.streamHistoryForUser(any(), any())).thenReturn(Stream.empty());
+
+        chatService.streamMessages(SENDER, null, dto -> { });
+
+        // Twelve retained months before the current one: everything still stored is returned.
+        verify(chatMessageRepository).streamHistoryForUser(any(), eq(Instant.parse("2024-07-01T00:00:00Z")));
+    }
+
+    @Test
+    void streamMessages_shouldMapEachMessageInOrder() {
+        Instant since = Instant.parse("2025-06-01T00:00:00Z");
+        when(chatMessageRepository.streamHistoryForUser(any(), eq(since)))
+            .thenReturn(Stream.of(storedMessage(1L, "first"), storedMessage(2L, "second")));
+        List<ChatMessageResponseDTO> received = new ArrayList<>();
+
+        chatService.streamMessages(SENDER, since, received::add);
+
+        assertThat(received).extracting(ChatMessageResponseDTO::getContent).containsExactly("first", "second");
+    }
+
+    private ChatMessageRequestDTO request(String clientMessageId) {
+        return ChatMessageRequestDTO.builder()
+            .senderUsername(SENDER)
+            .recipientUsername(RECIPIENT)
+            .content("hello")
+            .timestamp(TIMESTAMP)
+            .clientMessageId(clientMessageId)
+            .build();
+    }
+
+    private ChatMessage storedMessage(Long id, String content) {
+        ApplicationUser sender = new ApplicationUser();
+        sender.setUsername(SENDER);
+        ApplicationUser recipient = new ApplicationUser();
+        recipient.setUsername(RECIPIENT);
+        return ChatMessage.builder()
+            .id(id)
+            .sender(sender)
+            .recipient(recipient)
+            .content(content)
+            .timestamp(TIMESTAMP)
+            .build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.workbridge.workbridge_app.common;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import com.workbridge.workbridge_app.common.entity.OutboundEmail;
+import com.workbridge.workbridge_app.common.entity.OutboundEmailStatus;
+import com.workbridge.workbridge_app.common.repository.OutboundEmailRepository;
+import com.workbridge.workbridge_app.common.service.EmailOutboxService;
+import com.workbridge.workbridge_app.config.EmailOutboxProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+public class EmailOutboxServiceTest {
+
+    @Mock private OutboundEmailRepository outboundEmailRepository;
+    @Mock private JavaMailSender mailSender;
+    @Captor private ArgumentCaptor<SimpleMailMessage[]> messagesCaptor;
+
+    private EmailOutboxProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new EmailOutboxProperties();
+        properties.setBatchSize(2);
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoff(Duration.ofSeconds(30));
+        properties.setMaxBackoff(Duration.ofMinutes(5));
+        meterRegistry = new SimpleMeterRegistry();
+        outboxService = new EmailOutboxService(outboundEmailRepository, mailSender, properties, meterRegistry);
+    }
+
+    private OutboundEmail email(long id, String recipient, int attempts) {
+        return OutboundEmail.builder()
+            .id(id)
+            .recipient(recipient)
+            .subject("Subject")
+            .body("Body " + id)
+            .status(OutboundEmailStatus.PENDING)
+            .attempts(attempts)
+            .createdAt(LocalDateTime.now().minusSeconds(1))
+            .build();
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("email.outbox.messages").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void enqueue_shouldOnlyInsertRow() {
+        outboxService.enqueue("user@example.com", "Hello", "Body");
+
+        ArgumentCaptor<OutboundEmail> captor = ArgumentCaptor.forClass(OutboundEmail.class);
+        verify(outboundEmailRepository).save(captor.capture());
+        assertEquals("user@example.com", captor.getValue().getRecipient());
+        assertEquals(OutboundEmailStatus.PENDING, captor.getValue().getStatus());
+        verifyNoInteractions(mailSender);
+    }
+
+    @Test
+    void dispatchPending_shouldSendEachBatchInOneCallAndDeleteDelivered() {
+        when(outboundEmailRepository.claimDue(any(), any(), eq(2)))
+            .thenReturn(List.of(email(1, "a@x", 1), email(2, "b@x", 1)))
+            .thenReturn(List.of(email(3, "c@x", 1)));
+
+        assertEquals(3, outboxService.dispatchPending());
+
+        verify(mailSender, times(2)).send(messagesCaptor.capture());
+        assertEquals(2, messagesCaptor.getAllValues().get(0).length);
+        assertEquals("noreply.workbridge@gmail.com", messagesCaptor.getAllValues().get(0)[0].getFrom());
+        verify(outboundEmailRepository).deleteDelivered(List.of(1L, 2L));
+        verify(outboundEmailRepository).deleteDelivered(List.of(3L));
+        assertEquals(3, outcome("sent"));
+        assertEquals(3, meterRegistry.get("email.outbox.delivery.lag").timer().count());
+    }
+
+    @Test
+    void dispatchPending_shouldRetryOnlyRejectedMessages() {
+        when(outboundEmailRepository.claimDue(any(), any(), eq(2)))
+            .thenReturn(List.of(email(1, "a@x", 1), email(2, "bad@x", 1)))
+            .thenReturn(List.of());
+        doAnswer(invocation -> {
+            SimpleMailMessage rejected = Arrays.stream(invocation.getArguments())
+                .map(SimpleMailMessage.class::cast)
+                .filter(m -> "bad@x".equals(m.getTo()[0]))
+                .findFirst().orElseThrow();
+            throw new MailSendException(Map.of(rejected, new RuntimeException("550 mailbox unavailable")));
+        }).when(mailSender).send(any(SimpleMailMessage[].class));
+
+        assertEquals(1, outboxService.dispatchPending());
+
+        verify(outboundEmailRepository).deleteDelivered(List.of(1L));
+        ArgumentCaptor<LocalDateTime> next = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboundEmailRepository).scheduleRetry(eq(2L), next.capture(), eq("550 mailbox unavailable"));
+        assertTrue(next.getValue().isAfter(LocalDateTime.now().plusSeconds(25)));
+        assertEquals(1, outcome("retry"));
+    }
+
+    @Test
+    void dispatchPending_shouldFailWholeBatchWhenConnectionCannotBeEstablished() {
+        when(outboundEmailRepository.claimDue(any(), any(), eq(2)))
+            .thenReturn(List.of(email(1, "a@x", 1), email(2, "b@x", 3)));
+        doThrow(new MailAuthenticationException("535 bad credentials"))
+            .when(mailSender).send(any(SimpleMailMessage[].class));
+
+        assertEquals(0, outboxService.dispatchPending());
+
+        verify(outboundEmailRepository, never()).deleteDelivered(any());
+        verify(outboundEmailRepository).scheduleRetry(eq(1L), any(), eq("535 bad credentials"));
+        verify(outboundEmailRepository).markFailed(2L, "535 bad credentials");
+        assertEquals(1, outcome("failed"));
+    }
+
+    @Test
+    void dispatchPending_shouldDoNothingWhenOutboxIsEmpty() {
+        when(outboundEmailRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of());
+
+        assertEquals(0, outboxService.dispatchPending());
+
+        verifyNoInteractions(mailSender);
+    }
+}
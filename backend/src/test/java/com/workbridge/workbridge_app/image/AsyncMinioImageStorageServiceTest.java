@@ -0,0 +1,234 @@
+package com.workbridge.workbridge_app.image;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockMultipartFile;
+
+import com.workbridge.workbridge_app.config.ImageValidationProperties;
+import com.workbridge.workbridge_app.config.ImageVariantProperties;
+import com.workbridge.workbridge_app.config.minio.MinioProperties;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsResponseDTO;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository.Acquisition;
+import com.workbridge.workbridge_app.image.service.AsyncMinioImageStorageService;
+import com.workbridge.workbridge_app.image.service.ImageValidator;
+import com.workbridge.workbridge_app.image.service.ImageVariant;
+import com.workbridge.workbridge_app.image.service.ImageVariantGenerator;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Utilities;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+public class AsyncMinioImageStorageServiceTest {
+
+    /** Signature and {@code IHDR} of a 1x1 PNG: enough to pass validation, not to decode. */
+    private static final byte[] PIXELS = {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R', 0, 0, 0, 1, 0, 0, 0, 1
+    };
+
+    /** Content key of {@link #PIXELS}. */
+    private static final String PIXELS_KEY =
+        "a930c2bb4e61c0682068f71c4ef427eefbb07098ecea9390e445e7af4b66a384.png";
+
+    private static final Long OWNER = 7L;
+
+    @Mock private S3AsyncClient s3Client;
+    @Mock private S3Presigner s3Presigner;
+    @Mock private ImageObjectRepository imageObjectRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AsyncMinioImageStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        MinioProperties properties = new MinioProperties();
+        properties.setBucket("images");
+        properties.setPresignedExpirationMinutes(10);
+        properties.setPresignedUrlMinRemaining(Duration.ofMinutes(2));
+        meterRegistry = new SimpleMeterRegistry();
+        storageService = new AsyncMinioImageStorageService(s3Client, s3Presigner,
+            new ImageVariantGenerator(new ImageVariantProperties(), meterRegistry),
+            new ImageValidator(new ImageValidationProperties(), meterRegistry), imageObjectRepository,
+            properties, meterRegistry);
+
+        when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenAnswer(invocation -> {
+            GetObjectPresignRequest request = invocation.getArgument(0);
+            PresignedGetObjectRequest presigned = mock(PresignedGetObjectRequest.class);
+            when(presigned.url()).thenReturn(URI.create("http://minio/images/" + request.getObjectRequest().key() + "?sig").toURL());
+            return presigned;
+        });
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenAnswer(invocation -> {
+            HeadObjectRequest request = invocation.getArgument(0);
+            if (request.key().startsWith("missing") || request.key().startsWith("variants/")) {
+                return CompletableFuture.failedFuture(NoSuchKeyException.builder().statusCode(404).build());
+            }
+            return CompletableFuture.completedFuture(HeadObjectResponse.builder().build());
+        });
+        when(s3Client.headBucket(any(HeadBucketRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(HeadBucketResponse.builder().build()));
+        when(s3Client.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+            .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+            .thenReturn(CompletableFuture.completedFuture(DeleteObjectsResponse.builder().build()));
+        when(s3Client.utilities()).thenReturn(S3Utilities.builder()
+            .region(Region.US_EAST_1)
+            .endpoint(URI.create("http://minio"))
+            .build());
+        when(imageObjectRepository.acquire(anyString(), any(), anyLong(), anyString())).thenReturn(acquisition(false, true));
+    }
+
+    private MockMultipartFile image() {
+        return new MockMultipartFile("file", "logo.png", "image/png", PIXELS);
+    }
+
+    private static Acquisition acquisition(boolean stored, boolean added) {
+        return new Acquisition() {
+            @Override
+            public boolean getStored() {
+                return stored;
+            }
+
+            @Override
+            public boolean getAdded() {
+                return added;
+            }
+        };
+    }
+
+    @Test
+    void getImageUrlsAsync_shouldHeadUnknownKeysOnceAndFallBackToOriginal() {
+        GetImageUrlsResponseDTO first = storageService.getImageUrlsAsync(
+            List.of("a.png", "missing.png"), ImageVariant.CARD).join();
+        GetImageUrlsResponseDTO second = storageService.getImageUrlsAsync(
+            List.of("a.png"), ImageVariant.CARD).join();
+
+        assertTrue(first.getUrls().get("a.png").startsWith("http://minio/images/a.png"));
+        assertEquals(List.of("missing.png"), first.getMissing());
+        assertEquals(first.getUrls().get("a.png"), second.getUrls().get("a.png"));
+        // Variant and original of both keys, then nothing: existence and misses are remembered
+        verify(s3Client, times(4)).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void getImageUrlAsync_shouldFailForMissingImage() {
+        CompletionException failure = assertThrows(CompletionException.class,
+            () -> storageService.getImageUrlAsync("missing.png", ImageVariant.ORIGINAL).join());
+
+        assertInstanceOf(ImageStorageException.class, failure.getCause());
+        assertEquals("Requested image does not exist", failure.getCause().getMessage());
+    }
+
+    @Test
+    void getImageUrl_shouldSurfaceStorageFailures() {
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+            .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().statusCode(500).build()));
+
+        ImageStorageException ex = assertThrows(ImageStorageException.class,
+            () -> storageService.getImageUrl("a.png", ImageVariant.ORIGINAL));
+        assertEquals("Failed to check image", ex.getMessage());
+    }
+
+    @Test
+    void uploadImageAsync_shouldStoreUnderContentKeyAndRecordMetrics() {
+        String url = storageService.uploadImageAsync(image(), OWNER).join().getKey();
+
+        assertTrue(url.endsWith("/" + PIXELS_KEY));
+        verify(s3Client).putObject(argThat((PutObjectRequest put) -> put.key().equals(PIXELS_KEY)), any(AsyncRequestBody.class));
+        verify(imageObjectRepository).markStored(PIXELS_KEY);
+        assertEquals(0.0, meterRegistry.get("image.s3.inflight").gauge().value());
+        assertEquals(1, meterRegistry.get("image.s3.requests").tag("operation", "put").tag("outcome", "success")
+            .timer().count());
+    }
+
+    @Test
+    void uploadImageAsync_shouldSkipUploadWhenContentAlreadyStored() {
+        when(imageObjectRepository.acquire(PIXELS_KEY, OWNER, 24L, "image/png")).thenReturn(acquisition(true, true));
+
+        CompletableFuture<?> upload = storageService.uploadImageAsync(image(), OWNER);
+
+        assertTrue(upload.isDone());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+    }
+
+    @Test
+    void uploadImageAsync_shouldRetryTransientFailures() {
+        when(s3Client.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+            .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().statusCode(503).build()))
+            .thenReturn(CompletableFuture.completedFuture(PutObjectResponse.builder().build()));
+
+        storageService.uploadImageAsync(image(), OWNER).join();
+
+        verify(s3Client, times(2)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        verify(imageObjectRepository).markStored(PIXELS_KEY);
+        verify(imageObjectRepository, never()).release(anyString(), any());
+    }
+
+    @Test
+    void uploadImage_shouldReleaseReferenceOnPermanentFailure() {
+        when(s3Client.putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class)))
+            .thenReturn(CompletableFuture.failedFuture(S3Exception.builder().statusCode(403).build()));
+
+        ImageStorageException ex = assertThrows(ImageStorageException.class, () -> storageService.uploadImage(image(), OWNER));
+
+        assertEquals("Failed to upload image", ex.getMessage());
+        verify(s3Client, times(1)).putObject(any(PutObjectRequest.class), any(AsyncRequestBody.class));
+        verify(imageObjectRepository).release(PIXELS_KEY, OWNER);
+        verify(imageObjectRepository, never()).markStored(anyString());
+    }
+
+    @Test
+    void deleteImage_shouldKeepObjectsWhileReferenced() {
+        when(imageObjectRepository.release(PIXELS_KEY, OWNER)).thenReturn(List.of(1)).thenReturn(List.of(0));
+
+        storageService.deleteImage(PIXELS_KEY, OWNER);
+        verify(s3Client, never()).deleteObjects(any(DeleteObjectsRequest.class));
+
+        storageService.deleteImage(PIXELS_KEY, OWNER);
+        verify(s3Client).deleteObjects(any(DeleteObjectsRequest.class));
+        verify(imageObjectRepository).deleteUnreferenced(PIXELS_KEY);
+    }
+
+    @Test
+    void getImageUrlsAsync_shouldShareHeadForConcurrentLookups() {
+        CompletableFuture<HeadObjectResponse> head = new CompletableFuture<>();
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenReturn(head);
+
+        CompletableFuture<GetImageUrlsResponseDTO> first = storageService.getImageUrlsAsync(List.of("a.png"), ImageVariant.ORIGINAL);
+        CompletableFuture<GetImageUrlsResponseDTO> second = storageService.getImageUrlsAsync(List.of("a.png"), ImageVariant.ORIGINAL);
+        head.complete(HeadObjectResponse.builder().build());
+
+        assertTrue(first.join().getMissing().isEmpty());
+        assertTrue(second.join().getMissing().isEmpty());
+        verify(s3Client, times(1)).headObject(any(HeadObjectRequest.class));
+        assertEquals(0.0, meterRegistry.get("image.s3.inflight").gauge().value());
+    }
+}
@@ -0,0 +1,153 @@
+package com.workbridge.workbridge_app.image;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import com.workbridge.workbridge_app.config.ImageValidationProperties;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.service.ImageFormat;
+import com.workbridge.workbridge_app.image.service.ImageValidator;
+import com.workbridge.workbridge_app.image.service.ImageValidator.ImageInfo;
+import com.workbridge.workbridge_app.image.service.ImageValidator.ValidatedStream;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ImageValidatorTest {
+
+    private ImageValidationProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ImageValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImageValidationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        validator = new ImageValidator(properties, meterRegistry);
+    }
+
+    private static byte[] png(int width, int height) {
+        return ByteBuffer.allocate(40)
+            .put(new byte[] {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13})
+            .put("IHDR".getBytes(StandardCharsets.US_ASCII))
+            .putInt(width).putInt(height)
+            .array();
+    }
+
+    private static byte[] gif(int width, int height) {
+        return ByteBuffer.allocate(20).order(ByteOrder.LITTLE_ENDIAN)
+            .put("GIF89a".getBytes(StandardCharsets.US_ASCII))
+            .putShort((short) width).putShort((short) height)
+            .array();
+    }
+
+    private static byte[] webp(String chunk, byte[] payload) {
+        return ByteBuffer.allocate(20 + payload.length).order(ByteOrder.LITTLE_ENDIAN)
+            .put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(12 + payload.length)
+            .put("WEBP".getBytes(StandardCharsets.US_ASCII))
+            .put(chunk.getBytes(StandardCharsets.US_ASCII)).putInt(payload.length)
+            .put(payload)
+            .array();
+    }
+
+    /** A JPEG with an APP1 segment of {@code metadataBytes} before its start-of-frame. */
+    private static byte[] jpeg(int width, int height, int metadataBytes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(new byte[] {(byte) 0xFF, (byte) 0xD8});
+        out.writeBytes(new byte[] {(byte) 0xFF, (byte) 0xE1, (byte) ((metadataBytes + 2) >> 8), (byte) (metadataBytes + 2)});
+        out.writeBytes(new byte[metadataBytes]);
+        out.writeBytes(new byte[] {(byte) 0xFF, (byte) 0xC2, 0, 17, 8,
+            (byte) (height >> 8), (byte) height, (byte) (width >> 8), (byte) width, 3});
+        out.writeBytes(new byte[64]);
+        return out.toByteArray();
+    }
+
+    private ImageInfo inspect(byte[] content) {
+        return validator.validate(new MockMultipartFile("file", "upload", "image/png", content));
+    }
+
+    @Test
+    void validate_shouldReadFormatAndDimensionsFromHeader() {
+        assertEquals(new ImageInfo(ImageFormat.PNG, 640, 480), inspect(png(640, 480)));
+        assertEquals(new ImageInfo(ImageFormat.GIF, 300, 200), inspect(gif(300, 200)));
+        assertEquals(new ImageInfo(ImageFormat.JPEG, 4032, 3024), inspect(jpeg(4032, 3024, 30_000)));
+        assertEquals(new ImageInfo(ImageFormat.WEBP, 800, 600), inspect(webp("VP8 ",
+            new byte[] {0x30, 0, 0, (byte) 0x9D, 0x01, 0x2A, 0x20, 0x03, 0x58, 0x02})));
+        int bits = (1023 - 1) | ((767 - 1) << 14);
+        assertEquals(new ImageInfo(ImageFormat.WEBP, 1023, 767), inspect(webp("VP8L",
+            new byte[] {0x2F, (byte) bits, (byte) (bits >> 8), (byte) (bits >> 16), (byte) (bits >> 24)})));
+        assertEquals(new ImageInfo(ImageFormat.WEBP, 2000, 1000), inspect(webp("VP8X",
+            new byte[] {0x10, 0, 0, 0, (byte) 0xCF, 0x07, 0, (byte) 0xE7, 0x03, 0})));
+    }
+
+    @Test
+    void validate_shouldStoreUnderSniffedTypeAndReplayStreamFromFirstByte() throws Exception {
+        byte[] body = Arrays.copyOf(png(10, 10), 100_000);
+
+        ValidatedStream validated = validator.validate(new ByteArrayInputStream(body), "image/jpeg", Long.MAX_VALUE);
+
+        assertEquals("image/png", validated.info().contentType());
+        assertEquals(properties.getPng().getMaxSize().toBytes(), validated.maxBytes());
+        assertArrayEquals(body, validated.content().readAllBytes());
+    }
+
+    @Test
+    void validate_shouldRejectNonImageDeclaredAsImage() {
+        ByteArrayInputStream body = new ByteArrayInputStream("<svg onload=alert(1)>".repeat(1000).getBytes());
+
+        ImageStorageException ex = assertThrows(ImageStorageException.class,
+            () -> validator.validate(body, "image/png", Long.MAX_VALUE));
+
+        assertEquals("Only image files are allowed.", ex.getMessage());
+        assertEquals(1, meterRegistry.get("image.upload.rejected").tag("reason", "type").counter().count());
+    }
+
+    @Test
+    void validate_shouldRejectDimensionsOverFormatLimit() {
+        properties.getGif().setMaxWidth(1000);
+
+        assertDoesNotThrow(() -> inspect(gif(1000, 10)));
+        ImageStorageException wide = assertThrows(ImageStorageException.class, () -> inspect(gif(1001, 10)));
+        ImageStorageException bomb = assertThrows(ImageStorageException.class, () -> inspect(png(10_000, 10_000)));
+
+        assertTrue(wide.getMessage().contains("too large"));
+        assertTrue(bomb.getMessage().contains("40000000 pixels"));
+        assertEquals(2, meterRegistry.get("image.upload.rejected").tag("reason", "dimensions").counter().count());
+    }
+
+    @Test
+    void validate_shouldRejectFilesOverFormatSizeLimit() {
+        properties.getPng().setMaxSize(DataSize.ofBytes(39));
+
+        ImageStorageException ex = assertThrows(ImageStorageException.class, () -> inspect(png(1, 1)));
+        ValidatedStream validated = validator.validate(new ByteArrayInputStream(png(1, 1)), "image/png", 1000);
+
+        assertTrue(ex.getMessage().startsWith("Uploaded file is too large"));
+        assertEquals(39, validated.maxBytes());
+    }
+
+    @Test
+    void validate_shouldRejectTruncatedOrUnboundedHeaders() {
+        properties.setMaxHeaderSize(DataSize.ofKilobytes(16));
+        validator = new ImageValidator(properties, meterRegistry);
+
+        ImageStorageException truncated = assertThrows(ImageStorageException.class,
+            () -> inspect(Arrays.copyOf(png(1, 1), 18)));
+        ImageStorageException unbounded = assertThrows(ImageStorageException.class,
+            () -> validator.validate(new ByteArrayInputStream(jpeg(100, 100, 20_000)), "image/jpeg", Long.MAX_VALUE));
+
+        assertEquals("Uploaded image has a corrupt or unsupported PNG header.", truncated.getMessage());
+        assertEquals("Uploaded image has a corrupt or unsupported JPEG header.", unbounded.getMessage());
+        assertThrows(ImageStorageException.class, () -> inspect(new byte[0]));
+    }
+}
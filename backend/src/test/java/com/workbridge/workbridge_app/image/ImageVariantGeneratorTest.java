@@ -0,0 +1,215 @@
+package com.workbridge.workbridge_app.image;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import com.workbridge.workbridge_app.config.ImageVariantProperties;
+import com.workbridge.workbridge_app.image.service.ImageVariant;
+import com.workbridge.workbridge_app.image.service.ImageVariantGenerator;
+import com.workbridge.workbridge_app.image.service.ImageVariantGenerator.RenderedVariant;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class ImageVariantGeneratorTest {
+
+    private ImageVariantProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private ImageVariantGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ImageVariantProperties();
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        meterRegistry = new SimpleMeterRegistry();
+        generator = new ImageVariantGenerator(properties, meterRegistry);
+    }
+
+    private static InputStream encode(int width, int height, int type, String format) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, type), format, bytes);
+        return new ByteArrayInputStream(bytes.toByteArray());
+    }
+
+    /**
+     * Encodes a landscape JPEG, red on the left and blue on the right, with an EXIF APP1 segment
+     * carrying the given orientation placed after the JFIF header.
+     */
+    private static InputStream orientedJpeg(int orientation, ByteOrder order) throws IOException {
+        BufferedImage image = new BufferedImage(80, 40, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, 40, 40);
+        graphics.setColor(Color.BLUE);
+        graphics.fillRect(40, 0, 40, 40);
+        graphics.dispose();
+        ByteArrayOutputStream jpeg = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpeg", jpeg);
+        byte[] plain = jpeg.toByteArray();
+
+        // TIFF header, IFD0 with a single Orientation (SHORT) entry, no next IFD
+        ByteBuffer tiff = ByteBuffer.allocate(26).order(order);
+        tiff.put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        tiff.put(order == ByteOrder.LITTLE_ENDIAN ? (byte) 'I' : (byte) 'M');
+        tiff.putShort((short) 42).putInt(8);
+        tiff.putShort((short) 1);
+        tiff.putShort((short) 0x0112).putShort((short) 3).putInt(1).putShort((short) orientation).putShort((short) 0);
+        tiff.putInt(0);
+
+        byte[] exif = "Exif\0\0".getBytes(StandardCharsets.US_ASCII);
+        int segmentLength = 2 + exif.length + tiff.capacity();
+        int afterJfif = 4 + (((plain[4] & 0xFF) << 8) | (plain[5] & 0xFF));
+        ByteArrayOutputStream oriented = new ByteArrayOutputStream();
+        oriented.write(plain, 0, afterJfif);
+        oriented.write(new byte[] {(byte) 0xFF, (byte) 0xE1, (byte) (segmentLength >> 8), (byte) segmentLength});
+        oriented.write(exif);
+        oriented.write(tiff.array());
+        oriented.write(plain, afterJfif, plain.length - afterJfif);
+        return new ByteArrayInputStream(oriented.toByteArray());
+    }
+
+    private static boolean isRed(int rgb) {
+        Color color = new Color(rgb);
+        return color.getRed() > 200 && color.getBlue() < 60;
+    }
+
+    private static boolean isBlue(int rgb) {
+        Color color = new Color(rgb);
+        return color.getBlue() > 200 && color.getRed() < 60;
+    }
+
+    private static BufferedImage decode(RenderedVariant variant) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(variant.content()));
+    }
+
+    @Test
+    void render_shouldScaleOpaqueImagesToJpegVariants() throws IOException {
+        List<RenderedVariant> variants = generator.render(encode(3000, 1500, BufferedImage.TYPE_INT_RGB, "png"));
+
+        assertEquals(List.of(ImageVariant.FULL, ImageVariant.CARD, ImageVariant.THUMBNAIL),
+            variants.stream().map(RenderedVariant::variant).toList());
+        assertEquals("image/jpeg", variants.get(0).contentType());
+        assertEquals(1280, decode(variants.get(0)).getWidth());
+        assertEquals(640, decode(variants.get(0)).getHeight());
+        assertEquals(480, decode(variants.get(1)).getWidth());
+        assertEquals(160, decode(variants.get(2)).getWidth());
+        assertEquals(80, decode(variants.get(2)).getHeight());
+    }
+
+    @Test
+    void render_shouldKeepAlphaAsPng() throws IOException {
+        List<RenderedVariant> variants = generator.render(encode(400, 400, BufferedImage.TYPE_INT_ARGB, "png"));
+
+        assertTrue(variants.stream().allMatch(variant -> variant.contentType().equals("image/png")));
+        assertTrue(decode(variants.get(2)).getColorModel().hasAlpha());
+    }
+
+    @Test
+    void render_shouldNotUpscaleSmallImages() throws IOException {
+        List<RenderedVariant> variants = generator.render(encode(300, 200, BufferedImage.TYPE_INT_RGB, "png"));
+
+        assertEquals(300, decode(variants.get(0)).getWidth());
+        assertEquals(300, decode(variants.get(1)).getWidth());
+        assertEquals(160, decode(variants.get(2)).getWidth());
+    }
+
+    @Test
+    void render_shouldRotateJpegsByExifOrientation() throws IOException {
+        // 6: stored landscape, displayed rotated 90° clockwise, so the left (red) half ends up on top
+        BufferedImage rotated = decode(generator.render(orientedJpeg(6, ByteOrder.BIG_ENDIAN)).get(0));
+
+        assertEquals(40, rotated.getWidth());
+        assertEquals(80, rotated.getHeight());
+        assertTrue(isRed(rotated.getRGB(20, 10)));
+        assertTrue(isBlue(rotated.getRGB(20, 70)));
+
+        // 8: rotated 90° counter-clockwise, red at the bottom; little-endian EXIF
+        BufferedImage counterRotated = decode(generator.render(orientedJpeg(8, ByteOrder.LITTLE_ENDIAN)).get(2));
+
+        assertEquals(40, counterRotated.getWidth());
+        assertEquals(80, counterRotated.getHeight());
+        assertTrue(isBlue(counterRotated.getRGB(20, 10)));
+        assertTrue(isRed(counterRotated.getRGB(20, 70)));
+    }
+
+    @Test
+    void render_shouldMirrorJpegsByExifOrientation() throws IOException {
+        BufferedImage mirrored = decode(generator.render(orientedJpeg(2, ByteOrder.BIG_ENDIAN)).get(0));
+
+        assertEquals(80, mirrored.getWidth());
+        assertTrue(isBlue(mirrored.getRGB(10, 20)));
+        assertTrue(isRed(mirrored.getRGB(70, 20)));
+    }
+
+    @Test
+    void render_shouldKeepJpegsWithoutExifOrientationAsStored() throws IOException {
+        BufferedImage upright = decode(generator.render(orientedJpeg(1, ByteOrder.BIG_ENDIAN)).get(0));
+
+        assertEquals(80, upright.getWidth());
+        assertTrue(isRed(upright.getRGB(10, 20)));
+        assertTrue(isBlue(upright.getRGB(70, 20)));
+    }
+
+    @Test
+    void render_shouldSkipUnreadableAndOversizedImages() throws IOException {
+        assertTrue(generator.render(new ByteArrayInputStream("not an image".getBytes())).isEmpty());
+
+        properties.setMaxSourcePixels(10_000);
+        assertTrue(generator.render(encode(200, 100, BufferedImage.TYPE_INT_RGB, "png")).isEmpty());
+    }
+
+    @Test
+    void submit_shouldReturnNullWhenDisabledOrSaturated() throws Exception {
+        properties.setEnabled(false);
+        assertNull(generator.submit(() -> encode(10, 10, BufferedImage.TYPE_INT_RGB, "png")));
+        properties.setEnabled(true);
+
+        CountDownLatch release = new CountDownLatch(1);
+        Future<List<RenderedVariant>> running = generator.submit(() -> {
+            release.await();
+            return encode(10, 10, BufferedImage.TYPE_INT_RGB, "png");
+        });
+        Future<List<RenderedVariant>> queued = generator.submit(() -> encode(10, 10, BufferedImage.TYPE_INT_RGB, "png"));
+
+        assertNull(generator.submit(() -> encode(10, 10, BufferedImage.TYPE_INT_RGB, "png")));
+        assertEquals(1, meterRegistry.get("image.variants.uploads").tag("outcome", "rejected").counter().count());
+
+        release.countDown();
+        assertEquals(3, generator.await(running).size());
+        assertEquals(3, generator.await(queued).size());
+        assertEquals(2, meterRegistry.get("image.variants.uploads").tag("outcome", "rendered").counter().count());
+    }
+
+    @Test
+    void await_shouldGiveUpAfterMaxWait() {
+        properties.setMaxWait(java.time.Duration.ofMillis(50));
+        CountDownLatch release = new CountDownLatch(1);
+        Future<List<RenderedVariant>> slow = generator.submit(() -> {
+            release.await();
+            return InputStream.nullInputStream();
+        });
+
+        assertTrue(generator.await(slow).isEmpty());
+        assertTrue(slow.isCancelled());
+        assertEquals(1, meterRegistry.get("image.variants.uploads").tag("outcome", "timeout").counter().count());
+        release.countDown();
+    }
+}
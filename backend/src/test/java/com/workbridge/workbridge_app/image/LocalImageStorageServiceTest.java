@@ -0,0 +1,194 @@
+package com.workbridge.workbridge_app.image;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.util.unit.DataSize;
+
+import com.workbridge.workbridge_app.config.ImageStorageProperties;
+import com.workbridge.workbridge_app.config.ImageValidationProperties;
+import com.workbridge.workbridge_app.config.ImageVariantProperties;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsResponseDTO;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository.Acquisition;
+import com.workbridge.workbridge_app.image.service.ImageValidator;
+import com.workbridge.workbridge_app.image.service.ImageVariant;
+import com.workbridge.workbridge_app.image.service.ImageVariantGenerator;
+import com.workbridge.workbridge_app.image.service.LocalImageStorageService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class LocalImageStorageServiceTest {
+
+    /** Signature and {@code IHDR} of a 1x1 PNG: enough to pass validation, not to decode. */
+    private static final byte[] PIXELS = {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R', 0, 0, 0, 1, 0, 0, 0, 1
+    };
+
+    /** Content key of {@link #PIXELS}. */
+    private static final String PIXELS_KEY =
+        "a930c2bb4e61c0682068f71c4ef427eefbb07098ecea9390e445e7af4b66a384.png";
+
+    private static final Long OWNER = 7L;
+
+    @TempDir Path root;
+    @Mock private ImageObjectRepository imageObjectRepository;
+
+    private LocalImageStorageService storageService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ImageStorageProperties properties = new ImageStorageProperties();
+        properties.setLocalRoot(root);
+        properties.setMaxStreamUploadSize(DataSize.ofBytes(30));
+        storageService = new LocalImageStorageService(
+            new ImageVariantGenerator(new ImageVariantProperties(), new SimpleMeterRegistry()),
+            new ImageValidator(new ImageValidationProperties(), new SimpleMeterRegistry()),
+            imageObjectRepository, properties);
+        when(imageObjectRepository.acquire(anyString(), any(), anyLong(), anyString())).thenReturn(acquisition(false, true));
+    }
+
+    private MockMultipartFile image() {
+        return new MockMultipartFile("file", "logo.png", "image/png", PIXELS);
+    }
+
+    private static Acquisition acquisition(boolean stored, boolean added) {
+        return new Acquisition() {
+            @Override
+            public boolean getStored() {
+                return stored;
+            }
+
+            @Override
+            public boolean getAdded() {
+                return added;
+            }
+        };
+    }
+
+    @Test
+    void uploadImage_shouldWriteFileUnderContentKey() throws Exception {
+        String url = storageService.uploadImage(image(), OWNER).getKey();
+
+        assertEquals(LocalImageStorageService.FILES_PATH + PIXELS_KEY, url);
+        assertArrayEquals(PIXELS, Files.readAllBytes(root.resolve(PIXELS_KEY)));
+        verify(imageObjectRepository).markStored(PIXELS_KEY);
+        try (var staged = Files.list(root.resolve(".staging"))) {
+            assertEquals(0, staged.count());
+        }
+    }
+
+    @Test
+    void uploadImage_shouldSkipWriteWhenContentAlreadyStored() {
+        when(imageObjectRepository.acquire(PIXELS_KEY, OWNER, 24L, "image/png")).thenReturn(acquisition(true, true));
+
+        storageService.uploadImage(image(), OWNER);
+
+        assertFalse(Files.exists(root.resolve(PIXELS_KEY)));
+        verify(imageObjectRepository, never()).markStored(anyString());
+    }
+
+    @Test
+    void uploadImage_shouldStoreVariantsAndServeThem() throws Exception {
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(600, 300, BufferedImage.TYPE_INT_RGB), "png", png);
+
+        String url = storageService.uploadImage(new MockMultipartFile("file", "photo.png", "image/png", png.toByteArray()), OWNER).getKey();
+        String key = url.substring(LocalImageStorageService.FILES_PATH.length());
+
+        assertTrue(Files.isRegularFile(root.resolve("variants/thumbnail/" + key)));
+        assertEquals(LocalImageStorageService.FILES_PATH + "variants/card/" + key,
+            storageService.getImageUrl(key, ImageVariant.CARD).getUrl());
+        // Opaque sources get JPEG variants, still stored under the original's .png key
+        String variantKey = "variants/card/" + key;
+        assertEquals("image/jpeg", storageService.contentType(variantKey, storageService.findFile(variantKey).orElseThrow()));
+        assertEquals("image/png", storageService.contentType(key, storageService.findFile(key).orElseThrow()));
+    }
+
+    @Test
+    void uploadImageStream_shouldHashBodyAndRejectOversizedBodies() throws Exception {
+        String url = storageService.uploadImageStream(new ByteArrayInputStream(PIXELS), "image/png", OWNER).getKey();
+
+        assertEquals(LocalImageStorageService.FILES_PATH + PIXELS_KEY, url);
+        ImageStorageException tooLarge = assertThrows(ImageStorageException.class,
+            () -> storageService.uploadImageStream(new ByteArrayInputStream(Arrays.copyOf(PIXELS, 31)), "image/png", OWNER));
+        assertEquals("Uploaded file is too large.", tooLarge.getMessage());
+        try (var staged = Files.list(root.resolve(".staging"))) {
+            assertEquals(0, staged.count());
+        }
+    }
+
+    @Test
+    void getImageUrls_shouldFallBackToOriginalAndReportMissing() throws Exception {
+        Files.write(root.resolve(PIXELS_KEY), PIXELS);
+
+        GetImageUrlsResponseDTO urls = storageService.getImageUrls(
+            List.of(PIXELS_KEY, "missing.png", "../outside.png"), ImageVariant.THUMBNAIL);
+
+        assertEquals(LocalImageStorageService.FILES_PATH + PIXELS_KEY, urls.getUrls().get(PIXELS_KEY));
+        assertEquals(List.of("missing.png", "../outside.png"), urls.getMissing());
+    }
+
+    @Test
+    void findFile_shouldRejectKeysOutsideImageDirectory() throws Exception {
+        Files.write(root.resolve(".staging/upload-1.tmp"), new byte[] {1});
+
+        assertTrue(storageService.findFile("../etc/passwd").isEmpty());
+        assertTrue(storageService.findFile("/etc/passwd").isEmpty());
+        assertTrue(storageService.findFile(".staging/upload-1.tmp").isEmpty());
+    }
+
+    @Test
+    void deleteImage_shouldKeepFilesWhileReferenced() throws Exception {
+        Files.write(root.resolve(PIXELS_KEY), PIXELS);
+        when(imageObjectRepository.release(PIXELS_KEY, OWNER)).thenReturn(List.of(1)).thenReturn(List.of(0));
+
+        storageService.deleteImage(PIXELS_KEY, OWNER);
+        assertTrue(Files.exists(root.resolve(PIXELS_KEY)));
+
+        storageService.deleteImage(PIXELS_KEY, OWNER);
+        assertFalse(Files.exists(root.resolve(PIXELS_KEY)));
+        verify(imageObjectRepository).deleteUnreferenced(PIXELS_KEY);
+    }
+
+    @Test
+    void deleteImage_shouldLeaveImageOfOtherOwnersAlone() throws Exception {
+        Files.write(root.resolve(PIXELS_KEY), PIXELS);
+        when(imageObjectRepository.release(PIXELS_KEY, 8L)).thenReturn(List.of());
+
+        storageService.deleteImage(PIXELS_KEY, 8L);
+        storageService.deleteImage(PIXELS_KEY, 8L);
+
+        assertTrue(Files.exists(root.resolve(PIXELS_KEY)));
+        verify(imageObjectRepository, never()).deleteUnreferenced(anyString());
+    }
+
+    @Test
+    void uploadImage_shouldKeepEarlierReferenceWhenRepeatedUploadFails() {
+        when(imageObjectRepository.acquire(PIXELS_KEY, OWNER, 24L, "image/png")).thenReturn(acquisition(false, false));
+        doThrow(new IllegalStateException("database unavailable")).when(imageObjectRepository).markStored(PIXELS_KEY);
+
+        assertThrows(IllegalStateException.class, () -> storageService.uploadImage(image(), OWNER));
+
+        verify(imageObjectRepository, never()).release(anyString(), any());
+    }
+}
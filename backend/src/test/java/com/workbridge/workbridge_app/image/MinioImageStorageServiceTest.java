@@ -0,0 +1,525 @@
+package com.workbridge.workbridge_app.image;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.imageio.ImageIO;
+
+import com.workbridge.workbridge_app.config.ImageValidationProperties;
+import com.workbridge.workbridge_app.config.ImageVariantProperties;
+import com.workbridge.workbridge_app.config.minio.MinioProperties;
+import com.workbridge.workbridge_app.image.controller.ImageController;
+import com.workbridge.workbridge_app.image.dto.GetImageUrlsResponseDTO;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.exception.TransientImageStorageException;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository.Acquisition;
+import com.workbridge.workbridge_app.image.service.ImageStorageService;
+import com.workbridge.workbridge_app.image.service.ImageValidator;
+import com.workbridge.workbridge_app.image.service.ImageVariant;
+import com.workbridge.workbridge_app.image.service.ImageVariantGenerator;
+import com.workbridge.workbridge_app.image.service.MinioImageStorageService;
+import com.workbridge.workbridge_app.image.service.MultipartStreamUploader;
+import com.workbridge.workbridge_app.security.UserPrincipal;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.regions.Region;
+
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Utilities;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateBucketRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.HeadBucketRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+
+public class MinioImageStorageServiceTest {
+
+    @Mock private S3Client s3Client;
+    @Mock private S3Presigner s3Presigner;
+    @Mock private ImageObjectRepository imageObjectRepository;
+
+    private MinioProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private MinioImageStorageService storageService;
+    private final AtomicInteger signatures = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+        properties = new MinioProperties();
+        properties.setBucket("images");
+        properties.setPresignedExpirationMinutes(10);
+        properties.setPresignedUrlMinRemaining(Duration.ofMinutes(2));
+        meterRegistry = new SimpleMeterRegistry();
+        storageService = newService();
+
+        when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenAnswer(invocation -> {
+            GetObjectPresignRequest request = invocation.getArgument(0);
+            PresignedGetObjectRequest presigned = mock(PresignedGetObjectRequest.class);
+            when(presigned.url()).thenReturn(URI.create("http://minio/images/"
+                + request.getObjectRequest().key() + "?sig=" + signatures.incrementAndGet()).toURL());
+            return presigned;
+        });
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenAnswer(invocation -> {
+            HeadObjectRequest request = invocation.getArgument(0);
+            if (request.key().startsWith("missing")) {
+                throw NoSuchKeyException.builder().statusCode(404).build();
+            }
+            return HeadObjectResponse.builder().build();
+        });
+        when(s3Client.utilities()).thenReturn(S3Utilities.builder()
+            .region(Region.US_EAST_1)
+            .endpoint(URI.create("http://minio"))
+            .build());
+        when(imageObjectRepository.acquire(anyString(), any(), anyLong(), anyString())).thenReturn(acquisition(false, true));
+        when(imageObjectRepository.release(anyString(), eq(OWNER))).thenReturn(List.of(0));
+    }
+
+    /** Signature and {@code IHDR} of a 1x1 PNG: enough to pass validation, not to decode. */
+    private static final byte[] PIXELS = {
+        (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13, 'I', 'H', 'D', 'R', 0, 0, 0, 1, 0, 0, 0, 1
+    };
+
+    /** Content key of {@link #PIXELS}. */
+    private static final String PIXELS_KEY =
+        "a930c2bb4e61c0682068f71c4ef427eefbb07098ecea9390e445e7af4b66a384.png";
+
+    private static final Long OWNER = 7L;
+
+    private MockMultipartFile image() {
+        return new MockMultipartFile("file", "logo.png", "image/png", PIXELS);
+    }
+
+    private static Acquisition acquisition(boolean stored, boolean added) {
+        return new Acquisition() {
+            @Override
+            public boolean getStored() {
+                return stored;
+            }
+
+            @Override
+            public boolean getAdded() {
+                return added;
+            }
+        };
+    }
+
+    private MinioImageStorageService newService() {
+        return new MinioImageStorageService(s3Client, s3Presigner,
+            new MultipartStreamUploader(s3Client, properties, meterRegistry),
+            new ImageVariantGenerator(new ImageVariantProperties(), meterRegistry),
+            new ImageValidator(new ImageValidationProperties(), meterRegistry), imageObjectRepository,
+            properties, meterRegistry);
+    }
+
+    @Test
+    void getImageUrl_shouldReuseCachedUrlWithoutHead() {
+        String first = storageService.getImageUrl("a.png", ImageVariant.ORIGINAL).getUrl();
+        String second = storageService.getImageUrl("a.png", ImageVariant.ORIGINAL).getUrl();
+
+        assertEquals(first, second);
+        verify(s3Client, times(1)).headObject(any(HeadObjectRequest.class));
+        verify(s3Presigner, times(1)).presignGetObject(any(GetObjectPresignRequest.class));
+        assertEquals(1, meterRegistry.get("image.presign.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void getImageUrl_shouldRejectMissingImage() {
+        ImageStorageException ex = assertThrows(ImageStorageException.class,
+            () -> storageService.getImageUrl("missing.png", ImageVariant.ORIGINAL));
+
+        assertEquals("Requested image does not exist", ex.getMessage());
+        verifyNoInteractions(s3Presigner);
+    }
+
+    @Test
+    void getImageUrl_shouldNotCacheWhenMarginCoversWholeValidity() {
+        properties.setPresignedUrlMinRemaining(Duration.ofMinutes(10));
+        storageService = newService();
+
+        String first = storageService.getImageUrl("a.png", ImageVariant.ORIGINAL).getUrl();
+        String second = storageService.getImageUrl("a.png", ImageVariant.ORIGINAL).getUrl();
+
+        assertNotEquals(first, second);
+        // Existence is still remembered; only the URL is re-signed
+        verify(s3Client, times(1)).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void getImageUrl_shouldSurfaceStorageFailures() {
+        when(s3Client.headObject(any(HeadObjectRequest.class)))
+            .thenThrow(S3Exception.builder().statusCode(503).build());
+
+        ImageStorageException ex = assertThrows(ImageStorageException.class,
+            () -> storageService.getImageUrl("a.png", ImageVariant.ORIGINAL));
+        assertEquals("Failed to check image", ex.getMessage());
+    }
+
+    @Test
+    void getImageUrls_shouldPresignBatchAndReportMissingKeys() {
+        storageService.getImageUrl("cached.png", ImageVariant.ORIGINAL);
+        clearInvocations(s3Client);
+
+        GetImageUrlsResponseDTO response = storageService.getImageUrls(
+            List.of("b.png", "missing-1.png", "cached.png", "b.png", "c.png"), ImageVariant.ORIGINAL);
+
+        assertEquals(List.of("b.png", "cached.png", "c.png"), List.copyOf(response.getUrls().keySet()));
+        assertEquals(List.of("missing-1.png"), response.getMissing());
+        // One HEAD per distinct unknown key; the cached key needs none
+        verify(s3Client, times(3)).headObject(any(HeadObjectRequest.class));
+        assertEquals(3, meterRegistry.get("image.exists.checks").counter().count() - 1);
+    }
+
+    @Test
+    void getImageUrls_shouldSkipHeadForKnownKeys() {
+        storageService.getImageUrls(List.of("a.png", "b.png"), ImageVariant.ORIGINAL);
+        clearInvocations(s3Client);
+
+        GetImageUrlsResponseDTO response = storageService.getImageUrls(List.of("a.png", "b.png"), ImageVariant.ORIGINAL);
+
+        assertEquals(2, response.getUrls().size());
+        assertTrue(response.getMissing().isEmpty());
+        verify(s3Client, never()).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void deleteImage_shouldForgetCachedUrlAndExistence() {
+        storageService.getImageUrl("a.png", ImageVariant.ORIGINAL);
+
+        storageService.deleteImage("a.png", OWNER);
+        storageService.getImageUrl("a.png", ImageVariant.ORIGINAL);
+
+        verify(s3Client, times(2)).headObject(any(HeadObjectRequest.class));
+        verify(s3Presigner, times(2)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+
+    @Test
+    void deleteImage_shouldRemoveVariantsInOneRequest() {
+        ArgumentCaptor<DeleteObjectsRequest> captor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+
+        storageService.deleteImage("a.png", OWNER);
+
+        verify(s3Client).deleteObjects(captor.capture());
+        assertEquals(List.of("a.png", "variants/full/a.png", "variants/card/a.png", "variants/thumbnail/a.png"),
+            captor.getValue().delete().objects().stream().map(ObjectIdentifier::key).toList());
+    }
+
+    @Test
+    void uploadImage_shouldStoreVariantsNextToOriginal() throws Exception {
+        storageService.initializeBucket();
+        ArgumentCaptor<PutObjectRequest> puts = ArgumentCaptor.forClass(PutObjectRequest.class);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(600, 300, BufferedImage.TYPE_INT_RGB), "png", png);
+
+        storageService.uploadImage(new MockMultipartFile("file", "photo.png", "image/png", png.toByteArray()), OWNER);
+
+        verify(s3Client, times(4)).putObject(puts.capture(), any(RequestBody.class));
+        String original = puts.getAllValues().stream().map(PutObjectRequest::key)
+            .filter(key -> !key.startsWith("variants/")).findFirst().orElseThrow();
+        assertEquals(
+            java.util.Set.of("variants/full/" + original, "variants/card/" + original, "variants/thumbnail/" + original),
+            puts.getAllValues().stream().map(PutObjectRequest::key).filter(key -> key.startsWith("variants/"))
+                .collect(java.util.stream.Collectors.toSet()));
+
+        String url = storageService.getImageUrl(original, ImageVariant.THUMBNAIL).getUrl();
+        assertTrue(url.contains("/variants/thumbnail/"));
+        verify(s3Client, never()).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void getImageUrl_shouldFallBackToOriginalWhenVariantMissing() {
+        when(s3Client.headObject(any(HeadObjectRequest.class))).thenAnswer(invocation -> {
+            HeadObjectRequest request = invocation.getArgument(0);
+            if (request.key().startsWith("variants/")) {
+                throw NoSuchKeyException.builder().statusCode(404).build();
+            }
+            return HeadObjectResponse.builder().build();
+        });
+
+        String first = storageService.getImageUrl("old.png", ImageVariant.CARD).getUrl();
+        String second = storageService.getImageUrl("old.png", ImageVariant.CARD).getUrl();
+
+        assertTrue(first.startsWith("http://minio/images/old.png?"));
+        assertEquals(first, second);
+        // One HEAD for the missing variant, one for the original; both results are remembered
+        verify(s3Client, times(2)).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void getImageUrl_shouldRejectUnknownVariantName() {
+        ImageStorageException ex = assertThrows(ImageStorageException.class,
+            () -> ImageVariant.fromParameter("poster"));
+        assertEquals("Unknown image variant: poster", ex.getMessage());
+        assertEquals(ImageVariant.ORIGINAL, ImageVariant.fromParameter(""));
+        assertEquals(ImageVariant.THUMBNAIL, ImageVariant.fromParameter("Thumbnail"));
+    }
+
+    @Test
+    void uploadImage_shouldNotProbeBucketOnceVerifiedAtStartup() {
+        storageService.initializeBucket();
+
+        storageService.uploadImage(image(), OWNER);
+        storageService.uploadImage(image(), OWNER);
+
+        verify(s3Client, times(1)).headBucket(any(HeadBucketRequest.class));
+        verify(s3Client, times(2)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void uploadImage_shouldCreateMissingBucketOnFirstUpload() {
+        when(s3Client.headBucket(any(HeadBucketRequest.class)))
+            .thenThrow(S3Exception.builder().statusCode(404).build());
+
+        storageService.uploadImage(image(), OWNER);
+        storageService.uploadImage(image(), OWNER);
+
+        verify(s3Client, times(1)).headBucket(any(HeadBucketRequest.class));
+        verify(s3Client, times(1)).createBucket(any(CreateBucketRequest.class));
+    }
+
+    @Test
+    void uploadImage_shouldRevalidateBucketAfterNoSuchBucket() {
+        storageService.initializeBucket();
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+            .thenThrow(NoSuchBucketException.builder().statusCode(404).build())
+            .thenReturn(null);
+
+        assertThrows(TransientImageStorageException.class, () -> storageService.uploadImage(image(), OWNER));
+        storageService.uploadImage(image(), OWNER);
+
+        verify(s3Client, times(2)).headBucket(any(HeadBucketRequest.class));
+    }
+
+    @Test
+    void uploadImage_shouldClassifyFailuresForRetry() {
+        storageService.initializeBucket();
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+            .thenThrow(SdkClientException.create("connection reset"))
+            .thenThrow(S3Exception.builder().statusCode(503).build())
+            .thenThrow(S3Exception.builder().statusCode(403).build());
+
+        assertThrows(TransientImageStorageException.class, () -> storageService.uploadImage(image(), OWNER));
+        assertThrows(TransientImageStorageException.class, () -> storageService.uploadImage(image(), OWNER));
+        ImageStorageException denied = assertThrows(ImageStorageException.class, () -> storageService.uploadImage(image(), OWNER));
+        assertFalse(denied instanceof TransientImageStorageException);
+    }
+
+    @Test
+    void upload_shouldRetryTransientFailureThroughProxy() {
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+            .thenThrow(S3Exception.builder().statusCode(503).build())
+            .thenReturn(null);
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(RetryConfig.class);
+            context.registerBean(ImageStorageService.class, this::newService);
+            context.refresh();
+            ImageStorageService proxied = context.getBean(ImageStorageService.class);
+            assertTrue(AopUtils.isAopProxy(proxied));
+            UserPrincipal principal = new UserPrincipal(OWNER, "owner", null, 0, true);
+            SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+
+            new ImageController(proxied).upload(image()).join();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(s3Client, times(2)).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        // The failed attempt gives its reference back; the retry takes a new one and completes
+        verify(imageObjectRepository, times(2)).acquire(eq(PIXELS_KEY), eq(OWNER), anyLong(), eq("image/png"));
+        verify(imageObjectRepository, times(1)).release(PIXELS_KEY, OWNER);
+        verify(imageObjectRepository).markStored(PIXELS_KEY);
+    }
+
+    /** Enables retry advice the way the application does, with Spring Boot's class-based proxies. */
+    @Configuration
+    @EnableRetry(proxyTargetClass = true)
+    static class RetryConfig {
+    }
+
+    @Test
+    void uploadImage_shouldRejectInvalidFileWithoutTouchingStorage() {
+        MockMultipartFile text = new MockMultipartFile("file", "notes.txt", "text/plain", new byte[] {1});
+
+        assertThrows(ImageStorageException.class, () -> storageService.uploadImage(text, OWNER));
+        verify(s3Client, never()).headBucket(any(HeadBucketRequest.class));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void uploadImageStream_shouldRejectNonImageBeforeReading() {
+        ByteArrayInputStream body = new ByteArrayInputStream(new byte[] {1, 2, 3});
+
+        assertThrows(ImageStorageException.class,
+            () -> storageService.uploadImageStream(body, "application/pdf", OWNER));
+        assertEquals(3, body.available());
+        verifyNoInteractions(s3Presigner);
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void uploadImageStream_shouldRejectSpoofedImageBeforeStorage() {
+        ByteArrayInputStream body = new ByteArrayInputStream("%PDF-1.7 pretending to be a PNG".getBytes());
+
+        ImageStorageException ex = assertThrows(ImageStorageException.class,
+            () -> storageService.uploadImageStream(body, "image/png", OWNER));
+        assertEquals("Only image files are allowed.", ex.getMessage());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(imageObjectRepository, never()).acquire(anyString(), any(), anyLong(), anyString());
+        assertEquals(1, meterRegistry.get("image.upload.rejected").tag("reason", "type").counter().count());
+    }
+
+    @Test
+    void uploadImageStream_shouldCopyStagedBodyToContentKey() {
+        storageService.initializeBucket();
+        ArgumentCaptor<PutObjectRequest> put = ArgumentCaptor.forClass(PutObjectRequest.class);
+        ArgumentCaptor<CopyObjectRequest> copy = ArgumentCaptor.forClass(CopyObjectRequest.class);
+        ArgumentCaptor<DeleteObjectRequest> cleanup = ArgumentCaptor.forClass(DeleteObjectRequest.class);
+
+        String url = storageService.uploadImageStream(
+            new ByteArrayInputStream(PIXELS), "image/png", OWNER).getKey();
+
+        verify(s3Client).putObject(put.capture(), any(RequestBody.class));
+        verify(s3Client).copyObject(copy.capture());
+        verify(s3Client).deleteObject(cleanup.capture());
+        String staged = put.getValue().key();
+        assertTrue(staged.startsWith("uploads/staging/"));
+        assertEquals(staged, copy.getValue().sourceKey());
+        assertEquals(PIXELS_KEY, copy.getValue().destinationKey());
+        assertEquals(staged, cleanup.getValue().key());
+        assertTrue(url.endsWith("/" + PIXELS_KEY));
+        verify(imageObjectRepository).markStored(PIXELS_KEY);
+    }
+
+    @Test
+    void uploadImageStream_shouldDropStagedBodyWhenContentExists() {
+        storageService.initializeBucket();
+        when(imageObjectRepository.acquire(PIXELS_KEY, OWNER, 24L, "image/png")).thenReturn(acquisition(true, true));
+
+        storageService.uploadImageStream(new ByteArrayInputStream(PIXELS), "image/png", OWNER);
+
+        verify(s3Client, never()).copyObject(any(CopyObjectRequest.class));
+        verify(s3Client).deleteObject(any(DeleteObjectRequest.class));
+        verify(imageObjectRepository, never()).markStored(anyString());
+    }
+
+    @Test
+    void uploadImage_shouldKeyByContentHash() {
+        storageService.initializeBucket();
+        ArgumentCaptor<PutObjectRequest> puts = ArgumentCaptor.forClass(PutObjectRequest.class);
+
+        String first = storageService.uploadImage(image(), OWNER).getKey();
+        String second = storageService.uploadImage(
+            new MockMultipartFile("file", "other-name.png", "image/png", PIXELS), OWNER).getKey();
+
+        assertEquals(first, second);
+        assertTrue(first.endsWith("/" + PIXELS_KEY));
+        verify(s3Client, times(2)).putObject(puts.capture(), any(RequestBody.class));
+        assertEquals(PIXELS_KEY, puts.getValue().key());
+        verify(imageObjectRepository, times(2)).markStored(PIXELS_KEY);
+    }
+
+    @Test
+    void uploadImage_shouldSkipUploadWhenContentAlreadyStored() {
+        storageService.initializeBucket();
+        when(imageObjectRepository.acquire(PIXELS_KEY, OWNER, 24L, "image/png")).thenReturn(acquisition(true, true));
+
+        String url = storageService.uploadImage(image(), OWNER).getKey();
+
+        assertTrue(url.endsWith("/" + PIXELS_KEY));
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        assertEquals(1.0, meterRegistry.get("image.upload.dedup").tag("result", "hit").counter().count());
+        storageService.getImageUrl(PIXELS_KEY, ImageVariant.ORIGINAL);
+        verify(s3Client, never()).headObject(any(HeadObjectRequest.class));
+    }
+
+    @Test
+    void uploadImage_shouldReleaseReferenceWhenUploadFails() {
+        storageService.initializeBucket();
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+            .thenThrow(S3Exception.builder().statusCode(403).build());
+
+        assertThrows(ImageStorageException.class, () -> storageService.uploadImage(image(), OWNER));
+
+        verify(imageObjectRepository).release(PIXELS_KEY, OWNER);
+        verify(imageObjectRepository, never()).markStored(anyString());
+    }
+
+    @Test
+    void uploadImage_shouldKeepEarlierReferenceWhenRepeatedUploadFails() {
+        storageService.initializeBucket();
+        when(imageObjectRepository.acquire(PIXELS_KEY, OWNER, 24L, "image/png")).thenReturn(acquisition(false, false));
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+            .thenThrow(S3Exception.builder().statusCode(403).build());
+
+        assertThrows(ImageStorageException.class, () -> storageService.uploadImage(image(), OWNER));
+
+        verify(imageObjectRepository, never()).release(anyString(), any());
+    }
+
+    @Test
+    void deleteImage_shouldKeepObjectsWhileReferenced() {
+        when(imageObjectRepository.release(PIXELS_KEY, OWNER)).thenReturn(List.of(1));
+
+        storageService.deleteImage(PIXELS_KEY, OWNER);
+
+        verify(s3Client, never()).deleteObjects(any(DeleteObjectsRequest.class));
+        verify(imageObjectRepository, never()).deleteUnreferenced(anyString());
+    }
+
+    @Test
+    void deleteImage_shouldDeleteObjectsAndRowWithLastReference() {
+        when(imageObjectRepository.release(PIXELS_KEY, OWNER)).thenReturn(List.of(0));
+
+        storageService.deleteImage(PIXELS_KEY, OWNER);
+
+        verify(s3Client).deleteObjects(any(DeleteObjectsRequest.class));
+        verify(imageObjectRepository).deleteUnreferenced(PIXELS_KEY);
+    }
+
+    @Test
+    void deleteImage_shouldLeaveImageOfOtherOwnersAlone() {
+        when(imageObjectRepository.release(PIXELS_KEY, 8L)).thenReturn(List.of());
+
+        storageService.deleteImage(PIXELS_KEY, 8L);
+        storageService.deleteImage(PIXELS_KEY, 8L);
+
+        verify(s3Client, never()).deleteObjects(any(DeleteObjectsRequest.class));
+        verify(imageObjectRepository, never()).deleteUnreferenced(anyString());
+    }
+}
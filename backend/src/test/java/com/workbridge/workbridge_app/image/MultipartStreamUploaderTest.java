@@ -0,0 +1,201 @@
+package com.workbridge.workbridge_app.image;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.workbridge.workbridge_app.config.minio.MinioProperties;
+import com.workbridge.workbridge_app.image.exception.ImageStorageException;
+import com.workbridge.workbridge_app.image.service.MultipartStreamUploader;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.util.unit.DataSize;
+
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+public class MultipartStreamUploaderTest {
+
+    @Mock private S3Client s3Client;
+    @Captor private ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor;
+
+    private MinioProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private MultipartStreamUploader uploader;
+    private final Map<Integer, byte[]> receivedParts = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new MinioProperties();
+        properties.setUploadPartSize(DataSize.ofBytes(4));
+        properties.setUploadPartConcurrency(2);
+        meterRegistry = new SimpleMeterRegistry();
+        uploader = new MultipartStreamUploader(s3Client, properties, meterRegistry);
+
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+            .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class))).thenAnswer(invocation -> {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(20);
+                UploadPartRequest request = invocation.getArgument(0);
+                RequestBody body = invocation.getArgument(1);
+                try (InputStream in = body.contentStreamProvider().newStream()) {
+                    receivedParts.put(request.partNumber(), in.readAllBytes());
+                }
+                return UploadPartResponse.builder().eTag("etag-" + request.partNumber()).build();
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        });
+    }
+
+    private static byte[] bytes(int count) {
+        byte[] data = new byte[count];
+        for (int i = 0; i < count; i++) {
+            data[i] = (byte) i;
+        }
+        return data;
+    }
+
+    @Test
+    void upload_shouldUseSinglePutWhenBodyFitsInOnePart() {
+        long stored = uploader.upload("images", "k", new ByteArrayInputStream(bytes(3)), "image/png", -1, 100);
+
+        assertEquals(3, stored);
+        verify(s3Client).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void upload_shouldSizeFirstBufferToBodyInsteadOfWholePart() throws Exception {
+        properties.setUploadPartSize(DataSize.ofMegabytes(8));
+        uploader = new MultipartStreamUploader(s3Client, properties, meterRegistry);
+        ArgumentCaptor<RequestBody> body = ArgumentCaptor.forClass(RequestBody.class);
+        byte[] avatar = bytes(40);
+        byte[] unknownLength = bytes(100);
+        RecordingStream known = new RecordingStream(avatar);
+        RecordingStream unknown = new RecordingStream(unknownLength);
+
+        assertEquals(40, uploader.upload("images", "k", known, "image/png", avatar.length, Long.MAX_VALUE));
+        assertEquals(100, uploader.upload("images", "k", unknown, "image/png", -1, Long.MAX_VALUE));
+
+        assertEquals(41, known.largestRead);
+        assertEquals(64 * 1024, unknown.largestRead);
+        verify(s3Client, times(2)).putObject(any(PutObjectRequest.class), body.capture());
+        try (InputStream in = body.getAllValues().get(0).contentStreamProvider().newStream()) {
+            assertArrayEquals(avatar, in.readAllBytes());
+        }
+        assertEquals(100, body.getAllValues().get(1).optionalContentLength().orElseThrow());
+    }
+
+    @Test
+    void upload_shouldGrowFirstBufferUntilPartIsFull() {
+        properties.setUploadPartSize(DataSize.ofKilobytes(256));
+        uploader = new MultipartStreamUploader(s3Client, properties, meterRegistry);
+        byte[] data = bytes(300 * 1024);
+
+        long stored = uploader.upload("images", "k", new ByteArrayInputStream(data), "image/png", -1, 1_000_000);
+
+        assertEquals(data.length, stored);
+        assertEquals(256 * 1024, receivedParts.get(1).length);
+        assertEquals(44 * 1024, receivedParts.get(2).length);
+    }
+
+    /** Records the largest read requested, i.e. the size of the buffer being filled. */
+    private static final class RecordingStream extends ByteArrayInputStream {
+        int largestRead;
+
+        RecordingStream(byte[] data) {
+            super(data);
+        }
+
+        @Override
+        public int readNBytes(byte[] b, int off, int len) {
+            largestRead = Math.max(largestRead, len);
+            return super.readNBytes(b, off, len);
+        }
+    }
+
+    @Test
+    void upload_shouldSendPartsInParallelWithinConcurrencyLimit() {
+        byte[] data = bytes(22);
+
+        long stored = uploader.upload("images", "k", new ByteArrayInputStream(data), "image/png", -1, 100);
+
+        assertEquals(22, stored);
+        verify(s3Client).completeMultipartUpload(completeCaptor.capture());
+        List<CompletedPart> parts = completeCaptor.getValue().multipartUpload().parts();
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), parts.stream().map(CompletedPart::partNumber).toList());
+        assertEquals("etag-6", parts.get(5).eTag());
+
+        ByteArrayOutputStream reassembled = new ByteArrayOutputStream();
+        for (int part = 1; part <= 6; part++) {
+            reassembled.writeBytes(receivedParts.get(part));
+        }
+        assertArrayEquals(data, reassembled.toByteArray());
+        assertTrue(maxInFlight.get() <= 2, "at most two parts in flight");
+        assertEquals(6, meterRegistry.get("image.upload.parts").summary().totalAmount());
+    }
+
+    @Test
+    void upload_shouldNotSendEmptyTrailingPart() {
+        uploader.upload("images", "k", new ByteArrayInputStream(bytes(8)), "image/png", -1, 100);
+
+        verify(s3Client, times(2)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void upload_shouldAbortWhenBodyExceedsLimit() {
+        ImageStorageException ex = assertThrows(ImageStorageException.class,
+            () -> uploader.upload("images", "k", new ByteArrayInputStream(bytes(40)), "image/png", -1, 10));
+
+        assertEquals("Uploaded file is too large.", ex.getMessage());
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void upload_shouldAbortWhenPartFails() {
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+            .thenThrow(S3Exception.builder().statusCode(500).build());
+
+        assertThrows(S3Exception.class,
+            () -> uploader.upload("images", "k", new ByteArrayInputStream(bytes(40)), "image/png", -1, 100));
+
+        verify(s3Client).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void upload_shouldRejectEmptyBody() {
+        assertThrows(ImageStorageException.class,
+            () -> uploader.upload("images", "k", new ByteArrayInputStream(new byte[0]), "image/png", -1, 100));
+
+        verifyNoInteractions(s3Client);
+    }
+}
@@ -0,0 +1,186 @@
+package com.workbridge.workbridge_app.image;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.config.ImageGcProperties;
+import com.workbridge.workbridge_app.config.minio.MinioProperties;
+import com.workbridge.workbridge_app.image.repository.ImageObjectRepository;
+import com.workbridge.workbridge_app.image.service.OrphanedImageCollector;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+public class OrphanedImageCollectorTest {
+
+    private static final Instant NOW = Instant.parse("2025-07-20T04:30:00Z");
+    private static final Instant OLD = NOW.minus(Duration.ofDays(3));
+
+    private static final String LIVE = "a".repeat(64) + ".png";
+    private static final String ORPHAN = "b".repeat(64) + ".png";
+    private static final String REUPLOADED = "c".repeat(64) + ".jpg";
+
+    @Mock private S3Client s3Client;
+    @Mock private ImageObjectRepository imageObjectRepository;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private ImageGcProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private OrphanedImageCollector collector;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        MinioProperties minioProperties = new MinioProperties();
+        minioProperties.setBucket("images");
+        properties = new ImageGcProperties();
+        properties.setMaxDeletesPerSecond(0);
+        meterRegistry = new SimpleMeterRegistry();
+        collector = new OrphanedImageCollector(s3Client, imageObjectRepository, transactionTemplate,
+            minioProperties, properties, meterRegistry);
+        collector.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+
+        doAnswer(invocation -> {
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(imageObjectRepository.count()).thenReturn(1L);
+        when(imageObjectRepository.streamAllKeys()).thenAnswer(invocation -> Stream.of(LIVE));
+        when(s3Client.listObjectsV2Paginator(any(ListObjectsV2Request.class)))
+            .thenAnswer(invocation -> new ListObjectsV2Iterable(s3Client, invocation.getArgument(0)));
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class)))
+            .thenReturn(DeleteObjectsResponse.builder().build());
+    }
+
+    private static S3Object object(String key, Instant lastModified) {
+        return S3Object.builder().key(key).lastModified(lastModified).size(100L).build();
+    }
+
+    /** Serves {@code pages} in order, linked by continuation tokens. */
+    private void bucketPages(List<List<S3Object>> pages) {
+        when(s3Client.listObjectsV2(any(ListObjectsV2Request.class))).thenAnswer(invocation -> {
+            ListObjectsV2Request request = invocation.getArgument(0);
+            int page = request.continuationToken() == null ? 0 : Integer.parseInt(request.continuationToken());
+            boolean last = page == pages.size() - 1;
+            return ListObjectsV2Response.builder()
+                .contents(pages.get(page))
+                .isTruncated(!last)
+                .nextContinuationToken(last ? null : String.valueOf(page + 1))
+                .build();
+        });
+    }
+
+    private List<String> deletedKeys() {
+        ArgumentCaptor<DeleteObjectsRequest> requests = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+        verify(s3Client, atLeastOnce()).deleteObjects(requests.capture());
+        return requests.getAllValues().stream()
+            .flatMap(request -> request.delete().objects().stream())
+            .map(ObjectIdentifier::key)
+            .toList();
+    }
+
+    @Test
+    void collect_shouldDeleteOnlyOldUnreferencedContentAndStagingObjects() {
+        bucketPages(List.of(List.of(
+            object(LIVE, OLD),
+            object("variants/card/" + LIVE, OLD),
+            object(ORPHAN, OLD),
+            object("variants/thumbnail/" + ORPHAN, OLD),
+            object("d".repeat(64) + ".png", NOW.minus(Duration.ofHours(1))),
+            object("legacy-3f2a.png", OLD),
+            object("uploads/staging/7c1e", OLD),
+            object("uploads/staging/9a0b", NOW))));
+
+        long deleted = collector.collect();
+
+        assertEquals(3, deleted);
+        assertEquals(Set.of(ORPHAN, "variants/thumbnail/" + ORPHAN, "uploads/staging/7c1e"), Set.copyOf(deletedKeys()));
+        assertEquals(8, meterRegistry.get("image.gc.scanned").counter().count());
+        assertEquals(2, meterRegistry.get("image.gc.deleted").tag("kind", "image").counter().count());
+        assertEquals(1, meterRegistry.get("image.gc.deleted").tag("kind", "staging").counter().count());
+        assertEquals(300, meterRegistry.get("image.gc.reclaimed").counter().count());
+        assertEquals(1, meterRegistry.get("image.gc.duration").timer().count());
+    }
+
+    @Test
+    void collect_shouldKeepContentReferencedAgainAfterTheMark() {
+        bucketPages(List.of(List.of(object(ORPHAN, OLD), object(REUPLOADED, OLD))));
+        when(imageObjectRepository.findExistingKeys(anyCollection())).thenAnswer(invocation ->
+            invocation.<Collection<String>>getArgument(0).stream().filter(REUPLOADED::equals).toList());
+
+        collector.collect();
+
+        assertEquals(List.of(ORPHAN), deletedKeys());
+    }
+
+    @Test
+    void collect_shouldDeleteInBatchesAcrossPages() {
+        properties.setDeleteBatchSize(2);
+        String[] orphans = new String[5];
+        for (int i = 0; i < orphans.length; i++) {
+            orphans[i] = String.valueOf(i).repeat(64) + ".png";
+        }
+        bucketPages(List.of(
+            List.of(object(orphans[0], OLD), object(orphans[1], OLD), object(orphans[2], OLD)),
+            List.of(object(LIVE, OLD), object(orphans[3], OLD), object(orphans[4], OLD))));
+
+        assertEquals(5, collector.collect());
+
+        verify(s3Client, times(2)).listObjectsV2(any(ListObjectsV2Request.class));
+        verify(s3Client, times(3)).deleteObjects(argThat((DeleteObjectsRequest request) ->
+            request.delete().objects().size() <= 2));
+        assertEquals(List.of(orphans), deletedKeys());
+    }
+
+    @Test
+    void collect_shouldCountObjectsThatCouldNotBeDeleted() {
+        bucketPages(List.of(List.of(object(ORPHAN, OLD), object("variants/card/" + ORPHAN, OLD))));
+        when(s3Client.deleteObjects(any(DeleteObjectsRequest.class))).thenReturn(DeleteObjectsResponse.builder()
+            .errors(S3Error.builder().key(ORPHAN).code("AccessDenied").message("Access Denied").build())
+            .build());
+
+        assertEquals(1, collector.collect());
+        assertEquals(1, meterRegistry.get("image.gc.errors").counter().count());
+    }
+
+    @Test
+    void collect_shouldPurgeStaleUnreferencedRowsBeforeMarking() {
+        properties.setDeleteBatchSize(100);
+        bucketPages(List.of(List.of()));
+        when(imageObjectRepository.deleteUnreferencedBatch(NOW.minus(Duration.ofDays(1)), 100)).thenReturn(100, 7);
+
+        collector.collect();
+
+        verify(imageObjectRepository, times(2)).deleteUnreferencedBatch(any(Instant.class), eq(100));
+        verify(s3Client, never()).deleteObjects(any(DeleteObjectsRequest.class));
+        assertEquals(107, meterRegistry.get("image.gc.rows.purged").counter().count());
+    }
+}
@@ -0,0 +1,94 @@
+package com.workbridge.workbridge_app.moderation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.workbridge.workbridge_app.moderation.service.AhoCorasickMatcher;
+
+/**
+ * Measures the per-message cost of moderation as the word list grows.
+ * <p>
+ * The time per message should stay roughly flat across {@code termCount}, unlike a
+ * regex-per-term approach, whose cost grows linearly with the list.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.workbridge.workbridge_app.moderation.AhoCorasickMatcherBenchmark}
+ * or straight from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AhoCorasickMatcherBenchmark {
+
+    private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+    @Param({"10", "100", "1000", "10000", "100000"})
+    public int termCount;
+
+    private AhoCorasickMatcher matcher;
+    private String cleanMessage;
+    private String dirtyMessage;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> terms = new ArrayList<>(termCount);
+        for (int i = 0; i < termCount; i++) {
+            terms.add(randomWord(random, 5 + random.nextInt(6)));
+        }
+        matcher = AhoCorasickMatcher.compile(terms);
+
+        cleanMessage = "Hi! I can come by on Tuesday afternoon to look at the kitchen sink, "
+            + "the quote includes parts and labour. Let me know if 3pm works for you.";
+        dirtyMessage = cleanMessage + " " + terms.get(termCount / 2) + " " + terms.get(termCount - 1);
+    }
+
+    @Benchmark
+    public String maskCleanMessage() {
+        return matcher.mask(cleanMessage, '*', true);
+    }
+
+    @Benchmark
+    public String maskDirtyMessage() {
+        return matcher.mask(dirtyMessage, '*', true);
+    }
+
+    @Benchmark
+    public boolean rejectCheck() {
+        return matcher.containsMatch(dirtyMessage, true);
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder word = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            word.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+        return word.toString();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AhoCorasickMatcherBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.workbridge.workbridge_app.moderation;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.workbridge.workbridge_app.moderation.service.AhoCorasickMatcher;
+
+class AhoCorasickMatcherTest {
+
+    private static final char MASK = '*';
+
+    @Test
+    void mask_shouldReplaceTermsCaseInsensitively() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("scam", "Fraud"));
+
+        assertThat(matcher.mask("This is a SCAM and a fraud.", MASK, true))
+            .isEqualTo("This is a **** and a *****.");
+    }
+
+    @Test
+    void mask_shouldRespectWordBoundariesWhenRequested() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("ass"));
+
+        assertThat(matcher.mask("classic ass", MASK, true)).isEqualTo("classic ***");
+        assertThat(matcher.mask("classic", MASK, false)).isEqualTo("cl***ic");
+    }
+
+    @Test
+    void mask_shouldCoverOverlappingAndNestedTerms() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("he", "she", "hers", "his"));
+
+        assertThat(matcher.mask("ushers", MASK, false)).isEqualTo("u*****");
+        assertThat(matcher.mask("ahishers", MASK, false)).isEqualTo("a*******");
+    }
+
+    @Test
+    void mask_shouldFindShorterSuffixTermWhenLongerFailsBoundary() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("bad", "xbad"));
+
+        assertThat(matcher.mask("x bad", MASK, true)).isEqualTo("x ***");
+        assertThat(matcher.mask("axbad", MASK, true)).isEqualTo("axbad");
+    }
+
+    @Test
+    void mask_shouldReturnSameInstanceWhenNothingMatches() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("scam"));
+        String text = "perfectly fine";
+
+        assertThat(matcher.mask(text, MASK, true)).isSameAs(text);
+    }
+
+    @Test
+    void containsMatch_shouldDetectMultiWordTerms() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("pay outside"));
+
+        assertThat(matcher.containsMatch("Please PAY OUTSIDE the app", true)).isTrue();
+        assertThat(matcher.containsMatch("pay inside", true)).isFalse();
+    }
+
+    @Test
+    void compile_shouldIgnoreBlankAndDuplicateTerms() {
+        AhoCorasickMatcher matcher = AhoCorasickMatcher.compile(List.of("scam", " SCAM ", "", "  "));
+
+        assertThat(matcher.termCount()).isEqualTo(1);
+        assertThat(AhoCorasickMatcher.empty().mask("scam", MASK, false)).isEqualTo("scam");
+    }
+}
@@ -0,0 +1,152 @@
+package com.workbridge.workbridge_app.payment;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.booking.entity.Booking;
+import com.workbridge.workbridge_app.booking.entity.BookingStatus;
+import com.workbridge.workbridge_app.booking.repository.BookingRepository;
+import com.workbridge.workbridge_app.payment.entity.Payment;
+import com.workbridge.workbridge_app.payment.entity.PaymentStatus;
+import com.workbridge.workbridge_app.payment.repository.PaymentRepository;
+import com.workbridge.workbridge_app.service.entity.Service;
+import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
+
+/**
+ * Repositories for {@code PaymentService} backed by maps, with the database's guarantees:
+ * {@code @Version} checks on update, the unique index on payer and idempotency key, and the
+ * partial unique index allowing one active payment per booking. Reads return copies, like rows
+ * loaded in separate transactions. The mocks do not record invocations, so the benchmark can use
+ * them for millions of calls.
+ */
+final class InMemoryPayments {
+
+    final PaymentRepository paymentRepository = mock(PaymentRepository.class, withSettings().stubOnly());
+    final BookingRepository bookingRepository = mock(BookingRepository.class, withSettings().stubOnly());
+    final UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+    final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class, withSettings().stubOnly());
+
+    private final Map<Long, Payment> rows = new HashMap<>();
+    private final Map<String, Long> idsByKey = new HashMap<>();
+    private final Map<Long, Long> activeByBooking = new HashMap<>();
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final Map<String, ApplicationUser> users = new ConcurrentHashMap<>();
+    private long nextId = 1;
+
+    InMemoryPayments() {
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(userRepository.findByUsername(anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(users.get(invocation.<String>getArgument(0))));
+        when(bookingRepository.findById(anyLong())).thenAnswer(invocation ->
+            Optional.ofNullable(bookings.get(invocation.<Long>getArgument(0))));
+        when(paymentRepository.findById(anyLong())).thenAnswer(invocation ->
+            Optional.ofNullable(row(invocation.getArgument(0))));
+        when(paymentRepository.findByPayer_IdAndIdempotencyKey(anyLong(), anyString())).thenAnswer(invocation ->
+            Optional.ofNullable(rowByKey(invocation.getArgument(0), invocation.getArgument(1))));
+        when(paymentRepository.saveAndFlush(any(Payment.class))).thenAnswer(invocation ->
+            save(invocation.getArgument(0)));
+    }
+
+    ApplicationUser user(long id, String username) {
+        ApplicationUser user = new ApplicationUser();
+        user.setId(id);
+        user.setUsername(username);
+        users.put(username, user);
+        return user;
+    }
+
+    /** Returns the booking with this id, creating it for {@code seeker} if it does not exist yet. */
+    Booking booking(long id, ApplicationUser seeker, double price) {
+        return bookings.computeIfAbsent(id, bookingId -> {
+            Service service = new Service();
+            service.setId(bookingId);
+            service.setPrice(price);
+            Booking booking = new Booking();
+            booking.setId(bookingId);
+            booking.setSeeker(seeker);
+            booking.setService(service);
+            booking.setStatus(BookingStatus.PENDING);
+            return booking;
+        });
+    }
+
+    /** Inserts a payment as-is, as if an earlier submission or another node had written it. */
+    synchronized Payment insert(Payment payment) {
+        return save(payment);
+    }
+
+    synchronized Payment row(long id) {
+        Payment row = rows.get(id);
+        return row == null ? null : copy(row);
+    }
+
+    synchronized long count(PaymentStatus status) {
+        return rows.values().stream().filter(row -> row.getStatus() == status).count();
+    }
+
+    synchronized long size() {
+        return rows.size();
+    }
+
+    private synchronized Payment rowByKey(Long payerId, String idempotencyKey) {
+        Long id = idsByKey.get(payerId + "/" + idempotencyKey);
+        return id == null ? null : copy(rows.get(id));
+    }
+
+    private synchronized Payment save(Payment payment) {
+        Long bookingId = payment.getBooking().getId();
+        boolean active = payment.getStatus() != PaymentStatus.FAILED;
+        if (payment.getId() == null) {
+            String key = payment.getPayer().getId() + "/" + payment.getIdempotencyKey();
+            if (idsByKey.containsKey(key) || (active && activeByBooking.containsKey(bookingId))) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            payment.setId(nextId++);
+            payment.setVersion(0L);
+            idsByKey.put(key, payment.getId());
+        } else {
+            Payment current = rows.get(payment.getId());
+            if (!current.getVersion().equals(payment.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Payment.class, payment.getId());
+            }
+            payment.setVersion(payment.getVersion() + 1);
+        }
+        if (active) {
+            activeByBooking.put(bookingId, payment.getId());
+        } else {
+            activeByBooking.remove(bookingId, payment.getId());
+        }
+        rows.put(payment.getId(), copy(payment));
+        return copy(payment);
+    }
+
+    private static Payment copy(Payment source) {
+        Payment copy = new Payment();
+        copy.setId(source.getId());
+        copy.setVersion(source.getVersion());
+        copy.setAmount(source.getAmount());
+        copy.setService(source.getService());
+        copy.setPayer(source.getPayer());
+        copy.setBooking(source.getBooking());
+        copy.setIdempotencyKey(source.getIdempotencyKey());
+        copy.setGatewayReference(source.getGatewayReference());
+        copy.setFailureReason(source.getFailureReason());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        copy.setPaymentDate(source.getPaymentDate());
+        copy.setStatus(source.getStatus());
+        return copy;
+    }
+}
@@ -0,0 +1,118 @@
+package com.workbridge.workbridge_app.payment;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.workbridge.workbridge_app.config.PaymentProperties;
+import com.workbridge.workbridge_app.payment.dto.PaymentResponseDTO;
+import com.workbridge.workbridge_app.payment.entity.PaymentStatus;
+import com.workbridge.workbridge_app.payment.gateway.FakePaymentGateway;
+import com.workbridge.workbridge_app.payment.mapper.PaymentMapper;
+import com.workbridge.workbridge_app.payment.service.PaymentService;
+import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Load test for {@link PaymentService}: sustained payments per second under concurrent duplicate
+ * submissions, and proof that none of them charged a payer twice.
+ * <p>
+ * Sixteen threads submit payments for a stream of bookings; every booking is submitted
+ * {@value #DUPLICATES} times in a row under the same idempotency key, so duplicates for one booking
+ * run on different threads at the same time, as with a client retrying on timeout. The gateway is
+ * {@link FakePaymentGateway} with a {@value #GATEWAY_LATENCY_MILLIS} ms round trip and the
+ * repositories are {@link InMemoryPayments}, which enforce the version checks and unique indexes.
+ * The primary score is submissions per second; the {@code payments} counter is distinct payments
+ * per second. After the run, the benchmark fails unless the gateway received exactly one charge
+ * request per payment and every payment completed.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.workbridge.workbridge_app.payment.PaymentEngineBenchmark}
+ * or straight from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class PaymentEngineBenchmark {
+
+    static final int DUPLICATES = 4;
+    static final long GATEWAY_LATENCY_MILLIS = 2;
+
+    private final AtomicLong submissions = new AtomicLong();
+    private InMemoryPayments store;
+    private FakePaymentGateway gateway;
+    private ApplicationUser seeker;
+    private PaymentService paymentService;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Payments {
+        public long payments;
+    }
+
+    @Setup
+    public void setUp() {
+        store = new InMemoryPayments();
+        seeker = store.user(1L, "seeker");
+        gateway = new FakePaymentGateway(Duration.ofMillis(GATEWAY_LATENCY_MILLIS), new BigDecimal("10000"));
+        paymentService = new PaymentService(store.paymentRepository, store.bookingRepository,
+            store.userRepository, gateway, new PaymentMapper(), store.transactionTemplate,
+            Mockito.mock(JdbcTemplate.class), new PaymentProperties(), new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public PaymentResponseDTO pay(Payments counters) {
+        long submission = submissions.getAndIncrement();
+        long bookingId = submission / DUPLICATES;
+        if (submission % DUPLICATES == 0) {
+            counters.payments++;
+        }
+        store.booking(bookingId, seeker, 100.0);
+        return paymentService.pay("seeker", bookingId, "booking-" + bookingId);
+    }
+
+    @TearDown
+    public void verifyNoDoubleCharges() {
+        long payments = store.size();
+        long completed = store.count(PaymentStatus.COMPLETED);
+        long expected = (submissions.get() + DUPLICATES - 1) / DUPLICATES;
+        if (payments != expected || completed != payments
+            || gateway.requests() != payments || gateway.charges() != payments) {
+            throw new IllegalStateException("Double charge or lost payment after " + submissions.get()
+                + " submissions: expected " + expected
+                + " payments charged once each, got " + payments + " payments, " + completed + " completed, "
+                + gateway.requests() + " gateway requests and " + gateway.charges() + " charges");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(PaymentEngineBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
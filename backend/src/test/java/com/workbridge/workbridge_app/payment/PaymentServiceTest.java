@@ -0,0 +1,228 @@
+package com.workbridge.workbridge_app.payment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.workbridge.workbridge_app.auth.exception.UserNotAuthorizedException;
+import com.workbridge.workbridge_app.booking.entity.Booking;
+import com.workbridge.workbridge_app.config.PaymentProperties;
+import com.workbridge.workbridge_app.payment.dto.PaymentResponseDTO;
+import com.workbridge.workbridge_app.payment.entity.Payment;
+import com.workbridge.workbridge_app.payment.entity.PaymentStatus;
+import com.workbridge.workbridge_app.payment.exception.PaymentConflictException;
+import com.workbridge.workbridge_app.payment.gateway.ChargeRequest;
+import com.workbridge.workbridge_app.payment.gateway.FakePaymentGateway;
+import com.workbridge.workbridge_app.payment.gateway.PaymentGateway;
+import com.workbridge.workbridge_app.payment.gateway.PaymentGatewayException;
+import com.workbridge.workbridge_app.payment.mapper.PaymentMapper;
+import com.workbridge.workbridge_app.payment.service.PaymentService;
+import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class PaymentServiceTest {
+
+    private static final Instant NOW = Instant.parse("2025-07-20T12:00:00Z");
+
+    private InMemoryPayments store;
+    private FakePaymentGateway gateway;
+    private PaymentProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private JdbcTemplate jdbcTemplate;
+    private ApplicationUser seeker;
+    private Booking booking;
+    private PaymentService paymentService;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryPayments();
+        gateway = new FakePaymentGateway(Duration.ofMillis(200), new BigDecimal("1000"));
+        properties = new PaymentProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        jdbcTemplate = mock(JdbcTemplate.class);
+        seeker = store.user(1L, "seeker");
+        booking = store.booking(10L, seeker, 150.0);
+        paymentService = service(gateway);
+    }
+
+    private PaymentService service(PaymentGateway paymentGateway) {
+        PaymentService service = new PaymentService(store.paymentRepository, store.bookingRepository,
+            store.userRepository, paymentGateway, new PaymentMapper(), store.transactionTemplate,
+            jdbcTemplate, properties, meterRegistry);
+        service.setClock(Clock.fixed(NOW, ZoneOffset.UTC));
+        return service;
+    }
+
+    private double submissions(String outcome) {
+        return meterRegistry.get("payment.submissions").tag("outcome", outcome).counter().count();
+    }
+
+    /** A payment left by an earlier submission with key {@code k1}. */
+    private Payment existing(PaymentStatus status, LocalDateTime updatedAt) {
+        Payment payment = new Payment();
+        payment.setPayer(seeker);
+        payment.setBooking(booking);
+        payment.setAmount(150.0);
+        payment.setIdempotencyKey("k1");
+        payment.setStatus(status);
+        payment.setUpdatedAt(updatedAt);
+        return store.insert(payment);
+    }
+
+    @Test
+    void pay_shouldChargeOnceAndReplayResultForSameKey() {
+        PaymentResponseDTO first = paymentService.pay("seeker", 10L, "k1");
+        PaymentResponseDTO retry = paymentService.pay("seeker", 10L, "k1");
+
+        assertEquals("COMPLETED", first.getStatus());
+        assertEquals(150.0, first.getAmount());
+        assertEquals(first, retry);
+        assertEquals(1, gateway.requests());
+        assertEquals(1, gateway.charges());
+        assertEquals(first.getId(), booking.getPayment().getId());
+        assertEquals(1, submissions("completed"));
+        assertEquals(1, submissions("replayed"));
+    }
+
+    @Test
+    void pay_shouldResolveConcurrentDuplicatesToSingleCharge() throws Exception {
+        int submitters = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(submitters);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<PaymentResponseDTO>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < submitters; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return paymentService.pay("seeker", 10L, "k1");
+                }));
+            }
+            start.countDown();
+            Set<PaymentResponseDTO> distinct = results.stream().map(future -> {
+                try {
+                    return future.get();
+                } catch (Exception e) {
+                    throw new AssertionError(e);
+                }
+            }).collect(Collectors.toSet());
+
+            assertEquals(1, distinct.size());
+            assertEquals("COMPLETED", distinct.iterator().next().getStatus());
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, gateway.requests());
+        assertEquals(1, gateway.charges());
+        assertEquals(1, store.size());
+        assertEquals(submitters - 1, meterRegistry.get("payment.coalesced").counter().count()
+            + meterRegistry.find("payment.submissions").tag("outcome", "replayed").counters().stream()
+                .mapToDouble(counter -> counter.count()).sum());
+    }
+
+    @Test
+    void pay_shouldNotChargePaymentClaimedByAnotherSubmission() {
+        Payment processing = existing(PaymentStatus.PROCESSING, LocalDateTime.ofInstant(NOW, ZoneOffset.UTC));
+
+        PaymentResponseDTO result = paymentService.pay("seeker", 10L, "k1");
+
+        assertEquals("PROCESSING", result.getStatus());
+        assertEquals(processing.getId(), result.getId());
+        assertEquals(0, gateway.requests());
+        assertEquals(1, submissions("in_progress"));
+    }
+
+    @Test
+    void pay_shouldTakeOverStaleProcessingPaymentWithoutChargingTwice() {
+        Payment stale = existing(PaymentStatus.PROCESSING,
+            LocalDateTime.ofInstant(NOW, ZoneOffset.UTC).minus(properties.getProcessingTimeout()).minusSeconds(1));
+        String reference = gateway.charge(new ChargeRequest("payment-" + stale.getId(), new BigDecimal("150.0"), 1L))
+            .reference();
+
+        PaymentResponseDTO result = paymentService.pay("seeker", 10L, "k1");
+
+        assertEquals("COMPLETED", result.getStatus());
+        assertEquals(reference, result.getGatewayReference());
+        assertEquals(1, gateway.charges());
+    }
+
+    @Test
+    void pay_shouldRecordDeclineAndAllowNewAttemptUnderNewKey() {
+        booking.getService().setPrice(5000.0);
+
+        PaymentResponseDTO declined = paymentService.pay("seeker", 10L, "k1");
+        booking.getService().setPrice(150.0);
+        PaymentResponseDTO retried = paymentService.pay("seeker", 10L, "k1");
+        PaymentResponseDTO second = paymentService.pay("seeker", 10L, "k2");
+
+        assertEquals("FAILED", declined.getStatus());
+        assertEquals("Amount exceeds the card limit.", declined.getFailureReason());
+        assertEquals(declined, retried);
+        assertEquals("COMPLETED", second.getStatus());
+        assertEquals(1, gateway.charges());
+        assertThrows(PaymentConflictException.class, () -> paymentService.pay("seeker", 10L, "k3"));
+    }
+
+    @Test
+    void pay_shouldLeavePaymentProcessingWhenGatewayOutcomeUnknown() {
+        paymentService = service(request -> {
+            throw new PaymentGatewayException("Read timed out");
+        });
+
+        PaymentResponseDTO result = paymentService.pay("seeker", 10L, "k1");
+
+        assertEquals("PROCESSING", result.getStatus());
+        assertEquals(PaymentStatus.PROCESSING, store.row(result.getId()).getStatus());
+        assertEquals(1, submissions("unknown"));
+    }
+
+    @Test
+    void pay_shouldRejectKeyReuseForAnotherBookingAndOtherUsersBookings() {
+        store.booking(11L, seeker, 80.0);
+        store.booking(12L, store.user(2L, "other"), 80.0);
+        paymentService.pay("seeker", 10L, "k1");
+
+        PaymentConflictException reused = assertThrows(PaymentConflictException.class,
+            () -> paymentService.pay("seeker", 11L, "k1"));
+
+        assertEquals("Idempotency key was already used for another booking.", reused.getMessage());
+        assertThrows(UserNotAuthorizedException.class, () -> paymentService.pay("seeker", 12L, "k2"));
+        assertThrows(IllegalArgumentException.class, () -> paymentService.pay("seeker", 10L, " "));
+        assertEquals(1, gateway.requests());
+    }
+
+    @Test
+    void ensureSchema_shouldRebuildStatusCheckOnlyWhenStatusesDiffer() {
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class), any(), any())).thenReturn(
+            List.of("CHECK (((status)::text = ANY ((ARRAY['PENDING'::character varying, "
+                + "'COMPLETED'::character varying, 'FAILED'::character varying])::text[])))"))
+            .thenReturn(List.of("CHECK (((status)::text = ANY ((ARRAY['PENDING'::character varying, "
+                + "'PROCESSING'::character varying, 'COMPLETED'::character varying, "
+                + "'FAILED'::character varying])::text[])))"));
+
+        paymentService.ensureSchema();
+        paymentService.ensureSchema();
+
+        verify(jdbcTemplate, times(1)).execute(startsWith("ALTER TABLE payment DROP CONSTRAINT IF EXISTS payment_status_check"));
+        verify(jdbcTemplate, times(2)).execute(startsWith("CREATE UNIQUE INDEX IF NOT EXISTS ux_payment_booking_active"));
+    }
+}
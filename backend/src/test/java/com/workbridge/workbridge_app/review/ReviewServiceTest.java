@@ -14,6 +14,8 @@ import org.springframework.data.domain.*;
 import com.workbridge.workbridge_app.booking.entity.Booking;
 import com.workbridge.workbridge_app.booking.exception.BookingNotFoundException;
 import com.workbridge.workbridge_app.booking.repository.BookingRepository;
+import com.workbridge.workbridge_app.moderation.exception.ContentRejectedException;
+import com.workbridge.workbridge_app.moderation.service.ContentModerationService;
 import com.workbridge.workbridge_app.review.dto.ReviewRequestDTO;
 import com.workbridge.workbridge_app.review.dto.ReviewResponseDTO;
 import com.workbridge.workbridge_app.review.entity.Review;
@@ -38,6 +40,7 @@ class ReviewServiceTest {
     @Mock private ReviewRepository reviewRepository;
     @Mock private BookingRepository bookingRepository;
     @Mock private UserRepository userRepository;
+    @Mock private ContentModerationService contentModerationService;
 
     @InjectMocks private ReviewService reviewService;
 
@@ -49,6 +52,7 @@ class ReviewServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(contentModerationService.moderate(any())).thenAnswer(inv -> inv.getArgument(0));
 
         reviewer = new ApplicationUser();
         reviewer.setId(REVIEWER_ID);
@@ -107,6 +111,33 @@ class ReviewServiceTest {
         verify(reviewRepository).save(any(Review.class));
     }
 
+    @Test
+    void reviewProvider_shouldStoreModeratedComment() {
+        ReviewRequestDTO dto = new ReviewRequestDTO(RATING, COMMENT, BOOKING_ID, REVIEWED_ID, REVIEWER_ID);
+
+        when(contentModerationService.moderate(COMMENT)).thenReturn("******");
+        when(userRepository.findById(REVIEWER_ID)).thenReturn(Optional.of(reviewer));
+        when(userRepository.findById(REVIEWED_ID)).thenReturn(Optional.of(reviewed));
+        when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking));
+        when(reviewRepository.save(any(Review.class))).thenReturn(review);
+
+        reviewService.reviewProvider(dto);
+
+        ArgumentCaptor<Review> saved = ArgumentCaptor.forClass(Review.class);
+        verify(reviewRepository).save(saved.capture());
+        assertThat(saved.getValue().getComment()).isEqualTo("******");
+    }
+
+    @Test
+    void reviewProvider_shouldThrowBeforeLookupsIfCommentRejected() {
+        ReviewRequestDTO dto = new ReviewRequestDTO(RATING, COMMENT, BOOKING_ID, REVIEWED_ID, REVIEWER_ID);
+        when(contentModerationService.moderate(COMMENT)).thenThrow(new ContentRejectedException("rejected"));
+
+        assertThatThrownBy(() -> reviewService.reviewProvider(dto))
+            .isInstanceOf(ContentRejectedException.class);
+        verifyNoInteractions(userRepository, bookingRepository, reviewRepository);
+    }
+
     @Test
     void reviewProvider_shouldThrowIfReviewerNotFound() {
         ReviewRequestDTO dto = new ReviewRequestDTO(RATING, COMMENT, BOOKING_ID, REVIEWED_ID, REVIEWER_ID);
@@ -0,0 +1,95 @@
+package com.workbridge.workbridge_app.security;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.auth.repository.RevokedAccessTokenRepository;
+import com.workbridge.workbridge_app.config.SecurityProperties;
+
+@ExtendWith(MockitoExtension.class)
+class AccessTokenRevocationListTest {
+
+    @Mock private RevokedAccessTokenRepository repository;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private AccessTokenRevocationList revocationList;
+
+    @BeforeEach
+    void setUp() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getRevocation().setExpectedRevocations(1_000);
+        revocationList = new AccessTokenRevocationList(repository, transactionTemplate, properties);
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    void isRevoked_shouldAnswerFromBloomFilterWithoutDatabase_whenNotRevoked() {
+        when(repository.streamActiveTokenIds(any())).thenReturn(Stream.of("revoked-1", "revoked-2"));
+        revocationList.rebuild();
+
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(revocationList.isRevoked("live-" + i)).isFalse();
+        }
+
+        // A false positive or two is allowed at a 0.1% rate, each costing one exact lookup
+        verify(repository, atMost(5)).existsById(anyString());
+    }
+
+    @Test
+    void isRevoked_shouldConfirmBloomPositivesOnceAndRememberThem() {
+        when(repository.streamActiveTokenIds(any())).thenReturn(Stream.of("revoked-1"));
+        when(repository.existsById("revoked-1")).thenReturn(true);
+        revocationList.rebuild();
+
+        assertThat(revocationList.isRevoked("revoked-1")).isTrue();
+        assertThat(revocationList.isRevoked("revoked-1")).isTrue();
+
+        verify(repository, times(1)).existsById("revoked-1");
+    }
+
+    @Test
+    void revoke_shouldStoreAndTakeEffectImmediately() {
+        when(repository.streamActiveTokenIds(any())).thenReturn(Stream.empty());
+        revocationList.rebuild();
+        Instant expiresAt = Instant.now().plusSeconds(300);
+
+        revocationList.revoke("jti-1", expiresAt);
+
+        verify(repository).insertIfAbsent(eq("jti-1"), eq(expiresAt), any());
+        assertThat(revocationList.isRevoked("jti-1")).isTrue();
+        verify(repository, never()).existsById(anyString());
+    }
+
+    @Test
+    void revoke_shouldIgnoreExpiredAndLegacyTokens() {
+        revocationList.revoke("jti-1", Instant.now().minusSeconds(1));
+        revocationList.revoke(null, Instant.now().plusSeconds(300));
+
+        verifyNoInteractions(repository);
+        assertThat(revocationList.isRevoked(null)).isFalse();
+    }
+
+    @Test
+    void isRevoked_shouldFallBackToDatabase_beforeFirstBuild() {
+        when(repository.existsById("jti-1")).thenReturn(false);
+
+        assertThat(revocationList.isRevoked("jti-1")).isFalse();
+        verify(repository).existsById("jti-1");
+    }
+}
@@ -0,0 +1,128 @@
+package com.workbridge.workbridge_app.security;
+
+import java.security.Key;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.auth.repository.RevokedAccessTokenRepository;
+import com.workbridge.workbridge_app.config.SecurityProperties;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+
+/**
+ * Compares the per-request cost of access token checks before and after the single-parse
+ * {@link JwtService#verify(String)} API.
+ * <p>
+ * {@code legacyTokenChecks} reproduces the previous filter path: the key was rebuilt from the
+ * Base64 secret and a new parser created for each of the three parses ({@code extractUsername},
+ * then {@code isTokenValid}, which extracted the username and expiration again).
+ * {@code verify} is the current single parse, and {@code filter} runs the whole
+ * {@link JwtAuthenticationFilter}, which builds the principal from the claims and checks a warm
+ * {@link UserAuthStateCache} and the revocation Bloom filter instead of loading the user.
+ * <p>
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.workbridge.workbridge_app.security.JwtFilterBenchmark}
+ * or straight from the IDE.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    private String secret;
+    private String token;
+    private UserDetails user;
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+
+    @Setup
+    public void setUp() {
+        byte[] keyBytes = new byte[64];
+        new Random(42).nextBytes(keyBytes);
+        secret = Base64.getEncoder().encodeToString(keyBytes);
+
+        user = new UserPrincipal(1L, "alice", "n/a", List.of(new SimpleGrantedAuthority("ROLE_SERVICE_SEEKER")), true);
+        jwtService = new JwtService(secret, 3_600_000L);
+        token = jwtService.generateToken(user, 1L, 0L);
+
+        UserRepository userRepository = Mockito.mock(UserRepository.class);
+        Mockito.when(userRepository.findAuthStateById(1L)).thenReturn(Optional.of(new UserAuthState(0L, true)));
+        SecurityProperties securityProperties = new SecurityProperties();
+        RevokedAccessTokenRepository revokedRepository = Mockito.mock(RevokedAccessTokenRepository.class);
+        AccessTokenRevocationList revocationList = new AccessTokenRevocationList(
+            revokedRepository, Mockito.mock(TransactionTemplate.class), securityProperties);
+        revocationList.rebuild();
+        filter = new JwtAuthenticationFilter(jwtService, new UserAuthStateCache(userRepository, securityProperties),
+            revocationList);
+    }
+
+    @Benchmark
+    public boolean legacyTokenChecks() {
+        String username = legacyClaims(token).getSubject();
+        UserDetails details = user;
+        String usernameAgain = legacyClaims(token).getSubject();
+        Date expiration = legacyClaims(token).getExpiration();
+        return username != null && usernameAgain.equals(details.getUsername()) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public JwtClaims verify() {
+        return jwtService.verify(token);
+    }
+
+    @Benchmark
+    public int filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response.getStatus();
+    }
+
+    private Claims legacyClaims(String jwt) {
+        Key key = Keys.hmacShaKeyFor(Base64.getDecoder().decode(secret));
+        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(jwt).getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(JwtFilterBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
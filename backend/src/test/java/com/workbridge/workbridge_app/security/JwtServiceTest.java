@@ -0,0 +1,69 @@
+package com.workbridge.workbridge_app.security;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Base64;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+
+class JwtServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+    private static final String OTHER_SECRET = Base64.getEncoder().encodeToString("x".repeat(64).getBytes());
+
+    private UserPrincipal user;
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        user = new UserPrincipal(1L, "alice", "n/a",
+            List.of(new SimpleGrantedAuthority("ROLE_SERVICE_SEEKER")), true);
+        jwtService = new JwtService(SECRET, 60_000L);
+    }
+
+    @Test
+    void verify_shouldReturnClaimsOfIssuedToken() {
+        JwtClaims claims = jwtService.verify(jwtService.generateToken(user, 1L, 3L));
+
+        assertThat(claims.subject()).isEqualTo("alice");
+        assertThat(claims.tokenId()).isNotBlank();
+        assertThat(claims.userId()).isEqualTo(1L);
+        assertThat(claims.tokenVersion()).isEqualTo(3L);
+        assertThat(claims.roles()).containsExactly("ROLE_SERVICE_SEEKER");
+        assertThat(claims.expiresAt()).isAfter(claims.issuedAt());
+        assertThatThrownBy(() -> claims.roles().add("ROLE_ADMIN")).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void generateToken_shouldEmbedGivenOrFreshTokenId() {
+        assertThat(jwtService.verify(jwtService.generateToken(user, 1L, 3L, "jti-1")).tokenId()).isEqualTo("jti-1");
+        assertThat(jwtService.verify(jwtService.generateToken(user, 1L, 3L)).tokenId())
+            .isNotEqualTo(jwtService.verify(jwtService.generateToken(user, 1L, 3L)).tokenId());
+    }
+
+    @Test
+    void verify_shouldRejectTokenSignedWithAnotherKey() {
+        String foreignToken = new JwtService(OTHER_SECRET, 60_000L).generateToken(user, 1L, 3L);
+
+        assertThatThrownBy(() -> jwtService.verify(foreignToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void verify_shouldRejectExpiredToken() {
+        String expired = new JwtService(SECRET, -1_000L).generateToken(user, 1L, 3L);
+
+        assertThatThrownBy(() -> jwtService.verify(expired)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void verify_shouldRejectMalformedOrEmptyToken() {
+        assertThatThrownBy(() -> jwtService.verify("not-a-jwt")).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtService.verify("")).isInstanceOf(JwtException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package com.workbridge.workbridge_app.security;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.workbridge.workbridge_app.config.SecurityProperties;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
+
+@ExtendWith(MockitoExtension.class)
+class UserAuthStateCacheTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock private UserRepository userRepository;
+
+    private UserAuthStateCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new UserAuthStateCache(userRepository, new SecurityProperties());
+    }
+
+    @Test
+    void isCurrent_shouldLoadOnceAndServeLaterChecksFromMemory() {
+        when(userRepository.findAuthStateById(USER_ID)).thenReturn(Optional.of(new UserAuthState(2L, true)));
+
+        assertThat(cache.isCurrent(claims(USER_ID, 2L))).isTrue();
+        assertThat(cache.isCurrent(claims(USER_ID, 2L))).isTrue();
+
+        verify(userRepository, times(1)).findAuthStateById(USER_ID);
+    }
+
+    @Test
+    void isCurrent_shouldRejectOldVersionDisabledMissingAndLegacyTokens() {
+        when(userRepository.findAuthStateById(USER_ID)).thenReturn(Optional.of(new UserAuthState(3L, true)));
+        when(userRepository.findAuthStateById(8L)).thenReturn(Optional.of(new UserAuthState(0L, false)));
+        when(userRepository.findAuthStateById(9L)).thenReturn(Optional.empty());
+
+        assertThat(cache.isCurrent(claims(USER_ID, 2L))).isFalse();
+        assertThat(cache.isCurrent(claims(8L, 0L))).isFalse();
+        assertThat(cache.isCurrent(claims(9L, 0L))).isFalse();
+        assertThat(cache.isCurrent(claims(null, 0L))).isFalse();
+    }
+
+    @Test
+    void invalidate_shouldReloadCurrentState() {
+        when(userRepository.findAuthStateById(USER_ID))
+            .thenReturn(Optional.of(new UserAuthState(0L, true)))
+            .thenReturn(Optional.of(new UserAuthState(1L, true)));
+
+        assertThat(cache.isCurrent(claims(USER_ID, 0L))).isTrue();
+        cache.invalidate(USER_ID);
+
+        assertThat(cache.isCurrent(claims(USER_ID, 0L))).isFalse();
+        assertThat(cache.isCurrent(claims(USER_ID, 1L))).isTrue();
+    }
+
+    @Test
+    void get_shouldNotCacheStateLoadedConcurrentlyWithInvalidation() {
+        when(userRepository.findAuthStateById(USER_ID))
+            .thenAnswer(inv -> {
+                cache.invalidate(USER_ID);
+                return Optional.of(new UserAuthState(0L, true));
+            })
+            .thenReturn(Optional.of(new UserAuthState(1L, false)));
+
+        assertThat(cache.get(USER_ID).enabled()).isTrue();
+        assertThat(cache.get(USER_ID).enabled()).isFalse();
+        verify(userRepository, times(2)).findAuthStateById(USER_ID);
+    }
+
+    private static JwtClaims claims(Long userId, long tokenVersion) {
+        return new JwtClaims("alice", null, userId, tokenVersion, List.of("ROLE_SERVICE_SEEKER"), null, null);
+    }
+}
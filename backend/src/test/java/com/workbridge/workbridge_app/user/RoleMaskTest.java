@@ -0,0 +1,63 @@
+package com.workbridge.workbridge_app.user;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import com.workbridge.workbridge_app.security.JwtClaims;
+import com.workbridge.workbridge_app.security.UserPrincipal;
+import com.workbridge.workbridge_app.user.entity.ApplicationUser;
+import com.workbridge.workbridge_app.user.entity.RoleMask;
+import com.workbridge.workbridge_app.user.entity.UserRole;
+import com.workbridge.workbridge_app.user.entity.UserRoleEntity;
+
+class RoleMaskTest {
+
+    @Test
+    void authorities_shouldBeSharedPerMask() {
+        int mask = UserRole.ADMIN.mask() | UserRole.SERVICE_SEEKER.mask();
+
+        assertThat(RoleMask.authorities(mask))
+            .containsExactlyInAnyOrder(UserRole.ADMIN.authority(), UserRole.SERVICE_SEEKER.authority());
+        assertThat(RoleMask.authorities(mask)).isSameAs(RoleMask.authorities(mask));
+        assertThat(RoleMask.authorities(0)).isEmpty();
+    }
+
+    @Test
+    void fromAuthorityNames_shouldIgnoreUnknownNames() {
+        int mask = RoleMask.fromAuthorityNames(List.of("ROLE_SERVICE_PROVIDER", "ROLE_UNKNOWN", "SERVICE_SEEKER"));
+
+        assertThat(mask).isEqualTo(UserRole.SERVICE_PROVIDER.mask());
+    }
+
+    @Test
+    void user_shouldExposeRolesAsMaskAndSharedAuthorities() {
+        ApplicationUser user = ApplicationUser.builder()
+            .roles(new HashSet<>(Set.of(new UserRoleEntity(1L, UserRole.SERVICE_SEEKER))))
+            .build();
+
+        assertThat(user.isServiceSeeker()).isTrue();
+        assertThat(user.lacksRole(UserRole.ADMIN)).isTrue();
+        assertThat(user.getAuthorities()).isSameAs(RoleMask.authorities(UserRole.SERVICE_SEEKER.mask()));
+
+        user.addRole(new UserRoleEntity(2L, UserRole.ADMIN));
+        assertThat(user.isAdmin()).isTrue();
+    }
+
+    @Test
+    void principal_shouldResolveRolesFromClaims() {
+        UserPrincipal principal = UserPrincipal.fromClaims(new JwtClaims(
+            "alice", "jti", 1L, 0L, List.of("ROLE_ADMIN"), null, null));
+
+        assertThat(principal.hasRole(UserRole.ADMIN)).isTrue();
+        assertThat(principal.hasRole(UserRole.SERVICE_SEEKER)).isFalse();
+        assertThat(principal.getAuthorities()).isSameAs(RoleMask.authorities(UserRole.ADMIN.mask()));
+        assertThat(new UserPrincipal(1L, "alice", null, List.of(new SimpleGrantedAuthority("ROLE_ADMIN")), true)
+            .getRoleMask()).isEqualTo(UserRole.ADMIN.mask());
+    }
+}
@@ -0,0 +1,93 @@
+package com.workbridge.workbridge_app.user;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.workbridge.workbridge_app.config.UserIdentifierProperties;
+import com.workbridge.workbridge_app.user.repository.UserRepository;
+import com.workbridge.workbridge_app.user.service.UserIdentifierFilter;
+
+@ExtendWith(MockitoExtension.class)
+class UserIdentifierFilterTest {
+
+    @Mock private UserRepository userRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private TransactionTemplate transactionTemplate;
+
+    private UserIdentifierFilter identifierFilter;
+
+    @BeforeEach
+    void setUp() {
+        UserIdentifierProperties properties = new UserIdentifierProperties();
+        properties.setExpectedUsers(1_000);
+        identifierFilter = new UserIdentifierFilter(userRepository, jdbcTemplate, transactionTemplate, properties);
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    private void build(Stream<String> usernames, Stream<String> emails) {
+        when(userRepository.count()).thenReturn(2L);
+        when(userRepository.streamAllUsernames()).thenReturn(usernames);
+        when(userRepository.streamAllEmails()).thenReturn(emails);
+        identifierFilter.rebuild();
+    }
+
+    @Test
+    void shouldAnswerFreeIdentifiersWithoutDatabase() {
+        build(Stream.of("alice", "bob"), Stream.of("alice@x.com", "bob@x.com"));
+
+        for (int i = 0; i < 500; i++) {
+            assertThat(identifierFilter.isUsernameTaken("free-" + i)).isFalse();
+            assertThat(identifierFilter.isEmailTaken("free-" + i + "@x.com")).isFalse();
+        }
+
+        // 1% false positives over 1000 probes; each one costs a single exact lookup
+        verify(userRepository, atMost(30)).existsByUsername(anyString());
+        verify(userRepository, atMost(30)).existsByEmail(anyString());
+    }
+
+    @Test
+    void shouldConfirmPossiblyTakenIdentifiersAgainstDatabase() {
+        build(Stream.of("alice"), Stream.of("alice@x.com"));
+        when(userRepository.existsByUsername("alice")).thenReturn(true);
+        when(userRepository.existsByEmail("alice@x.com")).thenReturn(false);
+
+        assertThat(identifierFilter.isUsernameTaken("alice")).isTrue();
+        // e.g. a deleted user still in the filter
+        assertThat(identifierFilter.isEmailTaken("alice@x.com")).isFalse();
+    }
+
+    @Test
+    void add_shouldMakeNewIdentifiersVisibleImmediately() {
+        build(Stream.empty(), Stream.empty());
+
+        identifierFilter.add("carol", "carol@x.com");
+        identifierFilter.isUsernameTaken("carol");
+        identifierFilter.isEmailTaken("carol@x.com");
+
+        verify(userRepository).existsByUsername("carol");
+        verify(userRepository).existsByEmail("carol@x.com");
+    }
+
+    @Test
+    void shouldFallBackToDatabaseBeforeFirstBuild() {
+        identifierFilter.isUsernameTaken("alice");
+
+        verify(userRepository).existsByUsername("alice");
+    }
+}
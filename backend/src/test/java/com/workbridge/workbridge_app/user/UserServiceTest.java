@@ -3,8 +3,11 @@ package com.workbridge.workbridge_app.user;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.*;
 import org.mockito.*;
@@ -12,6 +15,7 @@ import org.springframework.data.domain.*;
 
 import com.workbridge.workbridge_app.booking.repository.BookingRepository;
 import com.workbridge.workbridge_app.review.repository.ReviewRepository;
+import com.workbridge.workbridge_app.security.UserAuthStateCache;
 import com.workbridge.workbridge_app.service.repository.ServiceRepository;
 import com.workbridge.workbridge_app.user.dto.ProviderRequestDTO;
 import com.workbridge.workbridge_app.user.dto.UpdateUserProfileDTO;
@@ -21,17 +25,21 @@ import com.workbridge.workbridge_app.user.exception.ProviderRequestNotFoundExcep
 import com.workbridge.workbridge_app.user.exception.UserNotFoundException;
 import com.workbridge.workbridge_app.user.mapper.UserMapper;
 import com.workbridge.workbridge_app.user.repository.*;
+import com.workbridge.workbridge_app.user.service.RoleRegistry;
+import com.workbridge.workbridge_app.user.service.UserIdentifierFilter;
 import com.workbridge.workbridge_app.user.service.UserService;
 
 class UserServiceTest {
 
     @Mock private UserRepository userRepository;
-    @Mock private UserRoleRepository userRoleRepository;
+    @Spy private RoleRegistry roleRegistry = new RoleRegistry();
     @Mock private ProviderRequestRepository providerRequestRepository;
     @Mock private ReviewRepository reviewRepository;
     @Mock private BookingRepository bookingRepository;
     @Mock private ServiceRepository serviceRepository;
     @Mock private UserMapper userMapper;
+    @Mock private UserAuthStateCache userAuthStateCache;
+    @Mock private UserIdentifierFilter userIdentifierFilter;
 
     @InjectMocks private UserService userService;
 
@@ -49,6 +57,7 @@ class UserServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        roleRegistry.register(List.of(new UserRoleEntity(2L, UserRole.SERVICE_PROVIDER)));
 
         user = new ApplicationUser();
         user.setId(USER_ID);
@@ -91,27 +100,42 @@ class UserServiceTest {
     }
 
     @Test
-    void getAllNonAdminUsers_shouldReturnList() {
-        List<ApplicationUser> nonAdminUsers = List.of(user);
-        when(userRepository.findAllNonAdminUsers()).thenReturn(nonAdminUsers);
+    void streamAllUsers_shouldPushMappedUsersToSink() {
+        when(userRepository.streamAll()).thenReturn(Stream.of(user));
         when(userMapper.toDTO(user)).thenReturn(userResponseDTO);
+        List<UserResponseDTO> result = new ArrayList<>();
 
-        List<UserResponseDTO> result = userService.getAllNonAdminUsers();
+        userService.streamAllUsers(result::add);
+
+        assertThat(result).containsExactly(userResponseDTO);
+        verify(userRepository).streamAll();
+    }
+
+    @Test
+    void streamAllNonAdminUsers_shouldExcludeAdmins() {
+        when(userRepository.streamAllExcludingRole(UserRole.ADMIN)).thenReturn(Stream.of(user));
+        when(userMapper.toDTO(user)).thenReturn(userResponseDTO);
+        List<UserResponseDTO> result = new ArrayList<>();
+
+        userService.streamAllNonAdminUsers(result::add);
 
         assertThat(result).hasSize(1);
         assertThat(result.get(0).getUsername()).isEqualTo(USERNAME);
-        verify(userRepository).findAllNonAdminUsers();
+        verify(userRepository).streamAllExcludingRole(UserRole.ADMIN);
     }
 
     @Test
-    void getUsersByRole_shouldReturnList() {
-        when(userRepository.findAllByRole(UserRole.SERVICE_SEEKER)).thenReturn(List.of(user));
+    void streamUsersByRole_shouldCloseStreamWhenDone() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(userRepository.streamAllByRole(UserRole.SERVICE_SEEKER))
+            .thenReturn(Stream.of(user).onClose(() -> closed.set(true)));
         when(userMapper.toDTO(user)).thenReturn(userResponseDTO);
+        List<UserResponseDTO> result = new ArrayList<>();
 
-        List<UserResponseDTO> result = userService.getUsersByRole(UserRole.SERVICE_SEEKER);
+        userService.streamUsersByRole(UserRole.SERVICE_SEEKER, result::add);
 
         assertThat(result).hasSize(1);
-        verify(userRepository).findAllByRole(UserRole.SERVICE_SEEKER);
+        assertThat(closed).isTrue();
     }
 
     @Test
@@ -166,6 +190,7 @@ class UserServiceTest {
             verify(bookingRepository).softDeleteBySeeker(USER_ID, 999L);
             verify(serviceRepository).softDeleteByProvider(USER_ID, 999L);
             verify(userRepository).save(user);
+            verify(userAuthStateCache).invalidate(USER_ID);
         }
     }
 
@@ -204,13 +229,13 @@ class UserServiceTest {
     @Test
     void approveProviderRequest_shouldApproveAndSave() {
         when(providerRequestRepository.findById(PROVIDER_REQUEST_ID)).thenReturn(Optional.of(providerRequest));
-        when(userRoleRepository.findByRole(UserRole.SERVICE_PROVIDER)).thenReturn(Optional.of(new UserRoleEntity(UserRole.SERVICE_PROVIDER)));
         when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
         when(providerRequestRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         userService.approveProviderRequest(PROVIDER_REQUEST_ID);
 
         assertThat(providerRequest.isApproved()).isTrue();
+        assertThat(user.getTokenVersion()).isEqualTo(1L);
         verify(userRepository).save(user);
         verify(providerRequestRepository).save(providerRequest);
     }
@@ -293,10 +318,14 @@ class UserServiceTest {
         when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
         when(userRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
+        long versionBefore = user.getTokenVersion();
+
         boolean changed = userService.disableAccount(EMAIL);
 
         assertThat(changed).isTrue();
         assertThat(user.isEnabled()).isFalse();
+        assertThat(user.getTokenVersion()).isEqualTo(versionBefore + 1);
+        verify(userAuthStateCache).invalidate(user.getId());
     }
 
     @Test